@@ -47,8 +47,21 @@ import java.lang.reflect.InvocationTargetException;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.SocketException;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Client side of a binary connection.
+ *
+ * <p>When {@link OGlobalConfiguration#NETWORK_BINARY_MULTIPLEXING} is enabled the connection is
+ * shared by many threads: each of them writes its request under the write lock and then waits for
+ * the response tagged with the id of its session. The thread that reads the header of a response
+ * belonging to another session parks it and wakes up the waiting threads, so responses can be
+ * consumed in any order. Requests without a session (open, connect) are sent one at a time,
+ * because they can't be told apart by their responses.
+ */
 public class OChannelBinaryAsynchClient extends OChannelBinary {
   private int socketTimeout; // IN MS
   protected final short srvProtocolVersion;
@@ -59,6 +72,14 @@ public class OChannelBinaryAsynchClient extends OChannelBinary {
   private volatile long lastUse;
   private volatile boolean inUse;
 
+  private final boolean multiplexed;
+  private final int waitResponseTimeout;
+  private final Object responseMonitor = new Object();
+  private final ReentrantLock sessionlessRequestLock = new ReentrantLock();
+  private boolean responseReading;
+  // STATUS OF THE RESPONSES WHOSE HEADER WAS READ BY ANOTHER THREAD, BY SESSION ID
+  private final Map<Integer, Byte> parkedResponses = new HashMap<>();
+
   public OChannelBinaryAsynchClient(
       final String remoteHost,
       final int remotePort,
@@ -67,6 +88,8 @@ public class OChannelBinaryAsynchClient extends OChannelBinary {
       final int iProtocolVersion)
       throws IOException {
     super(OSocketFactory.instance(iConfig).createSocket(), iConfig);
+    multiplexed = iConfig.getValueAsBoolean(OGlobalConfiguration.NETWORK_BINARY_MULTIPLEXING);
+    waitResponseTimeout = iConfig.getValueAsInteger(OGlobalConfiguration.NETWORK_REQUEST_TIMEOUT);
     try {
 
       serverURL = remoteHost + ":" + remotePort;
@@ -100,6 +123,9 @@ public class OChannelBinaryAsynchClient extends OChannelBinary {
         writeString(OConstants.getVersion());
         writeByte(OChannelBinaryProtocol.ENCODING_DEFAULT);
         writeByte(OChannelBinaryProtocol.ERROR_MESSAGE_JAVA);
+        if (multiplexed) {
+          writeByte(OChannelBinaryProtocol.REQUEST_MULTIPLEX);
+        }
         flush();
       } catch (IOException e) {
         throw new ONetworkProtocolException(
@@ -171,6 +197,14 @@ public class OChannelBinaryAsynchClient extends OChannelBinary {
 
   public byte[] beginResponse(final int iRequesterId, final long iTimeout, final boolean token)
       throws IOException {
+    if (multiplexed) {
+      final byte status = waitResponse(iRequesterId);
+      final byte[] tokenBytes = token ? readBytes() : null;
+      readByte();
+      handleStatus(status, iRequesterId);
+      return tokenBytes;
+    }
+
     try {
       // WAIT FOR THE RESPONSE
       if (iTimeout <= 0) acquireReadLock();
@@ -218,7 +252,95 @@ public class OChannelBinaryAsynchClient extends OChannelBinary {
     return null;
   }
 
+  /**
+   * Waits until the header of the response of the session has been read, reading the headers of
+   * the responses on behalf of the other sessions when nobody else is doing it. On return the
+   * current thread owns the input stream until {@link #endResponse()}.
+   *
+   * @return the status of the response
+   */
+  private byte waitResponse(final int iRequesterId) throws IOException {
+    final long deadline =
+        waitResponseTimeout > 0 ? System.currentTimeMillis() + waitResponseTimeout : 0;
+    synchronized (responseMonitor) {
+      while (true) {
+        if (!isConnected()) throw new IOException("Channel is closed");
+
+        final Byte parkedStatus = parkedResponses.remove(iRequesterId);
+        if (parkedStatus != null) {
+          responseReading = true;
+          return parkedStatus;
+        }
+
+        // THE BODY OF A PARKED RESPONSE HAS TO BE CONSUMED BEFORE THE NEXT HEADER CAN BE READ
+        if (parkedResponses.isEmpty() && !responseReading) {
+          final byte status;
+          final int sessionId;
+          try {
+            setWaitResponseTimeout();
+            status = readByte();
+            sessionId = readInt();
+          } catch (IOException | RuntimeException e) {
+            responseMonitor.notifyAll();
+            throw e;
+          } finally {
+            setReadResponseTimeout();
+          }
+
+          if (sessionId == iRequesterId) {
+            responseReading = true;
+            return status;
+          }
+
+          if (debug)
+            OLogManager.instance()
+                .debug(
+                    this,
+                    "%s - Session %d parks response of session %d",
+                    socket.getLocalAddress(),
+                    iRequesterId,
+                    sessionId);
+          parkedResponses.put(sessionId, status);
+          responseMonitor.notifyAll();
+        }
+
+        long wait = 0;
+        if (deadline > 0) {
+          wait = deadline - System.currentTimeMillis();
+          if (wait <= 0) {
+            // THE RESPONSE OF THE SESSION CAN STILL ARRIVE, AND ITS BODY CAN'T BE SKIPPED WITHOUT
+            // KNOWING THE REQUEST: THE STREAM CAN'T BE USED ANYMORE, SO THE OTHER WAITERS ARE
+            // RELEASED BY CLOSING IT INSTEAD OF WAITING FOREVER BEHIND THE DROPPED RESPONSE
+            parkedResponses.remove(iRequesterId);
+            close();
+            throw new IOException(
+                "Timeout on waiting the response for session " + iRequesterId + " on " + serverURL);
+          }
+        }
+        try {
+          responseMonitor.wait(wait);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          parkedResponses.remove(iRequesterId);
+          close();
+          throw new IOException("Interrupted while waiting the response for " + iRequesterId, e);
+        }
+      }
+    }
+  }
+
   public void endResponse() throws IOException {
+    if (multiplexed) {
+      synchronized (responseMonitor) {
+        responseReading = false;
+        responseMonitor.notifyAll();
+      }
+      if (sessionlessRequestLock.isHeldByCurrentThread()) {
+        sessionlessRequestLock.unlock();
+      }
+      return;
+    }
+
     // WAKE UP ALL THE WAITING THREADS
     try {
       releaseReadLock();
@@ -241,6 +363,12 @@ public class OChannelBinaryAsynchClient extends OChannelBinary {
     } catch (Exception e) {
       // IGNORE IT
     }
+    if (multiplexed) {
+      synchronized (responseMonitor) {
+        parkedResponses.clear();
+        responseMonitor.notifyAll();
+      }
+    }
   }
 
   @Override
@@ -277,9 +405,22 @@ public class OChannelBinaryAsynchClient extends OChannelBinary {
   }
 
   public boolean tryLock() {
+    if (multiplexed) {
+      // THE CHANNEL IS SHARED: WAIT FOR THE OTHER WRITERS
+      try {
+        return getLockWrite().getUnderlying().tryLock(socketTimeout, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
     return getLockWrite().tryAcquireLock();
   }
 
+  public boolean isMultiplexed() {
+    return multiplexed;
+  }
+
   public void unlock() {
     getLockWrite().unlock();
   }
@@ -395,6 +536,12 @@ public class OChannelBinaryAsynchClient extends OChannelBinary {
     if (nodeSession == null)
       throw new OIOException("Invalid session for URL '" + getServerURL() + "'");
 
+    if (multiplexed
+        && nodeSession.getSessionId() < 0
+        && !sessionlessRequestLock.isHeldByCurrentThread()) {
+      // RELEASED ON END RESPONSE
+      sessionlessRequestLock.lock();
+    }
     writeByte(iCommand);
     writeInt(nodeSession.getSessionId());
     writeBytes(nodeSession.getToken());
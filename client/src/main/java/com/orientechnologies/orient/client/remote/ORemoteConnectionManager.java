@@ -83,8 +83,31 @@ public class ORemoteConnectionManager {
     }
   }
 
+  /**
+   * Acquires a connection to the server. With {@link
+   * OGlobalConfiguration#NETWORK_BINARY_MULTIPLEXING} enabled the connection is shared with the
+   * other threads, otherwise it's used exclusively until released.
+   */
   public OChannelBinaryAsynchClient acquire(
       String iServerURL, final OContextConfiguration clientConfiguration) {
+    return acquire(
+        iServerURL,
+        clientConfiguration,
+        !clientConfiguration.getValueAsBoolean(OGlobalConfiguration.NETWORK_BINARY_MULTIPLEXING));
+  }
+
+  /**
+   * Acquires a connection used only by the caller until released, also when multiplexing is
+   * enabled. Needed by the users that read from the connection without sending requests, like the
+   * push thread.
+   */
+  public OChannelBinaryAsynchClient acquireExclusive(
+      String iServerURL, final OContextConfiguration clientConfiguration) {
+    return acquire(iServerURL, clientConfiguration, true);
+  }
+
+  private OChannelBinaryAsynchClient acquire(
+      String iServerURL, OContextConfiguration clientConfiguration, final boolean exclusive) {
     if (iServerURL.startsWith(OEngineRemote.PREFIX))
       iServerURL = iServerURL.substring(OEngineRemote.PREFIX.length());
 
@@ -115,6 +138,13 @@ public class ORemoteConnectionManager {
       }
     }
 
+    if (!exclusive) return pool.acquireShared(iServerURL, clientConfiguration);
+
+    if (clientConfiguration.getValueAsBoolean(OGlobalConfiguration.NETWORK_BINARY_MULTIPLEXING)) {
+      clientConfiguration = new OContextConfiguration(clientConfiguration);
+      clientConfiguration.setValue(OGlobalConfiguration.NETWORK_BINARY_MULTIPLEXING, false);
+    }
+
     try {
       // RETURN THE RESOURCE
       OChannelBinaryAsynchClient ret = pool.acquire(iServerURL, localTimeout, clientConfiguration);
@@ -137,6 +167,11 @@ public class ORemoteConnectionManager {
 
     conn.markReturned();
     final ORemoteConnectionPool pool = connections.get(conn.getServerURL());
+    if (conn.isMultiplexed()) {
+      // SHARED CONNECTION: NOTHING TO RETURN
+      if (!conn.isConnected()) remove(conn);
+      return;
+    }
     if (pool != null) {
       if (!conn.isConnected()) {
         OLogManager.instance()
@@ -158,10 +193,11 @@ public class ORemoteConnectionManager {
       throw new IllegalStateException(
           "Connection cannot be released because the pool doesn't exist anymore");
 
-    pool.getPool().remove(conn);
+    if (conn.isMultiplexed()) pool.removeShared(conn);
+    else pool.getPool().remove(conn);
 
     try {
-      conn.unlock();
+      if (!conn.isMultiplexed() || conn.getLockWrite().isHeldByCurrentThread()) conn.unlock();
     } catch (Exception e) {
       OLogManager.instance().debug(this, "Cannot unlock connection lock", e);
     }
@@ -222,6 +258,11 @@ public class ORemoteConnectionManager {
       } catch (Exception e) {
         OLogManager.instance().debug(this, "Cannot close binary channel", e);
       }
+    final OChannelBinaryAsynchClient shared = pool.getShared();
+    if (shared != null) {
+      pool.removeShared(shared);
+      shared.close();
+    }
     pool.getPool().close();
   }
 
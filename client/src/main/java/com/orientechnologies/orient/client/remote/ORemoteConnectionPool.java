@@ -14,6 +14,7 @@ public class ORemoteConnectionPool
     implements OResourcePoolListener<String, OChannelBinaryAsynchClient> {
 
   private OResourcePool<String, OChannelBinaryAsynchClient> pool;
+  private volatile OChannelBinaryAsynchClient shared;
 
   public ORemoteConnectionPool(int iMaxResources) {
     pool = new OResourcePool<>(iMaxResources, this);
@@ -98,6 +99,30 @@ public class ORemoteConnectionPool
     return pool.getResource(iServerURL, timeout, clientConfiguration);
   }
 
+  /**
+   * Returns the connection shared by all the multiplexed requests to the server, opening a new one
+   * if there is none or the previous one has been closed.
+   */
+  public synchronized OChannelBinaryAsynchClient acquireShared(
+      final String iServerURL, final OContextConfiguration clientConfiguration) {
+    OChannelBinaryAsynchClient channel = shared;
+    if (channel == null || !channel.isConnected()) {
+      if (channel != null) channel.close();
+      channel = createNetworkConnection(iServerURL, clientConfiguration);
+      shared = channel;
+    }
+    channel.markInUse();
+    return channel;
+  }
+
+  public synchronized void removeShared(final OChannelBinaryAsynchClient channel) {
+    if (shared == channel) shared = null;
+  }
+
+  public OChannelBinaryAsynchClient getShared() {
+    return shared;
+  }
+
   public void checkIdle(long timeout) {
     for (OChannelBinaryAsynchClient resource : pool.getResources()) {
       if (!resource.isInUse() && resource.getLastUse() + timeout < System.currentTimeMillis()) {
@@ -16,6 +16,11 @@ public interface ORemotePushHandler {
 
   OChannelBinary getNetwork(String host);
 
+  /** Returns a connection used only for receiving the push messages of the server. */
+  default OChannelBinary getPushNetwork(String host) {
+    return getNetwork(host);
+  }
+
   OBinaryPushRequest createPush(byte push);
 
   OBinaryPushResponse executeUpdateDistributedConfig(OPushDistributedConfigurationRequest request);
@@ -142,9 +142,12 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy, O
   private final ExecutorService asynchExecutor;
   private final ODocument clusterConfiguration = new ODocument();
   private final AtomicInteger users = new AtomicInteger(0);
+  /** Result sets whose prefetched page is pending, each of them keeps a channel reserved */
+  private final AtomicInteger prefetches = new AtomicInteger(0);
   private OContextConfiguration clientConfiguration;
   private int connectionRetry;
   private int connectionRetryDelay;
+  private int maxPrefetches;
   private OCluster[] clusters = OCommonConst.EMPTY_CLUSTER_ARRAY;
   private int defaultClusterId;
   public ORemoteConnectionManager connectionManager;
@@ -189,6 +192,9 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy, O
         clientConfiguration.getValueAsInteger(OGlobalConfiguration.NETWORK_SOCKET_RETRY);
     connectionRetryDelay =
         clientConfiguration.getValueAsInteger(OGlobalConfiguration.NETWORK_SOCKET_RETRY_DELAY);
+    maxPrefetches =
+        clientConfiguration.getValueAsInteger(
+            OGlobalConfiguration.QUERY_REMOTE_RESULTSET_MAX_PREFETCHES);
     parseServerURLs();
 
     asynchExecutor = new OScheduledThreadPoolExecutorWithLogging(1);
@@ -1250,13 +1256,15 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy, O
   }
 
   public void fetchNextPage(ODatabaseDocumentRemote database, ORemoteResultSet rs) {
-    int recordsPerPage = OGlobalConfiguration.QUERY_REMOTE_RESULTSET_PAGE_SIZE.getValueAsInteger();
-    if (recordsPerPage <= 0) {
-      recordsPerPage = 100;
+    OQueryResponse response;
+    if (rs.getPrefetchChannel() != null) {
+      response = readPrefetchedPage(rs);
+    } else {
+      OQueryNextPageRequest request =
+          new OQueryNextPageRequest(rs.getQueryId(), rs.getPageSize());
+      response =
+          networkOperation(request, "Error on fetching next page for statment: " + rs.getQueryId());
     }
-    OQueryNextPageRequest request = new OQueryNextPageRequest(rs.getQueryId(), recordsPerPage);
-    OQueryResponse response =
-        networkOperation(request, "Error on fetching next page for statment: " + rs.getQueryId());
 
     rs.fetched(
         response.getResult(),
@@ -1269,6 +1277,73 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy, O
     }
   }
 
+  /**
+   * Sends the request of the next page of a result set without waiting for the response, so that
+   * the server can prepare the page while the client consumes the current one. The channel stays
+   * reserved to the result set until the response is read by {@link #fetchNextPage}, so at most
+   * {@link OGlobalConfiguration#QUERY_REMOTE_RESULTSET_MAX_PREFETCHES} result sets prefetch at the
+   * same time, the others fetch their pages on demand.
+   */
+  public void prefetchNextPage(ODatabaseDocumentRemote database, ORemoteResultSet rs) {
+    if (clientConfiguration.getValueAsBoolean(OGlobalConfiguration.NETWORK_BINARY_MULTIPLEXING)) {
+      // ON A SHARED CONNECTION THE RESPONSE COULD BE TAKEN BY ANOTHER REQUEST OF THE SAME SESSION
+      return;
+    }
+    if (prefetches.incrementAndGet() > maxPrefetches) {
+      prefetches.decrementAndGet();
+      return;
+    }
+    OQueryNextPageRequest request = new OQueryNextPageRequest(rs.getQueryId(), rs.getPageSize());
+    OChannelBinaryAsynchClient network;
+    try {
+      network =
+          baseNetworkOperation(
+              (channel, session) -> {
+                try {
+                  try {
+                    channel.beginRequest(request.getCommand(), session);
+                    request.write(channel, session);
+                  } finally {
+                    channel.endRequest();
+                  }
+                } catch (IOException e) {
+                  throw new ONotSendRequestException("Cannot send request on this channel");
+                }
+                return channel;
+              },
+              "Error on fetching next page for statment: " + rs.getQueryId(),
+              connectionRetry);
+    } catch (RuntimeException e) {
+      prefetches.decrementAndGet();
+      throw e;
+    }
+    rs.prefetched(network, request);
+  }
+
+  private OQueryResponse readPrefetchedPage(ORemoteResultSet rs) {
+    OChannelBinaryAsynchClient network = rs.getPrefetchChannel();
+    OQueryResponse response = rs.getPrefetchRequest().createResponse();
+    rs.prefetched(null, null);
+    prefetches.decrementAndGet();
+    try {
+      try {
+        beginResponse(network, getCurrentSession());
+        response.read(network, getCurrentSession());
+      } finally {
+        endResponse(network);
+      }
+    } catch (IOException e) {
+      connectionManager.remove(network);
+      throw OException.wrapException(
+          new OIOException("Error on fetching next page for statment: " + rs.getQueryId()), e);
+    } catch (RuntimeException e) {
+      connectionManager.release(network);
+      throw e;
+    }
+    connectionManager.release(network);
+    return response;
+  }
+
   public List<ORecordOperation> commit(final OTransactionInternal iTx) {
     unstickToSession();
     OCommit38Request request =
@@ -2166,10 +2241,17 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy, O
   }
 
   public OChannelBinaryAsynchClient getNetwork(final String iCurrentURL) {
+    return getNetwork(iCurrentURL, false);
+  }
+
+  private OChannelBinaryAsynchClient getNetwork(final String iCurrentURL, boolean exclusive) {
     OChannelBinaryAsynchClient network;
     do {
       try {
-        network = connectionManager.acquire(iCurrentURL, clientConfiguration);
+        network =
+            exclusive
+                ? connectionManager.acquireExclusive(iCurrentURL, clientConfiguration)
+                : connectionManager.acquire(iCurrentURL, clientConfiguration);
       } catch (OIOException cause) {
         throw cause;
       } catch (Exception cause) {
@@ -2591,6 +2673,11 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy, O
     OUnlockRecordResponse realResponse = (OUnlockRecordResponse) response.getResponse();
   }
 
+  @Override
+  public OChannelBinaryAsynchClient getPushNetwork(final String host) {
+    return getNetwork(host, true);
+  }
+
   @Override
   public void returnSocket(OChannelBinary network) {
     this.connectionManager.remove((OChannelBinaryAsynchClient) network);
@@ -31,7 +31,7 @@ public class OStorageRemotePushThread extends Thread {
     setDaemon(true);
     this.pushHandler = storage;
     this.host = host;
-    network = storage.getNetwork(this.host);
+    network = storage.getPushNetwork(this.host);
     this.retryDelay = retryDelay;
     this.requestTimeout = requestTimeout;
   }
@@ -93,7 +93,7 @@ public class OStorageRemotePushThread extends Thread {
           if (!currentThread().isInterrupted()) {
             try {
               synchronized (this) {
-                network = pushHandler.getNetwork(this.host);
+                network = pushHandler.getPushNetwork(this.host);
               }
               pushHandler.onPushReconnect(this.host);
               break;
@@ -1,5 +1,7 @@
 package com.orientechnologies.orient.client.remote.message;
 
+import com.orientechnologies.orient.client.binary.OChannelBinaryAsynchClient;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocumentRemote;
 import com.orientechnologies.orient.core.record.ORecord;
 import com.orientechnologies.orient.core.sql.executor.OExecutionPlan;
@@ -10,7 +12,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
-/** Created by luigidellaquila on 05/12/16. */
+/**
+ * Created by luigidellaquila on 05/12/16.
+ *
+ * <p>Outside of transactions, the next page is requested as soon as the client starts consuming
+ * the current one, so that the server prepares and sends it in the meantime. The size of the
+ * pages grows when the client has to wait for them.
+ */
 public class ORemoteResultSet implements OResultSet {
 
   private final ODatabaseDocumentRemote db;
@@ -20,6 +28,13 @@ public class ORemoteResultSet implements OResultSet {
   private Map<String, Long> queryStats;
   private boolean hasNextPage;
 
+  private int pageSize;
+  private final int maxPageSize;
+  private final boolean prefetch;
+  private long pageReceivedAt = System.nanoTime();
+  private OChannelBinaryAsynchClient prefetchChannel;
+  private OQueryNextPageRequest prefetchRequest;
+
   public ORemoteResultSet(
       ODatabaseDocumentRemote db,
       String queryId,
@@ -33,6 +48,14 @@ public class ORemoteResultSet implements OResultSet {
     this.executionPlan = executionPlan;
     this.queryStats = queryStats;
     this.hasNextPage = hasNextPage;
+    this.pageSize = OGlobalConfiguration.QUERY_REMOTE_RESULTSET_PAGE_SIZE.getValueAsInteger();
+    if (pageSize <= 0) {
+      pageSize = 100;
+    }
+    this.maxPageSize =
+        Math.max(
+            pageSize, OGlobalConfiguration.QUERY_REMOTE_RESULTSET_MAX_PAGE_SIZE.getValueAsInteger());
+    this.prefetch = OGlobalConfiguration.QUERY_REMOTE_RESULTSET_PREFETCH.getValueAsBoolean();
     if (db != null) {
       db.queryStarted(queryId, this);
       for (OResultInternal result : currentPage) {
@@ -55,7 +78,35 @@ public class ORemoteResultSet implements OResultSet {
 
   private void fetchNextPage() {
     if (db != null) {
+      long consumed = System.nanoTime() - pageReceivedAt;
+      long start = System.nanoTime();
       db.fetchNextPage(this);
+      pageReceivedAt = System.nanoTime();
+      adaptPageSize(consumed, pageReceivedAt - start);
+    }
+  }
+
+  /**
+   * Doubles the size of the next pages when the client waited for the last page more than a
+   * quarter of the time it took to consume the previous one, halves it when the waiting time was
+   * negligible.
+   */
+  private void adaptPageSize(long consumeNanos, long waitNanos) {
+    if (waitNanos * 4 > consumeNanos) {
+      pageSize = Math.min(pageSize * 2, maxPageSize);
+    } else if (waitNanos * 100 < consumeNanos) {
+      int initialSize = OGlobalConfiguration.QUERY_REMOTE_RESULTSET_PAGE_SIZE.getValueAsInteger();
+      pageSize = Math.max(pageSize / 2, Math.max(initialSize, 1));
+    }
+  }
+
+  private void prefetchNextPage() {
+    if (prefetch
+        && hasNextPage
+        && prefetchChannel == null
+        && db != null
+        && !db.getTransaction().isActive()) {
+      db.prefetchNextPage(this);
     }
   }
 
@@ -71,6 +122,7 @@ public class ORemoteResultSet implements OResultSet {
       throw new IllegalStateException();
     }
     OResultInternal internal = currentPage.remove(0);
+    prefetchNextPage();
 
     if (internal.isRecord() && db != null && db.getTransaction().isActive()) {
       ORecord record = db.getTransaction().getRecord(internal.getRecord().get().getIdentity());
@@ -83,6 +135,11 @@ public class ORemoteResultSet implements OResultSet {
 
   @Override
   public void close() {
+    if (prefetchChannel != null && db != null) {
+      // THE RESPONSE OF THE PENDING REQUEST HAS TO BE READ BEFORE THE CHANNEL CAN BE REUSED
+      db.fetchNextPage(this);
+      currentPage.clear();
+    }
     if (hasNextPage && db != null) {
       // CLOSES THE QUERY SERVER SIDE ONLY IF THERE IS ANOTHER PAGE. THE SERVER ALREADY
       // AUTOMATICALLY CLOSES THE QUERY AFTER SENDING THE LAST PAGE
@@ -112,6 +169,27 @@ public class ORemoteResultSet implements OResultSet {
     return queryId;
   }
 
+  public int getPageSize() {
+    return pageSize;
+  }
+
+  public OChannelBinaryAsynchClient getPrefetchChannel() {
+    return prefetchChannel;
+  }
+
+  public OQueryNextPageRequest getPrefetchRequest() {
+    return prefetchRequest;
+  }
+
+  /**
+   * @param channel the channel the request of the next page was sent on, null once the response
+   *     has been read
+   */
+  public void prefetched(OChannelBinaryAsynchClient channel, OQueryNextPageRequest request) {
+    this.prefetchChannel = channel;
+    this.prefetchRequest = request;
+  }
+
   public void fetched(
       List<OResultInternal> result,
       boolean hasNextPage,
@@ -328,7 +328,7 @@ public class OrientDBRemote implements OrientDBInternal {
   public ODatabasePoolInternal openPool(
       String name, String user, String password, OrientDBConfig config) {
     checkOpen();
-    ODatabasePoolImpl pool = new ODatabasePoolImpl(this, name, user, password, solveConfig(config));
+    ODatabasePoolInternal pool = newPool(name, user, password, solveConfig(config));
     pools.add(pool);
     return pool;
   }
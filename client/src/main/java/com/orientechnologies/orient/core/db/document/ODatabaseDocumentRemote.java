@@ -466,6 +466,11 @@ public class ODatabaseDocumentRemote extends ODatabaseDocumentAbstract {
     storage.fetchNextPage(this, rs);
   }
 
+  public void prefetchNextPage(ORemoteResultSet rs) {
+    checkOpenness();
+    storage.prefetchNextPage(this, rs);
+  }
+
   @Override
   public OLiveQueryMonitor live(String query, OLiveQueryResultListener listener, Object... args) {
     return storage.liveQuery(
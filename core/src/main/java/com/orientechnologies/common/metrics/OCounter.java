@@ -0,0 +1,37 @@
+package com.orientechnologies.common.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** Monotonic counter. Threads increment it without contention, the value is summed on read. */
+public final class OCounter implements OMetric {
+  private final String name;
+  private final String description;
+  private final LongAdder count = new LongAdder();
+
+  OCounter(final String name, final String description) {
+    this.name = name;
+    this.description = description;
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public String getDescription() {
+    return description;
+  }
+
+  public void increment() {
+    count.increment();
+  }
+
+  public void add(final long value) {
+    count.add(value);
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+}
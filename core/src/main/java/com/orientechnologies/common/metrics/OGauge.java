@@ -0,0 +1,41 @@
+package com.orientechnologies.common.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** Current amount of something, like open sessions. Unlike a counter it goes up and down. */
+public final class OGauge implements OMetric {
+  private final String name;
+  private final String description;
+  private final LongAdder value = new LongAdder();
+
+  OGauge(final String name, final String description) {
+    this.name = name;
+    this.description = description;
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public String getDescription() {
+    return description;
+  }
+
+  public void increment() {
+    value.increment();
+  }
+
+  public void decrement() {
+    value.decrement();
+  }
+
+  public void add(final long delta) {
+    value.add(delta);
+  }
+
+  public long getValue() {
+    return value.sum();
+  }
+}
@@ -0,0 +1,120 @@
+package com.orientechnologies.common.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Distribution of durations in nanoseconds, kept in fixed buckets. Every power of two is split in
+ * {@link #SUB_BUCKETS} buckets of the same width, so any percentile is known with an error lower
+ * than 1/{@link #SUB_BUCKETS} of its value, from 1 nanosecond up to the maximum long value,
+ * without allocating anything when a value is recorded.
+ */
+public final class OHistogram implements OMetric {
+  private static final int SUB_BUCKET_BITS = 3;
+  public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKETS = Long.SIZE << SUB_BUCKET_BITS;
+
+  private final String name;
+  private final String description;
+  private final LongAdder[] counts = new LongAdder[BUCKETS];
+  private final LongAdder sum = new LongAdder();
+  private final AtomicLong max = new AtomicLong();
+
+  OHistogram(final String name, final String description) {
+    this.name = name;
+    this.description = description;
+    for (int i = 0; i < counts.length; i++) counts[i] = new LongAdder();
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public String getDescription() {
+    return description;
+  }
+
+  /** Records a duration in nanoseconds. Negative values are recorded as 0. */
+  public void record(long nanos) {
+    if (nanos < 0) nanos = 0;
+
+    counts[bucket(nanos)].increment();
+    sum.add(nanos);
+
+    long current = max.get();
+    while (nanos > current && !max.compareAndSet(current, nanos)) current = max.get();
+  }
+
+  /** Records the time elapsed from a value returned by {@link System#nanoTime()}. */
+  public void recordSince(final long startNanos) {
+    record(System.nanoTime() - startNanos);
+  }
+
+  static int bucket(final long value) {
+    if (value < SUB_BUCKETS) return (int) value;
+
+    final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+    final int shift = exponent - SUB_BUCKET_BITS;
+    return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+  }
+
+  /** @return the highest value that falls in the bucket */
+  static long upperBound(final int bucket) {
+    if (bucket < SUB_BUCKETS) return bucket;
+
+    final int shift = (bucket >>> SUB_BUCKET_BITS) - 1;
+    final long lower = ((long) (SUB_BUCKETS + (bucket & (SUB_BUCKETS - 1)))) << shift;
+    return lower + (1L << shift) - 1;
+  }
+
+  /** @return the number of values lower than <code>2^exponent</code> */
+  public long getCountBelowPowerOfTwo(final int exponent) {
+    final int limit = exponent <= SUB_BUCKET_BITS ? 1 << exponent : bucket(1L << exponent);
+    long result = 0;
+    for (int i = 0; i < limit; i++) result += counts[i].sum();
+    return result;
+  }
+
+  public long getCount() {
+    long result = 0;
+    for (LongAdder count : counts) result += count.sum();
+    return result;
+  }
+
+  public long getSum() {
+    return sum.sum();
+  }
+
+  public long getMax() {
+    return max.get();
+  }
+
+  public long getMean() {
+    final long count = getCount();
+    return count > 0 ? getSum() / count : 0;
+  }
+
+  /**
+   * @param quantile between 0 and 1, eg. 0.99 for the 99th percentile
+   * @return the value under which falls the requested quantile of the recorded values
+   */
+  public long getPercentile(final double quantile) {
+    final long[] snapshot = new long[counts.length];
+    long total = 0;
+    for (int i = 0; i < counts.length; i++) {
+      snapshot[i] = counts[i].sum();
+      total += snapshot[i];
+    }
+    if (total == 0) return 0;
+
+    final long rank = Math.max(1, (long) Math.ceil(quantile * total));
+    long seen = 0;
+    for (int i = 0; i < snapshot.length; i++) {
+      seen += snapshot[i];
+      if (seen >= rank) return Math.min(upperBound(i), getMax());
+    }
+    return getMax();
+  }
+}
@@ -0,0 +1,11 @@
+package com.orientechnologies.common.metrics;
+
+/**
+ * Metric registered in {@link OMetricsRegistry}. Metrics are registered once and kept in a field of
+ * the instrumented class, so recording a value never looks the metric up by name.
+ */
+public interface OMetric {
+  String getName();
+
+  String getDescription();
+}
@@ -0,0 +1,117 @@
+package com.orientechnologies.common.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+
+/**
+ * Exposes the registered metrics as attributes of a JMX bean. Counters and gauges are exposed with
+ * their name, histograms with an attribute for the count, the mean, the maximum and the main
+ * percentiles, in nanoseconds.
+ */
+public class OMetricsMBean implements DynamicMBean {
+  private static final String[] HISTOGRAM_ATTRIBUTES = {
+    "count", "mean", "max", "p50", "p99", "p999"
+  };
+
+  private final OMetricsRegistry registry;
+
+  public OMetricsMBean(final OMetricsRegistry registry) {
+    this.registry = registry;
+  }
+
+  @Override
+  public Object getAttribute(final String attribute) throws AttributeNotFoundException {
+    final OMetric counter = registry.getMetric(attribute);
+    if (counter instanceof OCounter) return ((OCounter) counter).getCount();
+    if (counter instanceof OGauge) return ((OGauge) counter).getValue();
+
+    final int separator = attribute.lastIndexOf('.');
+    if (separator > 0) {
+      final OMetric metric = registry.getMetric(attribute.substring(0, separator));
+      if (metric instanceof OHistogram) {
+        final OHistogram histogram = (OHistogram) metric;
+        switch (attribute.substring(separator + 1)) {
+          case "count":
+            return histogram.getCount();
+          case "mean":
+            return histogram.getMean();
+          case "max":
+            return histogram.getMax();
+          case "p50":
+            return histogram.getPercentile(0.5);
+          case "p99":
+            return histogram.getPercentile(0.99);
+          case "p999":
+            return histogram.getPercentile(0.999);
+        }
+      }
+    }
+    throw new AttributeNotFoundException(attribute);
+  }
+
+  @Override
+  public AttributeList getAttributes(final String[] attributes) {
+    final AttributeList result = new AttributeList();
+    for (String attribute : attributes) {
+      try {
+        result.add(new Attribute(attribute, getAttribute(attribute)));
+      } catch (AttributeNotFoundException ignore) {
+        // SKIP IT, AS REQUIRED BY THE CONTRACT OF getAttributes()
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public void setAttribute(final Attribute attribute) throws AttributeNotFoundException {
+    throw new AttributeNotFoundException("Metrics are read only");
+  }
+
+  @Override
+  public AttributeList setAttributes(final AttributeList attributes) {
+    return new AttributeList();
+  }
+
+  @Override
+  public Object invoke(final String actionName, final Object[] params, final String[] signature) {
+    throw new UnsupportedOperationException(actionName);
+  }
+
+  @Override
+  public MBeanInfo getMBeanInfo() {
+    // METRICS CAN BE REGISTERED AT ANY TIME, SO THE ATTRIBUTES ARE LISTED ON EVERY CALL
+    final List<MBeanAttributeInfo> attributes = new ArrayList<>();
+    for (OMetric metric : registry.getMetrics()) {
+      if (metric instanceof OCounter || metric instanceof OGauge)
+        attributes.add(attribute(metric.getName(), metric.getDescription()));
+      else if (metric instanceof OHistogram)
+        for (String suffix : HISTOGRAM_ATTRIBUTES)
+          attributes.add(
+              attribute(
+                  metric.getName() + "." + suffix,
+                  metric.getDescription()
+                      + " ("
+                      + suffix
+                      + ("count".equals(suffix) ? ")" : ", nanoseconds)")));
+    }
+
+    return new MBeanInfo(
+        getClass().getName(),
+        "OrientDB metrics",
+        attributes.toArray(new MBeanAttributeInfo[0]),
+        null,
+        new MBeanOperationInfo[0],
+        null);
+  }
+
+  private static MBeanAttributeInfo attribute(final String name, final String description) {
+    return new MBeanAttributeInfo(name, Long.class.getName(), description, true, false, false);
+  }
+}
@@ -0,0 +1,83 @@
+package com.orientechnologies.common.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * Writes the registered metrics in the text format of Prometheus. Names are prefixed by <code>
+ * orientdb_</code>, counters are suffixed by <code>_total</code> and histograms are converted in
+ * seconds, with a bucket for every power of two from about 1 microsecond to about 1 minute. Gauges
+ * are written with their current value.
+ */
+public class OMetricsPrometheusWriter {
+  public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  private static final int MIN_EXPONENT = 10;
+  private static final int MAX_EXPONENT = 36;
+
+  private final OMetricsRegistry registry;
+
+  public OMetricsPrometheusWriter(final OMetricsRegistry registry) {
+    this.registry = registry;
+  }
+
+  public void write(final Writer writer) throws IOException {
+    for (OMetric metric : registry.getMetrics()) {
+      if (metric instanceof OCounter) writeCounter(writer, (OCounter) metric);
+      else if (metric instanceof OGauge) writeGauge(writer, (OGauge) metric);
+      else if (metric instanceof OHistogram) writeHistogram(writer, (OHistogram) metric);
+    }
+  }
+
+  private static void writeCounter(final Writer writer, final OCounter counter)
+      throws IOException {
+    final String name = name(counter) + "_total";
+    writeHeader(writer, name, counter, "counter");
+    writer.write(name + " " + counter.getCount() + "\n");
+  }
+
+  private static void writeGauge(final Writer writer, final OGauge gauge) throws IOException {
+    final String name = name(gauge);
+    writeHeader(writer, name, gauge, "gauge");
+    writer.write(name + " " + gauge.getValue() + "\n");
+  }
+
+  private static void writeHistogram(final Writer writer, final OHistogram histogram)
+      throws IOException {
+    final String name = name(histogram) + "_seconds";
+    writeHeader(writer, name, histogram, "histogram");
+
+    // THE TOTAL IS READ FIRST, SO THE BUCKETS NEVER EXCEED IT WHILE VALUES ARE RECORDED
+    final long count = histogram.getCount();
+    for (int exponent = MIN_EXPONENT; exponent <= MAX_EXPONENT; exponent++) {
+      final long bucket = Math.min(count, histogram.getCountBelowPowerOfTwo(exponent));
+      writer.write(name + "_bucket{le=\"" + seconds(1L << exponent) + "\"} " + bucket + "\n");
+    }
+    writer.write(name + "_bucket{le=\"+Inf\"} " + count + "\n");
+    writer.write(name + "_sum " + seconds(histogram.getSum()) + "\n");
+    writer.write(name + "_count " + count + "\n");
+  }
+
+  private static void writeHeader(
+      final Writer writer, final String name, final OMetric metric, final String type)
+      throws IOException {
+    writer.write("# HELP " + name + " " + escape(metric.getDescription()) + "\n");
+    writer.write("# TYPE " + name + " " + type + "\n");
+  }
+
+  private static String name(final OMetric metric) {
+    final StringBuilder name = new StringBuilder("orientdb_");
+    for (char c : metric.getName().toCharArray())
+      name.append(Character.isLetterOrDigit(c) && c < 128 ? c : '_');
+    return name.toString();
+  }
+
+  private static String seconds(final long nanos) {
+    return String.format(Locale.ENGLISH, "%.9f", nanos / 1_000_000_000d);
+  }
+
+  private static String escape(final String text) {
+    return text == null ? "" : text.replace("\\", "\\\\").replace("\n", "\\n");
+  }
+}
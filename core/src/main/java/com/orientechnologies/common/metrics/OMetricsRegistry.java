@@ -0,0 +1,62 @@
+package com.orientechnologies.common.metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+
+/**
+ * Registry of the metrics of the process. Unlike the profiler, metrics are registered once with a
+ * fixed name and kept in a field by the instrumented code, recording a value costs an increment of
+ * a {@link java.util.concurrent.atomic.LongAdder} and nothing is ever looked up by name on the hot
+ * path. Metrics are always enabled and exported through JMX and the <code>metrics</code> HTTP
+ * command of the server.
+ */
+public class OMetricsRegistry {
+  private static final OMetricsRegistry instance = new OMetricsRegistry();
+
+  private final Map<String, OMetric> metrics = new ConcurrentSkipListMap<>();
+
+  public static OMetricsRegistry instance() {
+    return instance;
+  }
+
+  /** Returns the counter with the name, registering it the first time. */
+  public OCounter counter(final String name, final String description) {
+    return register(name, () -> new OCounter(name, description), OCounter.class);
+  }
+
+  /** Returns the gauge with the name, registering it the first time. */
+  public OGauge gauge(final String name, final String description) {
+    return register(name, () -> new OGauge(name, description), OGauge.class);
+  }
+
+  /** Returns the histogram with the name, registering it the first time. */
+  public OHistogram histogram(final String name, final String description) {
+    return register(name, () -> new OHistogram(name, description), OHistogram.class);
+  }
+
+  private <T extends OMetric> T register(
+      final String name, final Supplier<T> factory, final Class<T> type) {
+    final OMetric metric = metrics.get(name);
+    if (metric != null) return cast(metric, type);
+    return cast(metrics.computeIfAbsent(name, k -> factory.get()), type);
+  }
+
+  private static <T extends OMetric> T cast(final OMetric metric, final Class<T> type) {
+    if (!type.isInstance(metric))
+      throw new IllegalArgumentException(
+          "Metric '" + metric.getName() + "' is already registered as " + metric.getClass());
+    return type.cast(metric);
+  }
+
+  public OMetric getMetric(final String name) {
+    return metrics.get(name);
+  }
+
+  /** @return the registered metrics, sorted by name */
+  public Collection<OMetric> getMetrics() {
+    return new ArrayList<>(metrics.values());
+  }
+}
@@ -0,0 +1,57 @@
+package com.orientechnologies.common.thread;
+
+import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.common.exception.OSystemException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Creates virtual threads when the JVM supports them (Java 21+). The sources target older versions
+ * of Java, so the API is looked up through reflection.
+ */
+public final class OVirtualThreads {
+  private static final Method OF_VIRTUAL;
+  private static final Method NAME;
+  private static final Method UNSTARTED;
+
+  static {
+    Method ofVirtual = null;
+    Method name = null;
+    Method unstarted = null;
+    try {
+      ofVirtual = Thread.class.getMethod("ofVirtual");
+      final Class<?> builder = Class.forName("java.lang.Thread$Builder");
+      name = builder.getMethod("name", String.class);
+      unstarted = builder.getMethod("unstarted", Runnable.class);
+    } catch (NoSuchMethodException | ClassNotFoundException e) {
+      ofVirtual = null;
+    }
+    OF_VIRTUAL = ofVirtual;
+    NAME = name;
+    UNSTARTED = unstarted;
+  }
+
+  private OVirtualThreads() {}
+
+  public static boolean isAvailable() {
+    return OF_VIRTUAL != null;
+  }
+
+  /**
+   * Creates a virtual thread, not started yet.
+   *
+   * @throws OSystemException if the JVM doesn't support virtual threads
+   */
+  public static Thread newThread(final String name, final Runnable task) {
+    if (!isAvailable())
+      throw new OSystemException("Virtual threads are not supported by the current JVM");
+    try {
+      Object builder = OF_VIRTUAL.invoke(null);
+      builder = NAME.invoke(builder, name);
+      return (Thread) UNSTARTED.invoke(builder, task);
+    } catch (IllegalAccessException | InvocationTargetException e) {
+      throw OException.wrapException(
+          new OSystemException("Cannot create virtual thread '" + name + "'"), e);
+    }
+  }
+}
@@ -281,11 +281,37 @@ public enum OGlobalConfiguration { // ENVIRONMENT
           + "each page load, errors are reported in the log; 'storeAndThrow' – same as `storeAndVerify` with addition of exceptions "
           + "thrown on errors, this mode is useful for debugging and testing, but should be avoided in a production environment;"
           + " 'storeAndSwitchReadOnlyMode' (default) - Same as 'storeAndVerify' with addition that storage will be switched in read only mode "
-          + "till it will not be repaired.",
+          + "till it will not be repaired; 'storeAndScrub' - checksums are calculated and stored on page flushes, no verification is done "
+          + "on page loads, checksums are verified in background at the rate set by 'storage.diskCache.checksumScrubRate', "
+          + "errors are reported as in 'storeAndSwitchReadOnlyMode'. Page loads are verified only during the recovery after a "
+          + "crash, so pages torn by the crash are restored from the double write log; pages broken later are read as they are "
+          + "until the scrubber finds them.",
       OChecksumMode.class,
       OChecksumMode.StoreAndSwitchReadOnlyMode,
       false),
 
+  STORAGE_CHECKSUM_SCRUB_RATE(
+      "storage.diskCache.checksumScrubRate",
+      "Maximum amount of pages per second whose checksums are verified in background "
+          + "when checksum mode is 'storeAndScrub', 0 disables the verification",
+      Integer.class,
+      1024),
+
+  STORAGE_CHECKSUM_BATCH_SIZE(
+      "storage.diskCache.checksumBatchSize",
+      "Amount of pages flushed together whose checksums are calculated, and which are encrypted, "
+          + "by a pool of threads instead of the flush thread. Flushes of fewer pages are "
+          + "processed by the flush thread, 0 disables the pool",
+      Integer.class,
+      128),
+
+  STORAGE_TRACK_CHANGED_PAGES(
+      "storage.diskCache.trackChangedPages",
+      "Tracks in memory the pages written to disk since the last incremental backup, "
+          + "so the backup copies only these pages instead of scanning the files of the storage",
+      Boolean.class,
+      false),
+
   STORAGE_EXCLUSIVE_FILE_ACCESS(
       "storage.exclusiveFileAccess",
       "Limit access to the datafiles to the single API user, set to "
@@ -567,6 +593,14 @@ public enum OGlobalConfiguration { // ENVIRONMENT
       Integer.class,
       1000),
 
+  WAL_RESTORE_THREADS(
+      "storage.wal.restore.threads",
+      "Amount of threads, which apply the page changes read from WAL during a restore procedure. "
+          + "Changes of the same page are always applied by the same thread in the order of WAL "
+          + "(1 means that changes are applied by the thread which reads WAL)",
+      Integer.class,
+      1),
+
   @Deprecated
   WAL_READ_CACHE_SIZE(
       "storage.wal.readCacheSize",
@@ -720,6 +754,13 @@ public enum OGlobalConfiguration { // ENVIRONMENT
       Integer.class,
       60000),
 
+  DB_POOL_THREAD_AFFINE(
+      "db.pool.threadAffine",
+      "Use a lock free database pool, which gives back to a thread the session it released last "
+          + "and keeps the other idle sessions in a shared stack",
+      Boolean.class,
+      false),
+
   @Deprecated
   DB_POOL_IDLE_TIMEOUT(
       "db.pool.idleTimeout",
@@ -977,6 +1018,12 @@ public enum OGlobalConfiguration { // ENVIRONMENT
       1000,
       true),
 
+  NETWORK_VIRTUAL_THREADS(
+      "network.virtualThreads",
+      "Serves the binary connections with virtual threads when the JVM supports them (Java 21+), so idle connections don't hold a platform thread",
+      Boolean.class,
+      false),
+
   NETWORK_SOCKET_BUFFER_SIZE(
       "network.socketBufferSize",
       "TCP/IP Socket buffer size, if 0 use the OS default",
@@ -1065,6 +1112,20 @@ public enum OGlobalConfiguration { // ENVIRONMENT
       false,
       true),
 
+  NETWORK_BINARY_MULTIPLEXING(
+      "network.binary.multiplexing",
+      "Sends the requests of different database sessions on a shared connection without waiting for the previous responses. The server must support multiplexing",
+      Boolean.class,
+      false,
+      true),
+
+  NETWORK_BINARY_MULTIPLEXING_MAX_THREADS(
+      "network.binary.multiplexing.maxThreads",
+      "Maximum number of requests of a multiplexed connection the server executes concurrently",
+      Integer.class,
+      16,
+      true),
+
   // HTTP
 
   /** Since v2.2.8 */
@@ -1287,6 +1348,28 @@ public enum OGlobalConfiguration { // ENVIRONMENT
       Integer.class,
       1000),
 
+  QUERY_REMOTE_RESULTSET_MAX_PAGE_SIZE(
+      "query.remoteResultSet.maxPageSize",
+      "The maximum size of a remote ResultSet page. The page size grows from query.remoteResultSet.pageSize up to this value "
+          + "when the client consumes the records faster than the server sends them. This has to be set on the client.",
+      Integer.class,
+      10000),
+
+  QUERY_REMOTE_RESULTSET_PREFETCH(
+      "query.remoteResultSet.prefetch",
+      "Request the next page of a remote ResultSet while the current one is consumed, outside of transactions. "
+          + "This has to be set on the client.",
+      Boolean.class,
+      true),
+
+  QUERY_REMOTE_RESULTSET_MAX_PREFETCHES(
+      "query.remoteResultSet.maxPrefetches",
+      "Maximum number of remote ResultSets of a database which prefetch their next page at the same time. Each of them "
+          + "keeps a network channel busy till the page is read, the others request their pages when needed. "
+          + "This has to be set on the client.",
+      Integer.class,
+      4),
+
   QUERY_REMOTE_SEND_EXECUTION_PLAN(
       "query.remoteResultSet.sendExecutionPlan",
       "Send the execution plan details or not. False by default",
@@ -1311,6 +1394,13 @@ public enum OGlobalConfiguration { // ENVIRONMENT
       Integer.class,
       20000),
 
+  QUERY_MATCH_PARALLELISM(
+      "query.match.parallelism",
+      "Number of worker threads that expand the rows of a MATCH pattern in parallel. Values lower than 2 disable parallel MATCH execution. "
+          + "It can be overridden for a single query with the $matchParallelism context variable",
+      Integer.class,
+      0),
+
   QUERY_SCAN_PREFETCH_PAGES(
       "query.scanPrefetchPages",
       "Pages to prefetch during scan. Setting this value higher makes scans faster, because it reduces the number of I/O operations, though it consumes more memory. (Use 0 to disable)",
@@ -1350,6 +1440,13 @@ public enum OGlobalConfiguration { // ENVIRONMENT
       Boolean.class,
       true),
 
+  QUERY_VIEW_INCREMENTAL_MAX_CHANGES(
+      "query.view.incrementalMaxChanges",
+      "Maximum number of changed records that are applied incrementally to a batch view on refresh. "
+          + "If more records changed since the last refresh, the view is rebuilt from scratch. (Use 0 to always rebuild views)",
+      Integer.class,
+      100000),
+
   STATEMENT_CACHE_SIZE(
       "statement.cacheSize",
       "Number of parsed SQL statements kept in cache. Zero means cache disabled",
@@ -1521,6 +1618,13 @@ public enum OGlobalConfiguration { // ENVIRONMENT
       7,
       true),
 
+  DISTRIBUTED_DEPLOYDB_PARALLEL_STREAMS(
+      "distributed.deployDbParallelStreams",
+      "Number of ranges of the backup requested in parallel on database deployment. Ranges are verified with a checksum and an interrupted deployment resumes from the last received range. 1 = sequential transfer compatible with older nodes",
+      Integer.class,
+      1,
+      true),
+
   DISTRIBUTED_ASYNCH_QUEUE_SIZE(
       "distributed.asynchQueueSize",
       "Queue size to handle distributed asynchronous operations. The bigger is the queue, the more operation are buffered, but also more memory it's consumed. 0 = dynamic allocation, which means up to 2^31-1 entries",
@@ -1585,6 +1689,30 @@ public enum OGlobalConfiguration { // ENVIRONMENT
       Integer.class,
       1),
 
+  DISTRIBUTED_BATCH_MAX_MESSAGES(
+      "distributed.batch.maxMessages",
+      "Maximum number of pending requests and responses coalesced in one network frame. Set to 1 to send every message on its own",
+      Integer.class,
+      64),
+
+  DISTRIBUTED_BATCH_FLUSH_WINDOW(
+      "distributed.batch.flushWindow",
+      "Time in ms a channel waits for more messages to coalesce before flushing a batch. 0 flushes as soon as the channel is free",
+      Long.class,
+      0l),
+
+  DISTRIBUTED_BATCH_COMPRESSION(
+      "distributed.batch.compression",
+      "Compression applied to large batches of distributed messages (e.g. 'gzip'). Empty to disable it",
+      String.class,
+      ""),
+
+  DISTRIBUTED_BATCH_COMPRESSION_THRESHOLD(
+      "distributed.batch.compressionThreshold",
+      "Minimum size in bytes of a batch of distributed messages to compress it",
+      Integer.class,
+      16384),
+
   /** @Since 2.2.5 */
   DISTRIBUTED_HEARTBEAT_TIMEOUT(
       "distributed.heartbeatTimeout",
@@ -1706,6 +1834,12 @@ public enum OGlobalConfiguration { // ENVIRONMENT
       1000,
       true),
 
+  DISTRIBUTED_TX_PHASE2_BATCH_WINDOW(
+      "distributed.txPhase2BatchWindow",
+      "Time (in ms) the second phase of the committed transactions is collected before being sent to the other servers in one message, without waiting for their acknowledgment. The collected decisions are also sent right before the first phase of the next transaction. (0=send every second phase on its own and wait for the quorum)",
+      Long.class,
+      0l),
+
   DISTRIBUTED_TRANSACTION_SEQUENCE_SET_SIZE(
       "distributed.transactionSequenceSetSize",
       "Size of the set of sequences used by distributed transactions, correspond to the amount of transactions commits that can be active at the same time",
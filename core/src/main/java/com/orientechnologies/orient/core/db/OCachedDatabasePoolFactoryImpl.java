@@ -106,7 +106,7 @@ public class OCachedDatabasePoolFactoryImpl implements OCachedDatabasePoolFactor
     if (parentConfig != null) {
       config.setParent(parentConfig);
     }
-    pool = new ODatabasePoolImpl(orientDB, database, username, password, config);
+    pool = orientDB.newPool(database, username, password, config);
 
     poolCache.put(key, pool);
 
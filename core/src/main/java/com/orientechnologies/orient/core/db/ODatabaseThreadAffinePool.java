@@ -0,0 +1,390 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+package com.orientechnologies.orient.core.db;
+
+import static com.orientechnologies.orient.core.config.OGlobalConfiguration.DB_POOL_ACQUIRE_TIMEOUT;
+import static com.orientechnologies.orient.core.config.OGlobalConfiguration.DB_POOL_MAX;
+import static com.orientechnologies.orient.core.config.OGlobalConfiguration.DB_POOL_MIN;
+
+import com.orientechnologies.common.concur.lock.OInterruptedException;
+import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.common.metrics.OCounter;
+import com.orientechnologies.common.metrics.OGauge;
+import com.orientechnologies.common.metrics.OHistogram;
+import com.orientechnologies.common.metrics.OMetricsRegistry;
+import com.orientechnologies.orient.core.exception.OAcquireTimeoutException;
+import com.orientechnologies.orient.core.exception.ODatabaseException;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Database pool which doesn't lock on acquire and release while there are idle sessions. A thread
+ * first tries to take back the session it released last, then pops an idle session from a stack
+ * shared by all the threads and only then creates a new session. Threads wait for a session only
+ * when the pool is full.
+ *
+ * <p>The session released last by a thread stays in the shared stack too, so other threads can
+ * take it: the state of the session decides which thread wins it, and the stack skips the sessions
+ * which were taken back by their last thread.
+ *
+ * <p>Enabled by {@link com.orientechnologies.orient.core.config.OGlobalConfiguration
+ * #DB_POOL_THREAD_AFFINE}, in place of {@link ODatabasePoolImpl}.
+ */
+public class ODatabaseThreadAffinePool implements ODatabasePoolInternal {
+  private static final OHistogram ACQUIRE =
+      OMetricsRegistry.instance()
+          .histogram("db.pool.acquire", "Time to acquire a session from thread affine pools");
+  private static final OCounter ACQUIRE_TIMEOUTS =
+      OMetricsRegistry.instance()
+          .counter("db.pool.acquire.timeouts", "Acquires of thread affine pools timed out");
+  private static final OGauge SESSIONS =
+      OMetricsRegistry.instance().gauge("db.pool.sessions", "Sessions of thread affine pools");
+  private static final OGauge SESSIONS_IN_USE =
+      OMetricsRegistry.instance()
+          .gauge("db.pool.sessions.inUse", "Sessions of thread affine pools in use");
+
+  private static final int IDLE = 0;
+  private static final int IN_USE = 1;
+  private static final int REMOVED = 2;
+
+  private final OrientDBInternal factory;
+  private final String database;
+  private final String user;
+  private final String password;
+  private final OrientDBConfig config;
+  private final int maxSessions;
+
+  private final Map<ODatabaseDocumentInternal, Session> sessions = new ConcurrentHashMap<>();
+  private final AtomicInteger size = new AtomicInteger();
+  private final AtomicReference<Node> idle = new AtomicReference<>();
+  private final ThreadLocal<Session> lastReleased = new ThreadLocal<>();
+
+  private final AtomicInteger waiters = new AtomicInteger();
+  private final Object waitLock = new Object();
+
+  private volatile boolean closed;
+  private volatile long lastCloseTime = System.currentTimeMillis();
+
+  public ODatabaseThreadAffinePool(
+      OrientDBInternal factory,
+      String database,
+      String user,
+      String password,
+      OrientDBConfig config) {
+    this.factory = factory;
+    this.database = database;
+    this.user = user;
+    this.password = password;
+    this.config = config;
+    this.maxSessions = config.getConfigurations().getValueAsInteger(DB_POOL_MAX);
+    if (maxSessions < 1) {
+      throw new IllegalArgumentException("Maximum size of the pool must be greater than 0");
+    }
+
+    final int min =
+        Math.min(config.getConfigurations().getValueAsInteger(DB_POOL_MIN), maxSessions);
+    for (int i = 0; i < min; i++) {
+      final Session session = create();
+      session.state.set(IDLE);
+      session.stacked.set(true);
+      SESSIONS_IN_USE.decrement();
+      push(session);
+    }
+
+    ODatabaseRecordThreadLocal.instance().remove();
+  }
+
+  @Override
+  public ODatabaseSession acquire() throws OAcquireTimeoutException {
+    final long start = System.nanoTime();
+    try {
+      while (true) {
+        checkOpen();
+
+        final Session session = take(start);
+        if (session.database.getStorage().isClosed()) {
+          remove(session);
+          continue;
+        }
+
+        session.database.reuse();
+        return session.database;
+      }
+    } finally {
+      ACQUIRE.recordSince(start);
+    }
+  }
+
+  private Session take(final long start) {
+    Session session = lastReleased.get();
+    if (session != null && session.state.compareAndSet(IDLE, IN_USE)) {
+      SESSIONS_IN_USE.increment();
+      return session;
+    }
+
+    session = pop();
+    if (session != null) {
+      return session;
+    }
+
+    session = create();
+    if (session != null) {
+      return session;
+    }
+
+    return await(start);
+  }
+
+  private Session await(final long start) {
+    final long deadline =
+        start
+            + TimeUnit.MILLISECONDS.toNanos(
+                config.getConfigurations().getValueAsLong(DB_POOL_ACQUIRE_TIMEOUT));
+
+    waiters.incrementAndGet();
+    try {
+      while (true) {
+        final Session session = pop();
+        if (session != null) {
+          return session;
+        }
+
+        final Session created = create();
+        if (created != null) {
+          return created;
+        }
+
+        synchronized (waitLock) {
+          checkOpen();
+          // sessions are released and removed before the waiting threads are notified under the
+          // same lock, so no notification is lost between the check and the wait
+          if (idle.get() == null && size.get() >= maxSessions) {
+            final long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+              ACQUIRE_TIMEOUTS.increment();
+              throw new OAcquireTimeoutException(
+                  "No more resources available in pool (max="
+                      + maxSessions
+                      + "). Requested resource: "
+                      + database);
+            }
+
+            try {
+              TimeUnit.NANOSECONDS.timedWait(waitLock, remaining);
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+              throw OException.wrapException(
+                  new OInterruptedException("Acquiring of resources was interrupted"), e);
+            }
+          }
+        }
+      }
+    } finally {
+      waiters.decrementAndGet();
+    }
+  }
+
+  /** @return a new session in use, or null if the pool is full */
+  private Session create() {
+    int current;
+    do {
+      current = size.get();
+      if (current >= maxSessions) {
+        return null;
+      }
+    } while (!size.compareAndSet(current, current + 1));
+
+    final ODatabaseDocumentInternal database;
+    try {
+      database = factory.poolOpen(this.database, user, password, this);
+    } catch (RuntimeException e) {
+      size.decrementAndGet();
+      signalWaiters();
+      throw e;
+    }
+
+    final Session session = new Session(database);
+    sessions.put(database, session);
+    SESSIONS.increment();
+    SESSIONS_IN_USE.increment();
+    return session;
+  }
+
+  /** Removes a session in use, whose storage was closed, from the pool and closes it. */
+  private void remove(final Session session) {
+    session.state.set(REMOVED);
+    sessions.remove(session.database);
+    size.decrementAndGet();
+    SESSIONS.decrement();
+    SESSIONS_IN_USE.decrement();
+    signalWaiters();
+
+    session.database.realClose();
+  }
+
+  @Override
+  public void release(ODatabaseDocumentInternal database) {
+    if (closed) {
+      throw new ODatabaseException("The pool is closed");
+    }
+
+    Session session = lastReleased.get();
+    if (session == null || session.database != database) {
+      session = sessions.get(database);
+      if (session == null) {
+        return;
+      }
+      lastReleased.set(session);
+    }
+
+    if (session.state.compareAndSet(IN_USE, IDLE)) {
+      SESSIONS_IN_USE.decrement();
+      if (!session.stacked.getAndSet(true)) {
+        push(session);
+      }
+      signalWaiters();
+    }
+    lastCloseTime = System.currentTimeMillis();
+  }
+
+  private void signalWaiters() {
+    if (waiters.get() > 0) {
+      synchronized (waitLock) {
+        waitLock.notifyAll();
+      }
+    }
+  }
+
+  private void push(final Session session) {
+    final Node node = new Node(session);
+    Node head;
+    do {
+      head = idle.get();
+      node.next = head;
+    } while (!idle.compareAndSet(head, node));
+  }
+
+  /** @return an idle session of the shared stack, now in use, or null if there are none */
+  private Session pop() {
+    while (true) {
+      final Node head = idle.get();
+      if (head == null) {
+        return null;
+      }
+
+      if (idle.compareAndSet(head, head.next)) {
+        final Session session = head.session;
+        // the flag is cleared before the state is checked, so if the session is in use the thread
+        // that releases it pushes it again
+        session.stacked.set(false);
+        if (session.state.compareAndSet(IDLE, IN_USE)) {
+          SESSIONS_IN_USE.increment();
+          return session;
+        }
+      }
+    }
+  }
+
+  private void checkOpen() {
+    if (closed) {
+      throw new ODatabaseException("The pool is closed");
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+
+    idle.set(null);
+    for (Session session : new ArrayList<>(sessions.values())) {
+      if (session.state.getAndSet(REMOVED) == IN_USE) {
+        SESSIONS_IN_USE.decrement();
+      }
+      SESSIONS.decrement();
+      session.database.realClose();
+    }
+    sessions.clear();
+
+    synchronized (waitLock) {
+      waitLock.notifyAll();
+    }
+    factory.removePool(this);
+  }
+
+  /** @return the amount of sessions of the pool, idle or in use */
+  public int getSize() {
+    return size.get();
+  }
+
+  @Override
+  public boolean isUnused() {
+    if (closed) {
+      return true;
+    }
+    for (Session session : sessions.values()) {
+      if (session.state.get() == IN_USE) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public long getLastCloseTime() {
+    return lastCloseTime;
+  }
+
+  @Override
+  public OrientDBConfig getConfig() {
+    return config;
+  }
+
+  @Override
+  public boolean isClosed() {
+    return closed;
+  }
+
+  private static final class Session {
+    private final ODatabaseDocumentInternal database;
+    private final AtomicInteger state = new AtomicInteger(IN_USE);
+    private final AtomicBoolean stacked = new AtomicBoolean();
+
+    private Session(final ODatabaseDocumentInternal database) {
+      this.database = database;
+    }
+  }
+
+  private static final class Node {
+    private final Session session;
+    private Node next;
+
+    private Node(final Session session) {
+      this.session = session;
+    }
+  }
+}
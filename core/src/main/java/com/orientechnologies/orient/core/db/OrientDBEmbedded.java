@@ -861,7 +861,7 @@ public class OrientDBEmbedded implements OrientDBInternal {
   public ODatabasePoolInternal openPool(
       String name, String user, String password, OrientDBConfig config) {
     checkOpen();
-    ODatabasePoolImpl pool = new ODatabasePoolImpl(this, name, user, password, solveConfig(config));
+    ODatabasePoolInternal pool = newPool(name, user, password, solveConfig(config));
     pools.add(pool);
     return pool;
   }
@@ -24,6 +24,7 @@ import com.orientechnologies.common.exception.OException;
 import com.orientechnologies.orient.core.Orient;
 import com.orientechnologies.orient.core.command.OCommandOutputListener;
 import com.orientechnologies.orient.core.command.script.OScriptManager;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.exception.ODatabaseException;
 import com.orientechnologies.orient.core.sql.executor.OResultSet;
 import com.orientechnologies.orient.core.storage.OStorage;
@@ -252,6 +253,18 @@ public interface OrientDBInternal extends AutoCloseable, OSchedulerInternal {
   ODatabasePoolInternal cachedPool(
       String database, String user, String password, OrientDBConfig config);
 
+  /**
+   * Internal api to create the pools returned by {@link #openPool} and {@link #cachedPool}, of the
+   * implementation chosen by {@link OGlobalConfiguration#DB_POOL_THREAD_AFFINE}.
+   */
+  default ODatabasePoolInternal newPool(
+      String name, String user, String password, OrientDBConfig config) {
+    if (config.getConfigurations().getValueAsBoolean(OGlobalConfiguration.DB_POOL_THREAD_AFFINE)) {
+      return new ODatabaseThreadAffinePool(this, name, user, password, config);
+    }
+    return new ODatabasePoolImpl(this, name, user, password, config);
+  }
+
   /** Internal api for request to open a database with a pool */
   ODatabaseDocumentInternal poolOpen(
       String name, String user, String password, ODatabasePoolInternal pool);
@@ -0,0 +1,410 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+package com.orientechnologies.orient.core.db.tool;
+
+import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.common.thread.OThreadPoolExecutorWithLogging;
+import com.orientechnologies.orient.core.command.OCommandOutputListener;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.ODatabaseRecordThreadLocal;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.db.record.ridbag.ORidBag;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.iterator.ORecordIteratorCluster;
+import com.orientechnologies.orient.core.metadata.OMetadataDefault;
+import com.orientechnologies.orient.core.record.ORecord;
+import com.orientechnologies.orient.core.record.ORecordInternal;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.record.impl.ODocumentInternal;
+import com.orientechnologies.orient.core.serialization.serializer.record.binary.ORecordSerializerNetworkV37;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports a database to a directory in the parallel format: database metadata and index
+ * definitions are exported as JSON (see {@link ODatabaseExport}), while the records of every
+ * cluster are written to their own binary segment. Segments are written concurrently by a pool of
+ * workers, each one on a private copy of the database session. Use {@link ODatabaseParallelImport}
+ * to load the result.
+ *
+ * <p>Segment layout: version (int), cluster name (UTF), cluster id (int), then for every record
+ * cluster position (long), record type (byte), content length (int) and content serialized with
+ * {@link ORecordSerializerNetworkV37} (field names are written in clear, so the content does not
+ * depend on the global properties of the source schema). The record list is terminated by {@link
+ * #END_OF_SEGMENT} and followed by the RIDs detected as broken while reading the cluster.
+ *
+ * <p>Manual indexes are not supported by this format.
+ */
+public class ODatabaseParallelExport extends ODatabaseImpExpAbstract {
+  public static final int SEGMENT_VERSION = 1;
+
+  protected static final String METADATA_FILE = "database.json.gz";
+  protected static final String INDEXES_FILE = "indexes.json.gz";
+  protected static final String SEGMENT_PREFIX = "cluster-";
+  protected static final String SEGMENT_EXTENSION = ".seg.gz";
+  protected static final long END_OF_SEGMENT = -1;
+
+  protected int parallelism = Runtime.getRuntime().availableProcessors();
+  protected int compressionLevel = Deflater.BEST_SPEED;
+  protected int compressionBuffer = 65536; // 64Kb
+
+  public ODatabaseParallelExport(
+      final ODatabaseDocumentInternal iDatabase,
+      final String iDirectory,
+      final OCommandOutputListener iListener) {
+    super(iDatabase, iDirectory, iListener);
+
+    if (iDirectory == null) throw new IllegalArgumentException("directory missing");
+
+    // THE FORMAT IS A DIRECTORY: DISCARD THE DEFAULT EXTENSION
+    fileName = iDirectory;
+  }
+
+  @Override
+  public void run() {
+    exportDatabase();
+  }
+
+  @Override
+  public ODatabaseParallelExport setOptions(final String s) {
+    super.setOptions(s);
+    return this;
+  }
+
+  public ODatabaseParallelExport exportDatabase() {
+    try {
+      listener.onMessage(
+          "\nStarted parallel export of database '"
+              + database.getName()
+              + "' to "
+              + fileName
+              + " (parallelism: "
+              + parallelism
+              + ")...");
+
+      final long time = System.currentTimeMillis();
+
+      Files.createDirectories(Paths.get(fileName));
+
+      exportMetadata();
+      if (includeRecords) exportRecords();
+      if (includeIndexDefinitions) exportIndexDefinitions();
+
+      listener.onMessage(
+          "\n\nDatabase export completed in " + (System.currentTimeMillis() - time) + "ms");
+    } catch (Exception e) {
+      OLogManager.instance()
+          .error(this, "Error on exporting database '%s' to: %s", e, database.getName(), fileName);
+      throw new ODatabaseExportException(
+          "Error on exporting database '" + database.getName() + "' to: " + fileName, e);
+    } finally {
+      database.activateOnCurrentThread();
+    }
+    return this;
+  }
+
+  public long exportRecords() throws Exception {
+    listener.onMessage("\nExporting records...");
+
+    final long begin = System.currentTimeMillis();
+    final Queue<Integer> clusterIds = new ConcurrentLinkedQueue<>(getClustersToExport());
+    final int clusters = clusterIds.size();
+
+    long total = 0;
+    for (long exported :
+        runWorkers(
+            database, parallelism, clusterIds, "OrientDB parallel export", this::exportClusters)) {
+      total += exported;
+    }
+
+    listener.onMessage(
+        String.format(
+            "\n\nDone. Exported %,d records of %d clusters in %,.2f secs\n",
+            total, clusters, ((float) (System.currentTimeMillis() - begin)) / 1000));
+    return total;
+  }
+
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  public void setParallelism(final int parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  @Override
+  protected void parseSetting(final String option, final List<String> items) {
+    if (option.equalsIgnoreCase("-parallel")) parallelism = Integer.parseInt(items.get(0));
+    else if (option.equalsIgnoreCase("-compressionLevel"))
+      compressionLevel = Integer.parseInt(items.get(0));
+    else if (option.equalsIgnoreCase("-compressionBuffer"))
+      compressionBuffer = Integer.parseInt(items.get(0));
+    else super.parseSetting(option, items);
+  }
+
+  /** Job of a worker, it owns the session and polls its work items from the shared queue. */
+  protected interface OWorker<I, R> {
+    R run(ODatabaseDocumentInternal session, Queue<I> items) throws Exception;
+  }
+
+  /**
+   * Runs up to <code>parallelism</code> workers, each one on its own copy of the database session,
+   * until the queue of work items is drained.
+   *
+   * @return the results of the workers
+   */
+  protected static <I, R> List<R> runWorkers(
+      final ODatabaseDocumentInternal database,
+      final int parallelism,
+      final Queue<I> items,
+      final String threadName,
+      final OWorker<I, R> worker)
+      throws Exception {
+    final int workers = Math.max(1, Math.min(parallelism, items.size()));
+
+    // SESSIONS ARE COPIED ON THIS THREAD, EVERY WORKER THEN OWNS ITS COPY
+    final List<ODatabaseDocumentInternal> sessions = new ArrayList<>();
+    for (int i = 0; i < workers; i++) {
+      sessions.add(database.copy());
+    }
+    database.activateOnCurrentThread();
+
+    final ExecutorService executor =
+        new OThreadPoolExecutorWithLogging(
+            workers,
+            workers,
+            0,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            r -> {
+              final Thread thread = new Thread(r, threadName);
+              thread.setDaemon(true);
+              return thread;
+            });
+    try {
+      final List<Future<R>> jobs = new ArrayList<>();
+      for (ODatabaseDocumentInternal session : sessions) {
+        jobs.add(
+            executor.submit(
+                () -> {
+                  session.activateOnCurrentThread();
+                  try {
+                    return worker.run(session, items);
+                  } finally {
+                    session.close();
+                    ODatabaseRecordThreadLocal.instance().remove();
+                  }
+                }));
+      }
+
+      final List<R> results = new ArrayList<>();
+      for (Future<R> job : jobs) {
+        results.add(job.get());
+      }
+      return results;
+    } finally {
+      // ON FAILURE THE WORKERS STILL RUNNING STOP AT THEIR NEXT ITEM
+      items.clear();
+      executor.shutdown();
+      executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+      database.activateOnCurrentThread();
+    }
+  }
+
+  private void exportMetadata() throws IOException {
+    final ODatabaseExport export =
+        new ODatabaseExport(database, Paths.get(fileName, METADATA_FILE).toString(), listener);
+    export.setIncludeInfo(true);
+    export.setIncludeClusterDefinitions(includeClusterDefinitions);
+    export.setIncludeSchema(includeSchema);
+    export.setIncludeSecurity(includeSecurity);
+    export.setIncludeRecords(false);
+    export.setIncludeIndexDefinitions(false);
+    export.setIncludeManualIndexes(false);
+    export.exportDatabase();
+  }
+
+  /**
+   * Index definitions are kept apart from the metadata, so that the import can create the indexes
+   * after all the records have been loaded and build them in bulk.
+   */
+  private void exportIndexDefinitions() throws IOException {
+    final ODatabaseExport export =
+        new ODatabaseExport(database, Paths.get(fileName, INDEXES_FILE).toString(), listener);
+    export.setIncludeInfo(true);
+    export.setIncludeClusterDefinitions(false);
+    export.setIncludeSchema(false);
+    export.setIncludeSecurity(false);
+    export.setIncludeRecords(false);
+    export.setIncludeIndexDefinitions(true);
+    export.setIncludeManualIndexes(false);
+    export.exportDatabase();
+  }
+
+  private List<Integer> getClustersToExport() {
+    final List<Integer> result = new ArrayList<>();
+    for (String clusterName : database.getClusterNames()) {
+      if (OMetadataDefault.CLUSTER_INTERNAL_NAME.equalsIgnoreCase(clusterName)
+          || OMetadataDefault.CLUSTER_INDEX_NAME.equalsIgnoreCase(clusterName)
+          || OMetadataDefault.CLUSTER_MANUAL_INDEX_NAME.equalsIgnoreCase(clusterName)) continue;
+
+      // CHECK IF THE CLUSTER IS INCLUDED
+      final String name = clusterName.toUpperCase(Locale.ENGLISH);
+      if (includeClusters != null) {
+        if (!includeClusters.contains(name)) continue;
+      } else if (excludeClusters != null) {
+        if (excludeClusters.contains(name)) continue;
+      }
+      result.add(database.getClusterIdByName(clusterName));
+    }
+    return result;
+  }
+
+  private long exportClusters(
+      final ODatabaseDocumentInternal session, final Queue<Integer> clusterIds)
+      throws IOException {
+    long exported = 0;
+    Integer clusterId;
+    while ((clusterId = clusterIds.poll()) != null) {
+      exported += exportCluster(session, clusterId);
+    }
+    return exported;
+  }
+
+  private long exportCluster(final ODatabaseDocumentInternal session, final int clusterId)
+      throws IOException {
+    final String clusterName = session.getClusterNameById(clusterId);
+    final Path segment = Paths.get(fileName, SEGMENT_PREFIX + clusterId + SEGMENT_EXTENSION);
+    long exported = 0;
+
+    try (DataOutputStream out =
+        new DataOutputStream(
+            new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(segment), compressionBuffer) {
+                  {
+                    def.setLevel(compressionLevel);
+                  }
+                },
+                compressionBuffer))) {
+      out.writeInt(SEGMENT_VERSION);
+      out.writeUTF(clusterName);
+      out.writeInt(clusterId);
+
+      final ORecordIteratorCluster<ORecord> it = session.browseCluster(clusterName);
+      while (it.hasNext()) {
+        final ORecord record = it.next();
+        if (!isIncluded(record)) continue;
+
+        final byte[] content = ORecordSerializerNetworkV37.INSTANCE.toStream(toPortable(record));
+        out.writeLong(record.getIdentity().getClusterPosition());
+        out.writeByte(ORecordInternal.getRecordType(record));
+        out.writeInt(content.length);
+        out.write(content);
+        exported++;
+      }
+      out.writeLong(END_OF_SEGMENT);
+
+      final Set<ORID> brokenRids = it.getBrokenRIDs();
+      out.writeInt(brokenRids.size());
+      for (ORID rid : brokenRids) {
+        out.writeInt(rid.getClusterId());
+        out.writeLong(rid.getClusterPosition());
+      }
+    }
+
+    onMessage(
+        "\n- Cluster '"
+            + clusterName
+            + "' (id="
+            + clusterId
+            + ")...OK (records="
+            + exported
+            + ")");
+    return exported;
+  }
+
+  private boolean isIncluded(final ORecord record) {
+    if (record instanceof ODocument) {
+      // CHECK IF THE CLASS OF THE DOCUMENT IS INCLUDED
+      final String className = ((ODocument) record).getClassName();
+      final String name = className != null ? className.toUpperCase(Locale.ENGLISH) : null;
+      if (includeClasses != null) return includeClasses.contains(name);
+      return excludeClasses == null || !excludeClasses.contains(name);
+    }
+    return includeClasses == null || includeClasses.isEmpty();
+  }
+
+  /**
+   * Tree based rid bags are serialized as a pointer to the storage they belong to: documents
+   * containing them are copied replacing the rid bags with embedded ones. The copy is never saved.
+   */
+  private static ORecord toPortable(final ORecord record) {
+    if (!(record instanceof ODocument)) return record;
+
+    final ODocument document = (ODocument) record;
+    boolean embedded = true;
+    for (String fieldName : document.fieldNames()) {
+      final Object value = document.rawField(fieldName);
+      if (value instanceof ORidBag && !((ORidBag) value).isEmbedded()) {
+        embedded = false;
+        break;
+      }
+    }
+    if (embedded) return document;
+
+    final ODocument portable = new ODocument();
+    ODocumentInternal.fillClassNameIfNeeded(portable, document.getClassName());
+    for (String fieldName : document.fieldNames()) {
+      Object value = document.rawField(fieldName);
+      if (value instanceof ORidBag && !((ORidBag) value).isEmbedded()) {
+        // THRESHOLDS PREVENT THE CONVERSION BACK TO A TREE
+        final ORidBag bag = new ORidBag(Integer.MAX_VALUE, -1);
+        final Iterator<OIdentifiable> iterator = ((ORidBag) value).rawIterator();
+        while (iterator.hasNext()) bag.add(iterator.next());
+        value = bag;
+      }
+      ODocumentInternal.rawField(portable, fieldName, value, document.fieldType(fieldName));
+    }
+    return portable;
+  }
+
+  private void onMessage(final String text) {
+    synchronized (listener) {
+      listener.onMessage(text);
+    }
+  }
+}
@@ -0,0 +1,379 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+package com.orientechnologies.orient.core.db.tool;
+
+import static com.orientechnologies.orient.core.db.tool.ODatabaseParallelExport.END_OF_SEGMENT;
+import static com.orientechnologies.orient.core.db.tool.ODatabaseParallelExport.INDEXES_FILE;
+import static com.orientechnologies.orient.core.db.tool.ODatabaseParallelExport.METADATA_FILE;
+import static com.orientechnologies.orient.core.db.tool.ODatabaseParallelExport.SEGMENT_EXTENSION;
+import static com.orientechnologies.orient.core.db.tool.ODatabaseParallelExport.SEGMENT_VERSION;
+
+import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.command.OCommandOutputListener;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.document.ODocumentFieldWalker;
+import com.orientechnologies.orient.core.db.tool.importer.OConverterData;
+import com.orientechnologies.orient.core.db.tool.importer.OLinksRewriter;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.intent.OIntentMassiveInsert;
+import com.orientechnologies.orient.core.iterator.ORecordIteratorCluster;
+import com.orientechnologies.orient.core.record.ORecord;
+import com.orientechnologies.orient.core.record.ORecordInternal;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.serialization.serializer.record.binary.ORecordSerializerNetworkV37;
+import com.orientechnologies.orient.core.sql.executor.ORidLongMap;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Imports a database exported by {@link ODatabaseParallelExport}.
+ *
+ * <p>The metadata is imported first, then the cluster segments are loaded concurrently by a pool
+ * of workers, each one on a private copy of the database session. Records that cannot keep their
+ * original RID are tracked in an {@link ORidLongMap} and, if there are any, links are rewritten in
+ * a second parallel pass. Indexes are created only once all the records have been loaded, so every
+ * index is built in a single bulk pass instead of being updated record by record.
+ */
+public class ODatabaseParallelImport extends ODatabaseImpExpAbstract {
+  private static final int BUFFER_SIZE = 65536; // 64Kb
+
+  private int parallelism = Runtime.getRuntime().availableProcessors();
+  private boolean migrateLinks = true;
+  private boolean rebuildIndexes = true;
+
+  public ODatabaseParallelImport(
+      final ODatabaseDocumentInternal iDatabase,
+      final String iDirectory,
+      final OCommandOutputListener iListener) {
+    super(iDatabase, iDirectory, iListener);
+
+    if (iDirectory == null) throw new IllegalArgumentException("directory missing");
+
+    // THE FORMAT IS A DIRECTORY: DISCARD THE DEFAULT EXTENSION
+    fileName = iDirectory;
+  }
+
+  @Override
+  public void run() {
+    importDatabase();
+  }
+
+  @Override
+  public ODatabaseParallelImport setOptions(final String iOptions) {
+    super.setOptions(iOptions);
+    return this;
+  }
+
+  public ODatabaseParallelImport importDatabase() {
+    try {
+      listener.onMessage(
+          "\nStarted parallel import of database '"
+              + database.getURL()
+              + "' from "
+              + fileName
+              + " (parallelism: "
+              + parallelism
+              + ")...");
+
+      final long time = System.currentTimeMillis();
+
+      if (!Files.isDirectory(Paths.get(fileName)))
+        throw new ODatabaseImportException("Directory '" + fileName + "' does not exist");
+
+      importJson(METADATA_FILE, false);
+      if (includeRecords) importRecords();
+      if (Files.exists(Paths.get(fileName, INDEXES_FILE))) importJson(INDEXES_FILE, true);
+
+      listener.onMessage(
+          "\n\nDatabase import completed in " + (System.currentTimeMillis() - time) + " ms");
+    } catch (Exception e) {
+      OLogManager.instance()
+          .error(
+              this, "Error on importing database '%s' from: %s", e, database.getName(), fileName);
+      throw OException.wrapException(
+          new ODatabaseImportException(
+              "Error on importing database '" + database.getName() + "' from: " + fileName),
+          e);
+    } finally {
+      database.activateOnCurrentThread();
+    }
+    return this;
+  }
+
+  public long importRecords() throws Exception {
+    listener.onMessage("\n\nImporting records...");
+
+    final long begin = System.currentTimeMillis();
+    final Queue<Path> segments = new ConcurrentLinkedQueue<>();
+    try (DirectoryStream<Path> stream =
+        Files.newDirectoryStream(Paths.get(fileName), "*" + SEGMENT_EXTENSION)) {
+      for (Path segment : stream) segments.add(segment);
+    }
+
+    final List<SegmentResult> results =
+        ODatabaseParallelExport.runWorkers(
+            database, parallelism, segments, "OrientDB parallel import", this::importSegments);
+
+    final ORidLongMap ridMap = new ORidLongMap();
+    final Set<ORID> brokenRids = new HashSet<>();
+    final Set<String> clusterNames = new HashSet<>();
+    long total = 0;
+    for (SegmentResult result : results) {
+      ridMap.putAll(result.ridMap);
+      brokenRids.addAll(result.brokenRids);
+      clusterNames.addAll(result.clusterNames);
+      total += result.records;
+    }
+
+    listener.onMessage(
+        String.format(
+            "\n\nDone. Imported %,d records in %,.2f secs\n",
+            total, ((float) (System.currentTimeMillis() - begin)) / 1000));
+
+    if (migrateLinks && (!ridMap.isEmpty() || !brokenRids.isEmpty()))
+      migrateLinks(clusterNames, ridMap, brokenRids);
+
+    return total;
+  }
+
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  public void setParallelism(final int parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  public boolean isMigrateLinks() {
+    return migrateLinks;
+  }
+
+  public void setMigrateLinks(final boolean migrateLinks) {
+    this.migrateLinks = migrateLinks;
+  }
+
+  public boolean isRebuildIndexes() {
+    return rebuildIndexes;
+  }
+
+  public void setRebuildIndexes(final boolean rebuildIndexes) {
+    this.rebuildIndexes = rebuildIndexes;
+  }
+
+  @Override
+  protected void parseSetting(final String option, final List<String> items) {
+    if (option.equalsIgnoreCase("-parallel")) parallelism = Integer.parseInt(items.get(0));
+    else if (option.equalsIgnoreCase("-migrateLinks"))
+      migrateLinks = Boolean.parseBoolean(items.get(0));
+    else if (option.equalsIgnoreCase("-rebuildIndexes"))
+      rebuildIndexes = Boolean.parseBoolean(items.get(0));
+    else super.parseSetting(option, items);
+  }
+
+  /**
+   * Imports one of the JSON files of the export. The metadata replaces the default classes of the
+   * database, the index definitions are merged in.
+   */
+  private void importJson(final String file, final boolean indexes) throws IOException {
+    final ODatabaseImport importer =
+        new ODatabaseImport(database, Paths.get(fileName, file).toString(), listener);
+    importer.setMerge(indexes);
+    importer.setMigrateLinks(false);
+    importer.setRebuildIndexes(indexes && rebuildIndexes);
+    importer.importDatabase();
+  }
+
+  private SegmentResult importSegments(
+      final ODatabaseDocumentInternal session, final Queue<Path> segments) throws IOException {
+    session.declareIntent(new OIntentMassiveInsert());
+    session.setValidationEnabled(false);
+
+    final SegmentResult result = new SegmentResult();
+    Path segment;
+    while ((segment = segments.poll()) != null) {
+      importSegment(session, segment, result);
+    }
+    return result;
+  }
+
+  private void importSegment(
+      final ODatabaseDocumentInternal session, final Path segment, final SegmentResult result)
+      throws IOException {
+    try (DataInputStream in =
+        new DataInputStream(
+            new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(segment), BUFFER_SIZE), BUFFER_SIZE))) {
+      final int version = in.readInt();
+      if (version != SEGMENT_VERSION)
+        throw new ODatabaseImportException(
+            "Segment '" + segment + "' has unsupported version " + version);
+
+      final String clusterName = in.readUTF();
+      final int sourceClusterId = in.readInt();
+      final int clusterId = session.getClusterIdByName(clusterName);
+      if (clusterId < 0)
+        throw new ODatabaseImportException(
+            "Cluster '" + clusterName + "' of segment '" + segment + "' does not exist");
+
+      // RECORDS CREATED WITH THE DATABASE (EG. DEFAULT USERS) ARE OVERWRITTEN OR REMOVED
+      final Set<ORID> recordsBeforeImport = new HashSet<>();
+      final ORecordIteratorCluster<ORecord> it = session.browseCluster(clusterName);
+      while (it.hasNext()) recordsBeforeImport.add(it.next().getIdentity());
+
+      long records = 0;
+      long position;
+      while ((position = in.readLong()) != END_OF_SEGMENT) {
+        final byte recordType = in.readByte();
+        final byte[] content = new byte[in.readInt()];
+        in.readFully(content);
+
+        final ORecord record =
+            Orient.instance().getRecordFactoryManager().newInstance(recordType, clusterId, session);
+        ORecordSerializerNetworkV37.INSTANCE.fromStream(content, record, null);
+        ORecordInternal.setRecordSerializer(record, session.getSerializer());
+
+        final ORecordId rid = new ORecordId(clusterId, position);
+        if (recordsBeforeImport.remove(rid)) {
+          ORecordInternal.setIdentity(record, rid);
+          ORecordInternal.setVersion(record, session.load(rid).getVersion());
+        }
+        record.setDirty();
+        record.save(clusterName);
+
+        final ORID sourceRid = new ORecordId(sourceClusterId, position);
+        if (!sourceRid.equals(record.getIdentity())) {
+          final long newRid = ORidLongMap.pack(record.getIdentity());
+          if (newRid < 0)
+            throw new ODatabaseImportException(
+                "Record "
+                    + sourceRid
+                    + " was imported as "
+                    + record.getIdentity()
+                    + ", links to it cannot be migrated");
+          result.ridMap.put(sourceRid, newRid);
+        }
+        records++;
+      }
+
+      final int brokenRids = in.readInt();
+      for (int i = 0; i < brokenRids; i++) {
+        result.brokenRids.add(new ORecordId(in.readInt(), in.readLong()));
+      }
+
+      for (ORID leftOverRid : recordsBeforeImport) {
+        session.delete(leftOverRid);
+      }
+
+      result.clusterNames.add(clusterName);
+      result.records += records;
+      onMessage(
+          "\n- Cluster '"
+              + clusterName
+              + "' (id="
+              + clusterId
+              + ")...OK (records="
+              + records
+              + ")");
+    }
+  }
+
+  private void migrateLinks(
+      final Set<String> clusterNames, final ORidLongMap ridMap, final Set<ORID> brokenRids)
+      throws Exception {
+    listener.onMessage(
+        "\n\nStarted migration of links (-migrateLinks=true). Links are going to be updated according to new RIDs:");
+
+    final long begin = System.currentTimeMillis();
+    long total = 0;
+    for (long migrated :
+        ODatabaseParallelExport.runWorkers(
+            database,
+            parallelism,
+            new ConcurrentLinkedQueue<>(clusterNames),
+            "OrientDB parallel import",
+            (ODatabaseDocumentInternal session, Queue<String> clusters) ->
+                migrateLinks(session, clusters, ridMap, brokenRids))) {
+      total += migrated;
+    }
+
+    listener.onMessage(
+        String.format(
+            "\nTotal links updated: %,d in %,.2f secs",
+            total, ((float) (System.currentTimeMillis() - begin)) / 1000));
+  }
+
+  private long migrateLinks(
+      final ODatabaseDocumentInternal session,
+      final Queue<String> clusterNames,
+      final ORidLongMap ridMap,
+      final Set<ORID> brokenRids) {
+    session.setValidationEnabled(false);
+
+    // THE MAPS ARE ONLY READ FROM NOW ON, SO THEY ARE SHARED BY ALL THE WORKERS
+    final OLinksRewriter rewriter =
+        new OLinksRewriter(new OConverterData(session, brokenRids, ridMap));
+    final ODocumentFieldWalker walker = new ODocumentFieldWalker();
+
+    long migrated = 0;
+    String clusterName;
+    while ((clusterName = clusterNames.poll()) != null) {
+      final ORecordIteratorCluster<ORecord> it = session.browseCluster(clusterName);
+      while (it.hasNext()) {
+        final ORecord record = it.next();
+        if (record instanceof ODocument) {
+          final ODocument document = (ODocument) record;
+          walker.walkDocument(document, rewriter);
+          if (document.isDirty()) {
+            document.save();
+            migrated++;
+          }
+        }
+      }
+    }
+    return migrated;
+  }
+
+  private void onMessage(final String text) {
+    synchronized (listener) {
+      listener.onMessage(text);
+    }
+  }
+
+  private static final class SegmentResult {
+    private final ORidLongMap ridMap = new ORidLongMap();
+    private final Set<ORID> brokenRids = new HashSet<>();
+    private final Set<String> clusterNames = new HashSet<>();
+    private long records;
+  }
+}
@@ -2,15 +2,26 @@ package com.orientechnologies.orient.core.db.tool.importer;
 
 import com.orientechnologies.orient.core.db.ODatabaseSession;
 import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.sql.executor.ORidLongMap;
 import java.util.Set;
 
 /** Created by tglman on 28/07/17. */
 public class OConverterData {
   protected ODatabaseSession session;
   protected Set<ORID> brokenRids;
+  protected ORidLongMap ridMap;
 
   public OConverterData(ODatabaseSession session, Set<ORID> brokenRids) {
     this.session = session;
     this.brokenRids = brokenRids;
   }
+
+  /**
+   * @param ridMap old RIDs mapped to the packed new RIDs, used in place of the RID mapping class
+   *     of the JSON import
+   */
+  public OConverterData(ODatabaseSession session, Set<ORID> brokenRids, ORidLongMap ridMap) {
+    this(session, brokenRids);
+    this.ridMap = ridMap;
+  }
 }
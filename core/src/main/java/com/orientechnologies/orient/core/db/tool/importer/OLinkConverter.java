@@ -4,6 +4,7 @@ import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.db.tool.ODatabaseImport;
 import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.sql.executor.ORidLongMap;
 import com.orientechnologies.orient.core.sql.executor.OResultSet;
 
 /** Created by tglman on 28/07/17. */
@@ -21,6 +22,11 @@ public final class OLinkConverter implements OValuesConverter<OIdentifiable> {
 
     if (converterData.brokenRids.contains(rid)) return OImportConvertersFactory.BROKEN_LINK;
 
+    if (converterData.ridMap != null) {
+      final long newRid = converterData.ridMap.get(rid, -1);
+      return newRid < 0 ? value : ORidLongMap.unpack(newRid);
+    }
+
     try (final OResultSet resultSet =
         converterData.session.query(
             "select value from " + ODatabaseImport.EXPORT_IMPORT_CLASS_NAME + " where key = ?",
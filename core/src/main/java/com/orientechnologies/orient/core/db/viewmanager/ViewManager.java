@@ -5,6 +5,7 @@ import com.orientechnologies.common.exception.OException;
 import com.orientechnologies.common.log.OLogManager;
 import com.orientechnologies.common.util.OPair;
 import com.orientechnologies.orient.core.command.OBasicCommandContext;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.db.ODatabase;
 import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
 import com.orientechnologies.orient.core.db.ODatabaseSession;
@@ -13,11 +14,13 @@ import com.orientechnologies.orient.core.db.OScenarioThreadLocal;
 import com.orientechnologies.orient.core.db.OrientDBInternal;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocumentEmbedded;
+import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.index.OCompositeIndexDefinition;
 import com.orientechnologies.orient.core.index.OIndex;
 import com.orientechnologies.orient.core.index.OIndexDefinition;
 import com.orientechnologies.orient.core.index.OIndexManagerAbstract;
 import com.orientechnologies.orient.core.index.OPropertyIndexDefinition;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
 import com.orientechnologies.orient.core.metadata.schema.OImmutableClass;
 import com.orientechnologies.orient.core.metadata.schema.OSchema;
 import com.orientechnologies.orient.core.metadata.schema.OType;
@@ -28,6 +31,13 @@ import com.orientechnologies.orient.core.record.OElement;
 import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.sql.executor.OResult;
 import com.orientechnologies.orient.core.sql.executor.OResultSet;
+import com.orientechnologies.orient.core.sql.parser.OAndBlock;
+import com.orientechnologies.orient.core.sql.parser.OBetweenCondition;
+import com.orientechnologies.orient.core.sql.parser.OBinaryCondition;
+import com.orientechnologies.orient.core.sql.parser.OBooleanExpression;
+import com.orientechnologies.orient.core.sql.parser.OExpression;
+import com.orientechnologies.orient.core.sql.parser.OFromClause;
+import com.orientechnologies.orient.core.sql.parser.OIsNullCondition;
 import com.orientechnologies.orient.core.sql.parser.OProjection;
 import com.orientechnologies.orient.core.sql.parser.OProjectionItem;
 import com.orientechnologies.orient.core.sql.parser.OSelectStatement;
@@ -37,9 +47,11 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.TimerTask;
 import java.util.UUID;
 import java.util.concurrent.Callable;
@@ -81,6 +93,14 @@ public class ViewManager {
 
   private final Map<String, Long> lastChangePerClass = new ConcurrentHashMap<>();
 
+  /**
+   * Records changed since the last refresh, for the views that can be maintained incrementally.
+   *
+   * <p>view name -> changes
+   */
+  private final ConcurrentMap<String, ViewChanges> pendingChangesPerView =
+      new ConcurrentHashMap<>();
+
   private volatile String lastUpdatedView = null;
   private volatile TimerTask timerTask;
   private volatile Future<?> lastTask;
@@ -313,6 +333,24 @@ public class ViewManager {
   public synchronized void updateView(OView view, ODatabaseDocumentInternal db) {
     lastUpdateTimestampForView.put(view.getName(), System.currentTimeMillis());
 
+    if (updateViewIncrementally(view, db)) {
+      return;
+    }
+
+    // changes that happen while the view is rebuilt are applied again on the next refresh
+    String sourceClass = getIncrementalSourceClass(view, db);
+    if (sourceClass != null) {
+      pendingChangesPerView.put(
+          view.getName(),
+          new ViewChanges(
+              view.getQuery(),
+              sourceClass,
+              db.getConfiguration()
+                  .getValueAsInteger(OGlobalConfiguration.QUERY_VIEW_INCREMENTAL_MAX_CHANGES)));
+    } else {
+      pendingChangesPerView.remove(view.getName());
+    }
+
     int cluster = db.addCluster(getNextClusterNameFor(view, db));
 
     String viewName = view.getName();
@@ -340,6 +378,7 @@ public class ViewManager {
     view = db.getMetadata().getSchema().getView(view.getName());
     if (view == null) {
       // the view was dropped in the meantime
+      pendingChangesPerView.remove(viewName);
       db.dropCluster(clusterName);
       indexes.forEach(x -> x.delete());
       return;
@@ -372,6 +411,206 @@ public class ViewManager {
     cleanUnusedViewClusters(db);
   }
 
+  /**
+   * Applies to the current cluster and indexes of the view the changes of the source records since
+   * the last refresh: the rows of the changed records are removed, then the view query is executed
+   * again on the changed records only.
+   *
+   * @return false if the view cannot be updated incrementally and has to be rebuilt
+   */
+  private boolean updateViewIncrementally(OView view, ODatabaseDocumentInternal db) {
+    ViewChanges changes = pendingChangesPerView.get(view.getName());
+    if (changes == null
+        || changes.isOverflow()
+        || !changes.query.equals(view.getQuery())
+        || view.getClusterIds().length != 1) {
+      return false;
+    }
+    ViewChanges next = new ViewChanges(changes.query, changes.sourceClass, changes.maxChanges);
+    pendingChangesPerView.put(view.getName(), next);
+    Set<ORID> changed = changes.drain(next);
+    if (changed == null) {
+      return false;
+    }
+    if (changed.isEmpty()) {
+      return true;
+    }
+
+    String viewName = view.getName();
+    String originRidField = view.getOriginRidField();
+    String clusterName = db.getClusterNameById(view.getClusterIds()[0]);
+    List<OIndex> indexes = new ArrayList<>(view.getIndexes());
+    String deltaQuery =
+        createDeltaQuery((OSelectStatement) OStatementCache.get(view.getQuery(), db));
+
+    try {
+      applyChangesToView(changed, db, viewName, originRidField, clusterName, indexes, deltaQuery);
+    } catch (RuntimeException e) {
+      OLogManager.instance()
+          .warn(this, "Failed to update view %s incrementally, rebuilding it", e, viewName);
+      return false;
+    }
+    return true;
+  }
+
+  private void applyChangesToView(
+      Set<ORID> changed,
+      ODatabaseDocumentInternal db,
+      String viewName,
+      String originRidField,
+      String clusterName,
+      List<OIndex> indexes,
+      String deltaQuery) {
+    String rowsQuery = "SELECT FROM " + viewName + " WHERE " + originRidField + " IN ?";
+    OScenarioThreadLocal.executeAsDistributed(
+        new Callable<Object>() {
+          @Override
+          public Object call() {
+            List<ORID> batch = new ArrayList<>();
+            for (ORID rid : changed) {
+              batch.add(rid);
+              if (batch.size() == 1000) {
+                applyChanges(batch);
+                batch = new ArrayList<>();
+              }
+            }
+            if (!batch.isEmpty()) {
+              applyChanges(batch);
+            }
+            return null;
+          }
+
+          private void applyChanges(List<ORID> batch) {
+            try (OResultSet rs = db.query(rowsQuery, batch)) {
+              while (rs.hasNext()) {
+                rs.next().getElement().ifPresent(row -> removeItemFromView(row, indexes));
+              }
+            }
+            try (OResultSet rs = db.query(deltaQuery, batch)) {
+              while (rs.hasNext()) {
+                addItemToView(rs.next(), db, originRidField, viewName, clusterName, indexes);
+              }
+            }
+          }
+        });
+  }
+
+  /**
+   * Returns the class the view is calculated from, if the view can be maintained incrementally. It
+   * is possible only if the view query is a plain filter and projection of the records of a
+   * single class, that depends on the properties of each record only, and if the view rows keep
+   * the RID of their origin record.
+   *
+   * @return the name of the source class, or null if the view has to be rebuilt on each refresh
+   */
+  private String getIncrementalSourceClass(OView view, ODatabaseDocumentInternal db) {
+    if (view.getOriginRidField() == null
+        || db.getConfiguration()
+                .getValueAsInteger(OGlobalConfiguration.QUERY_VIEW_INCREMENTAL_MAX_CHANGES)
+            <= 0) {
+      return null;
+    }
+    OStatement stm = OStatementCache.get(view.getQuery(), db);
+    if (!(stm instanceof OSelectStatement)) {
+      return null;
+    }
+    OSelectStatement select = (OSelectStatement) stm;
+    if (select.getGroupBy() != null
+        || select.getOrderBy() != null
+        || select.getSkip() != null
+        || select.getLimit() != null
+        || select.getLetClause() != null
+        || select.getUnwind() != null) {
+      return null;
+    }
+    OFromClause target = select.getTarget();
+    if (target == null
+        || target.getItem() == null
+        || target.getItem().getIdentifier() == null
+        || target.getItem().getModifier() != null) {
+      return null;
+    }
+
+    OProjection projection = select.getProjection();
+    if (projection != null) {
+      if (projection.isDistinct() || projection.isExpand()) {
+        return null;
+      }
+      boolean keepsRid = projection.getItems().size() == 1 && projection.getItems().get(0).isAll();
+      for (OProjectionItem item : projection.getItems()) {
+        if ("@rid".equalsIgnoreCase(item.getProjectionAliasAsString())) {
+          keepsRid = true;
+        } else if (!item.isAll()
+            && (item.isAggregate() || !isRecordLocal(item.getExpression()))) {
+          return null;
+        }
+      }
+      if (!keepsRid) {
+        // the rows could not be matched with their origin records
+        return null;
+      }
+    }
+
+    if (select.getWhereClause() != null && select.getWhereClause().getBaseExpression() != null) {
+      for (OAndBlock block : select.getWhereClause().getBaseExpression().flatten()) {
+        for (OBooleanExpression condition : block.getSubBlocks()) {
+          boolean local;
+          if (condition instanceof OBinaryCondition) {
+            local =
+                isRecordLocal(((OBinaryCondition) condition).getLeft())
+                    && isRecordLocal(((OBinaryCondition) condition).getRight());
+          } else if (condition instanceof OBetweenCondition) {
+            local =
+                isRecordLocal(((OBetweenCondition) condition).getFirst())
+                    && isRecordLocal(((OBetweenCondition) condition).getSecond())
+                    && isRecordLocal(((OBetweenCondition) condition).getThird());
+          } else if (condition instanceof OIsNullCondition) {
+            local = isRecordLocal(((OIsNullCondition) condition).getExpression());
+          } else {
+            local = false;
+          }
+          if (!local) {
+            return null;
+          }
+        }
+      }
+    }
+
+    String className = target.getItem().getIdentifier().getStringValue();
+    if (db.getMetadata().getSchema().existsView(className)) {
+      return null;
+    }
+    OClass clazz = db.getMetadata().getSchema().getClass(className);
+    return clazz == null ? null : clazz.getName();
+  }
+
+  /** true if the expression is a property of the current record or a constant */
+  private static boolean isRecordLocal(OExpression expression) {
+    return expression != null
+        && (expression.isBaseIdentifier()
+            || expression.isEarlyCalculated(new OBasicCommandContext()));
+  }
+
+  /** the view query, executed on a list of RIDs passed as the only parameter */
+  private static String createDeltaQuery(OSelectStatement statement) {
+    StringBuilder builder = new StringBuilder("SELECT");
+    if (statement.getProjection() != null) {
+      builder.append(" ");
+      builder.append(statement.getProjection());
+    }
+    builder.append(" FROM ?");
+    if (statement.getWhereClause() != null) {
+      builder.append(" WHERE ");
+      builder.append(statement.getWhereClause());
+    }
+    return builder.toString();
+  }
+
+  private void removeItemFromView(OElement row, List<OIndex> indexes) {
+    indexes.forEach(idx -> idx.remove(indexedKeyFor(idx, row), row));
+    row.delete();
+  }
+
   private void addItemToView(
       OResult item,
       ODatabaseDocument db,
@@ -507,16 +746,30 @@ public class ViewManager {
   public void recordAdded(
       OImmutableClass clazz, ODocument doc, ODatabaseDocumentEmbedded oDatabaseDocumentEmbedded) {
     lastChangePerClass.put(clazz.getName().toLowerCase(Locale.ENGLISH), System.currentTimeMillis());
+    trackChange(clazz, doc);
   }
 
   public void recordUpdated(
       OImmutableClass clazz, ODocument doc, ODatabaseDocumentEmbedded oDatabaseDocumentEmbedded) {
     lastChangePerClass.put(clazz.getName().toLowerCase(Locale.ENGLISH), System.currentTimeMillis());
+    trackChange(clazz, doc);
   }
 
   public void recordDeleted(
       OImmutableClass clazz, ODocument doc, ODatabaseDocumentEmbedded oDatabaseDocumentEmbedded) {
     lastChangePerClass.put(clazz.getName().toLowerCase(Locale.ENGLISH), System.currentTimeMillis());
+    trackChange(clazz, doc);
+  }
+
+  private void trackChange(OImmutableClass clazz, ODocument doc) {
+    if (pendingChangesPerView.isEmpty()) {
+      return;
+    }
+    for (ViewChanges changes : pendingChangesPerView.values()) {
+      if (clazz.isSubClassOf(changes.sourceClass)) {
+        changes.add(doc.getIdentity());
+      }
+    }
   }
 
   public String getViewFromOldCluster(int clusterId) {
@@ -540,6 +793,52 @@ public class ViewManager {
     item.incrementAndGet();
   }
 
+  /**
+   * RIDs of the source records of a view that changed since the last refresh. When the changes are
+   * drained, the changes that are still arriving are forwarded to the set of the next refresh.
+   */
+  private static class ViewChanges {
+    private final String query;
+    private final String sourceClass;
+    private final int maxChanges;
+    private Set<ORID> rids = new HashSet<>();
+    private boolean overflow = false;
+    private ViewChanges next;
+
+    private ViewChanges(String query, String sourceClass, int maxChanges) {
+      this.query = query;
+      this.sourceClass = sourceClass;
+      this.maxChanges = maxChanges;
+    }
+
+    private synchronized void add(ORID rid) {
+      if (next != null) {
+        next.add(rid);
+        return;
+      }
+      if (overflow) {
+        return;
+      }
+      // records saved in a transaction still have temporary RIDs
+      if (!rid.isPersistent() || rids.size() >= maxChanges) {
+        overflow = true;
+        rids = null;
+        return;
+      }
+      rids.add(rid.copy());
+    }
+
+    private synchronized boolean isOverflow() {
+      return overflow;
+    }
+
+    /** @return the changed RIDs, or null if there are too many to be applied incrementally */
+    private synchronized Set<ORID> drain(ViewChanges next) {
+      this.next = next;
+      return overflow ? null : rids;
+    }
+  }
+
   private class ViewUpdateListener implements OLiveQueryResultListener {
     private final String viewName;
 
@@ -651,8 +651,11 @@ public class OIndexManagerShared extends OIndexManagerAbstract {
       final OIndexDefinition indexDefinition = indexMetadata.getIndexDefinition();
 
       final boolean automatic = indexDefinition != null && indexDefinition.isAutomatic();
-      // XXX: At this moment Lucene-based indexes are not durable, so we still need to rebuild them.
-      final boolean durable = !"LUCENE".equalsIgnoreCase(indexMetadata.getAlgorithm());
+      // XXX: Lucene-based indexes are durable only if they are stored in the database, otherwise we
+      // still need to rebuild them.
+      final boolean durable =
+          !"LUCENE".equalsIgnoreCase(indexMetadata.getAlgorithm())
+              || isStoredInDatabase(indexDocument);
 
       // The database and its index manager are in a special half-open state now, the index manager
       // is created, but not populated
@@ -694,6 +697,11 @@ public class OIndexManagerShared extends OIndexManagerAbstract {
       }
     }
 
+    private boolean isStoredInDatabase(ODocument indexDocument) {
+      final ODocument metadata = indexDocument.field(OIndexInternal.METADATA);
+      return metadata != null && "storage".equals(metadata.field("directory_type"));
+    }
+
     private void rebuildNonDurableAutomaticIndex(
         ODocument indexDocument,
         OIndexInternal index,
@@ -32,6 +32,7 @@ import com.orientechnologies.orient.core.metadata.security.OSecurityShared;
 import com.orientechnologies.orient.core.metadata.security.OUser;
 import com.orientechnologies.orient.core.metadata.sequence.OSequence;
 import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.record.impl.ODocumentFieldLayout;
 import com.orientechnologies.orient.core.schedule.OScheduledEvent;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -62,6 +63,7 @@ public class OImmutableClass implements OClass {
   private final Map<String, OProperty> properties;
   private Map<String, OProperty> allPropertiesMap;
   private Collection<OProperty> allProperties;
+  private ODocumentFieldLayout fieldLayout;
   private final OClusterSelectionStrategy clusterSelection;
   private final int defaultClusterId;
   private final int[] clusterIds;
@@ -143,6 +145,7 @@ public class OImmutableClass implements OClass {
 
       this.allProperties = Collections.unmodifiableCollection(allProperties);
       this.allPropertiesMap = Collections.unmodifiableMap(allPropsMap);
+      this.fieldLayout = ODocumentFieldLayout.of(allPropsMap.values());
       this.restricted = isSubClassOf(OSecurityShared.RESTRICTED_CLASSNAME);
       this.isVertexType = isSubClassOf(OClass.VERTEX_CLASS_NAME);
       this.isEdgeType = isSubClassOf(OClass.EDGE_CLASS_NAME);
@@ -263,6 +266,11 @@ public class OImmutableClass implements OClass {
     return allPropertiesMap;
   }
 
+  /** @return the slots of the properties in the fields of the documents, or null if none */
+  public ODocumentFieldLayout getFieldLayout() {
+    return fieldLayout;
+  }
+
   public void getIndexedProperties(Collection<OProperty> indexedProperties) {
     for (OProperty p : properties.values()) if (areIndexed(p.getName())) indexedProperties.add(p);
     initSuperClasses();
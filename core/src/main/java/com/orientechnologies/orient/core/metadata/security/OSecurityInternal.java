@@ -5,8 +5,10 @@ import com.orientechnologies.orient.core.db.ODatabaseSession;
 import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.metadata.function.OFunction;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
 import com.orientechnologies.orient.core.record.ORecord;
 import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.parser.OBooleanExpression;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -182,6 +184,18 @@ public interface OSecurityInternal {
    */
   boolean isReadRestrictedBySecurityPolicy(ODatabaseSession session, String resource);
 
+  /**
+   * returns the READ predicate that is applied by {@link #canRead(ODatabaseSession, ORecord)} to
+   * all the records of a class (subclasses included) for the current session, so that it can be
+   * added to the WHERE condition of queries on the class
+   *
+   * @param session The session to check for the existece of policies
+   * @param clazz the class
+   * @return the predicate, or null if the records of the class are not filtered by a predicate or
+   *     if they are not all filtered by the same predicate
+   */
+  OBooleanExpression getReadPredicateForClass(ODatabaseSession session, OClass clazz);
+
   /**
    * returns the list of all the filtered properties (for any role defined in the db)
    *
@@ -1607,6 +1607,46 @@ public class OSecurityShared implements OSecurityInternal {
     return true;
   }
 
+  @Override
+  public OBooleanExpression getReadPredicateForClass(ODatabaseSession session, OClass clazz) {
+    if (session.getUser() == null || clazz == null) {
+      return null;
+    }
+    if (OSecurityPolicy.class.getSimpleName().equalsIgnoreCase(clazz.getName())) {
+      return null;
+    }
+    final List<OClass> classes = new ArrayList<>();
+    classes.add(clazz);
+    classes.addAll(clazz.getAllSubclasses());
+
+    // THE SAME PREDICATE HAS TO BE APPLIED BY canRead() TO ALL THE RECORDS THE QUERY CAN RETURN
+    OBooleanExpression result = null;
+    for (OClass c : classes) {
+      if (roleHasPredicateSecurityForClass != null) {
+        for (OSecurityRole role : session.getUser().getRoles()) {
+          Map<String, Boolean> roleMap = roleHasPredicateSecurityForClass.get(role.getName());
+          if (roleMap == null || !Boolean.TRUE.equals(roleMap.get(c.getName()))) {
+            return null;
+          }
+        }
+      }
+      OBooleanExpression predicate =
+          OSecurityEngine.getPredicateForSecurityResource(
+              session, this, "database.class.`" + c.getName() + "`", OSecurityPolicy.Scope.READ);
+      if (predicate == null
+          || OBooleanExpression.TRUE.equals(predicate)
+          || OBooleanExpression.FALSE.equals(predicate)) {
+        return null;
+      }
+      if (result == null) {
+        result = predicate;
+      } else if (!result.toString().equals(predicate.toString())) {
+        return null;
+      }
+    }
+    return result == null ? null : result.copy();
+  }
+
   @Override
   public boolean canUpdate(ODatabaseSession session, ORecord record) {
     if (session.getUser() == null) {
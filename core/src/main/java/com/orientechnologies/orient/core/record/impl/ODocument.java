@@ -84,6 +84,7 @@ import com.orientechnologies.orient.core.record.OVertex;
 import com.orientechnologies.orient.core.serialization.serializer.OStringSerializerHelper;
 import com.orientechnologies.orient.core.serialization.serializer.record.ORecordSerializer;
 import com.orientechnologies.orient.core.serialization.serializer.record.ORecordSerializerFactory;
+import com.orientechnologies.orient.core.serialization.serializer.record.binary.OBinaryFieldOffsets;
 import com.orientechnologies.orient.core.serialization.serializer.record.binary.ORecordSerializerNetwork;
 import com.orientechnologies.orient.core.sql.OSQLHelper;
 import com.orientechnologies.orient.core.sql.executor.OResult;
@@ -146,6 +147,7 @@ public class ODocument extends ORecordAbstract
   private int immutableSchemaVersion = 1;
   protected OPropertyAccess propertyAccess;
   protected OPropertyEncryption propertyEncryption;
+  private transient OBinaryFieldOffsets sourceOffsets;
 
   /** Internal constructor used on unmarshalling. */
   public ODocument() {
@@ -1100,8 +1102,12 @@ public class ODocument extends ORecordAbstract
     destination.owner = owner;
 
     if (fields != null) {
-      destination.fields =
-          fields instanceof LinkedHashMap ? new LinkedHashMap<>() : new HashMap<>();
+      if (fields instanceof ODocumentFieldMap) {
+        destination.fields = new ODocumentFieldMap(((ODocumentFieldMap) fields).getLayout());
+      } else {
+        destination.fields =
+            fields instanceof LinkedHashMap ? new LinkedHashMap<>() : new HashMap<>();
+      }
       for (Entry<String, ODocumentEntry> entry : fields.entrySet()) {
         ODocumentEntry docEntry = entry.getValue().clone();
         destination.fields.put(entry.getKey(), docEntry);
@@ -2032,6 +2038,7 @@ public class ODocument extends ORecordAbstract
     fieldSize = 0;
     contentChanged = false;
     schema = null;
+    sourceOffsets = null;
     fetchSchemaIfCan();
     super.fromStream(iRecordBuffer);
 
@@ -2323,7 +2330,7 @@ public class ODocument extends ORecordAbstract
     checkForLoading();
     checkForFields(iFieldName);
     if (iFieldType != null) {
-      if (fields == null) fields = ordered ? new LinkedHashMap<>() : new HashMap<>();
+      if (fields == null) fields = newFields();
 
       if (iFieldType == OType.CUSTOM) {
         if (!DB_CUSTOM_SUPPORT.getValueAsBoolean()) {
@@ -2786,6 +2793,7 @@ public class ODocument extends ORecordAbstract
   protected void clearSource() {
     super.clearSource();
     schema = null;
+    sourceOffsets = null;
   }
 
   protected OGlobalProperty getGlobalPropertyById(int id) {
@@ -2843,7 +2851,7 @@ public class ODocument extends ORecordAbstract
 
   protected void rawField(
       final String iFieldName, final Object iFieldValue, final OType iFieldType) {
-    if (fields == null) fields = ordered ? new LinkedHashMap<>() : new HashMap<>();
+    if (fields == null) fields = newFields();
 
     ODocumentEntry entry = getOrCreate(iFieldName);
     entry.disableTracking(this, entry.value);
@@ -2858,6 +2866,20 @@ public class ODocument extends ORecordAbstract
       track((OIdentifiable) iFieldValue);
   }
 
+  /**
+   * Creates the map of the fields. Documents of a schema class with properties keep the declared
+   * properties in an array, without an entry of a hash map for each field.
+   */
+  private Map<String, ODocumentEntry> newFields() {
+    if (className != null) {
+      final OImmutableClass clazz = getImmutableSchemaClass();
+      if (clazz != null && clazz.getFieldLayout() != null) {
+        return new ODocumentFieldMap(clazz.getFieldLayout());
+      }
+    }
+    return ordered ? new LinkedHashMap<>() : new HashMap<>();
+  }
+
   protected ODocumentEntry getOrCreate(String key) {
     ODocumentEntry entry = fields.get(key);
     if (entry == null) {
@@ -2868,6 +2890,15 @@ public class ODocument extends ORecordAbstract
     return entry;
   }
 
+  /** @return the offsets of the fields in the source, if they were read before */
+  protected OBinaryFieldOffsets getSourceOffsets() {
+    return sourceOffsets;
+  }
+
+  protected void setSourceOffsets(final OBinaryFieldOffsets sourceOffsets) {
+    this.sourceOffsets = sourceOffsets;
+  }
+
   protected boolean rawContainsField(final String iFiledName) {
     return fields != null && fields.containsKey(iFiledName);
   }
@@ -3251,7 +3282,7 @@ public class ODocument extends ORecordAbstract
   }
 
   protected boolean checkForFields(final String... iFields) {
-    if (fields == null) fields = ordered ? new LinkedHashMap<>() : new HashMap<>();
+    if (fields == null) fields = newFields();
 
     if (status == ORecordElement.STATUS.LOADED && source != null)
       // POPULATE FIELDS LAZY
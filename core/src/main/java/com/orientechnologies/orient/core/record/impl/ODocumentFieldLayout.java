@@ -0,0 +1,103 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+package com.orientechnologies.orient.core.record.impl;
+
+import com.orientechnologies.orient.core.metadata.schema.OProperty;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Slots of the properties of a schema class in the fields of its documents, shared by all the
+ * documents of the class. Properties are sorted by their global id.
+ *
+ * <p>The slots are found in an open addressing table of the names, at most half full, so a lookup
+ * neither boxes the slot nor walks the entries of a hash map, and a name which is not declared
+ * usually stops at the first empty bucket. Field names read by the serializer are the same
+ * instances of the names of the properties, so they are compared by identity first.
+ */
+public final class ODocumentFieldLayout {
+  private final String[] names;
+  private final String[] table;
+  private final short[] tableSlots;
+  private final int mask;
+
+  private ODocumentFieldLayout(final List<OProperty> properties) {
+    names = new String[properties.size()];
+    table = new String[Integer.highestOneBit(names.length) << 2];
+    tableSlots = new short[table.length];
+    mask = table.length - 1;
+
+    for (int i = 0; i < names.length; i++) {
+      names[i] = properties.get(i).getName();
+
+      int bucket = bucket(names[i]);
+      while (table[bucket] != null) {
+        bucket = (bucket + 1) & mask;
+      }
+      table[bucket] = names[i];
+      tableSlots[bucket] = (short) i;
+    }
+  }
+
+  /** @return the layout of the properties, or null if there are none */
+  public static ODocumentFieldLayout of(final Collection<OProperty> properties) {
+    if (properties.isEmpty() || properties.size() > Short.MAX_VALUE) {
+      return null;
+    }
+
+    final List<OProperty> sorted = new ArrayList<>(properties);
+    sorted.sort(
+        Comparator.comparing(OProperty::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+    return new ODocumentFieldLayout(sorted);
+  }
+
+  /** @return the slot of the property, or -1 if it's not declared */
+  int slot(final Object name) {
+    if (!(name instanceof String)) {
+      return -1;
+    }
+
+    final String key = (String) name;
+    for (int bucket = bucket(key); ; bucket = (bucket + 1) & mask) {
+      final String candidate = table[bucket];
+      if (candidate == null) {
+        return -1;
+      }
+      if (candidate == key || candidate.equals(key)) {
+        return tableSlots[bucket];
+      }
+    }
+  }
+
+  private int bucket(final String name) {
+    final int hash = name.hashCode();
+    return (hash ^ (hash >>> 16)) & mask;
+  }
+
+  String name(final int slot) {
+    return names[slot];
+  }
+
+  int size() {
+    return names.length;
+  }
+}
@@ -0,0 +1,289 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+package com.orientechnologies.orient.core.record.impl;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Fields of a document of a schema class. The entries of the declared properties are kept in an
+ * array indexed by the slot of the property in the {@link ODocumentFieldLayout} of the class, the
+ * other fields in a small map. The order of insertion of all the fields is kept, as in a {@link
+ * LinkedHashMap}, so a document iterates its fields in the same order whatever map it uses.
+ */
+final class ODocumentFieldMap extends AbstractMap<String, ODocumentEntry> {
+  private static final short UNDECLARED = -1;
+
+  private final ODocumentFieldLayout layout;
+  private ODocumentEntry[] declared;
+  private Map<String, ODocumentEntry> undeclared;
+
+  // SLOTS IN ORDER OF INSERTION, UNDECLARED MARKS THE POSITION OF THE NEXT UNDECLARED FIELD
+  private short[] order = new short[4];
+  private int size;
+  private int modCount;
+
+  ODocumentFieldMap(final ODocumentFieldLayout layout) {
+    this.layout = layout;
+  }
+
+  ODocumentFieldLayout getLayout() {
+    return layout;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return get(key) != null;
+  }
+
+  @Override
+  public ODocumentEntry get(final Object key) {
+    if (size == 0) {
+      return null;
+    }
+
+    final int slot = layout.slot(key);
+    if (slot >= 0) {
+      return declared == null ? null : declared[slot];
+    }
+    return undeclared == null ? null : undeclared.get(key);
+  }
+
+  @Override
+  public ODocumentEntry put(final String key, final ODocumentEntry value) {
+    Objects.requireNonNull(value);
+
+    final int slot = layout.slot(key);
+    if (slot >= 0) {
+      if (declared == null) {
+        declared = new ODocumentEntry[layout.size()];
+      }
+
+      final ODocumentEntry old = declared[slot];
+      declared[slot] = value;
+      if (old == null) {
+        append((short) slot);
+      }
+      return old;
+    }
+
+    if (undeclared == null) {
+      undeclared = new LinkedHashMap<>(4);
+    }
+    final ODocumentEntry old = undeclared.put(key, value);
+    if (old == null) {
+      append(UNDECLARED);
+    }
+    return old;
+  }
+
+  @Override
+  public ODocumentEntry remove(final Object key) {
+    final int slot = layout.slot(key);
+    if (slot >= 0) {
+      if (declared == null || declared[slot] == null) {
+        return null;
+      }
+
+      final ODocumentEntry old = declared[slot];
+      declared[slot] = null;
+      removeOrder(indexOf((short) slot, 0));
+      return old;
+    }
+
+    if (undeclared == null || !undeclared.containsKey(key)) {
+      return null;
+    }
+
+    int undeclaredIndex = 0;
+    for (String name : undeclared.keySet()) {
+      if (name.equals(key)) {
+        break;
+      }
+      undeclaredIndex++;
+    }
+    removeOrder(indexOf(UNDECLARED, undeclaredIndex));
+    return undeclared.remove(key);
+  }
+
+  @Override
+  public void clear() {
+    if (declared != null) {
+      Arrays.fill(declared, null);
+    }
+    undeclared = null;
+    size = 0;
+    modCount++;
+  }
+
+  private void append(final short slot) {
+    if (size == order.length) {
+      order = Arrays.copyOf(order, size << 1);
+    }
+    order[size++] = slot;
+    modCount++;
+  }
+
+  /** @return the index of the nth occurrence of the slot in the order of insertion */
+  private int indexOf(final short slot, int occurrence) {
+    for (int i = 0; i < size; i++) {
+      if (order[i] == slot && occurrence-- == 0) {
+        return i;
+      }
+    }
+    throw new IllegalStateException("Field is missing from the order of insertion");
+  }
+
+  private void removeOrder(final int index) {
+    System.arraycopy(order, index + 1, order, index, size - index - 1);
+    size--;
+    modCount++;
+  }
+
+  @Override
+  public Set<Entry<String, ODocumentEntry>> entrySet() {
+    return new AbstractSet<Entry<String, ODocumentEntry>>() {
+      @Override
+      public Iterator<Entry<String, ODocumentEntry>> iterator() {
+        return new FieldIterator();
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+
+      @Override
+      public void clear() {
+        ODocumentFieldMap.this.clear();
+      }
+    };
+  }
+
+  private final class FieldIterator implements Iterator<Entry<String, ODocumentEntry>> {
+    private final Iterator<Entry<String, ODocumentEntry>> undeclaredIterator =
+        undeclared == null ? null : undeclared.entrySet().iterator();
+    private int next;
+    private int last = -1;
+    private int expectedModCount = modCount;
+
+    @Override
+    public boolean hasNext() {
+      return next < size;
+    }
+
+    @Override
+    public Entry<String, ODocumentEntry> next() {
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+      if (next >= size) {
+        throw new NoSuchElementException();
+      }
+
+      last = next;
+      final short slot = order[next++];
+      if (slot == UNDECLARED) {
+        return undeclaredIterator.next();
+      }
+      return new DeclaredEntry(slot);
+    }
+
+    @Override
+    public void remove() {
+      if (last < 0) {
+        throw new IllegalStateException();
+      }
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+
+      final short slot = order[last];
+      if (slot == UNDECLARED) {
+        undeclaredIterator.remove();
+      } else {
+        declared[slot] = null;
+      }
+      removeOrder(last);
+
+      next = last;
+      last = -1;
+      expectedModCount = modCount;
+    }
+  }
+
+  private final class DeclaredEntry implements Entry<String, ODocumentEntry> {
+    private final int slot;
+
+    private DeclaredEntry(final int slot) {
+      this.slot = slot;
+    }
+
+    @Override
+    public String getKey() {
+      return layout.name(slot);
+    }
+
+    @Override
+    public ODocumentEntry getValue() {
+      return declared[slot];
+    }
+
+    @Override
+    public ODocumentEntry setValue(final ODocumentEntry value) {
+      Objects.requireNonNull(value);
+      final ODocumentEntry old = declared[slot];
+      declared[slot] = value;
+      return old;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (!(o instanceof Entry)) {
+        return false;
+      }
+      final Entry<?, ?> entry = (Entry<?, ?>) o;
+      return getKey().equals(entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return getKey().hashCode() ^ Objects.hashCode(getValue());
+    }
+
+    @Override
+    public String toString() {
+      return getKey() + "=" + getValue();
+    }
+  }
+}
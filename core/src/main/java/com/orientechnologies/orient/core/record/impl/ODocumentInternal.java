@@ -28,6 +28,7 @@ import com.orientechnologies.orient.core.metadata.schema.OImmutableSchema;
 import com.orientechnologies.orient.core.metadata.schema.OType;
 import com.orientechnologies.orient.core.metadata.security.OPropertyAccess;
 import com.orientechnologies.orient.core.metadata.security.OPropertyEncryption;
+import com.orientechnologies.orient.core.serialization.serializer.record.binary.OBinaryFieldOffsets;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -134,4 +135,12 @@ public class ODocumentInternal {
   public static void clearTransactionTrackData(ODocument doc) {
     doc.clearTransactionTrackData();
   }
+
+  public static OBinaryFieldOffsets getSourceOffsets(ODocument doc) {
+    return doc.getSourceOffsets();
+  }
+
+  public static void setSourceOffsets(ODocument doc, OBinaryFieldOffsets sourceOffsets) {
+    doc.setSourceOffsets(sourceOffsets);
+  }
 }
@@ -0,0 +1,97 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+
+package com.orientechnologies.orient.core.serialization.serializer.record.binary;
+
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Position, length and type of the value of every field of a serialized document, read once from
+ * the header of the document. A document loaded from storage keeps them with its source, so the
+ * fields it's asked for are decoded one at a time without scanning the header again.
+ */
+public final class OBinaryFieldOffsets {
+  private final byte[] source;
+  private final String[] names;
+  private final int[] offsets;
+  private final int[] lengths;
+  private final OType[] types;
+  private final Map<String, Integer> positions;
+
+  OBinaryFieldOffsets(
+      final byte[] source,
+      final String[] names,
+      final int[] offsets,
+      final int[] lengths,
+      final OType[] types) {
+    this.source = source;
+    this.names = names;
+    this.offsets = offsets;
+    this.lengths = lengths;
+    this.types = types;
+
+    this.positions = new HashMap<>(names.length * 2);
+    for (int i = 0; i < names.length; i++) {
+      positions.put(names[i], i);
+    }
+  }
+
+  /** @return true if the offsets were read from this serialized content */
+  public boolean isOf(final byte[] source) {
+    return this.source == source;
+  }
+
+  byte[] getSource() {
+    return source;
+  }
+
+  int size() {
+    return names.length;
+  }
+
+  /** @return the position of the field, or -1 if the document has no such field */
+  int indexOf(final String name) {
+    final Integer position = positions.get(name);
+    return position == null ? -1 : position;
+  }
+
+  String getName(final int position) {
+    return names[position];
+  }
+
+  String[] getNames() {
+    return names.clone();
+  }
+
+  int getOffset(final int position) {
+    return offsets[position];
+  }
+
+  /** @return the length of the value, 0 if the value is null */
+  int getLength(final int position) {
+    return lengths[position];
+  }
+
+  OType getType(final int position) {
+    return types[position];
+  }
+}
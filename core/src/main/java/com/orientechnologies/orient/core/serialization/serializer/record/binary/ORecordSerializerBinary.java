@@ -26,6 +26,7 @@ import com.orientechnologies.orient.core.id.ORecordId;
 import com.orientechnologies.orient.core.record.ORecord;
 import com.orientechnologies.orient.core.record.impl.OBlob;
 import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.record.impl.ODocumentInternal;
 import com.orientechnologies.orient.core.record.impl.ORecordFlat;
 import com.orientechnologies.orient.core.serialization.serializer.record.ORecordSerializer;
 import com.orientechnologies.orient.core.sql.executor.OResult;
@@ -96,11 +97,14 @@ public class ORecordSerializerBinary implements ORecordSerializer {
     }
 
     final BytesContainer container = new BytesContainer(iSource).skip(1);
+    final ODocumentSerializer serializer = serializerByVersion[iSource[0]];
 
     try {
-      if (iFields != null && iFields.length > 0)
-        serializerByVersion[iSource[0]].deserializePartial((ODocument) iRecord, container, iFields);
-      else serializerByVersion[iSource[0]].deserialize((ODocument) iRecord, container);
+      if (serializer instanceof ORecordSerializerBinaryV1) {
+        fromStream((ORecordSerializerBinaryV1) serializer, iSource, (ODocument) iRecord, iFields);
+      } else if (iFields != null && iFields.length > 0)
+        serializer.deserializePartial((ODocument) iRecord, container, iFields);
+      else serializer.deserialize((ODocument) iRecord, container);
     } catch (RuntimeException e) {
       e.printStackTrace();
       OLogManager.instance()
@@ -114,6 +118,35 @@ public class ORecordSerializerBinary implements ORecordSerializer {
     return iRecord;
   }
 
+  /**
+   * Decodes the fields of a document one at a time: the first partial load reads the offsets of
+   * all the fields from the header and keeps them in the document, so the next loads of other
+   * fields, and the full load, don't scan the header again.
+   */
+  private void fromStream(
+      final ORecordSerializerBinaryV1 serializer,
+      final byte[] iSource,
+      final ODocument document,
+      final String[] iFields) {
+    OBinaryFieldOffsets offsets = ODocumentInternal.getSourceOffsets(document);
+    if (offsets != null && !offsets.isOf(iSource)) {
+      offsets = null;
+    }
+
+    if (iFields != null && iFields.length > 0) {
+      if (offsets == null) {
+        offsets =
+            serializer.readFieldOffsets(document, iSource, new BytesContainer(iSource).skip(1));
+        ODocumentInternal.setSourceOffsets(document, offsets);
+      }
+      serializer.deserializePartial(document, offsets, iFields);
+    } else if (offsets != null) {
+      serializer.deserialize(document, offsets);
+    } else {
+      serializer.deserialize(document, new BytesContainer(iSource).skip(1));
+    }
+  }
+
   @Override
   public byte[] toStream(ORecord record) {
     if (record instanceof OBlob) {
@@ -139,6 +172,12 @@ public class ORecordSerializerBinary implements ORecordSerializer {
   public String[] getFieldNames(ODocument reference, final byte[] iSource) {
     if (iSource == null || iSource.length == 0) return new String[0];
 
+    final OBinaryFieldOffsets offsets =
+        reference != null ? ODocumentInternal.getSourceOffsets(reference) : null;
+    if (offsets != null && offsets.isOf(iSource)) {
+      return offsets.getNames();
+    }
+
     final BytesContainer container = new BytesContainer(iSource).skip(1);
 
     try {
@@ -168,6 +168,114 @@ public class ORecordSerializerBinaryV1 implements ODocumentSerializer {
     }
   }
 
+  /**
+   * Reads the position of the values of all the fields from the header of a document, without
+   * decoding any value.
+   *
+   * @param source the serialized content the bytes come from
+   */
+  public OBinaryFieldOffsets readFieldOffsets(
+      final ODocument document, final byte[] source, final BytesContainer bytes) {
+    final int headerLength = OVarIntSerializer.readAsInteger(bytes);
+    final int valuesStart = bytes.offset + headerLength;
+    int currentValuePos = valuesStart;
+
+    final List<String> names = new ArrayList<>();
+    final List<OType> types = new ArrayList<>();
+    int[] offsets = new int[8];
+    int[] lengths = new int[8];
+
+    while (bytes.offset < valuesStart) {
+      final String fieldName;
+      final int fieldLength;
+      final OType type;
+
+      final int len = OVarIntSerializer.readAsInteger(bytes);
+      if (len > 0) {
+        fieldName = stringFromBytes(bytes.bytes, bytes.offset, len).intern();
+        bytes.skip(len);
+        final Tuple<Integer, OType> pointerAndType = getFieldSizeAndTypeFromCurrentPosition(bytes);
+        fieldLength = pointerAndType.getFirstVal();
+        type = pointerAndType.getSecondVal();
+      } else {
+        final OGlobalProperty prop = getGlobalProperty(document, len);
+        fieldName = prop.getName();
+        fieldLength = OVarIntSerializer.readAsInteger(bytes);
+        type = getPropertyTypeFromStream(prop, bytes);
+      }
+
+      final int position = names.size();
+      if (position == offsets.length) {
+        offsets = Arrays.copyOf(offsets, position << 1);
+        lengths = Arrays.copyOf(lengths, position << 1);
+      }
+      names.add(fieldName);
+      types.add(type);
+      offsets[position] = currentValuePos;
+      lengths[position] = fieldLength;
+
+      currentValuePos += fieldLength;
+    }
+
+    final int size = names.size();
+    return new OBinaryFieldOffsets(
+        source,
+        names.toArray(new String[size]),
+        Arrays.copyOf(offsets, size),
+        Arrays.copyOf(lengths, size),
+        types.toArray(new OType[size]));
+  }
+
+  /**
+   * Decodes the requested fields which are not in the document yet, using the offsets read before
+   * from its header.
+   */
+  public void deserializePartial(
+      final ODocument document, final OBinaryFieldOffsets offsets, final String[] iFields) {
+    final BytesContainer bytes = new BytesContainer(offsets.getSource());
+    for (String fieldName : iFields) {
+      if (fieldName == null) {
+        continue;
+      }
+
+      final int position = offsets.indexOf(fieldName);
+      if (position >= 0 && !ODocumentInternal.rawContainsField(document, fieldName)) {
+        deserializeField(document, offsets, position, bytes);
+      }
+    }
+  }
+
+  /**
+   * Decodes all the fields which are not in the document yet, using the offsets read before from
+   * its header.
+   */
+  public void deserialize(final ODocument document, final OBinaryFieldOffsets offsets) {
+    final BytesContainer bytes = new BytesContainer(offsets.getSource());
+    for (int position = 0; position < offsets.size(); position++) {
+      if (!ODocumentInternal.rawContainsField(document, offsets.getName(position))) {
+        deserializeField(document, offsets, position, bytes);
+      }
+    }
+
+    ORecordInternal.clearSource(document);
+  }
+
+  private void deserializeField(
+      final ODocument document,
+      final OBinaryFieldOffsets offsets,
+      final int position,
+      final BytesContainer bytes) {
+    final String fieldName = offsets.getName(position);
+    if (offsets.getLength(position) != 0) {
+      final OType type = offsets.getType(position);
+      bytes.offset = offsets.getOffset(position);
+      final Object value = deserializeValue(bytes, type, document);
+      ODocumentInternal.rawField(document, fieldName, value, type);
+    } else {
+      ODocumentInternal.rawField(document, fieldName, null, null);
+    }
+  }
+
   private boolean checkMatchForLargerThenZero(
       final BytesContainer bytes, final byte[] field, int len) {
     if (field.length != len) {
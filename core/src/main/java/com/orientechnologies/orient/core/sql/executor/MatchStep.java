@@ -115,6 +115,10 @@ public class MatchStep extends AbstractExecutionStep {
   }
 
   protected MatchEdgeTraverser createTraverser(OResult lastUpstreamRecord) {
+    return createTraverser(lastUpstreamRecord, edge);
+  }
+
+  static MatchEdgeTraverser createTraverser(OResult lastUpstreamRecord, EdgeTraversal edge) {
     if (edge.edge.item instanceof OMultiMatchPathItem) {
       return new MatchMultiEdgeTraverser(lastUpstreamRecord, edge);
     } else if (edge.edge.item instanceof OFieldMatchPathItem) {
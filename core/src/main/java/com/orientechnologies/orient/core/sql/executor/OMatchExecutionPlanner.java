@@ -3,7 +3,9 @@ package com.orientechnologies.orient.core.sql.executor;
 import com.orientechnologies.common.util.OPair;
 import com.orientechnologies.orient.core.command.OBasicCommandContext;
 import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.db.ODatabase;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
 import com.orientechnologies.orient.core.exception.OCommandExecutionException;
 import com.orientechnologies.orient.core.metadata.schema.OClass;
 import com.orientechnologies.orient.core.metadata.schema.OSchema;
@@ -129,13 +131,18 @@ public class OMatchExecutionPlanner {
       for (Pattern subPattern : subPatterns) {
         step.addSubPlan(
             createPlanForPattern(
-                subPattern, context, estimatedRootEntries, aliasesToPrefetch, enableProfiling));
+                subPattern, context, estimatedRootEntries, aliasesToPrefetch, 1, enableProfiling));
       }
       result.chain(step);
     } else {
       OInternalExecutionPlan plan =
           createPlanForPattern(
-              pattern, context, estimatedRootEntries, aliasesToPrefetch, enableProfiling);
+              pattern,
+              context,
+              estimatedRootEntries,
+              aliasesToPrefetch,
+              getParallelism(pattern, context),
+              enableProfiling);
       for (OExecutionStep step : plan.getSteps()) {
         result.chain((OExecutionStepInternal) step);
       }
@@ -216,6 +223,34 @@ public class OMatchExecutionPlanner {
     return false;
   }
 
+  /**
+   * @return the number of threads that should expand the pattern, from the {@link
+   *     ParallelMatchStep#PARALLELISM_HINT} context variable or from {@link
+   *     OGlobalConfiguration#QUERY_MATCH_PARALLELISM}. Patterns with optional nodes and queries
+   *     executed in a transaction (that worker sessions could not see) are always sequential
+   */
+  private int getParallelism(Pattern pattern, OCommandContext context) {
+    ODatabaseDocumentInternal db = (ODatabaseDocumentInternal) context.getDatabase();
+    if (db == null || db.getTransaction().isActive()) {
+      return 1;
+    }
+    if (pattern.aliasToNode.values().stream().anyMatch(PatternNode::isOptionalNode)) {
+      return 1;
+    }
+    Object hint = context.getVariable(ParallelMatchStep.PARALLELISM_HINT);
+    if (hint instanceof Number) {
+      return ((Number) hint).intValue();
+    } else if (hint != null) {
+      try {
+        return Integer.parseInt(hint.toString().trim());
+      } catch (NumberFormatException e) {
+        throw new OCommandExecutionException(
+            "Invalid value for " + ParallelMatchStep.PARALLELISM_HINT + ": " + hint);
+      }
+    }
+    return db.getConfiguration().getValueAsInteger(OGlobalConfiguration.QUERY_MATCH_PARALLELISM);
+  }
+
   private boolean isOptional(String key) {
     PatternNode node = this.pattern.aliasToNode.get(key);
     return node != null && node.isOptionalNode();
@@ -292,12 +327,24 @@ public class OMatchExecutionPlanner {
       OCommandContext context,
       Map<String, Long> estimatedRootEntries,
       Set<String> prefetchedAliases,
+      int parallelism,
       boolean profilingEnabled) {
     OSelectExecutionPlan plan = new OSelectExecutionPlan(context);
     List<EdgeTraversal> sortedEdges = getTopologicalSortedSchedule(estimatedRootEntries, pattern);
 
     boolean first = true;
-    if (sortedEdges.size() > 0) {
+    if (sortedEdges.size() > 0 && parallelism > 1) {
+      for (EdgeTraversal edge : sortedEdges) {
+        if (edge.edge.out.alias != null) {
+          edge.setLeftClass(aliasClasses.get(edge.edge.out.alias));
+          edge.setLeftCluster(aliasClusters.get(edge.edge.out.alias));
+          edge.setLeftRid(aliasRids.get(edge.edge.out.alias));
+          edge.setLeftFilter(aliasFilters.get(edge.edge.out.alias));
+        }
+      }
+      addFirstStepFor(plan, sortedEdges.get(0), context, profilingEnabled);
+      plan.chain(new ParallelMatchStep(context, sortedEdges, parallelism, profilingEnabled));
+    } else if (sortedEdges.size() > 0) {
       for (EdgeTraversal edge : sortedEdges) {
         if (edge.edge.out.alias != null) {
           edge.setLeftClass(aliasClasses.get(edge.edge.out.alias));
@@ -599,30 +646,7 @@ public class OMatchExecutionPlanner {
       boolean first,
       boolean profilingEnabled) {
     if (first) {
-      PatternNode patternNode = edge.out ? edge.edge.out : edge.edge.in;
-      String clazz = this.aliasClasses.get(patternNode.alias);
-      String cluster = this.aliasClusters.get(patternNode.alias);
-      ORid rid = this.aliasRids.get(patternNode.alias);
-      OWhereClause where = aliasFilters.get(patternNode.alias);
-      OSelectStatement select = new OSelectStatement(-1);
-      select.setTarget(new OFromClause(-1));
-      select.getTarget().setItem(new OFromItem(-1));
-      if (clazz != null) {
-        select.getTarget().getItem().setIdentifier(new OIdentifier(clazz));
-      } else if (cluster != null) {
-        select.getTarget().getItem().setCluster(new OCluster(cluster));
-      } else if (rid != null) {
-        select.getTarget().getItem().setRids(Collections.singletonList(rid));
-      }
-      select.setWhereClause(where == null ? null : where.copy());
-      OBasicCommandContext subContxt = new OBasicCommandContext();
-      subContxt.setParentWithoutOverridingChild(context);
-      plan.chain(
-          new MatchFirstStep(
-              context,
-              patternNode,
-              select.createExecutionPlan(subContxt, profilingEnabled),
-              profilingEnabled));
+      addFirstStepFor(plan, edge, context, profilingEnabled);
     }
     if (edge.edge.in.isOptionalNode()) {
       foundOptional = true;
@@ -632,6 +656,37 @@ public class OMatchExecutionPlanner {
     }
   }
 
+  private void addFirstStepFor(
+      OSelectExecutionPlan plan,
+      EdgeTraversal edge,
+      OCommandContext context,
+      boolean profilingEnabled) {
+    PatternNode patternNode = edge.out ? edge.edge.out : edge.edge.in;
+    String clazz = this.aliasClasses.get(patternNode.alias);
+    String cluster = this.aliasClusters.get(patternNode.alias);
+    ORid rid = this.aliasRids.get(patternNode.alias);
+    OWhereClause where = aliasFilters.get(patternNode.alias);
+    OSelectStatement select = new OSelectStatement(-1);
+    select.setTarget(new OFromClause(-1));
+    select.getTarget().setItem(new OFromItem(-1));
+    if (clazz != null) {
+      select.getTarget().getItem().setIdentifier(new OIdentifier(clazz));
+    } else if (cluster != null) {
+      select.getTarget().getItem().setCluster(new OCluster(cluster));
+    } else if (rid != null) {
+      select.getTarget().getItem().setRids(Collections.singletonList(rid));
+    }
+    select.setWhereClause(where == null ? null : where.copy());
+    OBasicCommandContext subContxt = new OBasicCommandContext();
+    subContxt.setParentWithoutOverridingChild(context);
+    plan.chain(
+        new MatchFirstStep(
+            context,
+            patternNode,
+            select.createExecutionPlan(subContxt, profilingEnabled),
+            profilingEnabled));
+  }
+
   private void addPrefetchSteps(
       OSelectExecutionPlan result,
       Set<String> aliasesToPrefetch,
@@ -0,0 +1,240 @@
+package com.orientechnologies.orient.core.sql.executor;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Properties of a result created with a {@link OResultLayout}. The properties of the layout are
+ * kept in an array, the others in a map, and the order of insertion is kept as in a {@link
+ * LinkedHashMap}: a property of the layout is stored in the array only while it's set in the order
+ * of the layout, before any other property, which is what a projection does.
+ */
+final class OResultContent extends AbstractMap<String, Object> {
+  private static final Object ABSENT = new Object();
+
+  private final OResultLayout layout;
+  private final Object[] values;
+  // SLOTS BEFORE THIS ONE WERE SET IN ORDER, SOME OF THEM CAN BE REMOVED
+  private int next;
+  private int slotsSize;
+  private Map<String, Object> others;
+  private int modCount;
+
+  OResultContent(final OResultLayout layout) {
+    this.layout = layout;
+    this.values = new Object[layout.size()];
+    Arrays.fill(values, ABSENT);
+  }
+
+  @Override
+  public int size() {
+    return slotsSize + (others == null ? 0 : others.size());
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    final int slot = layout.slot(key);
+    if (slot >= 0 && values[slot] != ABSENT) {
+      return true;
+    }
+    return others != null && others.containsKey(key);
+  }
+
+  @Override
+  public Object get(final Object key) {
+    final int slot = layout.slot(key);
+    if (slot >= 0 && values[slot] != ABSENT) {
+      return values[slot];
+    }
+    return others == null ? null : others.get(key);
+  }
+
+  @Override
+  public Object put(final String key, final Object value) {
+    final int slot = layout.slot(key);
+    if (slot >= 0) {
+      if (values[slot] != ABSENT) {
+        final Object old = values[slot];
+        values[slot] = value;
+        return old;
+      }
+
+      if (slot == next && (others == null || others.isEmpty())) {
+        values[slot] = value;
+        next++;
+        slotsSize++;
+        modCount++;
+        return null;
+      }
+    }
+
+    if (others == null) {
+      others = new LinkedHashMap<>();
+    }
+    modCount++;
+    return others.put(key, value);
+  }
+
+  @Override
+  public Object remove(final Object key) {
+    final int slot = layout.slot(key);
+    if (slot >= 0 && values[slot] != ABSENT) {
+      return removeSlot(slot);
+    }
+    if (others == null) {
+      return null;
+    }
+    modCount++;
+    return others.remove(key);
+  }
+
+  private Object removeSlot(final int slot) {
+    final Object old = values[slot];
+    values[slot] = ABSENT;
+    slotsSize--;
+    modCount++;
+    return old;
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(values, ABSENT);
+    next = 0;
+    slotsSize = 0;
+    others = null;
+    modCount++;
+  }
+
+  @Override
+  public Set<Entry<String, Object>> entrySet() {
+    return new AbstractSet<Entry<String, Object>>() {
+      @Override
+      public Iterator<Entry<String, Object>> iterator() {
+        return new ContentIterator();
+      }
+
+      @Override
+      public int size() {
+        return OResultContent.this.size();
+      }
+
+      @Override
+      public void clear() {
+        OResultContent.this.clear();
+      }
+    };
+  }
+
+  private final class ContentIterator implements Iterator<Entry<String, Object>> {
+    private int slot = nextSlot(0);
+    private int lastSlot = -1;
+    private Iterator<Entry<String, Object>> othersIterator;
+    private int expectedModCount = modCount;
+
+    private int nextSlot(int from) {
+      while (from < next && values[from] == ABSENT) {
+        from++;
+      }
+      return from;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (slot < next) {
+        return true;
+      }
+      if (othersIterator == null) {
+        othersIterator = others == null ? null : others.entrySet().iterator();
+      }
+      return othersIterator != null && othersIterator.hasNext();
+    }
+
+    @Override
+    public Entry<String, Object> next() {
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+
+      if (slot < next) {
+        lastSlot = slot;
+        slot = nextSlot(slot + 1);
+        return new SlotEntry(lastSlot);
+      }
+      lastSlot = -1;
+      return othersIterator.next();
+    }
+
+    @Override
+    public void remove() {
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+
+      if (lastSlot >= 0) {
+        removeSlot(lastSlot);
+        lastSlot = -1;
+      } else if (othersIterator != null) {
+        othersIterator.remove();
+        modCount++;
+      } else {
+        throw new IllegalStateException();
+      }
+      expectedModCount = modCount;
+    }
+  }
+
+  private final class SlotEntry implements Entry<String, Object> {
+    private final int slot;
+
+    private SlotEntry(final int slot) {
+      this.slot = slot;
+    }
+
+    @Override
+    public String getKey() {
+      return layout.name(slot);
+    }
+
+    @Override
+    public Object getValue() {
+      return values[slot];
+    }
+
+    @Override
+    public Object setValue(final Object value) {
+      final Object old = values[slot];
+      values[slot] = value;
+      return old;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (!(o instanceof Entry)) {
+        return false;
+      }
+      final Entry<?, ?> entry = (Entry<?, ?>) o;
+      return getKey().equals(entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return getKey().hashCode() ^ Objects.hashCode(getValue());
+    }
+
+    @Override
+    public String toString() {
+      return getKey() + "=" + getValue();
+    }
+  }
+}
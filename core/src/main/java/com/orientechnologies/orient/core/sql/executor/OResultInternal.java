@@ -29,17 +29,28 @@ import java.util.stream.Collectors;
 
 /** Created by luigidellaquila on 06/07/16. */
 public class OResultInternal implements OResult {
-  protected Map<String, Object> content = new LinkedHashMap<>();
+  protected Map<String, Object> content;
   protected Map<String, Object> temporaryContent;
   protected Map<String, Object> metadata;
   protected OIdentifiable element;
 
-  public OResultInternal() {}
+  public OResultInternal() {
+    content = new LinkedHashMap<>();
+  }
 
   public OResultInternal(OIdentifiable ident) {
+    this();
     this.element = ident;
   }
 
+  /**
+   * Creates a result whose properties of the layout, set in the order of the layout, are kept in an
+   * array instead of a map.
+   */
+  public OResultInternal(OResultLayout layout) {
+    content = new OResultContent(layout);
+  }
+
   public void setProperty(String name, Object value) {
     if (value instanceof Optional) {
       value = ((Optional) value).orElse(null);
@@ -117,6 +128,48 @@ public class OResultInternal implements OResult {
     return result;
   }
 
+  /**
+   * @return true if the property is read from the element of this result, which has no properties
+   *     of its own
+   */
+  public boolean isStoredProperty(String name) {
+    // SUBCLASSES CAN CALCULATE THE PROPERTIES IN A DIFFERENT WAY
+    return getClass() == OResultInternal.class
+        && content.isEmpty()
+        && element instanceof ODocument
+        && ((ODocument) element).containsField(name);
+  }
+
+  /**
+   * Reads a property of the element of this result as {@link #getProperty(String)} does, without
+   * loading the records it links to, as only their identity is returned anyway.
+   *
+   * @see #isStoredProperty(String)
+   */
+  public Object getStoredProperty(String name) {
+    Object result = ((ODocument) element).rawField(name);
+    if (result instanceof ORID && !((ORID) result).isPersistent()) {
+      return getProperty(name);
+    }
+
+    result = wrap(result);
+    if (result instanceof OIdentifiable && ((OIdentifiable) result).getIdentity().isPersistent()) {
+      result = ((OIdentifiable) result).getIdentity();
+    }
+    return result;
+  }
+
+  /**
+   * @return the value of a property as it is kept by this result, so a record is not replaced by
+   *     its identity as in {@link #getProperty(String)}
+   */
+  Object getRawProperty(String name) {
+    if (content.containsKey(name)) {
+      return content.get(name);
+    }
+    return element != null ? ((ODocument) element.getRecord()).getProperty(name) : null;
+  }
+
   @Override
   public OElement getElementProperty(String name) {
     Object result = null;
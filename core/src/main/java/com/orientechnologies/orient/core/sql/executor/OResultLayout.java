@@ -0,0 +1,43 @@
+package com.orientechnologies.orient.core.sql.executor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Names of the properties that all the results of a projection have, in the order they are set.
+ * Results created with a layout keep the values of these properties in an array shared by name
+ * with the layout, instead of a hash map per result.
+ */
+public final class OResultLayout {
+  private final Map<String, Integer> slots;
+  private final String[] names;
+
+  public OResultLayout(final Collection<String> names) {
+    final List<String> distinct = new ArrayList<>(names.size());
+    this.slots = new HashMap<>(names.size() * 2);
+    for (String name : names) {
+      if (!slots.containsKey(name)) {
+        slots.put(name, distinct.size());
+        distinct.add(name);
+      }
+    }
+    this.names = distinct.toArray(new String[0]);
+  }
+
+  /** @return the slot of the property, or -1 if it's not part of the layout */
+  int slot(final Object name) {
+    final Integer slot = slots.get(name);
+    return slot == null ? -1 : slot;
+  }
+
+  String name(final int slot) {
+    return names[slot];
+  }
+
+  int size() {
+    return names.length;
+  }
+}
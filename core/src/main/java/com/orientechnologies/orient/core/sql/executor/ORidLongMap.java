@@ -0,0 +1,180 @@
+package com.orientechnologies.orient.core.sql.executor;
+
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.id.ORecordId;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Open addressing map from RIDs to primitive long values. Persistent RIDs are packed in a single
+ * long key (15 bits of cluster id, 48 bits of cluster position), so no ORID or boxed value is
+ * retained per entry. RIDs that cannot be packed (eg. temporary RIDs of records created in the
+ * current transaction) are kept in a small overflow map.
+ *
+ * @see ORidSet
+ */
+public class ORidLongMap {
+
+  private static final long FREE = -1L;
+  private static final int MAX_CLUSTER_ID = 0x7FFF;
+  private static final long MAX_POSITION = (1L << 48) - 1;
+
+  private long[] keys;
+  private long[] values;
+  private int size;
+  private int resizeThreshold;
+
+  private Map<ORID, Long> overflow;
+
+  public ORidLongMap() {
+    this(64);
+  }
+
+  /** @param expectedSize number of entries the map should hold without resizing */
+  public ORidLongMap(int expectedSize) {
+    int capacity = 16;
+    while (capacity * 3 / 4 < expectedSize) {
+      capacity <<= 1;
+    }
+    allocate(capacity);
+  }
+
+  /**
+   * Packs a RID in a non negative long.
+   *
+   * @return the packed RID, or -1 if the RID cannot be packed
+   */
+  public static long pack(ORID rid) {
+    final int clusterId = rid.getClusterId();
+    final long position = rid.getClusterPosition();
+    if (clusterId < 0 || clusterId > MAX_CLUSTER_ID || position < 0 || position > MAX_POSITION) {
+      return FREE;
+    }
+    return ((long) clusterId << 48) | position;
+  }
+
+  /** Inverse of {@link #pack(ORID)}. */
+  public static ORID unpack(long packed) {
+    return new ORecordId((int) (packed >>> 48), packed & MAX_POSITION);
+  }
+
+  public void put(ORID rid, long value) {
+    final long key = pack(rid);
+    if (key == FREE) {
+      if (overflow == null) {
+        overflow = new HashMap<>();
+      }
+      if (overflow.put(rid.copy(), value) == null) {
+        size++;
+      }
+      return;
+    }
+
+    int slot = slot(key, keys.length - 1);
+    while (keys[slot] != FREE) {
+      if (keys[slot] == key) {
+        values[slot] = value;
+        return;
+      }
+      slot = (slot + 1) & (keys.length - 1);
+    }
+    keys[slot] = key;
+    values[slot] = value;
+    if (++size >= resizeThreshold) {
+      rehash(keys.length << 1);
+    }
+  }
+
+  /** @return the value associated to the RID or <code>defaultValue</code> if there is none */
+  public long get(ORID rid, long defaultValue) {
+    final long key = pack(rid);
+    if (key == FREE) {
+      if (overflow == null) {
+        return defaultValue;
+      }
+      final Long value = overflow.get(rid);
+      return value == null ? defaultValue : value;
+    }
+
+    final int index = indexOf(key);
+    return index < 0 ? defaultValue : values[index];
+  }
+
+  /** Copies all the entries of the passed map in this map. */
+  public void putAll(ORidLongMap other) {
+    for (int i = 0; i < other.keys.length; i++) {
+      if (other.keys[i] != FREE) {
+        put(unpack(other.keys[i]), other.values[i]);
+      }
+    }
+    if (other.overflow != null) {
+      for (Map.Entry<ORID, Long> entry : other.overflow.entrySet()) {
+        put(entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
+  public boolean containsKey(ORID rid) {
+    final long key = pack(rid);
+    if (key == FREE) {
+      return overflow != null && overflow.containsKey(rid);
+    }
+    return indexOf(key) >= 0;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public void clear() {
+    allocate(16);
+    overflow = null;
+    size = 0;
+  }
+
+  private int indexOf(long key) {
+    int slot = slot(key, keys.length - 1);
+    while (keys[slot] != FREE) {
+      if (keys[slot] == key) {
+        return slot;
+      }
+      slot = (slot + 1) & (keys.length - 1);
+    }
+    return -1;
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    values = new long[capacity];
+    Arrays.fill(keys, FREE);
+    resizeThreshold = capacity * 3 / 4;
+  }
+
+  private void rehash(int capacity) {
+    final long[] oldKeys = keys;
+    final long[] oldValues = values;
+    allocate(capacity);
+    for (int i = 0; i < oldKeys.length; i++) {
+      final long key = oldKeys[i];
+      if (key != FREE) {
+        int slot = slot(key, capacity - 1);
+        while (keys[slot] != FREE) {
+          slot = (slot + 1) & (capacity - 1);
+        }
+        keys[slot] = key;
+        values[slot] = oldValues[i];
+      }
+    }
+  }
+
+  private static int slot(long key, int mask) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    h ^= (h >>> 32);
+    return (int) (h ^ (h >>> 16)) & mask;
+  }
+}
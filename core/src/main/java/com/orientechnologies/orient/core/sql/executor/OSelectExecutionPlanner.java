@@ -21,6 +21,7 @@ import com.orientechnologies.orient.core.metadata.schema.OSchema;
 import com.orientechnologies.orient.core.metadata.schema.OType;
 import com.orientechnologies.orient.core.metadata.schema.OView;
 import com.orientechnologies.orient.core.metadata.security.OSecurityInternal;
+import com.orientechnologies.orient.core.metadata.security.OSecurityRole;
 import com.orientechnologies.orient.core.sql.OCommandExecutorSQLAbstract;
 import com.orientechnologies.orient.core.sql.parser.AggregateProjectionSplit;
 import com.orientechnologies.orient.core.sql.parser.OAndBlock;
@@ -118,16 +119,31 @@ public class OSelectExecutionPlanner {
   public OInternalExecutionPlan createExecutionPlan(
       OCommandContext ctx, boolean enableProfiling, boolean useCache) {
     ODatabaseDocumentInternal db = (ODatabaseDocumentInternal) ctx.getDatabase();
+    // plans which can contain a pushed down security predicate are cached per set of roles and
+    // version of the security policies, so the predicate is calculated only on a cache miss
+    String cacheKey = statement.getOriginalStatement();
+    if (cacheKey != null && isSecurityPredicatePushable(db)) {
+      cacheKey = cacheKey + "\n-- security: " + getSecurityCacheKey(db);
+    }
     if (useCache && !enableProfiling && statement.executinPlanCanBeCached()) {
-      OExecutionPlan plan = OExecutionPlanCache.get(statement.getOriginalStatement(), ctx, db);
+      OExecutionPlan plan = OExecutionPlanCache.get(cacheKey, ctx, db);
       if (plan != null) {
         return (OInternalExecutionPlan) plan;
       }
     }
 
     long planningStart = System.currentTimeMillis();
+    OBooleanExpression securityPredicate = getPushableSecurityPredicate(ctx);
 
     init();
+    if (securityPredicate != null) {
+      OAndBlock where = new OAndBlock(-1);
+      if (info.whereClause != null && info.whereClause.getBaseExpression() != null) {
+        where.getSubBlocks().add(info.whereClause.getBaseExpression());
+      }
+      where.getSubBlocks().add(securityPredicate);
+      info.whereClause = createWhereFrom(where);
+    }
     OSelectExecutionPlan result = new OSelectExecutionPlan(ctx);
 
     if (info.expand && info.distinct) {
@@ -172,12 +188,74 @@ public class OSelectExecutionPlanner {
         && statement.executinPlanCanBeCached()
         && result.canBeCached()
         && OExecutionPlanCache.getLastInvalidation(db) < planningStart) {
-      OExecutionPlanCache.put(
-          statement.getOriginalStatement(), result, (ODatabaseDocumentInternal) ctx.getDatabase());
+      OExecutionPlanCache.put(cacheKey, result, (ODatabaseDocumentInternal) ctx.getDatabase());
     }
     return result;
   }
 
+  /**
+   * Returns the READ security predicate of the current user on the target class, if it can be
+   * added to the WHERE condition and used to choose the indexes. Only conjunctions of simple
+   * comparisons between a property and a constant value are pushed down; the predicate is still
+   * checked record by record when the records are loaded, so this is only an optimization.
+   *
+   * @return the predicate, or null if there is nothing to push down
+   */
+  private OBooleanExpression getPushableSecurityPredicate(OCommandContext ctx) {
+    ODatabaseDocumentInternal db = (ODatabaseDocumentInternal) ctx.getDatabase();
+    if (!isSecurityPredicatePushable(db)) {
+      return null;
+    }
+    OFromClause target = statement.getTarget();
+    OClass clazz =
+        db.getMetadata()
+            .getImmutableSchemaSnapshot()
+            .getClass(target.getItem().getIdentifier().getStringValue());
+    if (clazz == null) {
+      return null;
+    }
+    OBooleanExpression predicate =
+        db.getSharedContext().getSecurity().getReadPredicateForClass(db, clazz);
+    if (predicate == null || predicate.toString().contains("$")) {
+      return null;
+    }
+    for (OAndBlock block : predicate.flatten()) {
+      for (OBooleanExpression condition : block.getSubBlocks()) {
+        if (!(condition instanceof OBinaryCondition)) {
+          return null;
+        }
+        OExpression left = ((OBinaryCondition) condition).getLeft();
+        OExpression right = ((OBinaryCondition) condition).getRight();
+        if (!(left.isBaseIdentifier() && right.isEarlyCalculated(ctx))
+            && !(right.isBaseIdentifier() && left.isEarlyCalculated(ctx))) {
+          return null;
+        }
+      }
+    }
+    return predicate;
+  }
+
+  /** @return true if the target is a class, whose security predicate could be pushed down */
+  private boolean isSecurityPredicatePushable(ODatabaseDocumentInternal db) {
+    OFromClause target = statement.getTarget();
+    return target != null
+        && target.getItem() != null
+        && target.getItem().getIdentifier() != null
+        && target.getItem().getModifier() == null
+        && db.getUser() != null;
+  }
+
+  /** @return the version of the security policies and the sorted roles of the current user */
+  private static String getSecurityCacheKey(ODatabaseDocumentInternal db) {
+    StringBuilder key = new StringBuilder();
+    key.append(db.getSharedContext().getSecurity().getVersion(db));
+    db.getUser().getRoles().stream()
+        .map(OSecurityRole::getName)
+        .sorted()
+        .forEach(role -> key.append(' ').append(role));
+    return key.toString();
+  }
+
   private void handleLockRecord(
       OSelectExecutionPlan result,
       QueryPlanningInfo info,
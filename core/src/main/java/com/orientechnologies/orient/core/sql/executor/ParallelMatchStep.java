@@ -0,0 +1,511 @@
+package com.orientechnologies.orient.core.sql.executor;
+
+import com.orientechnologies.common.concur.OTimeoutException;
+import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.command.OBasicCommandContext;
+import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.ODatabaseRecordThreadLocal;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.exception.OCommandExecutionException;
+import com.orientechnologies.orient.core.exception.OCommandInterruptedException;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.record.ORecord;
+import com.orientechnologies.orient.core.sql.parser.OFieldMatchPathItem;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Executes the edges of a MATCH pattern that follow the first alias on a pool of worker threads.
+ *
+ * <p>Upstream rows are fetched on the caller thread in rounds, every round is split among up to
+ * <code>parallelism</code> workers. Each worker expands its rows along all the remaining edges on a
+ * private copy of the database session, kept for all the rounds, and pushes the complete matches to
+ * a bounded queue that is drained by the caller, so the order of the results is not deterministic.
+ * Rows cross threads only as detached copies that reference records by RID, the records are loaded
+ * again by the session of the thread which receives the row, so the results are the same as the
+ * ones of a sequential MATCH.
+ */
+public class ParallelMatchStep extends AbstractExecutionStep {
+  /** Context variable that overrides {@link OGlobalConfiguration#QUERY_MATCH_PARALLELISM}. */
+  public static final String PARALLELISM_HINT = "$matchParallelism";
+
+  private static final int ROWS_PER_WORKER = 100;
+
+  private final List<EdgeTraversal> edges;
+  private final int parallelism;
+
+  private OResultSet upstream;
+  private BlockingQueue<OResult> results;
+  private final List<Future<?>> jobs = new ArrayList<>();
+  private final List<Worker> workers = new ArrayList<>();
+  private AtomicInteger runningJobs;
+  private AtomicBoolean stopped = new AtomicBoolean(false);
+  private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+  private OResult nextResult;
+
+  public ParallelMatchStep(
+      OCommandContext context,
+      List<EdgeTraversal> edges,
+      int parallelism,
+      boolean profilingEnabled) {
+    super(context, profilingEnabled);
+    this.edges = edges;
+    this.parallelism = parallelism;
+  }
+
+  @Override
+  public OResultSet syncPull(OCommandContext ctx, int nRecords) throws OTimeoutException {
+    return new OResultSet() {
+      private int localCount = 0;
+
+      @Override
+      public boolean hasNext() {
+        if (localCount >= nRecords) {
+          return false;
+        }
+        if (nextResult == null) {
+          nextResult = fetchNext(ctx, nRecords);
+        }
+        return nextResult != null;
+      }
+
+      @Override
+      public OResult next() {
+        if (!hasNext()) {
+          throw new IllegalStateException();
+        }
+        OResult result = nextResult;
+        nextResult = null;
+        localCount++;
+        ctx.setVariable("$matched", result);
+        return result;
+      }
+
+      @Override
+      public void close() {}
+
+      @Override
+      public Optional<OExecutionPlan> getExecutionPlan() {
+        return Optional.empty();
+      }
+
+      @Override
+      public Map<String, Long> getQueryStats() {
+        return null;
+      }
+    };
+  }
+
+  private OResult fetchNext(OCommandContext ctx, int nRecords) {
+    while (true) {
+      checkFailure();
+      // A WORKER OFFERS ALL ITS RESULTS BEFORE IT DECREMENTS THE COUNTER, SO ONCE THE COUNTER IS
+      // ZERO AN EMPTY QUEUE MEANS THAT THE ROUND IS OVER
+      if (runningJobs == null || (runningJobs.get() == 0 && results.isEmpty())) {
+        if (!startRound(ctx, nRecords)) {
+          return null;
+        }
+      }
+      final OResult item;
+      try {
+        item = results.poll(100, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        stopWorkers();
+        throw new OCommandInterruptedException("Parallel MATCH execution has been interrupted");
+      }
+      if (item != null) {
+        return attach(item, (ODatabaseDocumentInternal) ctx.getDatabase());
+      }
+    }
+  }
+
+  private void checkFailure() {
+    final RuntimeException error = failure.get();
+    if (error != null) {
+      stopWorkers();
+      throw OException.wrapException(
+          new OCommandExecutionException("Error on executing parallel MATCH"), error);
+    }
+  }
+
+  /**
+   * Fetches the next block of upstream rows and submits them to the workers.
+   *
+   * @return false if there are no more upstream rows
+   */
+  private boolean startRound(OCommandContext ctx, int nRecords) {
+    jobs.clear();
+    final Queue<OResult> pending = new ConcurrentLinkedQueue<>();
+    final int roundSize = parallelism * ROWS_PER_WORKER;
+    int fetched = 0;
+    while (fetched < roundSize) {
+      if (upstream == null || !upstream.hasNext()) {
+        upstream = getPrev().get().syncPull(ctx, Math.max(nRecords, roundSize));
+        if (!upstream.hasNext()) {
+          break;
+        }
+      }
+      // UPSTREAM ROWS BELONG TO THE CALLER SESSION, WORKERS ONLY SEE THEIR RIDS
+      pending.add(detach(upstream.next()));
+      fetched++;
+    }
+    if (fetched == 0) {
+      closeWorkers();
+      return false;
+    }
+
+    final ODatabaseDocumentInternal db = (ODatabaseDocumentInternal) ctx.getDatabase();
+    if (results == null) {
+      results =
+          new ArrayBlockingQueue<>(
+              db.getConfiguration()
+                  .getValueAsInteger(OGlobalConfiguration.QUERY_PARALLEL_RESULT_QUEUE_SIZE));
+    }
+    final long timeout = db.getConfiguration().getValueAsLong(OGlobalConfiguration.COMMAND_TIMEOUT);
+
+    final int nJobs = Math.min(parallelism, (fetched + ROWS_PER_WORKER - 1) / ROWS_PER_WORKER);
+    final BlockingQueue<OResult> queue = results;
+    final AtomicBoolean stop = stopped;
+    final AtomicInteger running = new AtomicInteger(nJobs);
+    runningJobs = running;
+    for (int i = 0; i < nJobs; i++) {
+      if (i == workers.size()) {
+        // SESSIONS AND CONTEXTS ARE CREATED ON THE CALLER THREAD, THEY ARE THEN OWNED BY THE WORKER
+        final ODatabaseDocumentInternal localDatabase = db.copy();
+        workers.add(new Worker(localDatabase, createWorkerContext(ctx, localDatabase)));
+      }
+      final Worker worker = workers.get(i);
+      jobs.add(
+          Orient.instance()
+              .submit(() -> expandRows(worker, pending, queue, stop, running, timeout)));
+    }
+    return true;
+  }
+
+  /**
+   * Creates a detached snapshot of the context, so that the variables written by the traversers
+   * ($matched, $current, $currentMatch) stay private to the worker and records of the caller
+   * session are never read by the worker.
+   */
+  private static OCommandContext createWorkerContext(
+      OCommandContext ctx, ODatabaseDocumentInternal localDatabase) {
+    final List<OCommandContext> chain = new ArrayList<>();
+    for (OCommandContext c = ctx; c != null; c = c.getParent()) {
+      chain.add(0, c);
+    }
+    final OBasicCommandContext workerContext = new OBasicCommandContext();
+    for (OCommandContext c : chain) {
+      for (Map.Entry<String, Object> variable : c.getVariables().entrySet()) {
+        workerContext.setVariable(variable.getKey(), detachValue(variable.getValue()));
+      }
+    }
+    if (ctx.getInputParameters() != null) {
+      final Map<Object, Object> parameters = new HashMap<>();
+      for (Map.Entry<Object, Object> parameter : ctx.getInputParameters().entrySet()) {
+        parameters.put(parameter.getKey(), detachValue(parameter.getValue()));
+      }
+      workerContext.setInputParameters(parameters);
+    }
+    workerContext.setDatabase(localDatabase);
+    return workerContext;
+  }
+
+  /**
+   * @return a copy of the row that references records only by RID, so that it does not depend on
+   *     the session that loaded them
+   * @see #attach(OResult, ODatabaseDocumentInternal)
+   */
+  private static OResult detach(OResult row) {
+    final OResultInternal result = new OResultInternal();
+    for (String name : row.getPropertyNames()) {
+      // THE VALUES ARE READ AS THE ROW KEEPS THEM, getProperty() RETURNS RECORDS AS IDENTITIES
+      final Object value =
+          row instanceof OResultInternal
+              ? ((OResultInternal) row).getRawProperty(name)
+              : row.getProperty(name);
+      result.setProperty(name, detachValue(value));
+    }
+    for (String key : row.getMetadataKeys()) {
+      result.setMetadata(key, detachValue(row.getMetadata(key)));
+    }
+    return result;
+  }
+
+  private static Object detachValue(Object value) {
+    if (value instanceof OResult) {
+      final OResult result = (OResult) value;
+      if (!result.isElement()) {
+        return detach(result);
+      }
+      final ORID identity = result.getElement().get().getIdentity();
+      return identity.isPersistent() ? new DetachedRecord(identity, true) : value;
+    }
+    if (value instanceof ORecord && ((ORecord) value).getIdentity().isPersistent()) {
+      return new DetachedRecord(((ORecord) value).getIdentity(), false);
+    }
+    if (value instanceof OIdentifiable && ((OIdentifiable) value).getIdentity().isPersistent()) {
+      return ((OIdentifiable) value).getIdentity().copy();
+    }
+    if (value instanceof Collection) {
+      final List<Object> values = new ArrayList<>(((Collection<?>) value).size());
+      for (Object item : (Collection<?>) value) {
+        values.add(detachValue(item));
+      }
+      return values;
+    }
+    return value;
+  }
+
+  /** @return the row with the records detached by {@link #detach(OResult)} loaded by the session */
+  private static OResult attach(OResult row, ODatabaseDocumentInternal db) {
+    final OResultInternal result = new OResultInternal();
+    for (String name : row.getPropertyNames()) {
+      result.setProperty(name, attachValue(((OResultInternal) row).getRawProperty(name), db));
+    }
+    for (String key : row.getMetadataKeys()) {
+      result.setMetadata(key, attachValue(row.getMetadata(key), db));
+    }
+    return result;
+  }
+
+  private static Object attachValue(Object value, ODatabaseDocumentInternal db) {
+    if (value instanceof DetachedRecord) {
+      return ((DetachedRecord) value).load(db);
+    }
+    if (value instanceof OResult && !((OResult) value).isElement()) {
+      return attach((OResult) value, db);
+    }
+    if (value instanceof Collection) {
+      final List<Object> values = new ArrayList<>(((Collection<?>) value).size());
+      for (Object item : (Collection<?>) value) {
+        values.add(attachValue(item, db));
+      }
+      return values;
+    }
+    return value;
+  }
+
+  private void expandRows(
+      Worker worker,
+      Queue<OResult> pending,
+      BlockingQueue<OResult> queue,
+      AtomicBoolean stop,
+      AtomicInteger running,
+      long timeout) {
+    try {
+      if (!worker.start()) {
+        return;
+      }
+      try {
+        worker.database.activateOnCurrentThread();
+
+        OResult row;
+        while (!stop.get() && (row = pending.poll()) != null) {
+          expand(attach(row, worker.database), 0, worker.context, queue, stop, timeout);
+        }
+      } catch (RuntimeException e) {
+        failure.compareAndSet(null, e);
+        stop.set(true);
+      } finally {
+        ODatabaseRecordThreadLocal.instance().remove();
+        worker.end(stop);
+      }
+    } finally {
+      running.decrementAndGet();
+    }
+  }
+
+  private void expand(
+      OResult row,
+      int edgeIndex,
+      OCommandContext workerContext,
+      BlockingQueue<OResult> queue,
+      AtomicBoolean stop,
+      long timeout) {
+    if (edgeIndex == edges.size()) {
+      emit(detach(row), queue, stop, timeout);
+      return;
+    }
+    workerContext.setVariable("$matched", row);
+    final MatchEdgeTraverser traverser = MatchStep.createTraverser(row, edges.get(edgeIndex));
+    while (!stop.get() && traverser.hasNext(workerContext)) {
+      final OResult next = traverser.next(workerContext);
+      if (next != null) {
+        expand(next, edgeIndex + 1, workerContext, queue, stop, timeout);
+      }
+    }
+  }
+
+  /**
+   * Hands a result over to the caller. Gives up, stopping all the workers, when the step is closed
+   * or when the caller does not consume results for longer than {@link
+   * OGlobalConfiguration#COMMAND_TIMEOUT}.
+   */
+  private void emit(OResult row, BlockingQueue<OResult> queue, AtomicBoolean stop, long timeout) {
+    final long deadline = timeout > 0 ? System.currentTimeMillis() + timeout : Long.MAX_VALUE;
+    try {
+      while (!stop.get()) {
+        if (queue.offer(row, 100, TimeUnit.MILLISECONDS)) {
+          return;
+        }
+        if (System.currentTimeMillis() > deadline) {
+          failure.compareAndSet(
+              null, new OTimeoutException("Results of parallel MATCH have not been consumed"));
+          stop.set(true);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      stop.set(true);
+    }
+  }
+
+  private void stopWorkers() {
+    stopped.set(true);
+    for (Future<?> job : jobs) {
+      // workers are not interrupted, they check the stop flag
+      job.cancel(false);
+    }
+    if (results != null) {
+      results.clear();
+    }
+    closeWorkers();
+  }
+
+  /**
+   * Closes the sessions of the workers. It's called when no round is running or once the step is
+   * stopped, a session still used by a round is then closed by its worker at the end of the round.
+   */
+  private void closeWorkers() {
+    for (Worker worker : workers) {
+      // A SESSION IS CLOSED ON A THREAD OF ITS OWN, SO THE SESSION OF THE CALLER STAYS ACTIVE
+      Orient.instance().submit(worker::close);
+    }
+    workers.clear();
+  }
+
+  @Override
+  public void reset() {
+    stopWorkers();
+    this.upstream = null;
+    this.nextResult = null;
+    this.runningJobs = null;
+    this.jobs.clear();
+    this.workers.clear();
+    this.results = null;
+    this.failure.set(null);
+    this.stopped = new AtomicBoolean(false);
+  }
+
+  @Override
+  public void close() {
+    stopWorkers();
+    super.close();
+  }
+
+  /** A record of a row which crosses threads, it's loaded again by the session of the receiver. */
+  private static final class DetachedRecord extends ORecordId {
+    // TRUE IF THE RECORD WAS THE ELEMENT OF A RESULT
+    private final boolean result;
+
+    private DetachedRecord(ORID identity, boolean result) {
+      super(identity);
+      this.result = result;
+    }
+
+    private Object load(ODatabaseDocumentInternal db) {
+      final ORecord record = db.load(copy());
+      if (record == null) {
+        // THE RECORD HAS BEEN DELETED MEANWHILE
+        return copy();
+      }
+      return result ? new OResultInternal(record) : record;
+    }
+  }
+
+  /**
+   * Session and context of a worker, used by one round at a time. Whoever finds the worker idle
+   * when the step is stopped closes its session: the step itself or the worker at the end of its
+   * last round.
+   */
+  private static final class Worker {
+    private static final int IDLE = 0;
+    private static final int RUNNING = 1;
+    private static final int CLOSED = 2;
+
+    private final ODatabaseDocumentInternal database;
+    private final OCommandContext context;
+    private final AtomicInteger state = new AtomicInteger(IDLE);
+
+    private Worker(ODatabaseDocumentInternal database, OCommandContext context) {
+      this.database = database;
+      this.context = context;
+    }
+
+    /** @return false if the session has been closed, since the step has been stopped */
+    private boolean start() {
+      return state.compareAndSet(IDLE, RUNNING);
+    }
+
+    private void end(AtomicBoolean stop) {
+      state.set(IDLE);
+      if (stop.get()) {
+        close();
+      }
+    }
+
+    private void close() {
+      if (state.compareAndSet(IDLE, CLOSED)) {
+        try {
+          database.activateOnCurrentThread();
+          database.close();
+        } finally {
+          ODatabaseRecordThreadLocal.instance().remove();
+        }
+      }
+    }
+  }
+
+  @Override
+  public String prettyPrint(int depth, int indent) {
+    String spaces = OExecutionStepInternal.getIndent(depth, indent);
+    StringBuilder result = new StringBuilder();
+    result.append(spaces);
+    result.append("+ PARALLEL MATCH (parallelism: ");
+    result.append(parallelism);
+    result.append(")");
+    for (EdgeTraversal edge : edges) {
+      result.append("\n");
+      result.append(spaces);
+      result.append("  ");
+      result.append("{" + edge.edge.out.alias + "}");
+      if (edge.edge.item instanceof OFieldMatchPathItem) {
+        result.append(".");
+        result.append(((OFieldMatchPathItem) edge.edge.item).getField());
+      } else {
+        result.append(edge.edge.item.getMethod());
+      }
+      result.append("{" + edge.edge.in.alias + "}");
+      result.append(edge.out ? " ---->" : " <----");
+    }
+    return result.toString();
+  }
+}
@@ -0,0 +1,212 @@
+package com.orientechnologies.orient.core.sql.functions.graph;
+
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.ODatabaseRecordThreadLocal;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.db.record.ORecordLazyMultiValue;
+import com.orientechnologies.orient.core.db.record.ridbag.ORidBag;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OImmutableSchema;
+import com.orientechnologies.orient.core.record.ODirection;
+import com.orientechnologies.orient.core.record.OEdge;
+import com.orientechnologies.orient.core.record.OElement;
+import com.orientechnologies.orient.core.record.ORecord;
+import com.orientechnologies.orient.core.record.OVertex;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Traversal kernel shared by the path finding functions (<code>shortestPath()</code>, <code>
+ * dijkstra()</code>, <code>astar()</code>).
+ *
+ * <p>Adjacent vertices are read from the raw link bags of the vertex: lightweight edges resolve
+ * to the adjacent vertex directly and regular edges are resolved reading the raw <code>in</code>/
+ * <code>out</code> link of the edge, so adjacent vertices are returned by RID and never loaded.
+ * Callers load a vertex only when they have to expand it or to evaluate one of its properties.
+ */
+public class OGraphTraversal {
+
+  private static final String CONNECTION_OUT_PREFIX = "out_";
+  private static final String CONNECTION_IN_PREFIX = "in_";
+
+  /** Callback for adjacent vertices. */
+  public interface OAdjacencyVisitor {
+    /**
+     * @param edge the RID of the edge, null if the edge is lightweight
+     * @param vertex the RID of the adjacent vertex
+     * @return false to stop the iteration
+     */
+    boolean visit(ORID edge, ORID vertex);
+  }
+
+  private final ODirection direction;
+  private final OImmutableSchema schema;
+  private final Set<String> outFieldNames;
+  private final Set<String> inFieldNames;
+
+  /**
+   * @param direction the direction to follow
+   * @param labels the edge classes to follow (subclasses included), null or empty for all of them
+   */
+  public OGraphTraversal(ODirection direction, String... labels) {
+    this.direction = direction;
+    final ODatabaseDocumentInternal db = ODatabaseRecordThreadLocal.instance().getIfDefined();
+    this.schema = db == null ? null : db.getMetadata().getImmutableSchemaSnapshot();
+    this.outFieldNames = resolveFieldNames(ODirection.OUT, labels);
+    this.inFieldNames = resolveFieldNames(ODirection.IN, labels);
+  }
+
+  public ODirection getDirection() {
+    return direction;
+  }
+
+  /**
+   * Invokes the visitor for every vertex adjacent to the passed one.
+   *
+   * @return false if the iteration was stopped by the visitor
+   */
+  public boolean forEachAdjacent(final OVertex vertex, final OAdjacencyVisitor visitor) {
+    final ODocument doc = vertex.getRecord();
+    if (doc == null) {
+      return true;
+    }
+    switch (direction) {
+      case OUT:
+        return forEachAdjacent(doc, ODirection.OUT, outFieldNames, visitor);
+      case IN:
+        return forEachAdjacent(doc, ODirection.IN, inFieldNames, visitor);
+      default:
+        return forEachAdjacent(doc, ODirection.OUT, outFieldNames, visitor)
+            && forEachAdjacent(doc, ODirection.IN, inFieldNames, visitor);
+    }
+  }
+
+  /** Loads a vertex, returns null if the record does not exist or is not a vertex. */
+  public static OVertex loadVertex(final ORID rid) {
+    if (rid == null) {
+      return null;
+    }
+    final ORecord record = rid.getRecord();
+    if (!(record instanceof OElement)) {
+      return null;
+    }
+    return ((OElement) record).asVertex().orElse(null);
+  }
+
+  private boolean forEachAdjacent(
+      final ODocument doc,
+      final ODirection connection,
+      final Set<String> fieldNames,
+      final OAdjacencyVisitor visitor) {
+    final String prefix =
+        connection == ODirection.OUT ? CONNECTION_OUT_PREFIX : CONNECTION_IN_PREFIX;
+    for (String fieldName : fieldNames != null ? fieldNames : doc.getPropertyNames()) {
+      if (fieldName.startsWith(prefix) && !visitField(doc, fieldName, connection, visitor)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean visitField(
+      final ODocument doc,
+      final String fieldName,
+      final ODirection connection,
+      final OAdjacencyVisitor visitor) {
+    final Object value = doc.rawField(fieldName);
+    final Iterator<?> iterator;
+    if (value == null) {
+      return true;
+    } else if (value instanceof ORidBag) {
+      iterator = ((ORidBag) value).rawIterator();
+    } else if (value instanceof ORecordLazyMultiValue) {
+      iterator = ((ORecordLazyMultiValue) value).rawIterator();
+    } else if (value instanceof Collection) {
+      iterator = ((Collection<?>) value).iterator();
+    } else if (value instanceof OIdentifiable) {
+      iterator = Collections.singleton(value).iterator();
+    } else {
+      return true;
+    }
+
+    while (iterator.hasNext()) {
+      final Object item = iterator.next();
+      if (!(item instanceof OIdentifiable)) {
+        continue;
+      }
+      final ORID rid = ((OIdentifiable) item).getIdentity();
+      if (rid == null) {
+        continue;
+      }
+
+      final boolean keepGoing;
+      if (isVertex(rid)) {
+        // LIGHTWEIGHT EDGE
+        keepGoing = visitor.visit(null, rid);
+      } else {
+        final ORID adjacent = oppositeVertex(rid, connection);
+        keepGoing = adjacent == null || visitor.visit(rid, adjacent);
+      }
+      if (!keepGoing) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean isVertex(final ORID rid) {
+    if (schema != null && rid.getClusterId() >= 0) {
+      final OClass clazz = schema.getClassByClusterId(rid.getClusterId());
+      if (clazz != null) {
+        return clazz.isVertexType();
+      }
+    }
+    final ORecord record = rid.getRecord();
+    return record instanceof OElement && ((OElement) record).isVertex();
+  }
+
+  private static ORID oppositeVertex(final ORID edge, final ODirection connection) {
+    final ORecord record = edge.getRecord();
+    if (!(record instanceof ODocument)) {
+      return null;
+    }
+    final Object vertex =
+        ((ODocument) record)
+            .rawField(connection == ODirection.OUT ? OEdge.DIRECTION_IN : OEdge.DIRECTION_OUT);
+    return vertex instanceof OIdentifiable ? ((OIdentifiable) vertex).getIdentity() : null;
+  }
+
+  private Set<String> resolveFieldNames(final ODirection connection, final String[] labels) {
+    if (labels == null || labels.length == 0) {
+      return null;
+    }
+    final Set<String> classNames = new HashSet<>();
+    for (String label : labels) {
+      if (label == null || label.equalsIgnoreCase("E")) {
+        // DEFAULT CLASS, FOLLOW ALL THE EDGES
+        return null;
+      }
+      classNames.add(label);
+      final OClass clazz = schema == null ? null : schema.getClass(label);
+      if (clazz != null) {
+        classNames.add(clazz.getName());
+        for (OClass subClass : clazz.getAllSubclasses()) {
+          classNames.add(subClass.getName());
+        }
+      }
+    }
+
+    final String prefix =
+        connection == ODirection.OUT ? CONNECTION_OUT_PREFIX : CONNECTION_IN_PREFIX;
+    final Set<String> result = new HashSet<>();
+    for (String className : classNames) {
+      result.add(prefix + className);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,49 @@
+package com.orientechnologies.orient.core.sql.functions.graph;
+
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.sql.executor.ORidLongMap;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Predecessor links collected by a path search, stored as packed RIDs in an {@link ORidLongMap}.
+ * RIDs that cannot be packed are stored aside and referenced by a negative index.
+ */
+public class OPathPredecessors {
+  private static final long NONE = Long.MIN_VALUE;
+
+  private final ORidLongMap links = new ORidLongMap();
+  private List<ORID> unpackable;
+
+  public void put(final ORID rid, final ORID predecessor) {
+    long value = ORidLongMap.pack(predecessor);
+    if (value < 0) {
+      if (unpackable == null) {
+        unpackable = new ArrayList<>();
+      }
+      unpackable.add(predecessor.copy());
+      value = -unpackable.size();
+    }
+    links.put(rid, value);
+  }
+
+  /** @return the predecessor of the RID, null if the RID has no predecessor */
+  public ORID get(final ORID rid) {
+    final long value = links.get(rid, NONE);
+    if (value == NONE) {
+      return null;
+    }
+    if (value < 0) {
+      return unpackable.get((int) -value - 1);
+    }
+    return ORidLongMap.unpack(value);
+  }
+
+  public boolean contains(final ORID rid) {
+    return links.containsKey(rid);
+  }
+
+  public int size() {
+    return links.size();
+  }
+}
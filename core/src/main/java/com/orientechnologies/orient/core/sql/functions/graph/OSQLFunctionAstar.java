@@ -24,6 +24,7 @@ import com.orientechnologies.common.io.OIOUtils;
 import com.orientechnologies.orient.core.command.OCommandContext;
 import com.orientechnologies.orient.core.db.ODatabase;
 import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.record.ODirection;
 import com.orientechnologies.orient.core.record.OEdge;
 import com.orientechnologies.orient.core.record.OElement;
@@ -32,15 +33,14 @@ import com.orientechnologies.orient.core.record.OVertex;
 import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.sql.OSQLHelper;
 import com.orientechnologies.orient.core.sql.executor.OResult;
-import java.util.Comparator;
+import com.orientechnologies.orient.core.sql.executor.ORidLongMap;
+import com.orientechnologies.orient.core.sql.executor.ORidSet;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Locale;
 import java.util.Map;
 import java.util.PriorityQueue;
-import java.util.Set;
 
 /**
  * A*'s algorithm describes how to find the cheapest path from one node to another node in a
@@ -56,22 +56,45 @@ import java.util.Set;
 public class OSQLFunctionAstar extends OSQLFunctionHeuristicPathFinderAbstract {
   public static final String NAME = "astar";
 
+  private static final long NO_SCORE = Long.MIN_VALUE;
+
   private String paramWeightFieldName = "weight";
   private long currentDepth = 0;
-  protected Set<OVertex> closedSet = new HashSet<OVertex>();
-  protected Map<OVertex, OVertex> cameFrom = new HashMap<OVertex, OVertex>();
-
-  protected Map<OVertex, Double> gScore = new HashMap<OVertex, Double>();
-  protected Map<OVertex, Double> fScore = new HashMap<OVertex, Double>();
-  protected PriorityQueue<OVertex> open =
-      new PriorityQueue<OVertex>(
-          1,
-          new Comparator<OVertex>() {
-
-            public int compare(OVertex nodeA, OVertex nodeB) {
-              return Double.compare(fScore.get(nodeA), fScore.get(nodeB));
-            }
-          });
+  protected ORidSet closedSet = new ORidSet();
+  protected OPathPredecessors cameFrom = new OPathPredecessors();
+
+  /** tentative distances from the source, stored as raw double bits */
+  protected ORidLongMap gScore = new ORidLongMap();
+
+  /**
+   * Open set. Vertices are not removed from the queue when their score improves, stale entries are
+   * skipped when polled because the vertex is already in the closed set.
+   */
+  protected PriorityQueue<OOpenNode> open = new PriorityQueue<OOpenNode>();
+
+  protected static class OOpenNode implements Comparable<OOpenNode> {
+    private final ORID rid;
+    private OVertex vertex;
+    private final double fScore;
+
+    protected OOpenNode(ORID rid, OVertex vertex, double fScore) {
+      this.rid = rid;
+      this.vertex = vertex;
+      this.fScore = fScore;
+    }
+
+    protected OVertex getVertex() {
+      if (vertex == null) {
+        vertex = OGraphTraversal.loadVertex(rid);
+      }
+      return vertex;
+    }
+
+    @Override
+    public int compareTo(OOpenNode o) {
+      return Double.compare(fScore, o.fScore);
+    }
+  }
 
   public OSQLFunctionAstar() {
     super(NAME, 3, 4);
@@ -142,18 +165,23 @@ public class OSQLFunctionAstar extends OSQLFunctionHeuristicPathFinderAbstract {
 
   private LinkedList<OVertex> internalExecute(final OCommandContext iContext, ODatabase graph) {
 
-    OVertex start = paramSourceVertex;
-    OVertex goal = paramDestinationVertex;
-
-    open.add(start);
+    final OVertex start = paramSourceVertex;
+    final OVertex goal = paramDestinationVertex;
+    final ORID goalId = goal.getIdentity();
+    final OGraphTraversal traversal = new OGraphTraversal(paramDirection, paramEdgeTypeNames);
 
     // The cost of going from start to start is zero.
-    gScore.put(start, 0.0);
+    gScore.put(start.getIdentity(), Double.doubleToRawLongBits(0.0));
     // For the first node, that value is completely heuristic.
-    fScore.put(start, getHeuristicCost(start, null, goal, iContext));
+    open.add(
+        new OOpenNode(start.getIdentity(), start, getHeuristicCost(start, null, goal, iContext)));
 
     while (!open.isEmpty()) {
-      OVertex current = open.poll();
+      final OOpenNode current = open.poll();
+      if (closedSet.contains(current.rid)) {
+        // STALE ENTRY, THE VERTEX WAS ALREADY REACHED WITH A LOWER SCORE
+        continue;
+      }
 
       // we discussed about this feature in
       // https://github.com/orientechnologies/orientdb/pull/6002#issuecomment-212492687
@@ -162,39 +190,52 @@ public class OSQLFunctionAstar extends OSQLFunctionHeuristicPathFinderAbstract {
         return getPath();
       }
       // if start and goal vertex is equal so return current path from  cameFrom hash map
-      if (current.getIdentity().equals(goal.getIdentity()) || currentDepth >= paramMaxDepth) {
-
-        while (current != null) {
-          route.add(0, current);
-          current = cameFrom.get(current);
+      if (current.rid.equals(goalId) || currentDepth >= paramMaxDepth) {
+        ORID step = current.rid;
+        while (step != null) {
+          route.add(
+              0, step.equals(current.rid) ? current.getVertex() : OGraphTraversal.loadVertex(step));
+          step = cameFrom.get(step);
         }
         return getPath();
       }
 
-      closedSet.add(current);
-      for (OEdge neighborEdge : getNeighborEdges(current)) {
-
-        OVertex neighbor = getNeighbor(current, neighborEdge, graph);
-        // Ignore the neighbor which is already evaluated.
-        if (closedSet.contains(neighbor)) {
-          continue;
-        }
-        // The distance from start to a neighbor
-        double tentativeGScore = gScore.get(current) + getDistance(neighborEdge);
-        boolean contains = open.contains(neighbor);
-
-        if (!contains || tentativeGScore < gScore.get(neighbor)) {
-          gScore.put(neighbor, tentativeGScore);
-          fScore.put(
-              neighbor, tentativeGScore + getHeuristicCost(neighbor, current, goal, iContext));
-
-          if (contains) {
-            open.remove(neighbor);
-          }
-          open.offer(neighbor);
-          cameFrom.put(neighbor, current);
-        }
+      closedSet.add(current.rid);
+      final OVertex currentVertex = current.getVertex();
+      if (currentVertex == null) {
+        currentDepth++;
+        continue;
       }
+      final double currentGScore =
+          Double.longBitsToDouble(gScore.get(current.rid, Double.doubleToRawLongBits(0.0)));
+
+      context.incrementVariable("getNeighbors");
+      traversal.forEachAdjacent(
+          currentVertex,
+          (edge, neighbor) -> {
+            // Ignore the neighbor which is already evaluated.
+            if (closedSet.contains(neighbor)) {
+              return true;
+            }
+            // The distance from start to a neighbor
+            final double tentativeGScore = currentGScore + getDistance(edge);
+            final long knownGScore = gScore.get(neighbor, NO_SCORE);
+
+            if (knownGScore == NO_SCORE || tentativeGScore < Double.longBitsToDouble(knownGScore)) {
+              gScore.put(neighbor, Double.doubleToRawLongBits(tentativeGScore));
+              // vertices are loaded only when the heuristic needs their properties
+              final OVertex neighborVertex =
+                  paramVertexAxisNames.length > 0 ? OGraphTraversal.loadVertex(neighbor) : null;
+              open.offer(
+                  new OOpenNode(
+                      neighbor,
+                      neighborVertex,
+                      tentativeGScore
+                          + getHeuristicCost(neighborVertex, currentVertex, goal, iContext)));
+              cameFrom.put(neighbor, current.rid);
+            }
+            return true;
+          });
 
       // Increment Depth Level
       currentDepth++;
@@ -203,36 +244,6 @@ public class OSQLFunctionAstar extends OSQLFunctionHeuristicPathFinderAbstract {
     return getPath();
   }
 
-  private OVertex getNeighbor(OVertex current, OEdge neighborEdge, ODatabase graph) {
-    if (neighborEdge.getFrom().equals(current)) {
-      return toVertex(neighborEdge.getTo());
-    }
-    return toVertex(neighborEdge.getFrom());
-  }
-
-  private OVertex toVertex(OIdentifiable outVertex) {
-    if (outVertex == null) {
-      return null;
-    }
-    if (!(outVertex instanceof OElement)) {
-      outVertex = outVertex.getRecord();
-    }
-    return ((OElement) outVertex).asVertex().orElse(null);
-  }
-
-  protected Set<OEdge> getNeighborEdges(final OVertex node) {
-    context.incrementVariable("getNeighbors");
-
-    final Set<OEdge> neighbors = new HashSet<OEdge>();
-    if (node != null) {
-      for (OEdge v : node.getEdges(paramDirection, paramEdgeTypeNames)) {
-        final OEdge ov = v;
-        if (ov != null) neighbors.add(ov);
-      }
-    }
-    return neighbors;
-  }
-
   private void bindAdditionalParams(Object additionalParams, OSQLFunctionAstar ctx) {
     if (additionalParams == null) {
       return;
@@ -318,6 +329,18 @@ public class OSQLFunctionAstar extends OSQLFunctionHeuristicPathFinderAbstract {
     return MIN;
   }
 
+  private double getDistance(final ORID edge) {
+    if (edge == null) {
+      // LIGHTWEIGHT EDGE, NO WEIGHT
+      return MIN;
+    }
+    final ORecord record = edge.getRecord();
+    if (record instanceof OElement) {
+      return ((OElement) record).asEdge().map(e -> getDistance(e)).orElse((double) MIN);
+    }
+    return MIN;
+  }
+
   protected double getDistance(final OEdge edge) {
     if (edge != null) {
       final Object fieldValue = edge.getProperty(paramWeightFieldName);
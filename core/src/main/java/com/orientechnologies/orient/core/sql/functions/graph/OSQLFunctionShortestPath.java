@@ -1,30 +1,23 @@
 package com.orientechnologies.orient.core.sql.functions.graph;
 
-import com.orientechnologies.common.collection.OMultiCollectionIterator;
-import com.orientechnologies.common.util.ORawPair;
 import com.orientechnologies.orient.core.command.OCommandContext;
 import com.orientechnologies.orient.core.command.OCommandExecutorAbstract;
 import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.exception.OCommandExecutionException;
 import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.record.ODirection;
-import com.orientechnologies.orient.core.record.OEdge;
 import com.orientechnologies.orient.core.record.OElement;
 import com.orientechnologies.orient.core.record.ORecord;
 import com.orientechnologies.orient.core.record.OVertex;
 import com.orientechnologies.orient.core.record.impl.ODocument;
-import com.orientechnologies.orient.core.record.impl.OEdgeToVertexIterable;
 import com.orientechnologies.orient.core.sql.OSQLHelper;
+import com.orientechnologies.orient.core.sql.executor.ORidSet;
 import com.orientechnologies.orient.core.sql.functions.math.OSQLFunctionMathAbstract;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * Shortest path algorithm to find the shortest path from one node to another node in a directed
@@ -49,19 +42,20 @@ public class OSQLFunctionShortestPath extends OSQLFunctionMathAbstract {
     private ODirection directionRight = ODirection.BOTH;
 
     private String edgeType;
-    private String[] edgeTypeParam;
 
-    private ArrayDeque<OVertex> queueLeft = new ArrayDeque<>();
-    private ArrayDeque<OVertex> queueRight = new ArrayDeque<>();
+    private OGraphTraversal traversalLeft;
+    private OGraphTraversal traversalRight;
 
-    private final Set<ORID> leftVisited = new HashSet<ORID>();
-    private final Set<ORID> rightVisited = new HashSet<ORID>();
+    private ArrayDeque<ORID> queueLeft = new ArrayDeque<>();
+    private ArrayDeque<ORID> queueRight = new ArrayDeque<>();
 
-    private final Map<ORID, ORID> previouses = new HashMap<ORID, ORID>();
-    private final Map<ORID, ORID> nexts = new HashMap<ORID, ORID>();
+    private final ORidSet leftVisited = new ORidSet();
+    private final ORidSet rightVisited = new ORidSet();
 
-    private OVertex current;
-    private OVertex currentRight;
+    private final OPathPredecessors previouses = new OPathPredecessors();
+    private final OPathPredecessors nexts = new OPathPredecessors();
+
+    private ORID meeting;
     public Integer maxDepth;
     /** option that decides whether or not to return the edge information */
     public Boolean edge;
@@ -129,16 +123,18 @@ public class OSQLFunctionShortestPath extends OSQLFunctionMathAbstract {
     if (iParams.length > 3) {
       ctx.edgeType = iParams[3] == null ? null : "" + iParams[3];
     }
-    ctx.edgeTypeParam = new String[] {ctx.edgeType};
 
     if (iParams.length > 4) {
       bindAdditionalParams(iParams[4], ctx);
     }
 
-    ctx.queueLeft.add(ctx.sourceVertex);
+    ctx.traversalLeft = new OGraphTraversal(ctx.directionLeft, edgeTypes(ctx.edgeType));
+    ctx.traversalRight = new OGraphTraversal(ctx.directionRight, edgeTypes(ctx.edgeType));
+
+    ctx.queueLeft.add(ctx.sourceVertex.getIdentity());
     ctx.leftVisited.add(ctx.sourceVertex.getIdentity());
 
-    ctx.queueRight.add(ctx.destinationVertex);
+    ctx.queueRight.add(ctx.destinationVertex.getIdentity());
     ctx.rightVisited.add(ctx.destinationVertex.getIdentity());
 
     int depth = 1;
@@ -244,47 +240,8 @@ public class OSQLFunctionShortestPath extends OSQLFunctionMathAbstract {
     return null;
   }
 
-  /**
-   * get adjacent vertices and edges
-   *
-   * @param srcVertex
-   * @param direction
-   * @param types
-   * @return
-   * @author Thomas Young (YJJThomasYoung@hotmail.com)
-   */
-  private ORawPair<Iterable<OVertex>, Iterable<OEdge>> getVerticesAndEdges(
-      OVertex srcVertex, ODirection direction, String... types) {
-    if (direction == ODirection.BOTH) {
-      OMultiCollectionIterator<OVertex> vertexIterator = new OMultiCollectionIterator<>();
-      OMultiCollectionIterator<OEdge> edgeIterator = new OMultiCollectionIterator<>();
-      ORawPair<Iterable<OVertex>, Iterable<OEdge>> pair1 =
-          getVerticesAndEdges(srcVertex, ODirection.OUT, types);
-      ORawPair<Iterable<OVertex>, Iterable<OEdge>> pair2 =
-          getVerticesAndEdges(srcVertex, ODirection.IN, types);
-      vertexIterator.add(pair1.first);
-      vertexIterator.add(pair2.first);
-      edgeIterator.add(pair1.second);
-      edgeIterator.add(pair2.second);
-      return new ORawPair<>(vertexIterator, edgeIterator);
-    } else {
-      Iterable<OEdge> edges1 = srcVertex.getEdges(direction, types);
-      Iterable<OEdge> edges2 = srcVertex.getEdges(direction, types);
-      return new ORawPair<>(new OEdgeToVertexIterable(edges1, direction), edges2);
-    }
-  }
-
-  /**
-   * get adjacent vertices and edges
-   *
-   * @param srcVertex
-   * @param direction
-   * @return
-   * @author Thomas Young (YJJThomasYoung@hotmail.com)
-   */
-  private ORawPair<Iterable<OVertex>, Iterable<OEdge>> getVerticesAndEdges(
-      OVertex srcVertex, ODirection direction) {
-    return getVerticesAndEdges(srcVertex, direction, (String[]) null);
+  private String[] edgeTypes(String edgeType) {
+    return edgeType == null ? null : new String[] {edgeType};
   }
 
   public String getSyntax() {
@@ -292,63 +249,33 @@ public class OSQLFunctionShortestPath extends OSQLFunctionMathAbstract {
   }
 
   protected List<ORID> walkLeft(final OSQLFunctionShortestPath.OShortestPathContext ctx) {
-    ArrayDeque<OVertex> nextLevelQueue = new ArrayDeque<>();
-    if (!Boolean.TRUE.equals(ctx.edge)) {
-      while (!ctx.queueLeft.isEmpty()) {
-        ctx.current = ctx.queueLeft.poll();
-
-        Iterable<OVertex> neighbors;
-        if (ctx.edgeType == null) {
-          neighbors = ctx.current.getVertices(ctx.directionLeft);
-        } else {
-          neighbors = ctx.current.getVertices(ctx.directionLeft, ctx.edgeTypeParam);
-        }
-        for (OVertex neighbor : neighbors) {
-          final OVertex v = (OVertex) neighbor;
-          final ORID neighborIdentity = v.getIdentity();
-
-          if (ctx.rightVisited.contains(neighborIdentity)) {
-            ctx.previouses.put(neighborIdentity, ctx.current.getIdentity());
-            return computePath(ctx.previouses, ctx.nexts, neighborIdentity);
-          }
-          if (!ctx.leftVisited.contains(neighborIdentity)) {
-            ctx.previouses.put(neighborIdentity, ctx.current.getIdentity());
-
-            nextLevelQueue.offer(v);
-            ctx.leftVisited.add(neighborIdentity);
-          }
-        }
+    final ArrayDeque<ORID> nextLevelQueue = new ArrayDeque<>();
+    final boolean withEdge = Boolean.TRUE.equals(ctx.edge);
+    while (!ctx.queueLeft.isEmpty()) {
+      final ORID current = ctx.queueLeft.poll();
+      final OVertex vertex = OGraphTraversal.loadVertex(current);
+      if (vertex == null) {
+        continue;
       }
-    } else {
-      while (!ctx.queueLeft.isEmpty()) {
-        ctx.current = ctx.queueLeft.poll();
-
-        ORawPair<Iterable<OVertex>, Iterable<OEdge>> neighbors;
-        if (ctx.edgeType == null) {
-          neighbors = getVerticesAndEdges(ctx.current, ctx.directionLeft);
-        } else {
-          neighbors = getVerticesAndEdges(ctx.current, ctx.directionLeft, ctx.edgeTypeParam);
-        }
-        Iterator<OVertex> vertexIterator = neighbors.first.iterator();
-        Iterator<OEdge> edgeIterator = neighbors.second.iterator();
-        while (vertexIterator.hasNext() && edgeIterator.hasNext()) {
-          OVertex v = vertexIterator.next();
-          final ORID neighborVertexIdentity = v.getIdentity();
-          final ORID neighborEdgeIdentity = edgeIterator.next().getIdentity();
-
-          if (ctx.rightVisited.contains(neighborVertexIdentity)) {
-            ctx.previouses.put(neighborVertexIdentity, neighborEdgeIdentity);
-            ctx.previouses.put(neighborEdgeIdentity, ctx.current.getIdentity());
-            return computePath(ctx.previouses, ctx.nexts, neighborVertexIdentity);
-          }
-          if (!ctx.leftVisited.contains(neighborVertexIdentity)) {
-            ctx.previouses.put(neighborVertexIdentity, neighborEdgeIdentity);
-            ctx.previouses.put(neighborEdgeIdentity, ctx.current.getIdentity());
-
-            nextLevelQueue.offer(v);
-            ctx.leftVisited.add(neighborVertexIdentity);
-          }
-        }
+
+      final boolean completed =
+          ctx.traversalLeft.forEachAdjacent(
+              vertex,
+              (edge, neighbor) -> {
+                if (ctx.rightVisited.contains(neighbor)) {
+                  link(ctx.previouses, neighbor, withEdge ? edge : null, current);
+                  ctx.meeting = neighbor;
+                  return false;
+                }
+                if (!ctx.leftVisited.contains(neighbor)) {
+                  link(ctx.previouses, neighbor, withEdge ? edge : null, current);
+                  nextLevelQueue.offer(neighbor);
+                  ctx.leftVisited.add(neighbor);
+                }
+                return true;
+              });
+      if (!completed) {
+        return computePath(ctx.previouses, ctx.nexts, ctx.meeting);
       }
     }
     ctx.queueLeft = nextLevelQueue;
@@ -356,80 +283,59 @@ public class OSQLFunctionShortestPath extends OSQLFunctionMathAbstract {
   }
 
   protected List<ORID> walkRight(final OSQLFunctionShortestPath.OShortestPathContext ctx) {
-    final ArrayDeque<OVertex> nextLevelQueue = new ArrayDeque<>();
-    if (!Boolean.TRUE.equals(ctx.edge)) {
-      while (!ctx.queueRight.isEmpty()) {
-        ctx.currentRight = ctx.queueRight.poll();
-
-        Iterable<OVertex> neighbors;
-        if (ctx.edgeType == null) {
-          neighbors = ctx.currentRight.getVertices(ctx.directionRight);
-        } else {
-          neighbors = ctx.currentRight.getVertices(ctx.directionRight, ctx.edgeTypeParam);
-        }
-        for (OVertex neighbor : neighbors) {
-          final OVertex v = (OVertex) neighbor;
-          final ORID neighborIdentity = v.getIdentity();
-
-          if (ctx.leftVisited.contains(neighborIdentity)) {
-            ctx.nexts.put(neighborIdentity, ctx.currentRight.getIdentity());
-            return computePath(ctx.previouses, ctx.nexts, neighborIdentity);
-          }
-          if (!ctx.rightVisited.contains(neighborIdentity)) {
-
-            ctx.nexts.put(neighborIdentity, ctx.currentRight.getIdentity());
-
-            nextLevelQueue.offer(v);
-            ctx.rightVisited.add(neighborIdentity);
-          }
-        }
+    final ArrayDeque<ORID> nextLevelQueue = new ArrayDeque<>();
+    final boolean withEdge = Boolean.TRUE.equals(ctx.edge);
+    while (!ctx.queueRight.isEmpty()) {
+      final ORID current = ctx.queueRight.poll();
+      final OVertex vertex = OGraphTraversal.loadVertex(current);
+      if (vertex == null) {
+        continue;
       }
-    } else {
-      while (!ctx.queueRight.isEmpty()) {
-        ctx.currentRight = ctx.queueRight.poll();
-
-        ORawPair<Iterable<OVertex>, Iterable<OEdge>> neighbors;
-        if (ctx.edgeType == null) {
-          neighbors = getVerticesAndEdges(ctx.currentRight, ctx.directionRight);
-        } else {
-          neighbors = getVerticesAndEdges(ctx.currentRight, ctx.directionRight, ctx.edgeTypeParam);
-        }
 
-        Iterator<OVertex> vertexIterator = neighbors.first.iterator();
-        Iterator<OEdge> edgeIterator = neighbors.second.iterator();
-        while (vertexIterator.hasNext() && edgeIterator.hasNext()) {
-          final OVertex v = vertexIterator.next();
-          final ORID neighborVertexIdentity = v.getIdentity();
-          final ORID neighborEdgeIdentity = edgeIterator.next().getIdentity();
-
-          if (ctx.leftVisited.contains(neighborVertexIdentity)) {
-            ctx.nexts.put(neighborVertexIdentity, neighborEdgeIdentity);
-            ctx.nexts.put(neighborEdgeIdentity, ctx.currentRight.getIdentity());
-            return computePath(ctx.previouses, ctx.nexts, neighborVertexIdentity);
-          }
-          if (!ctx.rightVisited.contains(neighborVertexIdentity)) {
-            ctx.nexts.put(neighborVertexIdentity, neighborEdgeIdentity);
-            ctx.nexts.put(neighborEdgeIdentity, ctx.currentRight.getIdentity());
-
-            nextLevelQueue.offer(v);
-            ctx.rightVisited.add(neighborVertexIdentity);
-          }
-        }
+      final boolean completed =
+          ctx.traversalRight.forEachAdjacent(
+              vertex,
+              (edge, neighbor) -> {
+                if (ctx.leftVisited.contains(neighbor)) {
+                  link(ctx.nexts, neighbor, withEdge ? edge : null, current);
+                  ctx.meeting = neighbor;
+                  return false;
+                }
+                if (!ctx.rightVisited.contains(neighbor)) {
+                  link(ctx.nexts, neighbor, withEdge ? edge : null, current);
+                  nextLevelQueue.offer(neighbor);
+                  ctx.rightVisited.add(neighbor);
+                }
+                return true;
+              });
+      if (!completed) {
+        return computePath(ctx.previouses, ctx.nexts, ctx.meeting);
       }
     }
     ctx.queueRight = nextLevelQueue;
     return null;
   }
 
+  /** Links a vertex to the one it was reached from, through the edge if edges are returned. */
+  private static void link(
+      final OPathPredecessors links, final ORID neighbor, final ORID edge, final ORID current) {
+    if (edge != null) {
+      links.put(neighbor, edge);
+      links.put(edge, current);
+    } else {
+      links.put(neighbor, current);
+    }
+  }
+
   private List<ORID> computePath(
-      final Map<ORID, ORID> leftDistances,
-      final Map<ORID, ORID> rightDistances,
+      final OPathPredecessors leftDistances,
+      final OPathPredecessors rightDistances,
       final ORID neighbor) {
-    final List<ORID> result = new ArrayList<ORID>();
+    final ArrayDeque<ORID> result = new ArrayDeque<ORID>();
 
     ORID current = neighbor;
     while (current != null) {
-      result.add(0, current);
+      result.addFirst(current);
       current = leftDistances.get(current);
     }
 
@@ -437,10 +343,10 @@ public class OSQLFunctionShortestPath extends OSQLFunctionMathAbstract {
     while (current != null) {
       current = rightDistances.get(current);
       if (current != null) {
-        result.add(current);
+        result.addLast(current);
       }
     }
 
-    return result;
+    return new ArrayList<ORID>(result);
   }
 }
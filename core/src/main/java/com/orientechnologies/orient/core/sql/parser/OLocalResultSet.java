@@ -1,10 +1,13 @@
 package com.orientechnologies.orient.core.sql.parser;
 
+import com.orientechnologies.common.metrics.OHistogram;
+import com.orientechnologies.common.metrics.OMetricsRegistry;
 import com.orientechnologies.orient.core.Orient;
 import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
 import com.orientechnologies.orient.core.db.ODatabaseRecordThreadLocal;
 import com.orientechnologies.orient.core.metadata.security.OSecurityUser;
 import com.orientechnologies.orient.core.sql.executor.OExecutionPlan;
+import com.orientechnologies.orient.core.sql.executor.OExecutionStep;
 import com.orientechnologies.orient.core.sql.executor.OInternalExecutionPlan;
 import com.orientechnologies.orient.core.sql.executor.OResult;
 import com.orientechnologies.orient.core.sql.executor.OResultSet;
@@ -14,12 +17,16 @@ import java.util.Optional;
 
 /** Created by luigidellaquila on 07/07/16. */
 public class OLocalResultSet implements OResultSet {
+  private static final OHistogram EXECUTION =
+      OMetricsRegistry.instance()
+          .histogram("query.execution", "Time to execute a query, fetching all its results");
 
   private OResultSet lastFetch = null;
   private final OInternalExecutionPlan executionPlan;
   private boolean finished = false;
 
   long totalExecutionTime = 0;
+  long totalExecutionNanos = 0;
   long startTime = 0;
 
   public OLocalResultSet(OInternalExecutionPlan executionPlan) {
@@ -29,6 +36,7 @@ public class OLocalResultSet implements OResultSet {
 
   private boolean fetchNext() {
     long begin = System.currentTimeMillis();
+    final long beginNanos = System.nanoTime();
     try {
       if (lastFetch == null) {
         startTime = begin;
@@ -37,11 +45,29 @@ public class OLocalResultSet implements OResultSet {
       if (!lastFetch.hasNext()) {
         finished = true;
         logProfiling();
+        recordMetrics(System.nanoTime() - beginNanos);
         return false;
       }
       return true;
     } finally {
       totalExecutionTime += (System.currentTimeMillis() - begin);
+      totalExecutionNanos += (System.nanoTime() - beginNanos);
+    }
+  }
+
+  private void recordMetrics(final long lastFetchNanos) {
+    EXECUTION.record(totalExecutionNanos + lastFetchNanos);
+
+    // THE COST OF THE STEPS IS ONLY CALCULATED WHEN THE QUERY IS PROFILED
+    for (OExecutionStep step : executionPlan.getSteps()) {
+      final long cost = step.getCost();
+      if (cost >= 0) {
+        OMetricsRegistry.instance()
+            .histogram(
+                "query.step." + step.getClass().getSimpleName(),
+                "Time spent in a step of a profiled query")
+            .record(cost);
+      }
     }
   }
 
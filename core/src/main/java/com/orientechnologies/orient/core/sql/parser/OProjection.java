@@ -7,6 +7,7 @@ import com.orientechnologies.orient.core.record.OElement;
 import com.orientechnologies.orient.core.sql.OCommandSQLParsingException;
 import com.orientechnologies.orient.core.sql.executor.OResult;
 import com.orientechnologies.orient.core.sql.executor.OResultInternal;
+import com.orientechnologies.orient.core.sql.executor.OResultLayout;
 import com.orientechnologies.orient.core.sql.query.OLegacyResultSet;
 import java.util.ArrayList;
 import java.util.List;
@@ -20,6 +21,9 @@ public class OProjection extends SimpleNode {
 
   List<OProjectionItem> items;
 
+  private OResultLayout resultLayout;
+  private boolean resultLayoutChecked;
+
   public OProjection(List<OProjectionItem> items, boolean distinct) {
     super(-1);
     this.items = items;
@@ -41,6 +45,8 @@ public class OProjection extends SimpleNode {
 
   public void setItems(List<OProjectionItem> items) {
     this.items = items;
+    this.resultLayout = null;
+    this.resultLayoutChecked = false;
   }
 
   @Override
@@ -89,7 +95,8 @@ public class OProjection extends SimpleNode {
       return iRecord;
     }
 
-    OResultInternal result = new OResultInternal();
+    final OResultLayout layout = getResultLayout();
+    OResultInternal result = layout != null ? new OResultInternal(layout) : new OResultInternal();
     for (OProjectionItem item : items) {
       if (item.isAll()) {
         for (String alias : iRecord.getPropertyNames()) {
@@ -119,6 +126,26 @@ public class OProjection extends SimpleNode {
     return result;
   }
 
+  /**
+   * @return the aliases of the items, which all the results have in the same order, or null if
+   *     the projection includes all the properties of the records
+   */
+  private OResultLayout getResultLayout() {
+    if (!resultLayoutChecked) {
+      List<String> aliases = new ArrayList<>(items.size());
+      for (OProjectionItem item : items) {
+        if (item.isAll()) {
+          aliases = null;
+          break;
+        }
+        aliases.add(item.getProjectionAliasAsString());
+      }
+      resultLayout = aliases == null ? null : new OResultLayout(aliases);
+      resultLayoutChecked = true;
+    }
+    return resultLayout;
+  }
+
   public OLegacyResultSet calculateExpand(OCommandContext iContext, OResult iRecord) {
     if (!isExpand()) {
       throw new IllegalStateException("This is not an expand projection:" + toString());
@@ -32,6 +32,9 @@ public class OProjectionItem extends SimpleNode {
 
   protected ONestedProjection nestedProjection;
 
+  // NAME OF THE PROPERTY READ AS IT IS, EMPTY IF THE ITEM IS NOT A PLAIN PROPERTY
+  private String storedProperty;
+
   public OProjectionItem(
       OExpression expression, OIdentifier alias, ONestedProjection nestedProjection) {
     super(-1);
@@ -60,6 +63,7 @@ public class OProjectionItem extends SimpleNode {
 
   public void setAll(boolean all) {
     this.all = all;
+    this.storedProperty = null;
   }
 
   public OIdentifier getAlias() {
@@ -76,6 +80,7 @@ public class OProjectionItem extends SimpleNode {
 
   public void setExpression(OExpression expression) {
     this.expression = expression;
+    this.storedProperty = null;
   }
 
   public void toString(Map<Object, Object> params, StringBuilder builder) {
@@ -142,6 +147,14 @@ public class OProjectionItem extends SimpleNode {
   }
 
   public Object execute(OResult iCurrentRecord, OCommandContext ctx) {
+    final String property = getStoredProperty();
+    if (property != null
+        && iCurrentRecord instanceof OResultInternal
+        && ((OResultInternal) iCurrentRecord).isStoredProperty(property)) {
+      // PLAIN PROPERTY OF A RECORD: READ ONLY THIS FIELD, WITHOUT EVALUATING THE EXPRESSION
+      return convert(((OResultInternal) iCurrentRecord).getStoredProperty(property));
+    }
+
     Object result;
     if (all) {
       result = iCurrentRecord;
@@ -157,6 +170,32 @@ public class OProjectionItem extends SimpleNode {
     return convert(result);
   }
 
+  /**
+   * @return the name of the property if the item reads a plain property of the record, as in
+   *     <code>SELECT name FROM Person</code>, null otherwise
+   */
+  private String getStoredProperty() {
+    if (storedProperty == null) {
+      String name = null;
+      if (!isAll()
+          && nestedProjection == null
+          && expression != null
+          && expression.mathExpression instanceof OBaseExpression
+          && expression.isBaseIdentifier()) {
+        name = expression.getDefaultAlias().getStringValue();
+        if (name.isEmpty()
+            || name.charAt(0) == '$'
+            || name.charAt(0) == '@'
+            || name.indexOf('.') >= 0
+            || name.indexOf('[') >= 0) {
+          name = null;
+        }
+      }
+      storedProperty = name == null ? "" : name;
+    }
+    return storedProperty.isEmpty() ? null : storedProperty;
+  }
+
   /**
    * returns the final alias for this projection item (the explicit alias, if defined, or the
    * default alias)
@@ -318,6 +357,7 @@ public class OProjectionItem extends SimpleNode {
 
   public void setNestedProjection(ONestedProjection nestedProjection) {
     this.nestedProjection = nestedProjection;
+    this.storedProperty = null;
   }
 
   public boolean isCacheable() {
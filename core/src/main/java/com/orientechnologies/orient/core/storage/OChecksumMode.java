@@ -53,5 +53,18 @@ public enum OChecksumMode {
    * Same as {@link OChecksumMode#StoreAndVerify} with addition that storage will be switched in
    * read only mode till it will not be repaired.
    */
-  StoreAndSwitchReadOnlyMode
+  StoreAndSwitchReadOnlyMode,
+
+  /**
+   * Checksums are calculated and stored on page flushes, stored checksums are verified in
+   * background by a scrubber which reads the files at a limited rate. Errors are reported in the
+   * log and storage is switched in read only mode as in {@link
+   * OChecksumMode#StoreAndSwitchReadOnlyMode}.
+   *
+   * <p>Page loads are verified only during the recovery after a crash, while the double write log
+   * still keeps the pages written before the crash, so a page torn by the crash is restored from
+   * it. Afterwards the loads are not verified, so a page broken later is read as it is until the
+   * scrubber finds it, which trades the detection delay for the cost of a checksum per load.
+   */
+  StoreAndScrub
 }
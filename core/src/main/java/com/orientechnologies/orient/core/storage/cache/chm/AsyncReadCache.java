@@ -4,6 +4,9 @@ import com.orientechnologies.common.concur.lock.OInterruptedException;
 import com.orientechnologies.common.directmemory.OByteBufferPool;
 import com.orientechnologies.common.directmemory.OPointer;
 import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.common.metrics.OCounter;
+import com.orientechnologies.common.metrics.OHistogram;
+import com.orientechnologies.common.metrics.OMetricsRegistry;
 import com.orientechnologies.common.types.OModifiableBoolean;
 import com.orientechnologies.common.util.ORawPair;
 import com.orientechnologies.orient.core.exception.OStorageException;
@@ -44,6 +47,16 @@ public final class AsyncReadCache implements OReadCache {
   private static final int N_CPU = Runtime.getRuntime().availableProcessors();
   private static final int WRITE_BUFFER_MAX_BATCH = 128 * ceilingPowerOfTwo(N_CPU);
 
+  private static final OCounter PAGE_HITS =
+      OMetricsRegistry.instance()
+          .counter("storage.readCache.hits", "Pages found in the disk cache");
+  private static final OCounter PAGE_MISSES =
+      OMetricsRegistry.instance()
+          .counter("storage.readCache.misses", "Pages loaded in the disk cache");
+  private static final OHistogram PAGE_LOAD =
+      OMetricsRegistry.instance()
+          .histogram("storage.readCache.load", "Time to load a page missing from the disk cache");
+
   private final ConcurrentHashMap<PageKey, OCacheEntry> data;
   private final Lock evictionLock = new ReentrantLock();
 
@@ -152,12 +165,14 @@ public final class AsyncReadCache implements OReadCache {
                 (page, entry) -> {
                   if (entry == null) {
                     try {
+                      final long loadStart = System.nanoTime();
                       final OCachePointer pointer =
                           writeCache.load(
                               fileId, pageIndex, new OModifiableBoolean(), verifyChecksums);
                       if (pointer == null) {
                         return null;
                       }
+                      PAGE_LOAD.recordSince(loadStart);
 
                       updatedEntry[0] =
                           new OCacheEntryImpl(
@@ -213,6 +228,7 @@ public final class AsyncReadCache implements OReadCache {
         if (cacheEntry.acquireEntry()) {
           afterRead(cacheEntry);
 
+          PAGE_HITS.increment();
           if (trackHitRate) {
             hits.increment();
           }
@@ -256,12 +272,14 @@ public final class AsyncReadCache implements OReadCache {
 
         if (cacheEntry.acquireEntry()) {
           if (read[0]) {
+            PAGE_HITS.increment();
             if (trackHitRate) {
               hits.increment();
             }
 
             afterRead(cacheEntry);
           } else {
+            PAGE_MISSES.increment();
             afterAdd(cacheEntry);
 
             try {
@@ -0,0 +1,80 @@
+package com.orientechnologies.orient.core.storage.cache.local;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Bitmap of the pages of every file of a write cache which were written to disk since they were
+ * taken last time. Pages are marked only once their write is completed, so pages taken by a backup
+ * contain all the changes flushed before the pages were taken, and the pages written later are
+ * marked again for the next backup.
+ *
+ * <p>Changes are tracked in memory only, so they cover the period since the storage was opened.
+ * The first take after the opening can't tell which pages were changed before, it only starts the
+ * tracking.
+ */
+public final class OChangedPagesTracker {
+  private final ConcurrentMap<Integer, BitSet> pages = new ConcurrentHashMap<>();
+
+  // false till the first take, as the changes made before the opening are unknown
+  private volatile boolean complete;
+
+  /**
+   * Marks a range of pages of a file as changed.
+   *
+   * @param fileId internal id of the file in the write cache
+   */
+  public void markWritten(final int fileId, final int pageIndex, final int pagesCount) {
+    pages.compute(
+        fileId,
+        (id, bits) -> {
+          if (bits == null) {
+            bits = new BitSet();
+          }
+          bits.set(pageIndex, pageIndex + pagesCount);
+          return bits;
+        });
+  }
+
+  /** Forgets the changes of a file which was deleted or truncated. */
+  public void removeFile(final int fileId) {
+    pages.remove(fileId);
+  }
+
+  /**
+   * @return the changed pages by internal file id, which are no more marked as changed, or null if
+   *     this is the first take since the write cache was opened, so all the pages may be changed
+   */
+  public Map<Integer, BitSet> take() {
+    if (!complete) {
+      pages.clear();
+      complete = true;
+      return null;
+    }
+
+    final Map<Integer, BitSet> result = new HashMap<>();
+    for (final Integer fileId : pages.keySet()) {
+      final BitSet bits = pages.remove(fileId);
+      if (bits != null) {
+        result.put(fileId, bits);
+      }
+    }
+    return result;
+  }
+
+  /** Marks again pages which were taken, if they could not be copied. */
+  public void restore(final Map<Integer, BitSet> taken) {
+    for (final Map.Entry<Integer, BitSet> entry : taken.entrySet()) {
+      pages.merge(
+          entry.getKey(),
+          entry.getValue(),
+          (current, restored) -> {
+            current.or(restored);
+            return current;
+          });
+    }
+  }
+}
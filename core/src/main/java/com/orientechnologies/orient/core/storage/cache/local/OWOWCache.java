@@ -100,13 +100,17 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.zip.CRC32;
 import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
@@ -204,6 +208,15 @@ public final class OWOWCache extends OAbstractWriteCache
   /** Executor which is used to call event listeners in background thread */
   private static final ExecutorService cacheEventsPublisher;
 
+  /** Executor which calculates checksums of batches of flushed pages in parallel */
+  private static final OThreadPoolExecutorWithLogging checksumExecutor;
+
+  /** Executor which verifies checksums of stored pages in background */
+  private static final OScheduledThreadPoolExecutorWithLogging scrubExecutor;
+
+  /** Maximum amount of pages read at once to verify their checksums in background */
+  private static final int SCRUB_CHUNK_SIZE = 64;
+
   static {
     cacheEventsPublisher =
         new OThreadPoolExecutorWithLogging(
@@ -216,6 +229,20 @@ public final class OWOWCache extends OAbstractWriteCache
 
     commitExecutor = new OScheduledThreadPoolExecutorWithLogging(1, new FlushThreadFactory());
     commitExecutor.setMaximumPoolSize(1);
+
+    final int checksumThreads = Runtime.getRuntime().availableProcessors();
+    checksumExecutor =
+        new OThreadPoolExecutorWithLogging(
+            checksumThreads,
+            checksumThreads,
+            60L,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            new ChecksumThreadFactory());
+    checksumExecutor.allowCoreThreadTimeOut(true);
+
+    scrubExecutor = new OScheduledThreadPoolExecutorWithLogging(1, new ScrubThreadFactory());
+    scrubExecutor.setMaximumPoolSize(1);
   }
 
   /** Limit of free space on disk after which database will be switched to "read only" mode */
@@ -236,6 +263,23 @@ public final class OWOWCache extends OAbstractWriteCache
   private final List<WeakReference<OLowDiskSpaceListener>> lowDiskSpaceListeners =
       new CopyOnWriteArrayList<>();
 
+  /**
+   * Minimal amount of flushed pages whose checksums are calculated by {@link #checksumExecutor},
+   * in batches of this size
+   */
+  private final int checksumBatchSize =
+      OGlobalConfiguration.STORAGE_CHECKSUM_BATCH_SIZE.getValueAsInteger();
+
+  /** Maximum amount of pages verified by the scrubber each second */
+  private final int scrubRate =
+      OGlobalConfiguration.STORAGE_CHECKSUM_SCRUB_RATE.getValueAsInteger();
+
+  /** Pages written to disk since they were taken by the last backup, null if not tracked */
+  private final OChangedPagesTracker changedPagesTracker =
+      OGlobalConfiguration.STORAGE_TRACK_CHANGED_PAGES.getValueAsBoolean()
+          ? new OChangedPagesTracker()
+          : null;
+
   /** Listeners which are called once we detect that some of the pages of files are broken. */
   private final List<WeakReference<OPageIsBrokenListener>> pageIsBrokenListeners =
       new CopyOnWriteArrayList<>();
@@ -348,6 +392,8 @@ public final class OWOWCache extends OAbstractWriteCache
    */
   private final OLockManager<PageKey> lockManager = new OPartitionedLockManager<>();
 
+  private final PageWriteGuard pageWriteGuard = new PageWriteGuard();
+
   /**
    * We acquire lock managed by this manager in read mode if we need to read data from files, and in
    * write mode if we add/remove/truncate file.
@@ -407,6 +453,14 @@ public final class OWOWCache extends OAbstractWriteCache
   private volatile boolean stopFlush;
   private volatile Future<?> flushFuture;
 
+  private volatile boolean stopScrub;
+  private volatile Future<?> scrubFuture;
+  /** Held by the scrubber while it verifies pages, so it is not running once it is stopped */
+  private final Lock scrubLock = new ReentrantLock();
+
+  /** True while the double write log keeps the pages written before a crash to restore them */
+  private volatile boolean restoreMode;
+
   private final ConcurrentHashMap<ExclusiveFlushTask, CountDownLatch> triggeredTasks =
       new ConcurrentHashMap<>();
 
@@ -488,6 +542,11 @@ public final class OWOWCache extends OAbstractWriteCache
                 new PeriodicFlushTask(), pagesFlushInterval, TimeUnit.MILLISECONDS);
       }
 
+      if (checksumMode == OChecksumMode.StoreAndScrub && scrubRate > 0) {
+        scrubFuture =
+            scrubExecutor.scheduleWithFixedDelay(new ScrubTask(), 1, 1, TimeUnit.SECONDS);
+      }
+
     } finally {
       filesLock.releaseWriteLock();
     }
@@ -1066,6 +1125,7 @@ public final class OWOWCache extends OAbstractWriteCache
     filesLock.acquireWriteLock();
     try {
       doubleWriteLog.restoreModeOn();
+      restoreMode = true;
     } finally {
       filesLock.releaseWriteLock();
     }
@@ -1075,6 +1135,7 @@ public final class OWOWCache extends OAbstractWriteCache
   public void restoreModeOff() {
     filesLock.acquireWriteLock();
     try {
+      restoreMode = false;
       doubleWriteLog.restoreModeOff();
     } finally {
       filesLock.releaseWriteLock();
@@ -1314,6 +1375,9 @@ public final class OWOWCache extends OAbstractWriteCache
       if (file != null) {
         writeNameIdEntry(new NameFileIdEntry(file.first, -intId, file.second), true);
       }
+      if (changedPagesTracker != null) {
+        changedPagesTracker.removeFile(intId);
+      }
     } finally {
       filesLock.releaseWriteLock();
     }
@@ -1333,6 +1397,9 @@ public final class OWOWCache extends OAbstractWriteCache
       } finally {
         files.release(entry);
       }
+      if (changedPagesTracker != null) {
+        changedPagesTracker.removeFile(intId);
+      }
     } catch (final InterruptedException e) {
       throw OException.wrapException(new OStorageException("File truncation was interrupted"), e);
     } finally {
@@ -1414,8 +1481,22 @@ public final class OWOWCache extends OAbstractWriteCache
     }
   }
 
+  private void stopScrub() {
+    stopScrub = true;
+
+    final Future<?> future = scrubFuture;
+    if (future != null) {
+      future.cancel(false);
+
+      // waits till the pages which are being verified are processed
+      scrubLock.lock();
+      scrubLock.unlock();
+    }
+  }
+
   @Override
   public long[] close() throws IOException {
+    stopScrub();
     flush();
     stopFlush();
 
@@ -1670,6 +1751,8 @@ public final class OWOWCache extends OAbstractWriteCache
 
   @Override
   public long[] delete() throws IOException {
+    stopScrub();
+
     final List<Long> result = new ArrayList<>(1_024);
     filesLock.acquireWriteLock();
     try {
@@ -1723,6 +1806,92 @@ public final class OWOWCache extends OAbstractWriteCache
     return fIds;
   }
 
+  /**
+   * @return the pages written to disk since they were taken last time, or null if changed pages are
+   *     not tracked
+   * @see OGlobalConfiguration#STORAGE_TRACK_CHANGED_PAGES
+   */
+  public OChangedPagesTracker getChangedPagesTracker() {
+    return changedPagesTracker;
+  }
+
+  /**
+   * Reads pages of a file as they are stored on disk, with their checksum and encryption, without
+   * passing through the cache. Reads from the start of the buffer the pages which fit in it.
+   *
+   * <p>Pages are read on the calling thread, concurrently with the flush. Pages which were written
+   * while they were read are read again, one by one, so pages are never returned partially written.
+   *
+   * @return amount of pages read, less than requested if the file is shorter, or -1 if the file
+   *     does not exist anymore
+   */
+  public int readStoredPages(final long fileId, final int pageIndex, final ByteBuffer buffer)
+      throws IOException {
+    final int intId = extractFileId(fileId);
+    final long externalId = composeFileId(id, intId);
+
+    filesLock.acquireReadLock();
+    try {
+      final OClosableEntry<Long, OFile> entry = files.acquire(externalId);
+      if (entry == null) {
+        return -1;
+      }
+
+      try {
+        final OFile file = entry.get();
+        final long offset = ((long) pageIndex) * pageSize;
+        final long available = file.getFileSize() - offset;
+        if (available <= 0) {
+          return 0;
+        }
+
+        final int pages = (int) Math.min(buffer.capacity() / pageSize, available / pageSize);
+        final long[] stamps = new long[pages];
+        for (int i = 0; i < pages; i++) {
+          stamps[i] = pageWriteGuard.awaitStamp(intId, pageIndex + i);
+        }
+
+        buffer.clear();
+        buffer.limit(pages * pageSize);
+        file.read(offset, buffer, true);
+
+        for (int i = 0; i < pages; i++) {
+          while (!pageWriteGuard.validate(intId, pageIndex + i, stamps[i])) {
+            stamps[i] = pageWriteGuard.awaitStamp(intId, pageIndex + i);
+
+            buffer.limit((i + 1) * pageSize);
+            buffer.position(i * pageSize);
+            file.read(offset + ((long) i) * pageSize, buffer.slice(), true);
+          }
+        }
+
+        buffer.position(0);
+        buffer.limit(pages * pageSize);
+        return pages;
+      } finally {
+        files.release(entry);
+      }
+    } catch (final InterruptedException e) {
+      throw OException.wrapException(new OStorageException("Reading of pages was interrupted"), e);
+    } finally {
+      filesLock.releaseReadLock();
+    }
+  }
+
+  /**
+   * @return name of the file which maps names of the files of the cache to their ids and names on
+   *     disk, and its content, which contains all the files added to the cache till now
+   */
+  public ORawPair<String, byte[]> readNameIdMap() throws IOException {
+    filesLock.acquireReadLock();
+    try {
+      return new ORawPair<>(
+          nameIdMapHolderPath.getFileName().toString(), Files.readAllBytes(nameIdMapHolderPath));
+    } finally {
+      filesLock.releaseReadLock();
+    }
+  }
+
   @Override
   public String fileNameById(final long fileId) {
     final int intId = extractFileId(fileId);
@@ -2209,10 +2378,7 @@ public final class OWOWCache extends OAbstractWriteCache
 
           fileClassic.read(pagePosition, buffer, false);
 
-          if (verifyChecksums
-              && (checksumMode == OChecksumMode.StoreAndVerify
-                  || checksumMode == OChecksumMode.StoreAndThrow
-                  || checksumMode == OChecksumMode.StoreAndSwitchReadOnlyMode)) {
+          if (verifyChecksums && verifyChecksumsOnLoad()) {
             // if page is broken inside of data file we check double write log
             if (!verifyMagicChecksumAndDecryptPage(buffer, internalFileId, pageIndex)) {
               final OPointer doubleWritePointer =
@@ -2232,6 +2398,9 @@ public final class OWOWCache extends OAbstractWriteCache
                 }
               }
             }
+          } else if (checksumMode == OChecksumMode.StoreAndScrub) {
+            // checksum is verified by the scrubber
+            decryptPage(buffer, internalFileId, pageIndex);
           }
 
           buffer.position(0);
@@ -2243,13 +2412,12 @@ public final class OWOWCache extends OAbstractWriteCache
             final ByteBuffer buffer = pointer.getNativeByteBuffer();
             assert buffer.position() == 0;
 
-            if (verifyChecksums
-                && (checksumMode == OChecksumMode.StoreAndVerify
-                    || checksumMode == OChecksumMode.StoreAndThrow
-                    || checksumMode == OChecksumMode.StoreAndSwitchReadOnlyMode)) {
+            if (verifyChecksums && verifyChecksumsOnLoad()) {
               if (!verifyMagicChecksumAndDecryptPage(buffer, internalFileId, pageIndex)) {
                 assertPageIsBroken(pageIndex, fileId, pointer);
               }
+            } else if (checksumMode == OChecksumMode.StoreAndScrub) {
+              decryptPage(buffer, internalFileId, pageIndex);
             }
           }
 
@@ -2263,6 +2431,19 @@ public final class OWOWCache extends OAbstractWriteCache
     }
   }
 
+  /**
+   * @return true if the checksums of the pages are verified when they are loaded. In {@link
+   *     OChecksumMode#StoreAndScrub} mode they are verified only while the double write log is in
+   *     restore mode, as it's the only time it keeps the pages that could be torn by a crash, so
+   *     they are repaired before the scrubber finds them broken
+   */
+  private boolean verifyChecksumsOnLoad() {
+    return checksumMode == OChecksumMode.StoreAndVerify
+        || checksumMode == OChecksumMode.StoreAndThrow
+        || checksumMode == OChecksumMode.StoreAndSwitchReadOnlyMode
+        || (checksumMode == OChecksumMode.StoreAndScrub && restoreMode);
+  }
+
   private void assertPageIsBroken(long pageIndex, long fileId, OPointer pointer) {
     final String message =
         "Magic number verification failed for page `"
@@ -2278,6 +2459,9 @@ public final class OWOWCache extends OAbstractWriteCache
     } else if (checksumMode == OChecksumMode.StoreAndSwitchReadOnlyMode) {
       dumpStackTrace(message);
       callPageIsBrokenListeners(fileNameById(fileId), pageIndex);
+    } else if (checksumMode == OChecksumMode.StoreAndScrub) {
+      // reported as the scrubber does
+      callPageIsBrokenListeners(fileNameById(fileId), pageIndex);
     }
   }
 
@@ -2408,6 +2592,19 @@ public final class OWOWCache extends OAbstractWriteCache
     return computedChecksum == storedChecksum;
   }
 
+  private void decryptPage(final ByteBuffer buffer, final int intId, final long pageIndex) {
+    if (aesKey == null) {
+      return;
+    }
+
+    final long magicNumber = buffer.getLong(MAGIC_NUMBER_OFFSET);
+    if ((magicNumber & 0xFF) == MAGIC_NUMBER_WITH_CHECKSUM_ENCRYPTED
+        || (magicNumber & 0xFF) == MAGIC_NUMBER_WITHOUT_CHECKSUM_ENCRYPTED) {
+      doEncryptionDecryption(
+          intId, (int) pageIndex, Cipher.DECRYPT_MODE, buffer, magicNumber >>> 8);
+    }
+  }
+
   private void dumpStackTrace(final String message) {
     final StringWriter stringWriter = new StringWriter();
     final PrintWriter printWriter = new PrintWriter(stringWriter);
@@ -2978,6 +3175,70 @@ public final class OWOWCache extends OAbstractWriteCache
     }
   }
 
+  /**
+   * Adds magic numbers and checksums to the copies of the pages which are flushed, and encrypts
+   * them. If enough pages are flushed they are processed in batches by {@link #checksumExecutor},
+   * which is faster than the flush thread alone when the pages are encrypted or many of them are
+   * flushed at once.
+   */
+  private void addMagicChecksumAndEncryption(
+      final List<List<OQuarto<Long, ByteBuffer, OPointer, OCachePointer>>> chunks)
+      throws InterruptedException {
+    final List<OQuarto<Long, ByteBuffer, OPointer, OCachePointer>> pages = new ArrayList<>();
+    for (final List<OQuarto<Long, ByteBuffer, OPointer, OCachePointer>> chunk : chunks) {
+      pages.addAll(chunk);
+    }
+
+    if (checksumBatchSize <= 0 || pages.size() <= checksumBatchSize) {
+      addMagicChecksumAndEncryptionToPages(pages);
+      return;
+    }
+
+    final List<Future<Void>> batches = new ArrayList<>(pages.size() / checksumBatchSize);
+    try {
+      for (int from = checksumBatchSize; from < pages.size(); from += checksumBatchSize) {
+        final List<OQuarto<Long, ByteBuffer, OPointer, OCachePointer>> batch =
+            pages.subList(from, Math.min(from + checksumBatchSize, pages.size()));
+        batches.add(
+            checksumExecutor.submit(
+                () -> {
+                  addMagicChecksumAndEncryptionToPages(batch);
+                  return null;
+                }));
+      }
+
+      addMagicChecksumAndEncryptionToPages(pages.subList(0, checksumBatchSize));
+
+      for (final Future<Void> batch : batches) {
+        batch.get();
+      }
+    } catch (final ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw OException.wrapException(
+          new OWriteCacheException("Calculation of page checksums was abnormally terminated"),
+          cause);
+    } finally {
+      for (final Future<Void> batch : batches) {
+        batch.cancel(false);
+      }
+    }
+  }
+
+  private void addMagicChecksumAndEncryptionToPages(
+      final List<OQuarto<Long, ByteBuffer, OPointer, OCachePointer>> pages) {
+    for (final OQuarto<Long, ByteBuffer, OPointer, OCachePointer> page : pages) {
+      final OCachePointer pointer = page.four;
+      addMagicChecksumAndEncryption(
+          extractFileId(pointer.getFileId()), pointer.getPageIndex(), page.two);
+    }
+  }
+
   private int flushPages(
       final List<List<OQuarto<Long, ByteBuffer, OPointer, OCachePointer>>> chunks,
       final OLogSequenceNumber fullLogLSN)
@@ -3000,6 +3261,8 @@ public final class OWOWCache extends OAbstractWriteCache
 
     int flushedPages = 0;
 
+    addMagicChecksumAndEncryption(chunks);
+
     final OPointer[] containerPointers = new OPointer[chunks.size()];
     final ByteBuffer[] containerBuffers = new ByteBuffer[chunks.size()];
     final int[] chunkPositions = new int[chunks.size()];
@@ -3023,11 +3286,6 @@ public final class OWOWCache extends OAbstractWriteCache
         for (final OQuarto<Long, ByteBuffer, OPointer, OCachePointer> quarto : chunk) {
           final ByteBuffer buffer = quarto.two;
 
-          final OCachePointer pointer = quarto.four;
-
-          addMagicChecksumAndEncryption(
-              extractFileId(pointer.getFileId()), pointer.getPageIndex(), buffer);
-
           buffer.position(0);
           containerBuffer.put(buffer);
         }
@@ -3048,65 +3306,69 @@ public final class OWOWCache extends OAbstractWriteCache
 
       fsyncFiles = doubleWriteLog.write(containerBuffers, chunkFileIds, chunkPositions);
 
-      final List<OClosableEntry<Long, OFile>> acquiredFiles =
-          new ArrayList<>(buffersByFileId.size());
-      final List<IOResult> ioResults = new ArrayList<>(buffersByFileId.size());
-
-      final Iterator<Map.Entry<Long, List<ORawPair<Long, ByteBuffer>>>> filesIterator =
-          buffersByFileId.entrySet().iterator();
-      Map.Entry<Long, List<ORawPair<Long, ByteBuffer>>> entry = null;
-      // acquire as much files as possible and flush data
-      while (true) {
-        if (entry == null) {
-          if (filesIterator.hasNext()) {
-            entry = filesIterator.next();
-          } else {
-            break;
+      pageWriteGuard.startWrite(chunkFileIds, chunkPositions, chunks);
+      try {
+        final List<OClosableEntry<Long, OFile>> acquiredFiles =
+            new ArrayList<>(buffersByFileId.size());
+        final List<IOResult> ioResults = new ArrayList<>(buffersByFileId.size());
+
+        final Iterator<Map.Entry<Long, List<ORawPair<Long, ByteBuffer>>>> filesIterator =
+            buffersByFileId.entrySet().iterator();
+        Map.Entry<Long, List<ORawPair<Long, ByteBuffer>>> entry = null;
+        // acquire as much files as possible and flush data
+        while (true) {
+          if (entry == null) {
+            if (filesIterator.hasNext()) {
+              entry = filesIterator.next();
+            } else {
+              break;
+            }
           }
-        }
 
-        final OClosableEntry<Long, OFile> fileEntry = files.tryAcquire(entry.getKey());
-        if (fileEntry != null) {
-          final OFile file = fileEntry.get();
+          final OClosableEntry<Long, OFile> fileEntry = files.tryAcquire(entry.getKey());
+          if (fileEntry != null) {
+            final OFile file = fileEntry.get();
 
-          final List<ORawPair<Long, ByteBuffer>> bufferList = entry.getValue();
+            final List<ORawPair<Long, ByteBuffer>> bufferList = entry.getValue();
 
-          ioResults.add(file.write(bufferList));
-          acquiredFiles.add(fileEntry);
+            ioResults.add(file.write(bufferList));
+            acquiredFiles.add(fileEntry);
 
-          entry = null;
-        } else {
-          assert ioResults.size() == acquiredFiles.size();
+            entry = null;
+          } else {
+            assert ioResults.size() == acquiredFiles.size();
 
-          if (!ioResults.isEmpty()) {
-            for (final IOResult ioResult : ioResults) {
-              ioResult.await();
-            }
+            if (!ioResults.isEmpty()) {
+              for (final IOResult ioResult : ioResults) {
+                ioResult.await();
+              }
 
-            for (final OClosableEntry<Long, OFile> closableEntry : acquiredFiles) {
-              files.release(closableEntry);
-            }
+              for (final OClosableEntry<Long, OFile> closableEntry : acquiredFiles) {
+                files.release(closableEntry);
+              }
 
-            ioResults.clear();
-            acquiredFiles.clear();
-          } else {
-            Thread.yield();
+              ioResults.clear();
+              acquiredFiles.clear();
+            } else {
+              Thread.yield();
+            }
           }
         }
-      }
 
-      assert ioResults.size() == acquiredFiles.size();
+        assert ioResults.size() == acquiredFiles.size();
 
-      if (!ioResults.isEmpty()) {
-        for (final IOResult ioResult : ioResults) {
-          ioResult.await();
-        }
+        if (!ioResults.isEmpty()) {
+          for (final IOResult ioResult : ioResults) {
+            ioResult.await();
+          }
 
-        for (final OClosableEntry<Long, OFile> closableEntry : acquiredFiles) {
-          files.release(closableEntry);
+          for (final OClosableEntry<Long, OFile> closableEntry : acquiredFiles) {
+            files.release(closableEntry);
+          }
         }
+      } finally {
+        pageWriteGuard.endWrite(chunkFileIds, chunkPositions, chunks);
       }
-
     } finally {
       for (final OPointer containerPointer : containerPointers) {
         ODirectMemoryAllocator.instance().deallocate(containerPointer);
@@ -3117,6 +3379,12 @@ public final class OWOWCache extends OAbstractWriteCache
       fsyncFiles();
     }
 
+    if (changedPagesTracker != null) {
+      for (int i = 0; i < chunks.size(); i++) {
+        changedPagesTracker.markWritten(chunkFileIds[i], chunkPositions[i], chunks.get(i).size());
+      }
+    }
+
     for (final List<OQuarto<Long, ByteBuffer, OPointer, OCachePointer>> chunk : chunks) {
       for (final OQuarto<Long, ByteBuffer, OPointer, OCachePointer> chunkPage : chunk) {
         final OCachePointer pointer = chunkPage.four;
@@ -3461,6 +3729,158 @@ public final class OWOWCache extends OAbstractWriteCache
     }
   }
 
+  /**
+   * Verifies checksums of the pages stored on disk, reading them from all the files one after
+   * another. Each run verifies at most {@link #scrubRate} pages and continues from the page where
+   * the previous run stopped, once all the files are verified they are verified again.
+   *
+   * <p>Pages are read by the scrub thread, pages written by the flush thread while they are read
+   * are read again. A page which fails verification is skipped if its newer version waits in the
+   * write cache, otherwise it is read once more before it is reported as broken.
+   */
+  private final class ScrubTask implements Runnable {
+    private int[] fileIds;
+    private int fileIndex;
+    private int pageIndex;
+
+    @Override
+    public void run() {
+      scrubLock.lock();
+      try {
+        int pages = scrubRate;
+        final ByteBuffer buffer =
+            ByteBuffer.allocate(Math.min(pages, SCRUB_CHUNK_SIZE) * pageSize)
+                .order(ByteOrder.nativeOrder());
+
+        while (pages > 0 && !stopScrub) {
+          if (fileIds == null) {
+            fileIds =
+                idNameMap.keySet().stream()
+                    .mapToInt(Integer::intValue)
+                    .filter(id -> id >= 0)
+                    .sorted()
+                    .toArray();
+            fileIndex = 0;
+            pageIndex = 0;
+          }
+
+          if (fileIndex >= fileIds.length) {
+            // all the files are verified, next pass starts with the next run
+            fileIds = null;
+            return;
+          }
+
+          final int intId = fileIds[fileIndex];
+          buffer.limit(Math.min(pages, SCRUB_CHUNK_SIZE) * pageSize);
+          final int read = readStoredPages(externalFileId(intId), pageIndex, buffer.slice());
+          if (read <= 0) {
+            fileIndex++;
+            pageIndex = 0;
+            continue;
+          }
+
+          for (int i = 0; i < read; i++) {
+            if (!verifyStoredPage(buffer.array(), i * pageSize, intId, pageIndex + i)) {
+              reverifyStoredPage(intId, pageIndex + i);
+            }
+          }
+
+          pageIndex += read;
+          pages -= read;
+        }
+      } catch (final IOException | RuntimeException e) {
+        OLogManager.instance()
+            .error(this, "Error during verification of page checksums of " + storageName, e);
+      } finally {
+        scrubLock.unlock();
+      }
+    }
+  }
+
+  /** @return false if checksum of the page read from disk does not match its content */
+  private boolean verifyStoredPage(
+      final byte[] pages, final int offset, final int intId, final long pageIndex) {
+    final ByteBuffer page =
+        ByteBuffer.wrap(pages, offset, pageSize).slice().order(ByteOrder.nativeOrder());
+
+    // space allocated for a page which is not written yet is filled by zeros
+    if (page.getLong(MAGIC_NUMBER_OFFSET) == 0) {
+      return true;
+    }
+
+    return verifyMagicChecksumAndDecryptPage(page, intId, pageIndex);
+  }
+
+  private void reverifyStoredPage(final int intId, final int pageIndex) throws IOException {
+    // page is overwritten by the next flush
+    if (writeCachePages.containsKey(new PageKey(intId, pageIndex))) {
+      return;
+    }
+
+    final ByteBuffer buffer = ByteBuffer.allocate(pageSize).order(ByteOrder.nativeOrder());
+    final int read = readStoredPages(externalFileId(intId), pageIndex, buffer);
+    if (read <= 0 || verifyStoredPage(buffer.array(), 0, intId, pageIndex)) {
+      return;
+    }
+
+    final String fileName = fileNameById(intId);
+    OLogManager.instance()
+        .error(
+            this, "Checksum verification failed for page `%d` of `%s`.", null, pageIndex, fileName);
+    callPageIsBrokenListeners(fileName, pageIndex);
+  }
+
+  /**
+   * Tells readers of {@link #readStoredPages(long, int, ByteBuffer)} whether a page was written
+   * while they read it, like a sequence lock. Pages are spread over a fixed set of stripes, the
+   * flush thread counts the writes in progress and the completed writes of every stripe.
+   */
+  private static final class PageWriteGuard {
+    private static final int STRIPES = 1024;
+
+    private final AtomicIntegerArray writing = new AtomicIntegerArray(STRIPES);
+    private final AtomicLongArray written = new AtomicLongArray(STRIPES);
+
+    private static int stripe(final int intId, final long pageIndex) {
+      return (int) ((pageIndex + intId * 0x9E3779B9L) & (STRIPES - 1));
+    }
+
+    private void startWrite(
+        final int[] fileIds, final int[] pageIndexes, final List<? extends List<?>> chunks) {
+      for (int i = 0; i < fileIds.length; i++) {
+        for (int j = 0; j < chunks.get(i).size(); j++) {
+          writing.incrementAndGet(stripe(fileIds[i], pageIndexes[i] + j));
+        }
+      }
+    }
+
+    private void endWrite(
+        final int[] fileIds, final int[] pageIndexes, final List<? extends List<?>> chunks) {
+      for (int i = 0; i < fileIds.length; i++) {
+        for (int j = 0; j < chunks.get(i).size(); j++) {
+          final int stripe = stripe(fileIds[i], pageIndexes[i] + j);
+          written.incrementAndGet(stripe);
+          writing.decrementAndGet(stripe);
+        }
+      }
+    }
+
+    /** Waits till the page is not written and returns the stamp to validate a read with. */
+    private long awaitStamp(final int intId, final long pageIndex) {
+      final int stripe = stripe(intId, pageIndex);
+      while (writing.get(stripe) > 0) {
+        Thread.yield();
+      }
+      return written.get(stripe);
+    }
+
+    /** @return true if the page was not written since the stamp was taken */
+    private boolean validate(final int intId, final long pageIndex, final long stamp) {
+      final int stripe = stripe(intId, pageIndex);
+      return writing.get(stripe) == 0 && written.get(stripe) == stamp;
+    }
+  }
+
   private static final class FlushThreadFactory implements ThreadFactory {
 
     private FlushThreadFactory() {}
@@ -3475,6 +3895,34 @@ public final class OWOWCache extends OAbstractWriteCache
     }
   }
 
+  private static final class ChecksumThreadFactory implements ThreadFactory {
+
+    private ChecksumThreadFactory() {}
+
+    @Override
+    public final Thread newThread(final Runnable r) {
+      final Thread thread = new Thread(OStorageAbstract.storageThreadGroup, r);
+      thread.setDaemon(true);
+      thread.setName("OrientDB Write Cache Checksum Task");
+      thread.setUncaughtExceptionHandler(new OUncaughtExceptionHandler());
+      return thread;
+    }
+  }
+
+  private static final class ScrubThreadFactory implements ThreadFactory {
+
+    private ScrubThreadFactory() {}
+
+    @Override
+    public final Thread newThread(final Runnable r) {
+      final Thread thread = new Thread(OStorageAbstract.storageThreadGroup, r);
+      thread.setDaemon(true);
+      thread.setName("OrientDB Write Cache Checksum Scrubber");
+      thread.setUncaughtExceptionHandler(new OUncaughtExceptionHandler());
+      return thread;
+    }
+  }
+
   private static final class CacheEventsPublisherFactory implements ThreadFactory {
 
     private CacheEventsPublisherFactory() {}
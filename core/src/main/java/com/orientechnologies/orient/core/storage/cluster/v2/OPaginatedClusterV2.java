@@ -1568,11 +1568,13 @@ public final class OPaginatedClusterV2 extends OPaginatedCluster {
     }
 
     long pageIndex;
+    final int fileSize;
 
     final OCacheEntry pinnedStateEntry =
         loadPageForRead(atomicOperation, fileId, STATE_ENTRY_INDEX, true);
     try {
       final OPaginatedClusterStateV2 freePageLists = new OPaginatedClusterStateV2(pinnedStateEntry);
+      fileSize = freePageLists.getFileSize();
       do {
         pageIndex = freePageLists.getFreeListPage(freePageIndex);
         freePageIndex++;
@@ -1585,17 +1587,6 @@ public final class OPaginatedClusterV2 extends OPaginatedCluster {
     final boolean allocateNewPage;
 
     if (pageIndex < 0) {
-      final int fileSize;
-
-      final OCacheEntry stateCacheEntry =
-          loadPageForRead(atomicOperation, fileId, STATE_ENTRY_INDEX, false);
-      try {
-        final OPaginatedClusterStateV2 clusterState = new OPaginatedClusterStateV2(stateCacheEntry);
-        fileSize = clusterState.getFileSize();
-      } finally {
-        releasePageFromRead(atomicOperation, stateCacheEntry);
-      }
-
       allocateNewPage = true;
       pageIndex = fileSize + 1;
     } else {
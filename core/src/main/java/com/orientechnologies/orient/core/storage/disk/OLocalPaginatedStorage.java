@@ -32,6 +32,7 @@ import com.orientechnologies.common.log.OLogManager;
 import com.orientechnologies.common.parser.OSystemVariableResolver;
 import com.orientechnologies.common.serialization.types.OStringSerializer;
 import com.orientechnologies.common.thread.OThreadPoolExecutorWithLogging;
+import com.orientechnologies.common.util.ORawPair;
 import com.orientechnologies.orient.core.command.OCommandOutputListener;
 import com.orientechnologies.orient.core.compression.impl.OZIPCompressionUtil;
 import com.orientechnologies.orient.core.config.OContextConfiguration;
@@ -41,6 +42,7 @@ import com.orientechnologies.orient.core.exception.OStorageException;
 import com.orientechnologies.orient.core.index.engine.v1.OCellBTreeMultiValueIndexEngine;
 import com.orientechnologies.orient.core.storage.OChecksumMode;
 import com.orientechnologies.orient.core.storage.cache.OReadCache;
+import com.orientechnologies.orient.core.storage.cache.local.OChangedPagesTracker;
 import com.orientechnologies.orient.core.storage.cache.local.OWOWCache;
 import com.orientechnologies.orient.core.storage.cache.local.doublewritelog.DoubleWriteLog;
 import com.orientechnologies.orient.core.storage.cache.local.doublewritelog.DoubleWriteLogGL;
@@ -68,23 +70,33 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
@@ -138,14 +150,42 @@ public class OLocalPaginatedStorage extends OAbstractPaginatedStorage {
     DoubleWriteLogGL.EXTENSION
   };
 
+  /**
+   * Option of {@link #backup} which copies the storage without freezing it. Pages are read while
+   * they are changed and the write ahead log written till the end of the copy is added to the
+   * backup, so the storage restored from the backup is recovered from it when it is opened.
+   */
+  public static final String BACKUP_SNAPSHOT_OPTION = "snapshot";
+
   private static final int ONE_KB = 1024;
 
+  /** Maximum amount of consecutive pages copied in a single entry of an incremental backup */
+  private static final int CHANGED_PAGES_CHUNK = 64;
+
+  /**
+   * Maximum amount of files read at the same time by a snapshot backup, while the file read first
+   * is compressed. Every file keeps at most two chunks of pages in memory.
+   */
+  private static final int STORED_FILES_READ_AHEAD = 4;
+
   private static final OThreadPoolExecutorWithLogging segmentAdderExecutor;
+  private static final OThreadPoolExecutorWithLogging changedPagesReaderExecutor;
 
   static {
     segmentAdderExecutor =
         new OThreadPoolExecutorWithLogging(
             0, 1, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new SegmentAppenderFactory());
+
+    final int readers = Runtime.getRuntime().availableProcessors();
+    changedPagesReaderExecutor =
+        new OThreadPoolExecutorWithLogging(
+            readers,
+            readers,
+            60,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            new ChangedPagesReaderFactory());
+    changedPagesReaderExecutor.allowCoreThreadTimeOut(true);
   }
 
   private final int deleteMaxRetries;
@@ -267,6 +307,11 @@ public class OLocalPaginatedStorage extends OAbstractPaginatedStorage {
     try {
       if (out == null) throw new IllegalArgumentException("Backup output is null");
 
+      if (options != null
+          && Boolean.parseBoolean(String.valueOf(options.get(BACKUP_SNAPSHOT_OPTION)))) {
+        return snapshotBackup(out, callable, iOutput, compressionLevel, bufferSize);
+      }
+
       freeze(false);
       try {
         if (callable != null)
@@ -323,6 +368,207 @@ public class OLocalPaginatedStorage extends OAbstractPaginatedStorage {
     }
   }
 
+  private List<String> snapshotBackup(
+      final OutputStream out,
+      final Callable<Object> callable,
+      final OCommandOutputListener iOutput,
+      final int compressionLevel,
+      final int bufferSize)
+      throws IOException {
+    if (callable != null)
+      try {
+        callable.call();
+      } catch (final Exception e) {
+        OLogManager.instance().error(this, "Error on callback invocation during backup", e);
+      }
+
+    // pages on disk contain all the changes logged before the beginning of WAL, the changes
+    // logged later are restored from WAL kept since the start of the backup
+    final OLogSequenceNumber beginLSN = writeAheadLog.begin();
+    if (beginLSN != null) {
+      writeAheadLog.addCutTillLimit(beginLSN);
+    }
+    try {
+      final OLogSequenceNumber walBegin = writeAheadLog.begin();
+      final long startSegment =
+          walBegin != null ? walBegin.getSegment() : writeAheadLog.activeSegment();
+
+      startupMetadata.setTxMetadata(getLastMetadata().orElse(null));
+      final OutputStream bo = bufferSize > 0 ? new BufferedOutputStream(out, bufferSize) : out;
+      try {
+        try (final ZipOutputStream zos = new ZipOutputStream(bo)) {
+          zos.setComment("OrientDB Backup executed on " + new Date());
+          zos.setLevel(compressionLevel);
+
+          final OWOWCache wowCache = (OWOWCache) writeCache;
+          final List<String> names = new ArrayList<>();
+
+          // files are listed before their mapping is read, so all of them are in the mapping.
+          // files added later are absent from the backup and are created again by the recovery
+          final Collection<Long> fileIds = wowCache.files().values();
+          final ORawPair<String, byte[]> nameIdMap = wowCache.readNameIdMap();
+          zos.putNextEntry(new ZipEntry(nameIdMap.first));
+          try {
+            zos.write(nameIdMap.second);
+          } finally {
+            zos.closeEntry();
+          }
+          names.add(nameIdMap.first);
+
+          final java.io.File ivFile = storagePath.resolve(IV_NAME).toFile();
+          if (ivFile.exists()) {
+            addFileToBackup(zos, ivFile, iOutput);
+            names.add(ivFile.getName());
+          }
+
+          names.addAll(copyStoredFiles(wowCache, fileIds, zos, iOutput));
+
+          // all the pages copied were written after their changes were logged, so they are
+          // restored by the WAL flushed after the copy
+          writeAheadLog.flush();
+          writeAheadLog.appendNewSegment();
+          for (final java.io.File segment : writeAheadLog.nonActiveSegments(startSegment)) {
+            addFileToBackup(zos, segment, iOutput);
+            names.add(segment.getName());
+          }
+
+          // the master record of WAL is not copied, so the recovery starts from the beginning
+          // of the WAL in the backup instead of a checkpoint taken during the copy
+          startupMetadata.addDirtyFileToArchive(zos, "dirty.fl");
+          names.add("dirty.fl");
+          return names;
+        }
+      } finally {
+        if (bufferSize > 0) {
+          bo.flush();
+          bo.close();
+        }
+      }
+    } finally {
+      if (beginLSN != null) {
+        writeAheadLog.removeCutTillLimit(beginLSN);
+      }
+    }
+  }
+
+  /**
+   * Copies to a backup the files of the write cache, as they are stored on disk. Files are read by
+   * other threads, in parallel with the compression of the files read before, and every file is
+   * stored in an entry named as the file on disk.
+   */
+  private static List<String> copyStoredFiles(
+      final OWOWCache wowCache,
+      final Collection<Long> fileIds,
+      final ZipOutputStream zipOutputStream,
+      final OCommandOutputListener iOutput)
+      throws IOException {
+    final List<String> names = new ArrayList<>(fileIds.size());
+    final ArrayDeque<StoredFile> reading = new ArrayDeque<>(STORED_FILES_READ_AHEAD);
+    final AtomicBoolean stopped = new AtomicBoolean();
+    final Iterator<Long> ids = fileIds.iterator();
+    try {
+      while (true) {
+        while (reading.size() < STORED_FILES_READ_AHEAD && ids.hasNext()) {
+          final long fileId = ids.next();
+          final String fileName = wowCache.nativeFileNameById(fileId);
+          if (fileName == null) {
+            // file was deleted after it was listed
+            continue;
+          }
+
+          final BlockingQueue<ChangedPages> chunks = new ArrayBlockingQueue<>(2);
+          final Future<Void> reader =
+              changedPagesReaderExecutor.submit(
+                  () -> {
+                    try {
+                      readStoredFile(wowCache, fileId, chunks, stopped);
+                    } finally {
+                      handOver(chunks, ChangedPages.END, stopped);
+                    }
+                    return null;
+                  });
+          reading.add(new StoredFile(fileName, chunks, reader));
+        }
+
+        final StoredFile file = reading.poll();
+        if (file == null) {
+          return names;
+        }
+
+        if (iOutput != null) iOutput.onMessage("\n- Compressing file " + file.name + "...");
+        zipOutputStream.putNextEntry(new ZipEntry(file.name));
+        try {
+          ChangedPages chunk;
+          while ((chunk = file.chunks.take()) != ChangedPages.END) {
+            zipOutputStream.write(chunk.content);
+          }
+        } finally {
+          zipOutputStream.closeEntry();
+        }
+
+        file.reader.get();
+        names.add(file.name);
+        if (iOutput != null) iOutput.onMessage("ok");
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw OException.wrapException(
+          new OStorageException("Copy of storage files to the backup was interrupted"), e);
+    } catch (final ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      throw OException.wrapException(
+          new OStorageException("Error during copy of storage files to the backup"), cause);
+    } finally {
+      // readers are not interrupted, they stop handing over chunks and exit
+      stopped.set(true);
+      for (final StoredFile file : reading) {
+        file.reader.cancel(false);
+      }
+    }
+  }
+
+  private static void readStoredFile(
+      final OWOWCache wowCache,
+      final long fileId,
+      final BlockingQueue<ChangedPages> chunks,
+      final AtomicBoolean stopped)
+      throws IOException, InterruptedException {
+    final int pageSize = wowCache.pageSize();
+    final ByteBuffer buffer = ByteBuffer.allocate(CHANGED_PAGES_CHUNK * pageSize);
+
+    int pageIndex = 0;
+    int read;
+    // stops at the end of the file, or when the file is deleted during the copy
+    while ((read = wowCache.readStoredPages(fileId, pageIndex, buffer)) > 0) {
+      final ChangedPages chunk =
+          new ChangedPages(null, pageIndex, Arrays.copyOf(buffer.array(), read * pageSize));
+      if (!handOver(chunks, chunk, stopped)) {
+        return;
+      }
+      pageIndex += read;
+    }
+  }
+
+  private static void addFileToBackup(
+      final ZipOutputStream zipOutputStream,
+      final java.io.File file,
+      final OCommandOutputListener iOutput)
+      throws IOException {
+    if (iOutput != null) iOutput.onMessage("\n- Compressing file " + file.getName() + "...");
+    try (final FileInputStream fileInputStream = new FileInputStream(file)) {
+      zipOutputStream.putNextEntry(new ZipEntry(file.getName()));
+      try {
+        OIOUtils.copyStream(fileInputStream, zipOutputStream, -1);
+      } finally {
+        zipOutputStream.closeEntry();
+      }
+    }
+    if (iOutput != null) iOutput.onMessage("ok");
+  }
+
   @Override
   public final void restore(
       final InputStream in,
@@ -434,6 +680,170 @@ public class OLocalPaginatedStorage extends OAbstractPaginatedStorage {
     return lastLSN;
   }
 
+  /**
+   * Copies to an incremental backup the pages written since the previous incremental backup, if
+   * they are tracked by the write cache. Files are read in parallel and writes are not stopped, so
+   * pages written during the copy can be copied in any state: WAL starting from the returned
+   * segment has to be added to the backup to restore them.
+   *
+   * <p>Every chunk of consecutive pages is stored in an entry named <code>
+   * pages/[file name]/[index of the first page]</code>. If the copy fails the pages are tracked as
+   * changed again.
+   *
+   * @return the first WAL segment needed to restore the copied pages, or null if changed pages
+   *     are not tracked, or are tracked only from now on since this is the first copy after the
+   *     storage was opened, and all the pages of the files have to be checked
+   * @see OGlobalConfiguration#STORAGE_TRACK_CHANGED_PAGES
+   */
+  protected Long copyChangedPagesToIncrementalBackup(final ZipOutputStream zipOutputStream)
+      throws IOException {
+    final OWOWCache wowCache = (OWOWCache) writeCache;
+    final OChangedPagesTracker tracker = wowCache.getChangedPagesTracker();
+    if (tracker == null) {
+      return null;
+    }
+
+    // pages which are not flushed yet are tracked only once they are written, so their changes
+    // have to be restored from WAL
+    Long startSegment = wowCache.getMinimalNotFlushedSegment();
+    if (startSegment == null) {
+      startSegment = writeAheadLog.activeSegment();
+    }
+
+    final Map<Integer, BitSet> changedPages = tracker.take();
+    if (changedPages == null) {
+      return null;
+    }
+
+    boolean copied = false;
+    try {
+      copyChangedPages(wowCache, changedPages, zipOutputStream);
+      copied = true;
+    } finally {
+      if (!copied) {
+        tracker.restore(changedPages);
+      }
+    }
+
+    return startSegment;
+  }
+
+  private static void copyChangedPages(
+      final OWOWCache wowCache,
+      final Map<Integer, BitSet> changedPages,
+      final ZipOutputStream zipOutputStream)
+      throws IOException {
+    final BlockingQueue<ChangedPages> chunks =
+        new ArrayBlockingQueue<>(2 * Runtime.getRuntime().availableProcessors());
+    final List<Future<Void>> readers = new ArrayList<>(changedPages.size());
+    final AtomicBoolean stopped = new AtomicBoolean();
+    try {
+      for (final Map.Entry<Integer, BitSet> entry : changedPages.entrySet()) {
+        final long fileId = wowCache.externalFileId(entry.getKey());
+        readers.add(
+            changedPagesReaderExecutor.submit(
+                () -> {
+                  try {
+                    readChangedPages(wowCache, fileId, entry.getValue(), chunks, stopped);
+                  } finally {
+                    handOver(chunks, ChangedPages.END, stopped);
+                  }
+                  return null;
+                }));
+      }
+
+      int finished = 0;
+      while (finished < readers.size()) {
+        final ChangedPages chunk = chunks.take();
+        if (chunk == ChangedPages.END) {
+          finished++;
+          continue;
+        }
+
+        zipOutputStream.putNextEntry(
+            new ZipEntry("pages/" + chunk.fileName + "/" + chunk.pageIndex));
+        try {
+          zipOutputStream.write(chunk.content);
+        } finally {
+          zipOutputStream.closeEntry();
+        }
+      }
+
+      for (final Future<Void> reader : readers) {
+        reader.get();
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw OException.wrapException(
+          new OStorageException("Copy of changed pages to the backup was interrupted"), e);
+    } catch (final ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      throw OException.wrapException(
+          new OStorageException("Error during copy of changed pages to the backup"), cause);
+    } finally {
+      // readers are not interrupted, they stop handing over chunks and exit
+      stopped.set(true);
+      for (final Future<Void> reader : readers) {
+        reader.cancel(false);
+      }
+    }
+  }
+
+  private static void readChangedPages(
+      final OWOWCache wowCache,
+      final long fileId,
+      final BitSet pages,
+      final BlockingQueue<ChangedPages> chunks,
+      final AtomicBoolean stopped)
+      throws IOException, InterruptedException {
+    final String fileName = wowCache.fileNameById(fileId);
+    if (fileName == null) {
+      return;
+    }
+
+    final int pageSize = wowCache.pageSize();
+    int pageIndex = pages.nextSetBit(0);
+    while (pageIndex >= 0) {
+      final int end = Math.min(pages.nextClearBit(pageIndex), pageIndex + CHANGED_PAGES_CHUNK);
+
+      final ByteBuffer buffer = ByteBuffer.allocate((end - pageIndex) * pageSize);
+      final int read = wowCache.readStoredPages(fileId, pageIndex, buffer);
+      if (read <= 0) {
+        // file was deleted or truncated after the pages were written
+        return;
+      }
+
+      final ChangedPages chunk =
+          new ChangedPages(fileName, pageIndex, Arrays.copyOf(buffer.array(), read * pageSize));
+      if (!handOver(chunks, chunk, stopped)) {
+        return;
+      }
+      pageIndex = pages.nextSetBit(pageIndex + read);
+    }
+  }
+
+  /**
+   * Hands a chunk of pages read by a reader over to the thread which writes the backup, unless the
+   * copy is stopped, so that readers never wait for a writer which has gone.
+   *
+   * @return false if the copy is stopped and the chunk was dropped
+   */
+  private static boolean handOver(
+      final BlockingQueue<ChangedPages> chunks,
+      final ChangedPages chunk,
+      final AtomicBoolean stopped)
+      throws InterruptedException {
+    while (!stopped.get()) {
+      if (chunks.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   @Override
   protected java.io.File createWalTempDirectory() {
     final java.io.File walDirectory =
@@ -935,6 +1345,46 @@ public class OLocalPaginatedStorage extends OAbstractPaginatedStorage {
     }
   }
 
+  private static final class ChangedPages {
+    private static final ChangedPages END = new ChangedPages(null, -1, null);
+
+    private final String fileName;
+    private final int pageIndex;
+    private final byte[] content;
+
+    private ChangedPages(final String fileName, final int pageIndex, final byte[] content) {
+      this.fileName = fileName;
+      this.pageIndex = pageIndex;
+      this.content = content;
+    }
+  }
+
+  private static final class StoredFile {
+    private final String name;
+    private final BlockingQueue<ChangedPages> chunks;
+    private final Future<Void> reader;
+
+    private StoredFile(
+        final String name, final BlockingQueue<ChangedPages> chunks, final Future<Void> reader) {
+      this.name = name;
+      this.chunks = chunks;
+      this.reader = reader;
+    }
+  }
+
+  private static final class ChangedPagesReaderFactory implements ThreadFactory {
+    private ChangedPagesReaderFactory() {}
+
+    @Override
+    public Thread newThread(final Runnable r) {
+      final Thread thread =
+          new Thread(
+              OAbstractPaginatedStorage.storageThreadGroup, r, "Backup page reader");
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+
   private static final class SegmentAppenderFactory implements ThreadFactory {
     private SegmentAppenderFactory() {}
 
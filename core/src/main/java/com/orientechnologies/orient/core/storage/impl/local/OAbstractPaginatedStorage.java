@@ -32,6 +32,8 @@ import com.orientechnologies.common.exception.OException;
 import com.orientechnologies.common.exception.OHighLevelException;
 import com.orientechnologies.common.io.OIOException;
 import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.common.metrics.OHistogram;
+import com.orientechnologies.common.metrics.OMetricsRegistry;
 import com.orientechnologies.common.profiler.ModifiableLongProfileHookValue;
 import com.orientechnologies.common.profiler.OProfiler;
 import com.orientechnologies.common.serialization.types.OBinarySerializer;
@@ -222,6 +224,24 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
         OPageIsBrokenListener {
   private static final int WAL_RESTORE_REPORT_INTERVAL = 30 * 1000; // milliseconds
 
+  private static final OHistogram COMMIT =
+      OMetricsRegistry.instance().histogram("storage.commit", "Time to commit a transaction");
+  private static final OHistogram COMMIT_PREPARE =
+      OMetricsRegistry.instance()
+          .histogram(
+              "storage.commit.prepare",
+              "Time to validate, lock and allocate the records of a transaction");
+  private static final OHistogram COMMIT_RECORDS =
+      OMetricsRegistry.instance()
+          .histogram("storage.commit.records", "Time to write the records of a transaction");
+  private static final OHistogram COMMIT_INDEXES =
+      OMetricsRegistry.instance()
+          .histogram("storage.commit.indexes", "Time to write the index changes of a transaction");
+  private static final OHistogram COMMIT_END =
+      OMetricsRegistry.instance()
+          .histogram(
+              "storage.commit.end", "Time to log a transaction in the WAL and apply its pages");
+
   private static final Comparator<ORecordOperation> COMMIT_RECORD_OPERATION_COMPARATOR =
       Comparator.comparing(o -> o.getRecord().getIdentity());
 
@@ -2293,6 +2313,7 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
     try {
       checkOpenness();
       txBegun.increment();
+      final long commitStart = System.nanoTime();
 
       final ODatabaseDocumentInternal database = transaction.getDatabase();
       final OIndexManagerAbstract indexManager = database.getMetadata().getIndexManagerInternal();
@@ -2373,6 +2394,8 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
           makeStorageDirty();
 
           boolean rollback = false;
+          final Map<OIndexInternal, OIndexAbstract.IndexTxSnapshot> indexSnapshots =
+              new IdentityHashMap<>();
           startStorageTx(transaction);
           try {
             final OAtomicOperation atomicOperation = OAtomicOperationsManager.getCurrentOperation();
@@ -2431,6 +2454,8 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
             lockRidBags(clustersToLock, indexOperations, indexManager, database);
             checkReadOnlyConditions();
 
+            final long recordsStart = System.nanoTime();
+            COMMIT_PREPARE.record(recordsStart - commitStart);
             for (final ORecordOperation recordOperation : recordOperations) {
               commitEntry(
                   atomicOperation,
@@ -2439,10 +2464,14 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
                   database.getSerializer());
               result.add(recordOperation);
             }
+            final long indexesStart = System.nanoTime();
+            COMMIT_RECORDS.record(indexesStart - recordsStart);
+
             lockIndexes(indexOperations);
             checkReadOnlyConditions();
 
-            commitIndexes(indexOperations);
+            commitIndexes(indexOperations, indexSnapshots);
+            COMMIT_INDEXES.recordSince(indexesStart);
           } catch (final IOException | RuntimeException e) {
             rollback = true;
             if (e instanceof RuntimeException) {
@@ -2455,10 +2484,19 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
             if (rollback) {
               rollback(transaction);
             } else {
+              final long endStart = System.nanoTime();
               endStorageTx(transaction, recordOperations);
+              COMMIT_END.recordSince(endStart);
             }
             this.transaction.set(null);
           }
+
+          // THE INDEXES WHICH KEEP THEIR OWN STATE ARE COMMITTED WHEN THE ATOMIC OPERATION IS OVER,
+          // SO THEY CAN WRITE TO THE STORAGE IN ATOMIC OPERATIONS OF THEIR OWN
+          for (final Map.Entry<OIndexInternal, OIndexAbstract.IndexTxSnapshot> entry :
+              indexSnapshots.entrySet()) {
+            entry.getKey().postCommit(entry.getValue());
+          }
         } finally {
           atomicOperationsManager.ensureThatComponentsUnlocked();
           database.getMetadata().clearThreadLocalSchemaSnapshot();
@@ -2497,6 +2535,7 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
                 database.getName(),
                 result);
       }
+      COMMIT.recordSince(commitStart);
       return result;
     } catch (final RuntimeException ee) {
       throw logAndPrepareForRethrow(ee);
@@ -2509,13 +2548,16 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
     }
   }
 
-  private void commitIndexes(final Map<String, OTransactionIndexChanges> indexesToCommit) {
+  private void commitIndexes(
+      final Map<String, OTransactionIndexChanges> indexesToCommit,
+      final Map<OIndexInternal, OIndexAbstract.IndexTxSnapshot> snapshots) {
     for (final OTransactionIndexChanges changes : indexesToCommit.values()) {
       final OIndexInternal index = changes.getAssociatedIndex();
       if (!index.isNativeTxSupported()) {
         final OIndexAbstract.IndexTxSnapshot snapshot = new OIndexAbstract.IndexTxSnapshot();
         index.addTxOperation(snapshot, changes);
         index.commit(snapshot);
+        snapshots.put(index, snapshot);
         applyUniqueIndexChanges(index.getName(), changes);
       } else {
         try {
@@ -6400,6 +6442,12 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
     if (wcRestoreMode) {
       writeCache.restoreModeOn();
     }
+
+    final int restoreThreads = OGlobalConfiguration.WAL_RESTORE_THREADS.getValueAsInteger();
+    final OPageRestoreDispatcher dispatcher =
+        restoreThreads > 1
+            ? new OPageRestoreDispatcher(name, restoreThreads, this::restorePage)
+            : null;
     try {
       OLogSequenceNumber logSequenceNumber = null;
       final OModifiableBoolean atLeastOnePageUpdate = new OModifiableBoolean();
@@ -6411,6 +6459,7 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
       final Map<Long, List<OWALRecord>> operationUnits = new HashMap<>(1024);
       final Map<Long, byte[]> operationMetadata = new LinkedHashMap<>(1024);
 
+      final long restoreStart = System.currentTimeMillis();
       long lastReportTime = 0;
 
       try {
@@ -6428,7 +6477,7 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
               // flushed to the disk
               if (atomicUnit != null) {
                 atomicUnit.add(walRecord);
-                restoreAtomicUnit(atomicUnit, atLeastOnePageUpdate);
+                restoreAtomicUnit(atomicUnit, atLeastOnePageUpdate, dispatcher);
               }
               byte[] metadata = operationMetadata.remove(atomicUnitEndRecord.getOperationUnitId());
               if (metadata != null) {
@@ -6491,9 +6540,10 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
               OLogManager.instance()
                   .infoNoDb(
                       this,
-                      "%d operations were processed, current LSN is %s last LSN is %s",
+                      "%d operations were processed (%d operations/s), current LSN is %s last LSN is %s",
                       recordsProcessed,
-                      lsn,
+                      recordsProcessed * 1000 / Math.max(currentTime - restoreStart, 1),
+                      logSequenceNumber,
                       writeAheadLog.end());
               lastReportTime = currentTime;
             }
@@ -6513,14 +6563,41 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
                 this,
                 "Data restore was paused because of exception. The rest of changes will be rolled back.",
                 e);
+      } finally {
+        // changes queued before the restore was paused are applied, and their failures reported,
+        // before the restore is over
+        if (dispatcher != null) {
+          try {
+            dispatcher.awaitCompletion();
+          } catch (final RuntimeException e) {
+            OLogManager.instance()
+                .errorNoDb(
+                    this,
+                    "Data restore was paused because of exception. The rest of changes will be rolled back.",
+                    e);
+          }
+        }
       }
 
+      final long restoreTime = System.currentTimeMillis() - restoreStart;
+      OLogManager.instance()
+          .infoNoDb(
+              this,
+              "%d operations were processed in %d ms (%d operations/s) by %d threads",
+              recordsProcessed,
+              restoreTime,
+              recordsProcessed * 1000 / Math.max(restoreTime, 1),
+              dispatcher != null ? restoreThreads : 1);
+
       if (atLeastOnePageUpdate.getValue()) {
         return logSequenceNumber;
       }
 
       return null;
     } finally {
+      if (dispatcher != null) {
+        dispatcher.close();
+      }
       writeCache.restoreModeOff();
     }
   }
@@ -6528,11 +6605,27 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
   protected final void restoreAtomicUnit(
       final List<OWALRecord> atomicUnit, final OModifiableBoolean atLeastOnePageUpdate)
       throws IOException {
+    restoreAtomicUnit(atomicUnit, atLeastOnePageUpdate, null);
+  }
+
+  /**
+   * Restores the changes of an atomic unit. If a dispatcher is passed the page changes are applied
+   * by its threads, while files are created and deleted by the current thread.
+   */
+  private void restoreAtomicUnit(
+      final List<OWALRecord> atomicUnit,
+      final OModifiableBoolean atLeastOnePageUpdate,
+      final OPageRestoreDispatcher dispatcher)
+      throws IOException {
     assert atomicUnit.get(atomicUnit.size() - 1) instanceof OAtomicUnitEndRecord;
 
     for (final OWALRecord walRecord : atomicUnit) {
       if (walRecord instanceof OFileDeletedWALRecord) {
         final OFileDeletedWALRecord fileDeletedWALRecord = (OFileDeletedWALRecord) walRecord;
+        if (dispatcher != null) {
+          // pages of the file may still be restored
+          dispatcher.awaitCompletion();
+        }
         if (writeCache.exists(fileDeletedWALRecord.getFileId())) {
           readCache.deleteFile(fileDeletedWALRecord.getFileId(), writeCache);
         }
@@ -6567,29 +6660,20 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
           }
         }
 
-        final long pageIndex = updatePageRecord.getPageIndex();
         fileId = writeCache.externalFileId(writeCache.internalFileId(fileId));
 
-        OCacheEntry cacheEntry =
-            readCache.loadForWrite(fileId, pageIndex, true, writeCache, false, null);
-        if (cacheEntry == null) {
-          do {
-            if (cacheEntry != null) {
-              readCache.releaseFromWrite(cacheEntry, writeCache, true);
-            }
-
-            cacheEntry = readCache.allocateNewPage(fileId, writeCache, null);
-          } while (cacheEntry.getPageIndex() != pageIndex);
-        }
-
-        try {
-          final ODurablePage durablePage = new ODurablePage(cacheEntry);
-          if (durablePage.getLsn().compareTo(walRecord.getLsn()) < 0) {
-            durablePage.restoreChanges(updatePageRecord.getChanges());
-            durablePage.setLsn(updatePageRecord.getLsn());
+        if (dispatcher != null) {
+          // pages are allocated here, as threads allocating pages of the same file could skip
+          // the index which they are waiting for
+          final long pageIndex = updatePageRecord.getPageIndex();
+          while (writeCache.getFilledUpTo(fileId) <= pageIndex) {
+            final OCacheEntry cacheEntry = readCache.allocateNewPage(fileId, writeCache, null);
+            readCache.releaseFromWrite(cacheEntry, writeCache, true);
           }
-        } finally {
-          readCache.releaseFromWrite(cacheEntry, writeCache, true);
+
+          dispatcher.submit(fileId, updatePageRecord);
+        } else {
+          restorePage(fileId, updatePageRecord);
         }
 
         atLeastOnePageUpdate.setValue(true);
@@ -6615,6 +6699,33 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
     }
   }
 
+  private void restorePage(final long fileId, final OUpdatePageRecord updatePageRecord)
+      throws IOException {
+    final long pageIndex = updatePageRecord.getPageIndex();
+
+    OCacheEntry cacheEntry =
+        readCache.loadForWrite(fileId, pageIndex, true, writeCache, false, null);
+    if (cacheEntry == null) {
+      do {
+        if (cacheEntry != null) {
+          readCache.releaseFromWrite(cacheEntry, writeCache, true);
+        }
+
+        cacheEntry = readCache.allocateNewPage(fileId, writeCache, null);
+      } while (cacheEntry.getPageIndex() != pageIndex);
+    }
+
+    try {
+      final ODurablePage durablePage = new ODurablePage(cacheEntry);
+      if (durablePage.getLsn().compareTo(updatePageRecord.getLsn()) < 0) {
+        durablePage.restoreChanges(updatePageRecord.getChanges());
+        durablePage.setLsn(updatePageRecord.getLsn());
+      }
+    } finally {
+      readCache.releaseFromWrite(cacheEntry, writeCache, true);
+    }
+  }
+
   /**
    * Method which is called before any data modification operation to check alarm conditions such
    * as:
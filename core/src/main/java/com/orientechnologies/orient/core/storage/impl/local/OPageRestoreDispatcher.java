@@ -0,0 +1,190 @@
+package com.orientechnologies.orient.core.storage.impl.local;
+
+import com.orientechnologies.common.concur.lock.OInterruptedException;
+import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.common.util.OUncaughtExceptionHandler;
+import com.orientechnologies.orient.core.exception.OStorageException;
+import com.orientechnologies.orient.core.storage.OStorageAbstract;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.OUpdatePageRecord;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applies the page changes read from WAL during a restore procedure on a set of threads. Every page
+ * is assigned to a single thread by its file and index, so the changes of a page are applied in the
+ * order of WAL while the changes of different pages are applied in parallel.
+ */
+final class OPageRestoreDispatcher implements AutoCloseable {
+  private static final int QUEUE_SIZE = 1024;
+  private static final PageChange STOP = new PageChange(-1, null);
+
+  interface PageRestore {
+    void restore(long fileId, OUpdatePageRecord updatePageRecord) throws IOException;
+  }
+
+  private final PageRestore pageRestore;
+  private final Worker[] workers;
+  private final Thread[] threads;
+
+  private final AtomicLong pending = new AtomicLong();
+  private final Object completion = new Object();
+  private volatile Throwable failure;
+  private boolean failureReported;
+
+  OPageRestoreDispatcher(
+      final String storageName, final int threadsCount, final PageRestore pageRestore) {
+    this.pageRestore = pageRestore;
+    this.workers = new Worker[threadsCount];
+    this.threads = new Thread[threadsCount];
+
+    for (int i = 0; i < threadsCount; i++) {
+      workers[i] = new Worker();
+      final Thread thread =
+          new Thread(
+              OStorageAbstract.storageThreadGroup,
+              workers[i],
+              "OrientDB WAL restore (" + storageName + ") #" + i);
+      thread.setDaemon(true);
+      thread.setUncaughtExceptionHandler(new OUncaughtExceptionHandler());
+      threads[i] = thread;
+      thread.start();
+    }
+  }
+
+  /**
+   * Queues the change of a page, waiting if the thread of the page is too far behind.
+   *
+   * @param fileId id of the file of the page in the write cache
+   */
+  void submit(final long fileId, final OUpdatePageRecord updatePageRecord) throws IOException {
+    checkFailure();
+
+    final int hash = 31 * Long.hashCode(fileId) + Long.hashCode(updatePageRecord.getPageIndex());
+    final Worker worker = workers[Math.floorMod(hash, workers.length)];
+
+    pending.incrementAndGet();
+    try {
+      worker.queue.put(new PageChange(fileId, updatePageRecord));
+    } catch (final InterruptedException e) {
+      pending.decrementAndGet();
+      Thread.currentThread().interrupt();
+      throw OException.wrapException(
+          new OInterruptedException("Restore of data from WAL was interrupted"), e);
+    }
+  }
+
+  /**
+   * Waits until all the queued changes are applied, and rethrows the first failure if it was not
+   * thrown yet.
+   */
+  void awaitCompletion() throws IOException {
+    synchronized (completion) {
+      while (pending.get() > 0 && failure == null) {
+        try {
+          completion.wait();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw OException.wrapException(
+              new OInterruptedException("Restore of data from WAL was interrupted"), e);
+        }
+      }
+    }
+
+    checkFailure();
+  }
+
+  private void checkFailure() throws IOException {
+    final Throwable throwable = failure;
+    if (throwable == null || failureReported) {
+      return;
+    }
+    failureReported = true;
+
+    if (throwable instanceof IOException) {
+      throw (IOException) throwable;
+    }
+    if (throwable instanceof RuntimeException) {
+      throw (RuntimeException) throwable;
+    }
+    if (throwable instanceof Error) {
+      throw (Error) throwable;
+    }
+
+    throw OException.wrapException(
+        new OStorageException("Error during restore of data from WAL"), throwable);
+  }
+
+  @Override
+  public void close() {
+    for (final Worker worker : workers) {
+      // after a failure the workers only drain their queues, so they are never blocked for long
+      try {
+        worker.queue.put(STOP);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+
+    for (final Thread thread : threads) {
+      try {
+        thread.join();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+  }
+
+  private static final class PageChange {
+    private final long fileId;
+    private final OUpdatePageRecord updatePageRecord;
+
+    private PageChange(final long fileId, final OUpdatePageRecord updatePageRecord) {
+      this.fileId = fileId;
+      this.updatePageRecord = updatePageRecord;
+    }
+  }
+
+  private final class Worker implements Runnable {
+    private final BlockingQueue<PageChange> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+
+    @Override
+    public void run() {
+      while (true) {
+        final PageChange pageChange;
+        try {
+          pageChange = queue.take();
+        } catch (final InterruptedException e) {
+          return;
+        }
+
+        if (pageChange == STOP) {
+          return;
+        }
+
+        try {
+          // once a change is failed the rest of changes is skipped, as restore is stopped
+          if (failure == null) {
+            pageRestore.restore(pageChange.fileId, pageChange.updatePageRecord);
+          }
+        } catch (final Exception | Error e) {
+          synchronized (completion) {
+            if (failure == null) {
+              failure = e;
+            }
+            completion.notifyAll();
+          }
+        } finally {
+          if (pending.decrementAndGet() == 0) {
+            synchronized (completion) {
+              completion.notifyAll();
+            }
+          }
+        }
+      }
+    }
+  }
+}
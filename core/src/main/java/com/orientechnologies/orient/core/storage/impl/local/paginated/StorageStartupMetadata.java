@@ -82,6 +82,21 @@ public class StorageStartupMetadata {
     }
   }
 
+  /**
+   * Adds the metadata to an archive which contains a copy of the storage taken while it was
+   * changed, so the storage restored from the archive is marked as dirty and is recovered from the
+   * write ahead log when it is opened.
+   */
+  public void addDirtyFileToArchive(ZipOutputStream zos, String name) throws IOException {
+    final ZipEntry ze = new ZipEntry(name);
+    zos.putNextEntry(ze);
+    try {
+      zos.write(serialize(true).array());
+    } finally {
+      zos.closeEntry();
+    }
+  }
+
   public StorageStartupMetadata(Path filePath) {
     this.filePath = filePath;
   }
@@ -342,6 +357,10 @@ public class StorageStartupMetadata {
   }
 
   private ByteBuffer serialize() {
+    return serialize(dirtyFlag);
+  }
+
+  private ByteBuffer serialize(final boolean dirty) {
     final ByteBuffer buffer;
     if (txMetadata == null) {
       buffer = ByteBuffer.allocate(8 + 4 + 1 + 8 + 4);
@@ -353,7 +372,7 @@ public class StorageStartupMetadata {
 
     buffer.putInt(VERSION);
     // dirty flag
-    buffer.put(dirtyFlag ? (byte) 1 : (byte) 0);
+    buffer.put(dirty ? (byte) 1 : (byte) 0);
     // transaction id
     buffer.putLong(lastTxId);
 
@@ -103,12 +103,21 @@ public class OAtomicOperationsManager {
   }
 
   public OAtomicOperation startAtomicOperation(final byte[] metadata) throws IOException {
+    return startAtomicOperation(metadata, false);
+  }
+
+  private OAtomicOperation startAtomicOperation(final byte[] metadata, final boolean nested)
+      throws IOException {
     OAtomicOperation operation = currentOperation.get();
     if (operation != null) {
       throw new OStorageException("Atomic operation already started");
     }
 
-    atomicOperationsFreezer.startOperation();
+    if (nested) {
+      atomicOperationsFreezer.startNestedOperation();
+    } else {
+      atomicOperationsFreezer.startOperation();
+    }
 
     final OLogSequenceNumber lsn;
 
@@ -198,6 +207,31 @@ public class OAtomicOperationsManager {
     }
   }
 
+  /**
+   * Executes the consumer inside of a new atomic operation on behalf of another thread, which waits
+   * for it inside of an atomic operation already started. Unlike {@link
+   * #executeInsideAtomicOperation(byte[], TxConsumer)} it doesn't wait for the atomic operations to
+   * be released when they are frozen, since the freeze waits in its turn for the operation of the
+   * waiting thread.
+   */
+  public void executeInsideNestedAtomicOperation(final byte[] metadata, final TxConsumer consumer)
+      throws IOException {
+    boolean rollback = false;
+    final OAtomicOperation atomicOperation = startAtomicOperation(metadata, true);
+    try {
+      consumer.accept(atomicOperation);
+    } catch (Exception e) {
+      rollback = true;
+      throw OException.wrapException(
+          new OStorageException(
+              "Exception during execution of atomic operation inside of storage "
+                  + storage.getName()),
+          e);
+    } finally {
+      endAtomicOperation(rollback);
+    }
+  }
+
   public void executeInsideComponentOperation(
       final OAtomicOperation atomicOperation,
       final ODurableComponent component,
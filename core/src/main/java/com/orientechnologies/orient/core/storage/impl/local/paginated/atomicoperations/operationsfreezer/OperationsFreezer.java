@@ -56,6 +56,20 @@ public final class OperationsFreezer {
     operationDepth.increment();
   }
 
+  /**
+   * Starts an operation even if the operations are frozen. It may be used only by an operation
+   * which is awaited by another thread inside of an operation already started: a freeze can't
+   * complete before that operation, so waiting for its release would be a deadlock.
+   */
+  public void startNestedOperation() {
+    final OModifiableInteger operationDepth = this.operationDepth.get();
+    if (operationDepth.value == 0) {
+      operationsCount.increment();
+    }
+
+    operationDepth.increment();
+  }
+
   public void endOperation() {
     final OModifiableInteger operationDepth = this.operationDepth.get();
     if (operationDepth.value <= 0) {
@@ -6,6 +6,8 @@ import com.orientechnologies.common.directmemory.OPointer;
 import com.orientechnologies.common.exception.OException;
 import com.orientechnologies.common.io.OIOUtils;
 import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.common.metrics.OHistogram;
+import com.orientechnologies.common.metrics.OMetricsRegistry;
 import com.orientechnologies.common.serialization.types.OIntegerSerializer;
 import com.orientechnologies.common.serialization.types.OLongSerializer;
 import com.orientechnologies.common.thread.OScheduledThreadPoolExecutorWithLogging;
@@ -108,6 +110,9 @@ public final class CASDiskWriteAheadLog implements OWriteAheadLog {
   private static final int MASTER_RECORD_SIZE = 20;
   private static final int BATCH_READ_SIZE = 4 * 1024;
 
+  private static final OHistogram FSYNC =
+      OMetricsRegistry.instance().histogram("storage.wal.fsync", "Time to fsync the WAL");
+
   protected static final int DEFAULT_MAX_CACHE_SIZE = Integer.MAX_VALUE;
 
   private static final OScheduledThreadPoolExecutorWithLogging commitExecutor;
@@ -2244,7 +2249,9 @@ public final class CASDiskWriteAheadLog implements OWriteAheadLog {
                                   assert file.position() % pageSize == 0;
 
                                   if (callFsync) {
+                                    final long fsyncStart = System.nanoTime();
                                     file.force(true);
+                                    FSYNC.recordSince(fsyncStart);
                                   }
 
                                   file.close();
@@ -2259,7 +2266,9 @@ public final class CASDiskWriteAheadLog implements OWriteAheadLog {
                             }
 
                             if (callFsync && walFile != null) {
+                              final long fsyncStart = System.nanoTime();
                               walFile.force(true);
+                              FSYNC.recordSince(fsyncStart);
                             }
 
                             updateCheckpoint(writtenCheckpoint);
@@ -29,6 +29,7 @@ public class OChannelBinaryProtocol {
   public static final byte REQUEST_SHUTDOWN = 1;
   public static final byte REQUEST_CONNECT = 2;
   public static final byte REQUEST_HANDSHAKE = 20;
+  public static final byte REQUEST_MULTIPLEX = 21; // since 3.2
 
   public static final byte REQUEST_DB_OPEN = 3;
   public static final byte REQUEST_DB_CREATE = 4;
@@ -111,6 +112,7 @@ public class OChannelBinaryProtocol {
   public static final byte DISTRIBUTED_RESPONSE = 121;
   public static final byte DISTRIBUTED_CONNECT = 122;
   public static final byte COORDINATED_DISTRIBUTED_MESSAGE = 123;
+  public static final byte DISTRIBUTED_BATCH = 124;
 
   // INCOMING
   public static final byte RESPONSE_STATUS_OK = 0;
@@ -0,0 +1,61 @@
+package com.orientechnologies.common.metrics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OHistogramTest {
+
+  @Test
+  public void testBucketsAreContiguous() {
+    for (int bucket = 1; bucket < OHistogram.bucket(Long.MAX_VALUE); bucket++) {
+      final long lower = OHistogram.upperBound(bucket - 1) + 1;
+      Assert.assertEquals(bucket, OHistogram.bucket(lower));
+      Assert.assertEquals(bucket, OHistogram.bucket(OHistogram.upperBound(bucket)));
+    }
+    Assert.assertEquals(Long.MAX_VALUE, OHistogram.upperBound(OHistogram.bucket(Long.MAX_VALUE)));
+  }
+
+  @Test
+  public void testPercentiles() {
+    final OHistogram histogram = new OHistogram("test", "test");
+    for (long i = 1; i <= 10_000; i++) histogram.record(i * 1000);
+
+    Assert.assertEquals(10_000, histogram.getCount());
+    Assert.assertEquals(10_000_000, histogram.getMax());
+    Assert.assertEquals(5_000_500, histogram.getMean());
+
+    assertPercentile(5_000_000, histogram.getPercentile(0.5));
+    assertPercentile(9_900_000, histogram.getPercentile(0.99));
+    assertPercentile(9_990_000, histogram.getPercentile(0.999));
+    Assert.assertEquals(10_000_000, histogram.getPercentile(1));
+  }
+
+  private static void assertPercentile(final long expected, final long actual) {
+    Assert.assertTrue(actual >= expected);
+    Assert.assertTrue(actual - expected <= expected / OHistogram.SUB_BUCKETS);
+  }
+
+  @Test
+  public void testCountBelowPowerOfTwo() {
+    final OHistogram histogram = new OHistogram("test", "test");
+    histogram.record(-5);
+    histogram.record(3);
+    histogram.record(1023);
+    histogram.record(1024);
+    histogram.record(1L << 40);
+
+    Assert.assertEquals(2, histogram.getCountBelowPowerOfTwo(2));
+    Assert.assertEquals(3, histogram.getCountBelowPowerOfTwo(10));
+    Assert.assertEquals(4, histogram.getCountBelowPowerOfTwo(11));
+    Assert.assertEquals(4, histogram.getCountBelowPowerOfTwo(40));
+    Assert.assertEquals(5, histogram.getCount());
+  }
+
+  @Test
+  public void testEmpty() {
+    final OHistogram histogram = new OHistogram("test", "test");
+    Assert.assertEquals(0, histogram.getCount());
+    Assert.assertEquals(0, histogram.getMean());
+    Assert.assertEquals(0, histogram.getPercentile(0.99));
+  }
+}
@@ -0,0 +1,75 @@
+package com.orientechnologies.common.metrics;
+
+import java.io.StringWriter;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OMetricsRegistryTest {
+
+  @Test
+  public void testRegisterOnce() {
+    final OMetricsRegistry registry = new OMetricsRegistry();
+    final OCounter counter = registry.counter("test.counter", "Test counter");
+    Assert.assertSame(counter, registry.counter("test.counter", "Test counter"));
+
+    final OHistogram histogram = registry.histogram("test.histogram", "Test histogram");
+    Assert.assertSame(histogram, registry.histogram("test.histogram", "Test histogram"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRegisterWithAnotherType() {
+    final OMetricsRegistry registry = new OMetricsRegistry();
+    registry.counter("test.metric", "Test counter");
+    registry.histogram("test.metric", "Test histogram");
+  }
+
+  @Test
+  public void testPrometheusFormat() throws Exception {
+    final OMetricsRegistry registry = new OMetricsRegistry();
+    registry.counter("storage.readCache.hits", "Hits").add(3);
+    final OHistogram histogram = registry.histogram("storage.wal.fsync", "Fsync");
+    histogram.record(1_500_000);
+    histogram.record(3_000_000_000L);
+
+    final StringWriter writer = new StringWriter();
+    new OMetricsPrometheusWriter(registry).write(writer);
+    final String text = writer.toString();
+
+    Assert.assertTrue(text.contains("# TYPE orientdb_storage_readCache_hits_total counter\n"));
+    Assert.assertTrue(text.contains("\norientdb_storage_readCache_hits_total 3\n"));
+    Assert.assertTrue(text.contains("# TYPE orientdb_storage_wal_fsync_seconds histogram\n"));
+    Assert.assertTrue(
+        text.contains("\norientdb_storage_wal_fsync_seconds_bucket{le=\"0.002097152\"} 1\n"));
+    Assert.assertTrue(text.contains("\norientdb_storage_wal_fsync_seconds_bucket{le=\"+Inf\"} 2\n"));
+    Assert.assertTrue(text.contains("\norientdb_storage_wal_fsync_seconds_sum 3.001500000\n"));
+    Assert.assertTrue(text.contains("\norientdb_storage_wal_fsync_seconds_count 2\n"));
+  }
+
+  @Test
+  public void testGauge() throws Exception {
+    final OMetricsRegistry registry = new OMetricsRegistry();
+    final OGauge gauge = registry.gauge("db.pool.sessions", "Sessions");
+    gauge.add(3);
+    gauge.decrement();
+    Assert.assertEquals(2, gauge.getValue());
+
+    final StringWriter writer = new StringWriter();
+    new OMetricsPrometheusWriter(registry).write(writer);
+    Assert.assertTrue(writer.toString().contains("# TYPE orientdb_db_pool_sessions gauge\n"));
+    Assert.assertTrue(writer.toString().contains("\norientdb_db_pool_sessions 2\n"));
+    Assert.assertEquals(2L, new OMetricsMBean(registry).getAttribute("db.pool.sessions"));
+  }
+
+  @Test
+  public void testMBeanAttributes() throws Exception {
+    final OMetricsRegistry registry = new OMetricsRegistry();
+    registry.counter("test.counter", "Test counter").add(7);
+    registry.histogram("test.histogram", "Test histogram").record(1000);
+
+    final OMetricsMBean bean = new OMetricsMBean(registry);
+    Assert.assertEquals(7L, bean.getAttribute("test.counter"));
+    Assert.assertEquals(1L, bean.getAttribute("test.histogram.count"));
+    Assert.assertEquals(1000L, bean.getAttribute("test.histogram.p99"));
+    Assert.assertEquals(7, bean.getMBeanInfo().getAttributes().length);
+  }
+}
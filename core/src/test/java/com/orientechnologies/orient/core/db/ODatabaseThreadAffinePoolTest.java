@@ -0,0 +1,159 @@
+package com.orientechnologies.orient.core.db;
+
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
+import com.orientechnologies.orient.core.exception.OAcquireTimeoutException;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.storage.OStorage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class ODatabaseThreadAffinePoolTest {
+  private OrientDB orientDb;
+
+  @Before
+  public void before() {
+    orientDb =
+        new OrientDB(
+            "embedded:",
+            OrientDBConfig.builder()
+                .addConfig(OGlobalConfiguration.DB_POOL_THREAD_AFFINE, true)
+                .addConfig(OGlobalConfiguration.DB_POOL_MAX, 2)
+                .addConfig(OGlobalConfiguration.DB_POOL_ACQUIRE_TIMEOUT, 200)
+                .build());
+    orientDb.create(ODatabaseThreadAffinePoolTest.class.getSimpleName(), ODatabaseType.MEMORY);
+  }
+
+  @After
+  public void after() {
+    orientDb.drop(ODatabaseThreadAffinePoolTest.class.getSimpleName());
+    orientDb.close();
+  }
+
+  private ODatabasePool openPool() {
+    return new ODatabasePool(
+        orientDb, ODatabaseThreadAffinePoolTest.class.getSimpleName(), "admin", "admin");
+  }
+
+  private ODatabasePool openPool(final long acquireTimeout) {
+    return new ODatabasePool(
+        orientDb,
+        ODatabaseThreadAffinePoolTest.class.getSimpleName(),
+        "admin",
+        "admin",
+        OrientDBConfig.builder()
+            .addConfig(OGlobalConfiguration.DB_POOL_ACQUIRE_TIMEOUT, acquireTimeout)
+            .build());
+  }
+
+  @Test
+  public void testSameSessionIsReturnedToThread() {
+    final ODatabasePool pool = openPool();
+    final ODatabaseDocument db = pool.acquire();
+    db.save(new ODocument(), db.getClusterNameById(db.getDefaultClusterId()));
+    db.close();
+
+    final ODatabaseDocument second = pool.acquire();
+    Assert.assertSame(db, second);
+    Assert.assertFalse(second.isClosed());
+    second.close();
+    pool.close();
+  }
+
+  @Test(expected = OAcquireTimeoutException.class)
+  public void testAcquireTimeout() {
+    final ODatabasePool pool = openPool();
+    try {
+      pool.acquire();
+      pool.acquire();
+      pool.acquire();
+    } finally {
+      pool.close();
+    }
+  }
+
+  @Test(timeout = 60_000)
+  public void testWaitingThreadGetsReleasedSession() throws Exception {
+    // THE WAITING THREAD DOESN'T TIME OUT, HOWEVER LATE THE SESSION IS RELEASED
+    final ODatabasePool pool = openPool(TimeUnit.MINUTES.toMillis(10));
+    final ODatabaseDocument first = pool.acquire();
+    final ODatabaseDocument second = pool.acquire();
+
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      final CountDownLatch acquiring = new CountDownLatch(1);
+      final AtomicReference<Thread> waiter = new AtomicReference<>();
+      final Future<ODatabaseDocument> waiting =
+          executor.submit(
+              () -> {
+                waiter.set(Thread.currentThread());
+                acquiring.countDown();
+                final ODatabaseDocument db = pool.acquire();
+                db.close();
+                return db;
+              });
+
+      // THE SESSION IS RELEASED ONLY ONCE THE OTHER THREAD WAITS FOR IT IN THE FULL POOL
+      acquiring.await();
+      while (waiter.get().getState() != Thread.State.TIMED_WAITING) {
+        Thread.yield();
+      }
+      Assert.assertFalse(waiting.isDone());
+
+      second.activateOnCurrentThread();
+      second.close();
+      Assert.assertSame(second, waiting.get());
+
+      first.activateOnCurrentThread();
+      first.close();
+    } finally {
+      executor.shutdown();
+      pool.close();
+    }
+  }
+
+  @Test
+  public void testSessionOfClosedStorageIsClosed() {
+    final OrientDBInternal factory = Mockito.mock(OrientDBInternal.class);
+    final OStorage closing = Mockito.mock(OStorage.class);
+    final OStorage open = Mockito.mock(OStorage.class);
+    final ODatabaseDocumentInternal first = Mockito.mock(ODatabaseDocumentInternal.class);
+    final ODatabaseDocumentInternal second = Mockito.mock(ODatabaseDocumentInternal.class);
+    Mockito.when(first.getStorage()).thenReturn(closing);
+    Mockito.when(second.getStorage()).thenReturn(open);
+
+    final ODatabaseThreadAffinePool pool =
+        new ODatabaseThreadAffinePool(
+            factory,
+            "test",
+            "admin",
+            "admin",
+            OrientDBConfig.builder().addConfig(OGlobalConfiguration.DB_POOL_MIN, 0).build());
+    Mockito.when(factory.poolOpen("test", "admin", "admin", pool)).thenReturn(first, second);
+
+    Assert.assertSame(first, pool.acquire());
+    pool.release(first);
+
+    // THE SESSION RELEASED LAST IS NOT REUSED, BUT CLOSED AND REPLACED
+    Mockito.when(closing.isClosed()).thenReturn(true);
+    Assert.assertSame(second, pool.acquire());
+    Mockito.verify(first).realClose();
+    Mockito.verify(second, Mockito.never()).realClose();
+    Assert.assertEquals(1, pool.getSize());
+
+    pool.release(second);
+    pool.close();
+    Mockito.verify(second).realClose();
+    Mockito.verify(first).realClose();
+    Mockito.verify(factory).removePool(pool);
+  }
+}
@@ -0,0 +1,82 @@
+package com.orientechnologies.orient.core.db.tool;
+
+import com.orientechnologies.common.io.OFileUtils;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.ODatabaseSession;
+import com.orientechnologies.orient.core.db.ODatabaseType;
+import com.orientechnologies.orient.core.db.OrientDB;
+import com.orientechnologies.orient.core.db.OrientDBConfig;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.executor.OResult;
+import com.orientechnologies.orient.core.sql.executor.OResultSet;
+import java.io.File;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ODatabaseParallelImportTest {
+
+  @Test
+  public void testExportImport() {
+    String buildDirectory = System.getProperty("buildDirectory");
+    if (buildDirectory == null) buildDirectory = "./target";
+    final File directory =
+        new File(buildDirectory, ODatabaseParallelImportTest.class.getSimpleName());
+    OFileUtils.deleteRecursively(directory);
+
+    try (final OrientDB orientDB =
+        new OrientDB("embedded:parallelExportImport", OrientDBConfig.defaultConfig())) {
+      orientDB.create("source", ODatabaseType.MEMORY);
+      try (final ODatabaseSession session = orientDB.open("source", "admin", "admin")) {
+        final OClass person = session.getMetadata().getSchema().createClass("Person", 1);
+        person.createProperty("name", OType.STRING);
+        person.createIndex("Person.name", OClass.INDEX_TYPE.UNIQUE, "name");
+        session.getMetadata().getSchema().createClass("City", 1);
+
+        // THE HOLE SHIFTS THE RIDS OF THE FOLLOWING PEOPLE ON IMPORT
+        new ODocument("Person").field("name", "removed").save().delete();
+        final ODocument rome = new ODocument("City").field("name", "Rome");
+        rome.save();
+        for (int i = 0; i < 100; i++) {
+          new ODocument("Person").field("name", "p" + i).field("city", rome).save();
+        }
+        try (OResultSet result = session.query("select from Person where name = 'p42'")) {
+          rome.field("mayor", result.next().getIdentity().get());
+        }
+        rome.save();
+
+        new ODatabaseParallelExport(
+                (ODatabaseDocumentInternal) session, directory.getAbsolutePath(), iText -> {})
+            .setOptions("-parallel=4")
+            .exportDatabase();
+      }
+
+      orientDB.create("target", ODatabaseType.MEMORY);
+      try (final ODatabaseSession session = orientDB.open("target", "admin", "admin")) {
+        new ODatabaseParallelImport(
+                (ODatabaseDocumentInternal) session, directory.getAbsolutePath(), iText -> {})
+            .setOptions("-parallel=4")
+            .importDatabase();
+
+        Assert.assertEquals(100, session.countClass("Person"));
+        Assert.assertNotNull(
+            ((ODatabaseDocumentInternal) session)
+                .getMetadata()
+                .getIndexManagerInternal()
+                .getIndex((ODatabaseDocumentInternal) session, "Person.name"));
+
+        try (OResultSet result = session.query("select from Person where name = 'p42'")) {
+          final OResult p42 = result.next();
+          final ODocument city = ((OIdentifiable) p42.getProperty("city")).getRecord();
+          Assert.assertEquals("Rome", city.field("name"));
+          Assert.assertEquals(
+              p42.getIdentity().get(), ((OIdentifiable) city.field("mayor")).getIdentity());
+        }
+      }
+    } finally {
+      OFileUtils.deleteRecursively(directory);
+    }
+  }
+}
@@ -1,8 +1,11 @@
 package com.orientechnologies.orient.core.metadata.schema;
 
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
 import com.orientechnologies.orient.core.db.ODatabaseSession;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
 import com.orientechnologies.orient.core.db.viewmanager.ViewCreationListener;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.executor.OResultSet;
 import java.util.concurrent.CountDownLatch;
 import org.junit.After;
 import org.junit.Assert;
@@ -46,4 +49,59 @@ public class OViewTest {
     Assert.assertNull(db.getMetadata().getSchema().getClass("testSimple"));
     Assert.assertNull(db.getMetadata().getSchema().getView("V"));
   }
+
+  @Test
+  public void testIncrementalUpdate() throws InterruptedException {
+    db.getMetadata().getSchema().createClass("Person");
+    ODocument removed = null;
+    ODocument changed = null;
+    for (int i = 0; i < 10; i++) {
+      ODocument doc = new ODocument("Person").field("name", "p" + i).field("age", i);
+      doc.save();
+      if (i == 8) {
+        removed = doc;
+      } else if (i == 9) {
+        changed = doc;
+      }
+    }
+
+    CountDownLatch latch = new CountDownLatch(1);
+    OViewConfig config = new OViewConfig("adults", "SELECT FROM Person WHERE age > 5");
+    config.setOriginRidField("origin");
+    db.getMetadata()
+        .getSchema()
+        .createView(
+            config,
+            new ViewCreationListener() {
+              @Override
+              public void afterCreate(ODatabaseSession database, String viewName) {
+                latch.countDown();
+              }
+
+              @Override
+              public void onError(String viewName, Exception exception) {}
+            });
+    latch.await();
+
+    OView view = db.getMetadata().getSchema().getView("adults");
+    int cluster = view.getClusterIds()[0];
+    try (OResultSet rs = db.query("SELECT FROM adults")) {
+      Assert.assertEquals(4, rs.stream().count());
+    }
+
+    new ODocument("Person").field("name", "new").field("age", 42).save();
+    removed.delete();
+    changed.field("age", 1).save();
+
+    db.getSharedContext().getViewManager().updateView(view, (ODatabaseDocumentInternal) db);
+
+    view = db.getMetadata().getSchema().getView("adults");
+    Assert.assertEquals(cluster, view.getClusterIds()[0]);
+    try (OResultSet rs = db.query("SELECT FROM adults WHERE name in ['new', 'p6', 'p7']")) {
+      Assert.assertEquals(3, rs.stream().count());
+    }
+    try (OResultSet rs = db.query("SELECT FROM adults")) {
+      Assert.assertEquals(3, rs.stream().count());
+    }
+  }
 }
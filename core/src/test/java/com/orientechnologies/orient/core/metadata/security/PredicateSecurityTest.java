@@ -483,4 +483,86 @@ public class PredicateSecurityTest {
       Assert.assertEquals(1, rids.count());
     }
   }
+
+  @Test
+  public void testSqlReadPushedDownToIndex() {
+    OSecurityInternal security = ((ODatabaseInternal) db).getSharedContext().getSecurity();
+
+    OClass person = db.createClass("Person");
+    person.createProperty("tenant", OType.INTEGER);
+    db.command("create index Person.tenant on Person (tenant) NOTUNIQUE");
+
+    OSecurityPolicy policy = security.createSecurityPolicy(db, "testPolicy");
+    policy.setActive(true);
+    policy.setReadRule("tenant = 1");
+    security.saveSecurityPolicy(db, policy);
+    security.setSecurityPolicy(db, security.getRole(db, "reader"), "database.class.Person", policy);
+
+    for (int i = 0; i < 10; i++) {
+      OElement elem = db.newElement("Person");
+      elem.setProperty("tenant", i % 2);
+      db.save(elem);
+    }
+
+    try (OResultSet rs = db.query("select from Person")) {
+      Assert.assertEquals(10, rs.stream().count());
+    }
+
+    db.close();
+    this.db = orient.open(DB_NAME, "reader", "reader");
+    try (OResultSet rs = db.query("select from Person")) {
+      Assert.assertEquals(5, rs.stream().count());
+    }
+    try (OResultSet rs = db.query("explain select from Person")) {
+      String plan = rs.next().getProperty("executionPlanAsString");
+      Assert.assertTrue(plan.contains("FETCH FROM INDEX Person.tenant"));
+    }
+
+    db.close();
+    this.db = orient.open(DB_NAME, "admin", "admin");
+    try (OResultSet rs = db.query("select from Person")) {
+      Assert.assertEquals(10, rs.stream().count());
+    }
+  }
+
+  @Test
+  public void testSqlReadPushedDownAfterPolicyChange() {
+    OSecurityInternal security = ((ODatabaseInternal) db).getSharedContext().getSecurity();
+
+    OClass person = db.createClass("Person");
+    person.createProperty("tenant", OType.INTEGER);
+    db.command("create index Person.tenant on Person (tenant) NOTUNIQUE");
+
+    OSecurityPolicy policy = security.createSecurityPolicy(db, "testPolicy");
+    policy.setActive(true);
+    policy.setReadRule("tenant = 1");
+    security.saveSecurityPolicy(db, policy);
+    security.setSecurityPolicy(db, security.getRole(db, "reader"), "database.class.Person", policy);
+
+    for (int i = 0; i < 10; i++) {
+      OElement elem = db.newElement("Person");
+      elem.setProperty("tenant", i % 3);
+      db.save(elem);
+    }
+
+    db.close();
+    this.db = orient.open(DB_NAME, "reader", "reader");
+    try (OResultSet rs = db.query("select from Person")) {
+      Assert.assertEquals(3, rs.stream().count());
+    }
+
+    db.close();
+    this.db = orient.open(DB_NAME, "admin", "admin");
+    security = ((ODatabaseInternal) db).getSharedContext().getSecurity();
+    policy = security.getSecurityPolicy(db, "testPolicy");
+    policy.setReadRule("tenant = 0");
+    security.saveSecurityPolicy(db, policy);
+
+    // the plan cached with the old predicate must not be used anymore
+    db.close();
+    this.db = orient.open(DB_NAME, "reader", "reader");
+    try (OResultSet rs = db.query("select from Person")) {
+      Assert.assertEquals(4, rs.stream().count());
+    }
+  }
 }
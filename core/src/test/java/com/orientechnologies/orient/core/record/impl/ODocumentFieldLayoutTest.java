@@ -0,0 +1,59 @@
+package com.orientechnologies.orient.core.record.impl;
+
+import com.orientechnologies.orient.core.metadata.schema.OProperty;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class ODocumentFieldLayoutTest {
+
+  @Test
+  public void testNoLayoutWithoutProperties() {
+    Assert.assertNull(ODocumentFieldLayout.of(Collections.emptyList()));
+  }
+
+  @Test
+  public void testSlotsAreSortedByGlobalId() {
+    final List<OProperty> properties = new ArrayList<>();
+    properties.add(property("surname", 7));
+    properties.add(property("name", 3));
+    properties.add(property("age", 5));
+
+    final ODocumentFieldLayout layout = ODocumentFieldLayout.of(properties);
+    Assert.assertEquals(3, layout.size());
+    Assert.assertEquals("name", layout.name(0));
+    Assert.assertEquals("age", layout.name(1));
+    Assert.assertEquals("surname", layout.name(2));
+  }
+
+  @Test
+  public void testSlotLookup() {
+    final List<OProperty> properties = new ArrayList<>();
+    for (int i = 0; i < 1_000; i++) {
+      properties.add(property("field" + i, i));
+    }
+
+    final ODocumentFieldLayout layout = ODocumentFieldLayout.of(properties);
+    for (int i = 0; i < 1_000; i++) {
+      Assert.assertEquals(i, layout.slot(layout.name(i)));
+      // NAMES WHICH ARE NOT THE INSTANCES OF THE PROPERTIES ARE FOUND AS WELL
+      Assert.assertEquals(i, layout.slot(new String("field" + i)));
+    }
+
+    Assert.assertEquals(-1, layout.slot("field1000"));
+    Assert.assertEquals(-1, layout.slot("undeclared"));
+    Assert.assertEquals(-1, layout.slot(""));
+    Assert.assertEquals(-1, layout.slot(null));
+    Assert.assertEquals(-1, layout.slot(1));
+  }
+
+  private static OProperty property(final String name, final int id) {
+    final OProperty property = Mockito.mock(OProperty.class);
+    Mockito.when(property.getName()).thenReturn(name);
+    Mockito.when(property.getId()).thenReturn(id);
+    return property;
+  }
+}
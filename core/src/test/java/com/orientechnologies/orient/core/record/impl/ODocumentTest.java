@@ -21,6 +21,7 @@ import com.orientechnologies.orient.core.metadata.schema.OType;
 import com.orientechnologies.orient.core.record.ORecordInternal;
 import com.orientechnologies.orient.core.serialization.serializer.record.ORecordSerializer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -292,6 +293,99 @@ public class ODocumentTest {
     assertEquals(doc.<Object>field("data.array[0]"), 5);
   }
 
+  @Test
+  public void testSchemaClassFieldsKeepInsertionOrder() {
+    ODatabaseSession db = null;
+    OrientDB odb = null;
+    try {
+      odb = new OrientDB("memory:", OrientDBConfig.defaultConfig());
+      odb.createIfNotExists(dbName, ODatabaseType.MEMORY);
+      db = odb.open(dbName, defaultDbAdminCredentials, defaultDbAdminCredentials);
+
+      OClass clazz = db.getMetadata().getSchema().createClass("TestFieldOrder");
+      clazz.createProperty("name", OType.STRING);
+      clazz.createProperty("surname", OType.STRING);
+
+      ODocument doc = new ODocument(clazz);
+      doc.field("extra", 1);
+      doc.field("surname", "Surname");
+      doc.field("other", 2);
+      doc.field("name", "Name");
+      assertTrue(doc.fields instanceof ODocumentFieldMap);
+      Assertions.assertThat(doc.fieldNames()).containsExactly("extra", "surname", "other", "name");
+
+      doc.removeField("surname");
+      doc.removeField("extra");
+      doc.field("surname", "Surname 2");
+      Assertions.assertThat(doc.fieldNames()).containsExactly("other", "name", "surname");
+
+      doc.save();
+      ODocument copy = doc.copy();
+      Assertions.assertThat(copy.fieldNames()).containsExactly("other", "name", "surname");
+      assertEquals("Surname 2", copy.field("surname"));
+
+      doc.field("name", "Name 2");
+      assertEquals(doc.getDirtyFields().length, 1);
+      doc.undo();
+      assertEquals("Name", doc.field("name"));
+      Assertions.assertThat(doc.fieldNames()).containsExactly("other", "name", "surname");
+    } finally {
+      if (db != null) db.close();
+      if (odb != null) {
+        odb.drop(dbName);
+        odb.close();
+      }
+    }
+  }
+
+  @Test
+  public void testLoadedFieldsAreDecodedOnAccess() {
+    ODatabaseSession db = null;
+    OrientDB odb = null;
+    try {
+      odb = new OrientDB("memory:", OrientDBConfig.defaultConfig());
+      odb.createIfNotExists(dbName, ODatabaseType.MEMORY);
+      db = odb.open(dbName, defaultDbAdminCredentials, defaultDbAdminCredentials);
+
+      OClass clazz = db.getMetadata().getSchema().createClass("TestLazyFields");
+      clazz.createProperty("name", OType.STRING);
+
+      ODocument doc = new ODocument(clazz);
+      doc.field("name", "Name");
+      doc.field("tags", Arrays.asList("a", "b"));
+      doc.field("count", 10);
+      doc.save();
+      db.getLocalCache().clear();
+
+      ODocument loaded = db.load(doc.getIdentity());
+      assertEquals("Name", loaded.field("name"));
+      assertNotNull(loaded.getSourceOffsets());
+      assertEquals(1, loaded.fields.size());
+
+      assertEquals(10, (int) loaded.field("count"));
+      assertEquals(2, loaded.fields.size());
+      assertNull(loaded.field("missing"));
+      Assertions.assertThat(loaded.fieldNames()).containsExactlyInAnyOrder("name", "tags", "count");
+
+      loaded.field("count", 11);
+      assertNull(loaded.getSourceOffsets());
+      assertEquals(Arrays.asList("a", "b"), loaded.field("tags"));
+      loaded.save();
+      db.getLocalCache().clear();
+
+      ODocument reloaded = db.load(doc.getIdentity());
+      assertEquals(11, (int) reloaded.field("count"));
+      assertEquals("Name", reloaded.field("name"));
+      assertEquals(Arrays.asList("a", "b"), reloaded.field("tags"));
+    } finally {
+      if (db != null) db.close();
+      if (odb != null) {
+        odb.drop(dbName);
+        odb.close();
+      }
+    }
+  }
+
   @Test
   public void testUndo() {
     ODatabaseSession db = null;
@@ -0,0 +1,77 @@
+package com.orientechnologies.orient.core.sql.executor;
+
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.id.ORecordId;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ORidLongMapTest {
+
+  @Test
+  public void testPutGet() {
+    ORidLongMap map = new ORidLongMap();
+    ORID rid = new ORecordId(12, 100);
+    Assert.assertFalse(map.containsKey(rid));
+    Assert.assertEquals(-5L, map.get(rid, -5L));
+    map.put(rid, 42L);
+    Assert.assertTrue(map.containsKey(rid));
+    Assert.assertEquals(42L, map.get(new ORecordId(12, 100), -5L));
+    map.put(rid, 43L);
+    Assert.assertEquals(43L, map.get(rid, -5L));
+    Assert.assertEquals(1, map.size());
+  }
+
+  @Test
+  public void testResize() {
+    ORidLongMap map = new ORidLongMap(4);
+    for (int cluster = 0; cluster < 10; cluster++) {
+      for (long pos = 0; pos < 10_000; pos++) {
+        map.put(new ORecordId(cluster, pos), cluster * pos);
+      }
+    }
+    Assert.assertEquals(100_000, map.size());
+    for (int cluster = 0; cluster < 10; cluster++) {
+      for (long pos = 0; pos < 10_000; pos++) {
+        Assert.assertEquals(cluster * pos, map.get(new ORecordId(cluster, pos), -1L));
+      }
+    }
+    Assert.assertFalse(map.containsKey(new ORecordId(10, 0)));
+  }
+
+  @Test
+  public void testTemporaryRids() {
+    ORidLongMap map = new ORidLongMap();
+    ORID rid = new ORecordId(12, -2);
+    map.put(rid, 7L);
+    map.put(new ORecordId(-1, -1), 8L);
+    Assert.assertTrue(map.containsKey(new ORecordId(12, -2)));
+    Assert.assertEquals(7L, map.get(rid, -1L));
+    Assert.assertEquals(8L, map.get(new ORecordId(-1, -1), -1L));
+    Assert.assertEquals(2, map.size());
+  }
+
+  @Test
+  public void testPutAll() {
+    ORidLongMap map = new ORidLongMap();
+    map.put(new ORecordId(1, 1), 1L);
+    ORidLongMap other = new ORidLongMap();
+    other.put(new ORecordId(1, 1), 2L);
+    other.put(new ORecordId(2, 5), 3L);
+    other.put(new ORecordId(-1, -1), 4L);
+    map.putAll(other);
+    Assert.assertEquals(3, map.size());
+    Assert.assertEquals(2L, map.get(new ORecordId(1, 1), -1L));
+    Assert.assertEquals(3L, map.get(new ORecordId(2, 5), -1L));
+    Assert.assertEquals(4L, map.get(new ORecordId(-1, -1), -1L));
+  }
+
+  @Test
+  public void testPack() {
+    ORID rid = new ORecordId(32767, (1L << 48) - 1);
+    long packed = ORidLongMap.pack(rid);
+    Assert.assertTrue(packed >= 0);
+    Assert.assertEquals(rid, ORidLongMap.unpack(packed));
+    Assert.assertEquals(-1L, ORidLongMap.pack(new ORecordId(12, -2)));
+    Assert.assertEquals(-1L, ORidLongMap.pack(new ORecordId(32768, 0)));
+  }
+}
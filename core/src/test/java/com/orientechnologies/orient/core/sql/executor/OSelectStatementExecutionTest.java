@@ -469,6 +469,43 @@ public class OSelectStatementExecutionTest {
     result.close();
   }
 
+  @Test
+  public void testPlainPropertyProjections() {
+    String className = "testPlainPropertyProjections";
+    db.getMetadata().getSchema().createClass(className);
+    ODocument friend = db.newInstance(className);
+    friend.setProperty("name", "friend");
+    friend.save();
+    for (int i = 0; i < 10; i++) {
+      ODocument doc = db.newInstance(className);
+      doc.setProperty("name", "name" + i);
+      doc.setProperty("friend", friend);
+      doc.setProperty("tags", Arrays.asList("a", "b"));
+      doc.save();
+    }
+    OResultSet result =
+        db.query(
+            "select name, friend, tags, missing, name as alias from "
+                + className
+                + " where friend is not null order by name");
+
+    for (int i = 0; i < 10; i++) {
+      Assert.assertTrue(result.hasNext());
+      OResult item = result.next();
+      Assert.assertEquals(
+          Arrays.asList("name", "friend", "tags", "missing", "alias"),
+          new ArrayList<>(item.getPropertyNames()));
+      Assert.assertEquals("name" + i, item.getProperty("name"));
+      Assert.assertEquals("name" + i, item.getProperty("alias"));
+      Assert.assertEquals(friend.getIdentity(), item.getProperty("friend"));
+      Assert.assertEquals(Arrays.asList("a", "b"), item.getProperty("tags"));
+      Assert.assertNull(item.getProperty("missing"));
+      Assert.assertFalse(item.getElement().isPresent());
+    }
+    Assert.assertFalse(result.hasNext());
+    result.close();
+  }
+
   @Test
   public void testCountStar() {
     String className = "testCountStar";
@@ -0,0 +1,56 @@
+package com.orientechnologies.orient.core.storage.cache.local;
+
+import java.util.BitSet;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OChangedPagesTrackerTest {
+  @Test
+  public void testTakeClearsChangedPages() {
+    final OChangedPagesTracker tracker = new OChangedPagesTracker();
+    tracker.markWritten(1, 0, 3);
+    tracker.markWritten(1, 10, 1);
+    tracker.markWritten(2, 5, 2);
+
+    final Map<Integer, BitSet> pages = tracker.take();
+    Assert.assertEquals(2, pages.size());
+    Assert.assertEquals(bits(0, 1, 2, 10), pages.get(1));
+    Assert.assertEquals(bits(5, 6), pages.get(2));
+
+    Assert.assertTrue(tracker.take().isEmpty());
+  }
+
+  @Test
+  public void testRemoveFile() {
+    final OChangedPagesTracker tracker = new OChangedPagesTracker();
+    tracker.markWritten(1, 0, 1);
+    tracker.markWritten(2, 0, 1);
+    tracker.removeFile(1);
+
+    final Map<Integer, BitSet> pages = tracker.take();
+    Assert.assertEquals(1, pages.size());
+    Assert.assertTrue(pages.containsKey(2));
+  }
+
+  @Test
+  public void testRestoreMergesWithPagesWrittenLater() {
+    final OChangedPagesTracker tracker = new OChangedPagesTracker();
+    tracker.markWritten(1, 0, 2);
+    final Map<Integer, BitSet> taken = tracker.take();
+
+    tracker.markWritten(1, 4, 1);
+    tracker.restore(taken);
+
+    final Map<Integer, BitSet> pages = tracker.take();
+    Assert.assertEquals(bits(0, 1, 4), pages.get(1));
+  }
+
+  private static BitSet bits(final int... indexes) {
+    final BitSet bits = new BitSet();
+    for (final int index : indexes) {
+      bits.set(index);
+    }
+    return bits;
+  }
+}
@@ -0,0 +1,151 @@
+package com.orientechnologies.orient.core.storage.disk;
+
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.ODatabaseSession;
+import com.orientechnologies.orient.core.db.ODatabaseType;
+import com.orientechnologies.orient.core.db.OrientDB;
+import com.orientechnologies.orient.core.db.OrientDBConfig;
+import com.orientechnologies.orient.core.record.OElement;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OChangedPagesBackupTest {
+  private static final String DB_NAME = OChangedPagesBackupTest.class.getSimpleName();
+
+  private boolean trackChangedPages;
+  private OrientDB orientDB;
+  private ODatabaseSession db;
+  private OLocalPaginatedStorage storage;
+
+  @Before
+  public void before() {
+    trackChangedPages = OGlobalConfiguration.STORAGE_TRACK_CHANGED_PAGES.getValueAsBoolean();
+    OGlobalConfiguration.STORAGE_TRACK_CHANGED_PAGES.setValue(true);
+
+    orientDB = new OrientDB("embedded:./target/", OrientDBConfig.defaultConfig());
+    orientDB.create(DB_NAME, ODatabaseType.PLOCAL);
+    db = orientDB.open(DB_NAME, "admin", "admin");
+    storage = (OLocalPaginatedStorage) ((ODatabaseDocumentInternal) db).getStorage();
+    db.createClass("Item");
+  }
+
+  @Test(timeout = 60_000)
+  public void testFirstCopyAfterOpenStartsTracking() throws IOException {
+    insertItems(0, 1_000);
+    storage.getWriteCache().flush();
+
+    // pages changed before the storage was opened are unknown, all the pages have to be checked
+    try (final ZipOutputStream zos = new ZipOutputStream(new ByteArrayOutputStream())) {
+      Assert.assertNull(storage.copyChangedPagesToIncrementalBackup(zos));
+    }
+
+    insertItems(1_000, 100);
+    storage.getWriteCache().flush();
+    Assert.assertFalse(copyChangedPages().isEmpty());
+  }
+
+  @Test(timeout = 60_000)
+  public void testCopyChangedPages() throws IOException {
+    startTracking();
+    insertItems(0, 10_000);
+    storage.getWriteCache().flush();
+
+    final Map<String, Integer> copied = copyChangedPages();
+    Assert.assertFalse(copied.isEmpty());
+    for (final int size : copied.values()) {
+      Assert.assertTrue(size > 0);
+      Assert.assertEquals(0, size % storage.getWriteCache().pageSize());
+    }
+
+    // pages are copied once, till they are written again
+    Assert.assertTrue(copyChangedPages().size() < copied.size());
+
+    insertItems(10_000, 100);
+    storage.getWriteCache().flush();
+    Assert.assertFalse(copyChangedPages().isEmpty());
+  }
+
+  @Test(timeout = 60_000)
+  public void testChangedPagesAreRestoredIfCopyFails() throws IOException {
+    startTracking();
+    insertItems(0, 10_000);
+    storage.getWriteCache().flush();
+
+    final OutputStream failing =
+        new OutputStream() {
+          @Override
+          public void write(final int b) throws IOException {
+            throw new IOException("Backup device is full");
+          }
+        };
+    try (final ZipOutputStream zos = new ZipOutputStream(failing)) {
+      storage.copyChangedPagesToIncrementalBackup(zos);
+      Assert.fail();
+    } catch (final IOException e) {
+      // expected, the readers blocked on the full queue have to exit
+    }
+
+    final Map<String, Integer> copied = copyChangedPages();
+    Assert.assertFalse(copied.isEmpty());
+  }
+
+  private void insertItems(final int from, final int count) {
+    for (int i = from; i < from + count; i++) {
+      final OElement item = db.newElement("Item");
+      item.setProperty("value", i);
+      item.setProperty("name", "item " + i);
+      db.save(item);
+    }
+  }
+
+  private void startTracking() throws IOException {
+    try (final ZipOutputStream zos = new ZipOutputStream(new ByteArrayOutputStream())) {
+      Assert.assertNull(storage.copyChangedPagesToIncrementalBackup(zos));
+    }
+  }
+
+  /** @return sizes of the entries of the backup by their names */
+  private Map<String, Integer> copyChangedPages() throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (final ZipOutputStream zos = new ZipOutputStream(out)) {
+      Assert.assertNotNull(storage.copyChangedPagesToIncrementalBackup(zos));
+    }
+
+    final Map<String, Integer> entries = new HashMap<>();
+    try (final ZipInputStream zis =
+        new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+      ZipEntry entry;
+      final byte[] buffer = new byte[4096];
+      while ((entry = zis.getNextEntry()) != null) {
+        Assert.assertTrue(entry.getName().startsWith("pages/"));
+        int size = 0;
+        int read;
+        while ((read = zis.read(buffer)) >= 0) {
+          size += read;
+        }
+        Assert.assertNull(entries.put(entry.getName(), size));
+      }
+    }
+    return entries;
+  }
+
+  @After
+  public void after() {
+    db.close();
+    orientDB.drop(DB_NAME);
+    orientDB.close();
+    OGlobalConfiguration.STORAGE_TRACK_CHANGED_PAGES.setValue(trackChangedPages);
+  }
+}
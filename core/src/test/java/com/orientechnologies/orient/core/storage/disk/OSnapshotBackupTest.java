@@ -0,0 +1,137 @@
+package com.orientechnologies.orient.core.storage.disk;
+
+import com.orientechnologies.orient.core.command.OCommandOutputListener;
+import com.orientechnologies.orient.core.db.ODatabaseSession;
+import com.orientechnologies.orient.core.db.ODatabaseType;
+import com.orientechnologies.orient.core.db.OrientDB;
+import com.orientechnologies.orient.core.db.OrientDBConfig;
+import com.orientechnologies.orient.core.record.OElement;
+import com.orientechnologies.orient.core.sql.executor.OResultSet;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OSnapshotBackupTest {
+  private static final String DB_NAME = OSnapshotBackupTest.class.getSimpleName();
+
+  private OrientDB orientDB;
+
+  @Before
+  public void before() {
+    orientDB = new OrientDB("embedded:./target/", OrientDBConfig.defaultConfig());
+    orientDB.create(DB_NAME, ODatabaseType.PLOCAL);
+    try (ODatabaseSession db = orientDB.open(DB_NAME, "admin", "admin")) {
+      db.createClass("Item");
+      for (int i = 0; i < 1_000; i++) {
+        saveItem(db, i);
+      }
+    }
+  }
+
+  @Test
+  public void testBackupDuringWrites() throws Exception {
+    final AtomicBoolean stop = new AtomicBoolean();
+    final AtomicInteger committed = new AtomicInteger(999);
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    final Future<Void> writer =
+        executor.submit(
+            () -> {
+              try (ODatabaseSession db = orientDB.open(DB_NAME, "admin", "admin")) {
+                int i = 1_000;
+                while (!stop.get()) {
+                  saveItem(db, i);
+                  committed.set(i++);
+                }
+              }
+              return null;
+            });
+
+    final int beforeBackup = committed.get();
+    final AtomicInteger duringCopy = new AtomicInteger(-1);
+    final AtomicInteger beforeWALCopy = new AtomicInteger(-1);
+    final OCommandOutputListener listener =
+        text -> {
+          if (duringCopy.get() < 0 && text.contains(".pcl")) {
+            // the copy of the files must not stop the writers
+            final long deadline = System.currentTimeMillis() + 10_000;
+            while (committed.get() < beforeBackup + 100
+                && System.currentTimeMillis() < deadline) {
+              Thread.yield();
+            }
+            duringCopy.set(committed.get());
+          } else if (beforeWALCopy.get() < 0 && text.contains(".wal")) {
+            // WAL is flushed before it is copied, the records committed till now are in the backup
+            beforeWALCopy.set(committed.get());
+          }
+        };
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (ODatabaseSession db = orientDB.open(DB_NAME, "admin", "admin")) {
+      db.backup(
+          out,
+          Collections.singletonMap(OLocalPaginatedStorage.BACKUP_SNAPSHOT_OPTION, true),
+          null,
+          listener,
+          1,
+          1024);
+    } finally {
+      stop.set(true);
+      writer.get();
+      executor.shutdown();
+    }
+
+    Assert.assertTrue(duringCopy.get() >= beforeBackup + 100);
+    Assert.assertTrue(beforeWALCopy.get() >= duringCopy.get());
+
+    restore(out);
+    try (ODatabaseSession db = orientDB.open(DB_NAME + "_re", "admin", "admin");
+        OResultSet result = db.query("select from Item")) {
+      final Set<Integer> values = new HashSet<>();
+      result.forEachRemaining(
+          item -> {
+            final int value = item.getProperty("value");
+            Assert.assertEquals("item " + value, item.getProperty("name"));
+            Assert.assertTrue(values.add(value));
+          });
+      for (int i = 0; i <= beforeWALCopy.get(); i++) {
+        Assert.assertTrue("item " + i + " is absent", values.contains(i));
+      }
+      Assert.assertEquals(values.size(), db.countClass("Item"));
+    }
+  }
+
+  private static void saveItem(final ODatabaseSession db, final int value) {
+    final OElement item = db.newElement("Item");
+    item.setProperty("value", value);
+    item.setProperty("name", "item " + value);
+    db.save(item);
+  }
+
+  private void restore(final ByteArrayOutputStream out) throws IOException {
+    orientDB.create(DB_NAME + "_re", ODatabaseType.PLOCAL);
+    try (ODatabaseSession db = orientDB.open(DB_NAME + "_re", "admin", "admin")) {
+      db.restore(new ByteArrayInputStream(out.toByteArray()), null, null, null);
+    }
+  }
+
+  @After
+  public void after() {
+    orientDB.drop(DB_NAME);
+    if (orientDB.exists(DB_NAME + "_re")) {
+      orientDB.drop(DB_NAME + "_re");
+    }
+    orientDB.close();
+  }
+}
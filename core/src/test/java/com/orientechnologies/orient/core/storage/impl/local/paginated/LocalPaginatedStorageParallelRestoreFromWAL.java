@@ -0,0 +1,183 @@
+package com.orientechnologies.orient.core.storage.impl.local.paginated;
+
+import com.orientechnologies.common.io.OFileUtils;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.db.tool.ODatabaseCompare;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Restores the same copy of a storage, which was not closed, once by the thread which reads WAL and
+ * once by several threads, and checks that both restores lead to the same data.
+ */
+public class LocalPaginatedStorageParallelRestoreFromWAL {
+  private static final String BASE_NAME = "baseParallelRestoreFromWAL";
+  private static final String SEQUENTIAL_NAME = "sequentialParallelRestoreFromWAL";
+  private static final String PARALLEL_NAME = "parallelParallelRestoreFromWAL";
+
+  private static File buildDir;
+  private static int restoreThreads;
+
+  private ODatabaseDocumentTx baseDocumentTx;
+
+  @BeforeClass
+  public static void beforeClass() {
+    OGlobalConfiguration.FILE_LOCK.setValue(false);
+    OGlobalConfiguration.WAL_FUZZY_CHECKPOINT_INTERVAL.setValue(100000000);
+    restoreThreads = OGlobalConfiguration.WAL_RESTORE_THREADS.getValueAsInteger();
+
+    String buildDirectory = System.getProperty("buildDirectory", ".");
+    buildDirectory += "/localPaginatedStorageParallelRestoreFromWAL";
+
+    buildDir = new File(buildDirectory);
+    if (buildDir.exists()) {
+      OFileUtils.deleteRecursively(buildDir);
+    }
+
+    buildDir.mkdir();
+  }
+
+  @AfterClass
+  public static void afterClass() {
+    OGlobalConfiguration.WAL_RESTORE_THREADS.setValue(restoreThreads);
+    OFileUtils.deleteRecursively(buildDir);
+  }
+
+  @Before
+  public void beforeMethod() {
+    baseDocumentTx = new ODatabaseDocumentTx(url(BASE_NAME));
+    baseDocumentTx.create();
+
+    final OClass itemClass = baseDocumentTx.getMetadata().getSchema().createClass("Item");
+    itemClass.createProperty("intProp", OType.INTEGER);
+    itemClass.createProperty("stringProp", OType.STRING);
+  }
+
+  @After
+  public void afterMethod() {
+    for (final String name : new String[] {SEQUENTIAL_NAME, PARALLEL_NAME}) {
+      final ODatabaseDocumentTx db = new ODatabaseDocumentTx(url(name));
+      if (db.exists()) {
+        db.open("admin", "admin");
+        db.drop();
+      }
+    }
+
+    baseDocumentTx.activateOnCurrentThread();
+    baseDocumentTx.drop();
+  }
+
+  @Test
+  public void testParallelRestoreIsSameAsSequential() throws Exception {
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<Future<Void>> futures = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        futures.add(executor.submit(this::propagateData));
+      }
+      for (final Future<Void> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    // lets WAL be flushed, while most of the pages are still in the write cache
+    Thread.sleep(1500);
+    copyDataWithoutClose(SEQUENTIAL_NAME);
+    copyDataWithoutClose(PARALLEL_NAME);
+
+    OGlobalConfiguration.WAL_RESTORE_THREADS.setValue(1);
+    final ODatabaseDocumentTx sequential = new ODatabaseDocumentTx(url(SEQUENTIAL_NAME));
+    sequential.open("admin", "admin");
+    final long count = sequential.countClass("Item");
+    sequential.close();
+
+    OGlobalConfiguration.WAL_RESTORE_THREADS.setValue(4);
+    final ODatabaseDocumentTx parallel = new ODatabaseDocumentTx(url(PARALLEL_NAME));
+    parallel.open("admin", "admin");
+    Assert.assertEquals(count, parallel.countClass("Item"));
+    parallel.close();
+
+    Assert.assertTrue(count > 0);
+
+    final ODatabaseCompare databaseCompare =
+        new ODatabaseCompare(
+            url(SEQUENTIAL_NAME), url(PARALLEL_NAME), "admin", "admin", System.out::println);
+    databaseCompare.setCompareIndexMetadata(true);
+    Assert.assertTrue(databaseCompare.compare());
+  }
+
+  private Void propagateData() {
+    final Random random = new Random();
+    final ODatabaseDocumentTx db = new ODatabaseDocumentTx(url(BASE_NAME));
+    db.open("admin", "admin");
+    try {
+      final List<ORID> items = new ArrayList<>();
+      for (int i = 0; i < 2_000; i++) {
+        final ODocument item = new ODocument("Item");
+        item.field("intProp", random.nextInt());
+        item.field("stringProp", "value " + random.nextLong());
+        item.save();
+        items.add(item.getIdentity());
+
+        if (random.nextDouble() <= 0.2) {
+          final ODocument updated = db.load(items.get(random.nextInt(items.size())));
+          updated.field("intProp", random.nextInt());
+          updated.save();
+        }
+        if (random.nextDouble() <= 0.1) {
+          db.delete(items.remove(random.nextInt(items.size())));
+        }
+      }
+    } finally {
+      db.close();
+    }
+    return null;
+  }
+
+  /** Copies the files of the open base storage, naming the WAL files after the copy. */
+  private void copyDataWithoutClose(final String name) throws IOException {
+    final File baseDir = new File(buildDir, BASE_NAME);
+    final File copyDir = new File(buildDir, name);
+    Assert.assertTrue(copyDir.mkdir());
+
+    final File[] storageFiles = baseDir.listFiles();
+    Assert.assertNotNull(storageFiles);
+
+    for (final File storageFile : storageFiles) {
+      final String fileName = storageFile.getName();
+      if (fileName.equals("dirty.fl")) {
+        continue;
+      }
+
+      final String copyName =
+          fileName.startsWith(BASE_NAME + ".")
+              ? name + fileName.substring(BASE_NAME.length())
+              : fileName;
+      Files.copy(storageFile.toPath(), new File(copyDir, copyName).toPath());
+    }
+  }
+
+  private static String url(final String name) {
+    return "plocal:" + buildDir.getAbsolutePath() + File.separator + name;
+  }
+}
@@ -15,6 +15,7 @@ import com.orientechnologies.orient.core.storage.cache.local.OWOWCache;
 import com.orientechnologies.orient.core.storage.cache.local.doublewritelog.DoubleWriteLogNoOP;
 import com.orientechnologies.orient.core.storage.fs.AsyncFile;
 import com.orientechnologies.orient.core.storage.fs.OFile;
+import com.orientechnologies.orient.core.storage.impl.local.OPageIsBrokenListener;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.base.ODurablePage;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.OAbstractWALRecord;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.OLogSequenceNumber;
@@ -26,13 +27,18 @@ import java.nio.ByteOrder;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Random;
 import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import javax.crypto.Cipher;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.IvParameterSpec;
@@ -353,6 +359,138 @@ public class WOWCacheTestIT {
     }
   }
 
+  @Test
+  public void testLoadStoreInChecksumBatches() throws Exception {
+    loadStoreInChecksumBatches(null, null);
+  }
+
+  @Test
+  public void testLoadStoreInChecksumBatchesEncrypted() throws Exception {
+    loadStoreInChecksumBatches(
+        Base64.getDecoder().decode("T1JJRU5UREJfSVNfQ09PTA=="),
+        new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+  }
+
+  /**
+   * Flushes enough pages at once to calculate their checksums in several batches, and verifies
+   * them when the pages are loaded by a new cache.
+   */
+  private void loadStoreInChecksumBatches(final byte[] aesKey, final byte[] iv) throws Exception {
+    deleteCacheAndDeleteFile();
+    createCache(aesKey, iv);
+
+    final Random random = new Random();
+    final byte[][] pageData =
+        new byte[8 * OGlobalConfiguration.STORAGE_CHECKSUM_BATCH_SIZE.getValueAsInteger() + 3][];
+    long fileId = wowCache.addFile(fileName);
+    final String nativeFileName = wowCache.nativeFileNameById(fileId);
+
+    for (int i = 0; i < pageData.length; i++) {
+      final byte[] data = new byte[8];
+      random.nextBytes(data);
+      pageData[i] = data;
+
+      Assert.assertEquals(i, wowCache.allocateNewPage(fileId));
+      final OCachePointer cachePointer = wowCache.load(fileId, i, new OModifiableBoolean(), false);
+      cachePointer.acquireExclusiveLock();
+
+      final ByteBuffer buffer = cachePointer.getBufferDuplicate();
+      assert buffer != null;
+
+      buffer.position(ODurablePage.NEXT_FREE_POSITION);
+      buffer.put(data);
+      cachePointer.releaseExclusiveLock();
+
+      wowCache.store(fileId, i, cachePointer);
+      cachePointer.decrementReadersReferrer();
+    }
+
+    wowCache.flush();
+
+    for (int i = 0; i < pageData.length; i++) {
+      if (aesKey == null) {
+        assertFile(i, pageData[i], new OLogSequenceNumber(0, 0), nativeFileName);
+      } else {
+        assertFileEncrypted(
+            wowCache.internalFileId(fileId),
+            i,
+            pageData[i],
+            new OLogSequenceNumber(0, 0),
+            nativeFileName,
+            aesKey,
+            iv);
+      }
+    }
+
+    wowCache.close();
+    writeAheadLog.close();
+
+    createCache(aesKey, iv);
+    wowCache.setChecksumMode(OChecksumMode.StoreAndThrow);
+    fileId = wowCache.fileIdByName(fileName);
+
+    for (int i = 0; i < pageData.length; i++) {
+      final OCachePointer cachePointer = wowCache.load(fileId, i, new OModifiableBoolean(), true);
+      final byte[] data = new byte[8];
+      final ByteBuffer buffer = cachePointer.getBufferDuplicate();
+      assert buffer != null;
+
+      buffer.position(ODurablePage.NEXT_FREE_POSITION);
+      buffer.get(data);
+      cachePointer.decrementReadersReferrer();
+
+      Assert.assertArrayEquals(pageData[i], data);
+    }
+  }
+
+  private void createCache(final byte[] aesKey, final byte[] iv) throws Exception {
+    Files.createDirectories(storagePath);
+
+    writeAheadLog =
+        new CASDiskWriteAheadLog(
+            storageName,
+            storagePath,
+            storagePath,
+            12_000,
+            128,
+            aesKey,
+            iv,
+            Integer.MAX_VALUE,
+            Integer.MAX_VALUE,
+            25,
+            true,
+            Locale.US,
+            -1,
+            1024L * 1024 * 1024,
+            1000,
+            true,
+            false,
+            false,
+            true,
+            10);
+    wowCache =
+        new OWOWCache(
+            pageSize,
+            bufferPool,
+            writeAheadLog,
+            new DoubleWriteLogNoOP(),
+            10,
+            10,
+            100,
+            storagePath,
+            storageName,
+            OStringSerializer.INSTANCE,
+            files,
+            1,
+            OChecksumMode.StoreAndVerify,
+            iv,
+            aesKey,
+            false,
+            true);
+
+    wowCache.loadRegisteredFiles();
+  }
+
   @Test
   public void testDataUpdate() throws Exception {
     final NavigableMap<Long, byte[]> pageIndexDataMap = new TreeMap<>();
@@ -763,6 +901,110 @@ public class WOWCacheTestIT {
     }
   }
 
+  @Test
+  public void testScrubberReportsBrokenPage() throws Exception {
+    wowCache.delete();
+    wowCache =
+        new OWOWCache(
+            pageSize,
+            bufferPool,
+            writeAheadLog,
+            new DoubleWriteLogNoOP(),
+            10,
+            10,
+            100,
+            storagePath,
+            storageName,
+            OStringSerializer.INSTANCE,
+            files,
+            1,
+            OChecksumMode.StoreAndScrub,
+            null,
+            null,
+            false,
+            true);
+    wowCache.loadRegisteredFiles();
+
+    final CountDownLatch brokenPage = new CountDownLatch(1);
+    final OPageIsBrokenListener listener =
+        (name, pageIndex) -> {
+          if (fileName.equals(name) && pageIndex == 1) {
+            brokenPage.countDown();
+          }
+        };
+    wowCache.addPageIsBrokenListener(listener);
+
+    final long fileId = wowCache.addFile(fileName);
+    for (int i = 0; i < 2; i++) {
+      Assert.assertEquals(i, wowCache.allocateNewPage(fileId));
+      final OCachePointer cachePointer = wowCache.load(fileId, i, new OModifiableBoolean(), false);
+      wowCache.store(fileId, i, cachePointer);
+      cachePointer.decrementReadersReferrer();
+    }
+
+    wowCache.flush();
+
+    final String nativeFileName = wowCache.nativeFileNameById(fileId);
+    assert nativeFileName != null;
+
+    final OFile file = new AsyncFile(storagePath.resolve(nativeFileName), pageSize, true);
+    file.open();
+    file.write(
+        pageSize + ODurablePage.NEXT_FREE_POSITION,
+        ByteBuffer.wrap(new byte[] {1}).order(ByteOrder.nativeOrder()));
+    file.close();
+
+    Assert.assertTrue(brokenPage.await(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testScrubModeVerifiesLoadsOnlyDuringRestore() throws IOException {
+    wowCache.setChecksumMode(OChecksumMode.StoreAndScrub);
+
+    final List<Long> brokenPages = Collections.synchronizedList(new ArrayList<>());
+    final CountDownLatch reported = new CountDownLatch(1);
+    final OPageIsBrokenListener listener =
+        (name, pageIndex) -> {
+          brokenPages.add(pageIndex);
+          reported.countDown();
+        };
+    wowCache.addPageIsBrokenListener(listener);
+
+    final long fileId = wowCache.addFile(fileName);
+    Assert.assertEquals(0, wowCache.allocateNewPage(fileId));
+    final OCachePointer cachePointer = wowCache.load(fileId, 0, new OModifiableBoolean(), false);
+    wowCache.store(fileId, 0, cachePointer);
+    cachePointer.decrementReadersReferrer();
+
+    wowCache.flush();
+
+    final String nativeFileName = wowCache.nativeFileNameById(fileId);
+    assert nativeFileName != null;
+
+    final OFile file = new AsyncFile(storagePath.resolve(nativeFileName), pageSize, true);
+    file.open();
+    file.write(
+        ODurablePage.NEXT_FREE_POSITION,
+        ByteBuffer.wrap(new byte[] {1}).order(ByteOrder.nativeOrder()));
+    file.close();
+
+    // THE BROKEN PAGE IS LEFT TO THE SCRUBBER
+    wowCache.load(fileId, 0, new OModifiableBoolean(), true).decrementReadersReferrer();
+
+    // THE DOUBLE WRITE LOG HAS NO COPY OF THE PAGE TO RESTORE IT FROM
+    wowCache.restoreModeOn();
+    try {
+      wowCache.load(fileId, 0, new OModifiableBoolean(), true).decrementReadersReferrer();
+    } finally {
+      wowCache.restoreModeOff();
+    }
+
+    // THE PAGE IS REPORTED ONLY ONCE, BY THE LOAD DURING THE RESTORE
+    Assert.assertTrue(reported.await(10, TimeUnit.SECONDS));
+    Assert.assertEquals(Collections.singletonList(0L), brokenPages);
+    wowCache.removePageIsBrokenListener(listener);
+  }
+
   @Test
   public void testNoChecksumVerificationIfNotRequested() throws IOException {
     wowCache.setChecksumMode(OChecksumMode.StoreAndThrow);
@@ -98,6 +98,7 @@ import com.orientechnologies.orient.server.distributed.impl.task.ORemoteTaskFact
 import com.orientechnologies.orient.server.distributed.impl.task.ORestartServerTask;
 import com.orientechnologies.orient.server.distributed.impl.task.OStopServerTask;
 import com.orientechnologies.orient.server.distributed.impl.task.OSyncDatabaseNewDeltaTask;
+import com.orientechnologies.orient.server.distributed.impl.task.OSyncDatabaseRangesTask;
 import com.orientechnologies.orient.server.distributed.impl.task.OSyncDatabaseTask;
 import com.orientechnologies.orient.server.distributed.sql.OCommandExecutorSQLHASyncCluster;
 import com.orientechnologies.orient.server.distributed.task.OAbstractRemoteTask;
@@ -1740,8 +1741,11 @@ public abstract class ODistributedAbstractPlugin extends OServerPluginAbstract
         DIRECTION.OUT,
         "Requesting deploy of database '%s' on local server...",
         databaseName);
+    final int parallelStreams =
+        OGlobalConfiguration.DISTRIBUTED_DEPLOYDB_PARALLEL_STREAMS.getValueAsInteger();
     for (String noteToSend : selectedNodes) {
-      final OAbstractReplicatedTask deployTask = new OSyncDatabaseTask();
+      final OAbstractReplicatedTask deployTask =
+          parallelStreams > 1 ? new OSyncDatabaseRangesTask() : new OSyncDatabaseTask();
       List<String> singleNode = new ArrayList<>();
       singleNode.add(noteToSend);
       final Map<String, Object> results =
@@ -1798,7 +1802,8 @@ public abstract class ODistributedAbstractPlugin extends OServerPluginAbstract
 
           if (value instanceof ODistributedException) throw (ODistributedException) value;
 
-        } else if (value instanceof ODistributedDatabaseChunk) {
+        } else if (value instanceof ODistributedDatabaseChunk
+            || value instanceof ODistributedDatabaseRange) {
 
           // DISABLED BECAUSE MOMENTUM IS NOT RELIABLE YET
           // distrDatabase.filterBeforeThisMomentum(((ODistributedDatabaseChunk)
@@ -1808,15 +1813,31 @@ public abstract class ODistributedAbstractPlugin extends OServerPluginAbstract
           if (backupDatabase) backupCurrentDatabase(databaseName);
 
           try {
-            installDatabaseFromNetwork(
-                dbPath,
-                databaseName,
-                distrDatabase,
-                r.getKey(),
-                (ODistributedDatabaseChunk) value,
-                false,
-                uniqueClustersBackupDirectory,
-                cfg);
+            if (value instanceof ODistributedDatabaseRange)
+              installDatabaseFromNetwork(
+                  distrDatabase,
+                  r.getKey(),
+                  new OParallelSyncReceiver(
+                      this,
+                      databaseName,
+                      (ODistributedDatabaseRange) value,
+                      r.getKey(),
+                      dbPath,
+                      parallelStreams),
+                  ((ODistributedDatabaseRange) value).incremental,
+                  false,
+                  uniqueClustersBackupDirectory,
+                  cfg);
+            else
+              installDatabaseFromNetwork(
+                  dbPath,
+                  databaseName,
+                  distrDatabase,
+                  r.getKey(),
+                  (ODistributedDatabaseChunk) value,
+                  false,
+                  uniqueClustersBackupDirectory,
+                  cfg);
           } catch (OException e) {
             OLogManager.instance().error(this, "Error installing database from network", e);
             return false;
@@ -2020,10 +2041,29 @@ public abstract class ODistributedAbstractPlugin extends OServerPluginAbstract
       final boolean delta,
       final File uniqueClustersBackupDirectory,
       final OModifiableDistributedConfiguration cfg) {
+    installDatabaseFromNetwork(
+        distrDatabase,
+        iNode,
+        new OSyncReceiver(this, databaseName, firstChunk, iNode, dbPath),
+        firstChunk.incremental,
+        delta,
+        uniqueClustersBackupDirectory,
+        cfg);
+  }
+
+  protected void installDatabaseFromNetwork(
+      final ODistributedDatabaseImpl distrDatabase,
+      final String iNode,
+      final OSyncReceiver receiver,
+      final boolean incremental,
+      final boolean delta,
+      final File uniqueClustersBackupDirectory,
+      final OModifiableDistributedConfiguration cfg) {
 
     final String localNodeName = nodeName;
+    final String databaseName = receiver.databaseName;
+    final String dbPath = receiver.dbPath;
 
-    OSyncReceiver receiver = new OSyncReceiver(this, databaseName, firstChunk, iNode, dbPath);
     receiver.spawnReceiverThread();
 
     installDatabaseOnLocalNode(
@@ -2033,7 +2073,7 @@ public abstract class ODistributedAbstractPlugin extends OServerPluginAbstract
         delta,
         uniqueClustersBackupDirectory,
         cfg,
-        firstChunk.incremental,
+        incremental,
         receiver);
 
     distrDatabase.setOnline();
@@ -21,6 +21,7 @@ package com.orientechnologies.orient.server.distributed.impl;
 
 import static com.orientechnologies.orient.core.config.OGlobalConfiguration.DISTRIBUTED_ATOMIC_LOCK_TIMEOUT;
 import static com.orientechnologies.orient.core.config.OGlobalConfiguration.DISTRIBUTED_TRANSACTION_SEQUENCE_SET_SIZE;
+import static com.orientechnologies.orient.core.config.OGlobalConfiguration.DISTRIBUTED_TX_PHASE2_BATCH_WINDOW;
 import static com.orientechnologies.orient.server.distributed.ODistributedServerLog.DIRECTION.OUT;
 
 import com.orientechnologies.common.concur.lock.OInterruptedException;
@@ -61,6 +62,7 @@ import com.orientechnologies.orient.server.distributed.impl.lock.OLockGuard;
 import com.orientechnologies.orient.server.distributed.impl.lock.OLockManager;
 import com.orientechnologies.orient.server.distributed.impl.lock.OLockManagerImpl;
 import com.orientechnologies.orient.server.distributed.impl.task.OLockKeySource;
+import com.orientechnologies.orient.server.distributed.impl.task.OTransactionPhase2BatchTask;
 import com.orientechnologies.orient.server.distributed.impl.task.OUnreachableServerLocalTask;
 import com.orientechnologies.orient.server.distributed.impl.task.transaction.OTransactionUniqueKey;
 import com.orientechnologies.orient.server.distributed.task.ORemoteTask;
@@ -118,6 +120,7 @@ public class ODistributedDatabaseImpl implements ODistributedDatabase {
   private OSyncSource lastValidBackup;
   private final ODistributedConfigurationManager configurationManager;
   private volatile DB_STATUS freezePrevStatus;
+  private OTransactionPhase2Batcher phase2Batcher;
 
   public static boolean sendResponseBack(
       final Object current,
@@ -291,6 +294,14 @@ public class ODistributedDatabaseImpl implements ODistributedDatabase {
     recordLockManager = new OSimpleLockManagerImpl<>(timeout);
     indexKeyLockManager = new OSimpleLockManagerImpl<>(timeout);
     sequenceManager = new ODistributedSynchronizedSequence(localNodeName, sequenceSize);
+
+    long phase2BatchWindow =
+        manager
+            .getServerInstance()
+            .getContextConfiguration()
+            .getValueAsLong(DISTRIBUTED_TX_PHASE2_BATCH_WINDOW);
+    if (phase2BatchWindow > 0)
+      phase2Batcher = new OTransactionPhase2Batcher(manager, databaseName, phase2BatchWindow);
   }
 
   @Override
@@ -351,6 +362,12 @@ public class ODistributedDatabaseImpl implements ODistributedDatabase {
                 + "' discarding");
       }
     }
+
+    if (task instanceof OTransactionPhase2BatchTask) {
+      ((OTransactionPhase2BatchTask) task).dispatch(request, this);
+      return;
+    }
+
     synchronized (this) {
       task.received(request, this);
       manager.messageReceived(request);
@@ -568,6 +585,11 @@ public class ODistributedDatabaseImpl implements ODistributedDatabase {
     return ctx;
   }
 
+  /** Returns the batcher of the second phases, or null if they are sent one by one. */
+  public OTransactionPhase2Batcher getPhase2Batcher() {
+    return phase2Batcher;
+  }
+
   @Override
   public ODistributedServerManager getManager() {
     return manager;
@@ -629,6 +651,7 @@ public class ODistributedDatabaseImpl implements ODistributedDatabase {
   }
 
   public void shutdown(boolean wait) {
+    if (phase2Batcher != null) phase2Batcher.flush();
     waitPending();
     running = false;
 
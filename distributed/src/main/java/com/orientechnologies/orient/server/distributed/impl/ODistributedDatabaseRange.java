@@ -0,0 +1,94 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+package com.orientechnologies.orient.server.distributed.impl;
+
+import com.orientechnologies.orient.core.serialization.OStreamable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.zip.CRC32;
+
+/**
+ * Range of the backup file used to deploy a database, transferred with its checksum. Unlike {@link
+ * ODistributedDatabaseChunk} a range is addressed by its offset, so many ranges of the same backup
+ * can be requested in parallel and the transfer can resume from any of them.
+ */
+public class ODistributedDatabaseRange implements OStreamable {
+  public long backupId;
+  public long offset;
+  public byte[] buffer;
+  public long checksum;
+  public boolean last;
+  public boolean incremental;
+
+  public ODistributedDatabaseRange() {}
+
+  public ODistributedDatabaseRange(
+      final long backupId,
+      final long offset,
+      final byte[] buffer,
+      final boolean last,
+      final boolean incremental) {
+    this.backupId = backupId;
+    this.offset = offset;
+    this.buffer = buffer;
+    this.checksum = checksum(buffer);
+    this.last = last;
+    this.incremental = incremental;
+  }
+
+  /** Returns true if the content matches the checksum computed by the sender. */
+  public boolean isValid() {
+    return buffer != null && checksum(buffer) == checksum;
+  }
+
+  private static long checksum(final byte[] buffer) {
+    final CRC32 crc = new CRC32();
+    crc.update(buffer, 0, buffer.length);
+    return crc.getValue();
+  }
+
+  @Override
+  public String toString() {
+    return backupId + "[" + offset + "-" + buffer.length + "] (last=" + last + ")";
+  }
+
+  @Override
+  public void toStream(final DataOutput out) throws IOException {
+    out.writeLong(backupId);
+    out.writeLong(offset);
+    out.writeInt(buffer.length);
+    out.write(buffer);
+    out.writeLong(checksum);
+    out.writeBoolean(last);
+    out.writeBoolean(incremental);
+  }
+
+  @Override
+  public void fromStream(final DataInput in) throws IOException {
+    backupId = in.readLong();
+    offset = in.readLong();
+    buffer = new byte[in.readInt()];
+    in.readFully(buffer);
+    checksum = in.readLong();
+    last = in.readBoolean();
+    incremental = in.readBoolean();
+  }
+}
@@ -24,6 +24,7 @@ import static com.orientechnologies.orient.core.config.OGlobalConfiguration.DIST
 import com.orientechnologies.common.concur.lock.OInterruptedException;
 import com.orientechnologies.common.exception.OException;
 import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.orient.core.Orient;
 import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.db.record.ORecordOperation;
 import com.orientechnologies.orient.core.exception.OConcurrentCreateException;
@@ -98,6 +99,7 @@ public class ONewDistributedTransactionManager {
             .getValueAsInteger(OGlobalConfiguration.DISTRIBUTED_CONCURRENT_TX_AUTORETRY_DELAY);
     ODistributedDatabaseImpl distributedDatabase =
         (ODistributedDatabaseImpl) dManager.getMessageService().getDatabase(database.getName());
+    final long timer = Orient.instance().getProfiler().startChrono();
     int count = 0;
     do {
       final ODistributedRequestId requestId =
@@ -108,6 +110,13 @@ public class ONewDistributedTransactionManager {
         if (genId.isPresent()) {
           OTransactionId txId = genId.get();
           retriedCommit(database, iTx, txId, requestId);
+          Orient.instance()
+              .getProfiler()
+              .stopChrono(
+                  "distributed.db." + database.getName() + ".txCommit",
+                  "Time to commit a distributed transaction, retries included",
+                  timer,
+                  "distributed.db.*.txCommit");
           return;
         } else {
           try {
@@ -258,6 +267,10 @@ public class ONewDistributedTransactionManager {
     final Set sentNodes = new HashSet(nodes);
 
     iTx.setStatus(OTransaction.TXSTATUS.COMMITTING);
+
+    // THE SECOND PHASES COLLECTED SO FAR TRAVEL TOGETHER WITH THIS FIRST PHASE
+    if (sharedDb.getPhase2Batcher() != null) sharedDb.getPhase2Batcher().flush();
+
     // SYNCHRONOUS CALL: REPLICATE IT
     ((ODistributedAbstractPlugin) dManager)
         .sendRequest(
@@ -512,6 +525,14 @@ public class ONewDistributedTransactionManager {
 
   private void sendPhase2Task(
       Set<String> involvedClusters, Set<String> nodes, OTransactionPhase2Task task) {
+    final OTransactionPhase2Batcher batcher =
+        ((ODistributedDatabaseImpl) dManager.getMessageService().getDatabase(storage.getName()))
+            .getPhase2Batcher();
+    if (batcher != null) {
+      // THE OUTCOME IS ALREADY DECIDED: DON'T WAIT FOR THE OTHER SERVERS TO APPLY IT
+      batcher.enqueue(nodes, task);
+      return;
+    }
     dManager.sendRequest(
         storage.getName(),
         involvedClusters,
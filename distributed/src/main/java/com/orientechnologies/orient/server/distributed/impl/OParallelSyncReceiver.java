@@ -0,0 +1,315 @@
+package com.orientechnologies.orient.server.distributed.impl;
+
+import com.orientechnologies.common.collection.OMultiValue;
+import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.common.io.OFileUtils;
+import com.orientechnologies.common.thread.OThreadPoolExecutorWithLogging;
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.server.distributed.ODistributedException;
+import com.orientechnologies.orient.server.distributed.ODistributedRequest;
+import com.orientechnologies.orient.server.distributed.ODistributedResponse;
+import com.orientechnologies.orient.server.distributed.ODistributedServerLog;
+import com.orientechnologies.orient.server.distributed.impl.task.OAbstractSyncDatabaseTask;
+import com.orientechnologies.orient.server.distributed.impl.task.OCopyDatabaseRangeTask;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Receives the backup of a database as ranges requested in parallel to the source node. The ranges
+ * are verified with their checksum, written in order to the stream consumed by the restore and
+ * spooled to a local file together with the offset received so far. If the deployment breaks and
+ * the source node still has the same backup, the next deployment replays the spooled file and asks
+ * only for the remaining ranges.
+ */
+public class OParallelSyncReceiver extends OSyncReceiver {
+  private static final int MAX_RETRY = 3;
+
+  private final ODistributedDatabaseRange firstRange;
+  private final int streams;
+  private final File spoolFile;
+  private final File progressFile;
+
+  public OParallelSyncReceiver(
+      ODistributedAbstractPlugin distributed,
+      String databaseName,
+      ODistributedDatabaseRange firstRange,
+      String iNode,
+      String dbPath,
+      int streams) {
+    super(distributed, databaseName, null, iNode, dbPath);
+    this.firstRange = firstRange;
+    this.streams = Math.max(1, streams);
+    this.spoolFile = new File(Orient.getTempPath(), "sync_" + databaseName + ".spool");
+    this.progressFile = new File(spoolFile.getAbsolutePath() + ".progress");
+  }
+
+  @Override
+  public void run() {
+    try {
+      Thread.currentThread()
+          .setName("OrientDB installDatabase node=" + distributed.nodeName + " db=" + databaseName);
+
+      output = new PipedOutputStream();
+      inputStream = new PipedInputStream(output);
+      started.countDown();
+      try {
+        final long fileSize = transfer();
+
+        // COMPLETED: NOTHING TO RESUME ANYMORE
+        spoolFile.delete();
+        progressFile.delete();
+
+        ODistributedServerLog.info(
+            this,
+            distributed.nodeName,
+            null,
+            ODistributedServerLog.DIRECTION.NONE,
+            "Database copied correctly, size=%s",
+            OFileUtils.getSizeAsString(fileSize));
+
+      } finally {
+        try {
+          output.flush();
+          output.close();
+          done.countDown();
+        } catch (IOException e) {
+          ODistributedServerLog.warn(
+              this,
+              distributed.nodeName,
+              null,
+              ODistributedServerLog.DIRECTION.NONE,
+              "Error on closing sync piped stream ",
+              e);
+        }
+      }
+
+    } catch (Exception e) {
+      ODistributedServerLog.error(
+          this,
+          distributed.nodeName,
+          null,
+          ODistributedServerLog.DIRECTION.NONE,
+          "Error on transferring database '%s' ",
+          e,
+          databaseName);
+      throw OException.wrapException(
+          new ODistributedException("Error on transferring database"), e);
+    }
+  }
+
+  private long transfer() throws IOException, InterruptedException {
+    final int rangeSize = OAbstractSyncDatabaseTask.CHUNK_MAX_SIZE;
+    final long backupId = firstRange.backupId;
+
+    // THE OFFSET FROM WHERE THE RANGES ARE STILL MISSING
+    long next = resume(backupId);
+
+    final TreeMap<Long, ODistributedDatabaseRange> received = new TreeMap<>();
+    long end = -1;
+    long requested = next;
+    if (next == 0 && firstRange.isValid()) {
+      // A CORRUPTED FIRST RANGE IS REQUESTED AGAIN AS ANY OTHER ONE
+      received.put(0L, firstRange);
+      requested = firstRange.buffer.length;
+      if (firstRange.last) end = firstRange.buffer.length;
+    }
+
+    final ExecutorService executor =
+        new OThreadPoolExecutorWithLogging(
+            streams, streams, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+    try (OutputStream spool = new FileOutputStream(spoolFile, true)) {
+      final CompletionService<ODistributedDatabaseRange> completion =
+          new ExecutorCompletionService<>(executor);
+      int inFlight = 0;
+      int chunkNum = (int) (next / rangeSize) + 1;
+
+      while (true) {
+        // WRITE THE RANGES THAT ARE NOW CONTIGUOUS
+        for (Map.Entry<Long, ODistributedDatabaseRange> entry = received.firstEntry();
+            entry != null && entry.getKey() == next;
+            entry = received.firstEntry()) {
+          received.remove(next);
+          final ODistributedDatabaseRange r = entry.getValue();
+          spool.write(r.buffer);
+          writeBuffer(chunkNum++, r.offset, r.buffer, r.incremental, output);
+          next += r.buffer.length;
+          saveProgress(backupId, next);
+
+          Orient.instance()
+              .getProfiler()
+              .updateCounter(
+                  "distributed.db." + databaseName + ".deployRanges",
+                  "Number of backup ranges received to deploy a database",
+                  +1,
+                  "distributed.db.*.deployRanges");
+          if (r.buffer.length == 0) break;
+        }
+
+        if (end > -1 && next >= end) break;
+
+        // KEEP THE STREAMS BUSY, BUT DON'T GO TOO FAR AHEAD OF THE RANGES ALREADY WRITTEN
+        while (inFlight < streams
+            && (end < 0 || requested < end)
+            && requested < next + (long) streams * rangeSize) {
+          final long offset = requested;
+          completion.submit(() -> fetchRange(backupId, offset));
+          requested += rangeSize;
+          inFlight++;
+        }
+
+        if (inFlight == 0)
+          throw new ODistributedException(
+              "Range offset=" + next + " of database '" + databaseName + "' is missing");
+
+        final ODistributedDatabaseRange range;
+        try {
+          range = completion.take().get();
+        } catch (ExecutionException e) {
+          throw OException.wrapException(
+              new ODistributedException(
+                  "Error on transferring database '"
+                      + databaseName
+                      + "', it will be resumed from offset "
+                      + next),
+              e.getCause());
+        }
+        inFlight--;
+
+        if (range.last) {
+          final long rangeEnd = range.offset + range.buffer.length;
+          end = end < 0 ? rangeEnd : Math.min(end, rangeEnd);
+        }
+        received.put(range.offset, range);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    return next;
+  }
+
+  private ODistributedDatabaseRange fetchRange(final long backupId, final long offset) {
+    for (int retry = 1; ; ++retry) {
+      final ODistributedResponse response =
+          distributed.sendRequest(
+              databaseName,
+              null,
+              OMultiValue.getSingletonList(iNode),
+              new OCopyDatabaseRangeTask(backupId, offset),
+              distributed.getNextMessageIdCounter(),
+              ODistributedRequest.EXECUTION_MODE.RESPONSE,
+              null);
+
+      final Object result = response != null ? response.getPayload() : null;
+      if (result instanceof ODistributedDatabaseRange
+          && ((ODistributedDatabaseRange) result).isValid())
+        return (ODistributedDatabaseRange) result;
+
+      if (retry >= MAX_RETRY) {
+        final ODistributedException e =
+            new ODistributedException(
+                "Cannot receive range offset=" + offset + " of database '" + databaseName + "'");
+        if (result instanceof Exception) throw OException.wrapException(e, (Exception) result);
+        throw e;
+      }
+
+      ODistributedServerLog.warn(
+          this,
+          distributed.nodeName,
+          iNode,
+          ODistributedServerLog.DIRECTION.IN,
+          "Range offset=%d of database '%s' not received or corrupted (%s), retrying (%d/%d)...",
+          offset,
+          databaseName,
+          result,
+          retry,
+          MAX_RETRY);
+
+      Orient.instance()
+          .getProfiler()
+          .updateCounter(
+              "distributed.db." + databaseName + ".deployRangeRetries",
+              "Number of backup ranges requested again because not received or corrupted",
+              +1,
+              "distributed.db.*.deployRangeRetries");
+    }
+  }
+
+  /**
+   * Replays the part of the same backup received by a previous deployment and returns the offset
+   * to continue from, or 0 if there is nothing to resume.
+   */
+  private long resume(final long backupId) throws IOException {
+    long offset = 0;
+    if (progressFile.exists() && spoolFile.exists()) {
+      try (DataInputStream in = new DataInputStream(new FileInputStream(progressFile))) {
+        if (in.readUTF().equals(iNode) && in.readLong() == backupId) offset = in.readLong();
+      } catch (IOException e) {
+        offset = 0;
+      }
+    }
+
+    if (offset == 0 || spoolFile.length() < offset) {
+      spoolFile.delete();
+      progressFile.delete();
+      return 0;
+    }
+
+    ODistributedServerLog.info(
+        this,
+        distributed.nodeName,
+        iNode,
+        ODistributedServerLog.DIRECTION.NONE,
+        "Resuming the deployment of database '%s' from offset %d",
+        databaseName,
+        offset);
+
+    try (RandomAccessFile file = new RandomAccessFile(spoolFile, "rw")) {
+      // DISCARD WHAT WAS WRITTEN AFTER THE LAST SAVED PROGRESS
+      file.setLength(offset);
+    }
+    try (InputStream in = new FileInputStream(spoolFile)) {
+      final byte[] buffer = new byte[OAbstractSyncDatabaseTask.CHUNK_MAX_SIZE];
+      long replayed = 0;
+      for (int read; (read = in.read(buffer)) > -1; replayed += read) {
+        final byte[] chunk = new byte[read];
+        System.arraycopy(buffer, 0, chunk, 0, read);
+        writeBuffer(0, replayed, chunk, firstRange.incremental, output);
+      }
+    }
+    return offset;
+  }
+
+  private void saveProgress(final long backupId, final long offset) throws IOException {
+    final File tmp = new File(progressFile.getAbsolutePath() + ".tmp");
+    try (DataOutputStream out = new DataOutputStream(new FileOutputStream(tmp))) {
+      out.writeUTF(iNode);
+      out.writeLong(backupId);
+      out.writeLong(offset);
+    }
+    Files.move(
+        tmp.toPath(),
+        progressFile.toPath(),
+        StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+}
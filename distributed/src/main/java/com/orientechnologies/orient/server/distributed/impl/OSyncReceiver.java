@@ -16,15 +16,15 @@ import java.io.PipedOutputStream;
 import java.util.concurrent.CountDownLatch;
 
 public class OSyncReceiver implements Runnable {
-  private ODistributedAbstractPlugin distributed;
-  private final String databaseName;
+  protected ODistributedAbstractPlugin distributed;
+  protected final String databaseName;
   private final ODistributedDatabaseChunk firstChunk;
-  private final String iNode;
-  private final String dbPath;
-  private final CountDownLatch done = new CountDownLatch(1);
-  private final CountDownLatch started = new CountDownLatch(1);
-  private PipedOutputStream output;
-  private PipedInputStream inputStream;
+  protected final String iNode;
+  protected final String dbPath;
+  protected final CountDownLatch done = new CountDownLatch(1);
+  protected final CountDownLatch started = new CountDownLatch(1);
+  protected PipedOutputStream output;
+  protected PipedInputStream inputStream;
 
   public OSyncReceiver(
       ODistributedAbstractPlugin distributed,
@@ -149,6 +149,16 @@ public class OSyncReceiver implements Runnable {
   protected long writeDatabaseChunk(
       final int iChunkId, final ODistributedDatabaseChunk chunk, final OutputStream out)
       throws IOException {
+    return writeBuffer(iChunkId, chunk.offset, chunk.buffer, chunk.incremental, out);
+  }
+
+  protected long writeBuffer(
+      final int iChunkId,
+      final long offset,
+      final byte[] buffer,
+      final boolean incremental,
+      final OutputStream out)
+      throws IOException {
 
     ODistributedServerLog.info(
         this,
@@ -157,18 +167,18 @@ public class OSyncReceiver implements Runnable {
         ODistributedServerLog.DIRECTION.NONE,
         "- writing chunk #%d offset=%d size=%s",
         iChunkId,
-        chunk.offset,
-        OFileUtils.getSizeAsString(chunk.buffer.length));
+        offset,
+        OFileUtils.getSizeAsString(buffer.length));
     try {
-      out.write(chunk.buffer);
+      out.write(buffer);
     } catch (IOException e) {
       // IN CASE OF ZIP BACKUPS WE CAN IGNORE THE IOException ad the end of the file.
-      if (chunk.incremental) {
+      if (incremental) {
         throw e;
       }
     }
 
-    return chunk.buffer.length;
+    return buffer.length;
   }
 
   public CountDownLatch getStarted() {
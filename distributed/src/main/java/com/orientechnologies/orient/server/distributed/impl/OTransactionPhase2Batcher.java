@@ -0,0 +1,78 @@
+package com.orientechnologies.orient.server.distributed.impl;
+
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.server.distributed.ODistributedRequest;
+import com.orientechnologies.orient.server.distributed.ODistributedServerLog;
+import com.orientechnologies.orient.server.distributed.ODistributedServerManager;
+import com.orientechnologies.orient.server.distributed.impl.task.OTransactionPhase2BatchTask;
+import com.orientechnologies.orient.server.distributed.impl.task.OTransactionPhase2Task;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TimerTask;
+
+/**
+ * Collects the second phase of the transactions committed on a database and sends it to every
+ * server in one {@link OTransactionPhase2BatchTask}, without waiting for the acknowledgment. The
+ * collected second phases are sent when the batch window expires or right before the first phase
+ * of the next transaction, so they travel in the same frame of the connection.
+ */
+public class OTransactionPhase2Batcher {
+  private final ODistributedServerManager manager;
+  private final String databaseName;
+  private final long window;
+  private Map<String, OTransactionPhase2BatchTask> pending = new LinkedHashMap<>();
+  private TimerTask flushTask;
+
+  public OTransactionPhase2Batcher(
+      final ODistributedServerManager manager, final String databaseName, final long window) {
+    this.manager = manager;
+    this.databaseName = databaseName;
+    this.window = window;
+  }
+
+  public synchronized void enqueue(
+      final Collection<String> nodes, final OTransactionPhase2Task task) {
+    final long messageId = manager.getNextMessageIdCounter();
+    for (String node : nodes)
+      pending.computeIfAbsent(node, k -> new OTransactionPhase2BatchTask()).add(messageId, task);
+
+    if (flushTask == null) flushTask = Orient.instance().scheduleTask(this::flush, window, 0);
+  }
+
+  /** Sends the collected second phases. Sending under the lock keeps the order of the commits. */
+  public synchronized void flush() {
+    if (flushTask != null) {
+      flushTask.cancel();
+      flushTask = null;
+    }
+    if (pending.isEmpty()) return;
+
+    final Map<String, OTransactionPhase2BatchTask> toSend = pending;
+    pending = new LinkedHashMap<>();
+
+    for (Map.Entry<String, OTransactionPhase2BatchTask> entry : toSend.entrySet()) {
+      try {
+        manager.sendRequest(
+            databaseName,
+            null,
+            Collections.singleton(entry.getKey()),
+            entry.getValue(),
+            manager.getNextMessageIdCounter(),
+            ODistributedRequest.EXECUTION_MODE.NO_RESPONSE,
+            null);
+      } catch (RuntimeException e) {
+        ODistributedServerLog.warn(
+            this,
+            manager.getLocalNodeName(),
+            entry.getKey(),
+            ODistributedServerLog.DIRECTION.OUT,
+            "Error on sending the second phase of %d transactions of database '%s'",
+            e,
+            entry.getValue().size(),
+            databaseName);
+      }
+    }
+  }
+}
@@ -10,9 +10,11 @@ import com.orientechnologies.orient.core.storage.impl.local.OSyncSource;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.OLogSequenceNumber;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.OWriteAheadLog;
 import com.orientechnologies.orient.server.distributed.ODistributedDatabase;
+import com.orientechnologies.orient.server.distributed.ODistributedException;
 import com.orientechnologies.orient.server.distributed.ODistributedRequestId;
 import com.orientechnologies.orient.server.distributed.ODistributedServerLog;
 import com.orientechnologies.orient.server.distributed.ODistributedServerManager;
+import com.orientechnologies.orient.server.distributed.impl.ODistributedDatabaseRange;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -21,11 +23,14 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
+import java.io.RandomAccessFile;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.TimerTask;
+import java.util.UUID;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class OBackgroundBackup implements Runnable, OSyncSource {
@@ -43,6 +48,8 @@ public class OBackgroundBackup implements Runnable, OSyncSource {
   public volatile boolean valid = true;
   private TimerTask timerTask;
   private volatile long lastRead;
+  private final long id = UUID.randomUUID().getLeastSignificantBits();
+  private final boolean streaming;
 
   public OBackgroundBackup(
       OSyncDatabaseTask oSyncDatabaseTask,
@@ -54,6 +61,36 @@ public class OBackgroundBackup implements Runnable, OSyncSource {
       ODistributedDatabase dDatabase,
       ODistributedRequestId requestId,
       File completedFile) {
+    this(
+        oSyncDatabaseTask,
+        iManager,
+        database,
+        resultedBackupFile,
+        finalBackupPath,
+        incremental,
+        dDatabase,
+        requestId,
+        completedFile,
+        true);
+  }
+
+  /**
+   * @param streaming if false the backup is only written to the file and read through {@link
+   *     #readRange(long, int)}, otherwise it's also piped to the stream returned by {@link
+   *     #getInputStream()}
+   */
+  public OBackgroundBackup(
+      OSyncDatabaseTask oSyncDatabaseTask,
+      ODistributedServerManager iManager,
+      ODatabaseDocumentInternal database,
+      File resultedBackupFile,
+      String finalBackupPath,
+      OModifiableBoolean incremental,
+      ODistributedDatabase dDatabase,
+      ODistributedRequestId requestId,
+      File completedFile,
+      boolean streaming) {
+    this.streaming = streaming;
     this.oSyncDatabaseTask = oSyncDatabaseTask;
     this.iManager = iManager;
     this.database = database;
@@ -91,9 +128,12 @@ public class OBackgroundBackup implements Runnable, OSyncSource {
         resultedBackupFile.createNewFile();
 
         final OutputStream fileOutputStream = new FileOutputStream(resultedBackupFile);
-        PipedOutputStream pipedOutputStream = new PipedOutputStream();
-        inputStream = new PipedInputStream(pipedOutputStream, OSyncDatabaseTask.CHUNK_MAX_SIZE);
-        OutputStream dest = new TeeOutputStream(fileOutputStream, pipedOutputStream);
+        final OutputStream dest;
+        if (streaming) {
+          PipedOutputStream pipedOutputStream = new PipedOutputStream();
+          inputStream = new PipedInputStream(pipedOutputStream, OSyncDatabaseTask.CHUNK_MAX_SIZE);
+          dest = new TeeOutputStream(fileOutputStream, pipedOutputStream);
+        } else dest = fileOutputStream;
         if (database.getStorage().supportIncremental()) {
           OWriteAheadLog wal =
               ((OAbstractPaginatedStorage) database.getStorage().getUnderlying()).getWALInstance();
@@ -114,6 +154,7 @@ public class OBackgroundBackup implements Runnable, OSyncSource {
             throw r;
           } finally {
             wal.removeCutTillLimit(lsn);
+            if (!streaming) dest.close();
           }
           finished.countDown();
           OLogManager.instance()
@@ -207,7 +248,7 @@ public class OBackgroundBackup implements Runnable, OSyncSource {
           public void run() {
             if (System.currentTimeMillis() - lastRead > timeout * 3) {
               try {
-                inputStream.close();
+                if (inputStream != null) inputStream.close();
                 this.cancel();
               } catch (IOException e) {
                 e.printStackTrace();
@@ -223,6 +264,42 @@ public class OBackgroundBackup implements Runnable, OSyncSource {
     inputStream = new FileInputStream(finalBackupPath);
   }
 
+  /**
+   * Reads a range of the backup file, waiting for the backup to write it. The returned range is
+   * shorter than <code>maxSize</code> only if it's the last one.
+   */
+  public ODistributedDatabaseRange readRange(final long offset, final int maxSize)
+      throws IOException, InterruptedException {
+    this.lastRead = System.currentTimeMillis();
+
+    while (resultedBackupFile.length() < offset + maxSize
+        && !finished.await(100, TimeUnit.MILLISECONDS)) {
+      this.lastRead = System.currentTimeMillis();
+    }
+
+    // CHECK THE COMPLETION BEFORE THE SIZE: ONCE FINISHED THE SIZE DOESN'T CHANGE ANYMORE
+    final boolean completed = finished.getCount() == 0;
+    if (!resultedBackupFile.exists())
+      throw new ODistributedException(
+          "Backup file '" + resultedBackupFile + "' is not available anymore");
+
+    final long size = resultedBackupFile.length();
+    final byte[] buffer = new byte[(int) Math.max(0, Math.min(maxSize, size - offset))];
+    if (buffer.length > 0) {
+      try (RandomAccessFile file = new RandomAccessFile(resultedBackupFile, "r")) {
+        file.seek(offset);
+        file.readFully(buffer);
+      }
+    }
+
+    return new ODistributedDatabaseRange(
+        id, offset, buffer, completed && offset + buffer.length >= size, incremental.get());
+  }
+
+  public long getId() {
+    return id;
+  }
+
   public boolean getIncremental() {
     return incremental.get();
   }
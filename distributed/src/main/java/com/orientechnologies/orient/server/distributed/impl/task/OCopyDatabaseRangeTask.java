@@ -0,0 +1,140 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+package com.orientechnologies.orient.server.distributed.impl.task;
+
+import com.orientechnologies.common.io.OFileUtils;
+import com.orientechnologies.orient.core.command.OCommandDistributedReplicateRequest;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.storage.impl.local.OSyncSource;
+import com.orientechnologies.orient.server.OServer;
+import com.orientechnologies.orient.server.distributed.ODistributedException;
+import com.orientechnologies.orient.server.distributed.ODistributedRequestId;
+import com.orientechnologies.orient.server.distributed.ODistributedServerLog;
+import com.orientechnologies.orient.server.distributed.ODistributedServerManager;
+import com.orientechnologies.orient.server.distributed.ORemoteTaskFactory;
+import com.orientechnologies.orient.server.distributed.impl.ODistributedDatabaseImpl;
+import com.orientechnologies.orient.server.distributed.impl.ODistributedDatabaseRange;
+import com.orientechnologies.orient.server.distributed.task.OAbstractReplicatedTask;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/** Ask for a range of the backup created by {@link OSyncDatabaseRangesTask}. */
+public class OCopyDatabaseRangeTask extends OAbstractReplicatedTask {
+  private static final long serialVersionUID = 1L;
+  public static final int FACTORYID = 60;
+
+  private long backupId;
+  private long offset;
+
+  public OCopyDatabaseRangeTask() {}
+
+  public OCopyDatabaseRangeTask(final long iBackupId, final long iOffset) {
+    backupId = iBackupId;
+    offset = iOffset;
+  }
+
+  @Override
+  public Object execute(
+      ODistributedRequestId requestId,
+      final OServer iServer,
+      ODistributedServerManager iManager,
+      final ODatabaseDocumentInternal database)
+      throws Exception {
+
+    if (database == null) {
+      throw new ODistributedException("database not available anymore during sync");
+    }
+
+    ODistributedDatabaseImpl local =
+        (ODistributedDatabaseImpl) iManager.getMessageService().getDatabase(database.getName());
+
+    // THE BACKUP CAN BE INVALID FOR NEW DEPLOYMENTS BUT IT'S STILL A CONSISTENT SNAPSHOT
+    final OSyncSource b = local.getLastValidBackup();
+    if (!(b instanceof OBackgroundBackup) || ((OBackgroundBackup) b).getId() != backupId)
+      throw new ODistributedException(
+          "Backup of database '" + database.getName() + "' is not available anymore");
+
+    final ODistributedDatabaseRange result =
+        ((OBackgroundBackup) b).readRange(offset, OSyncDatabaseTask.CHUNK_MAX_SIZE);
+
+    ODistributedServerLog.info(
+        this,
+        iManager.getLocalNodeName(),
+        getNodeSource(),
+        ODistributedServerLog.DIRECTION.OUT,
+        "- transferring range offset=%d size=%s...",
+        offset,
+        OFileUtils.getSizeAsNumber(result.buffer.length));
+
+    return result;
+  }
+
+  @Override
+  public RESULT_STRATEGY getResultStrategy() {
+    return RESULT_STRATEGY.ANY;
+  }
+
+  @Override
+  public long getDistributedTimeout() {
+    return OGlobalConfiguration.DISTRIBUTED_DEPLOYCHUNK_TASK_SYNCH_TIMEOUT.getValueAsLong();
+  }
+
+  @Override
+  public OCommandDistributedReplicateRequest.QUORUM_TYPE getQuorumType() {
+    return OCommandDistributedReplicateRequest.QUORUM_TYPE.NONE;
+  }
+
+  @Override
+  public String getName() {
+    return "copy_db_range";
+  }
+
+  @Override
+  public void toStream(final DataOutput out) throws IOException {
+    out.writeLong(backupId);
+    out.writeLong(offset);
+  }
+
+  @Override
+  public void fromStream(final DataInput in, final ORemoteTaskFactory factory) throws IOException {
+    backupId = in.readLong();
+    offset = in.readLong();
+  }
+
+  @Override
+  public boolean isNodeOnlineRequired() {
+    return false;
+  }
+
+  @Override
+  public int getFactoryId() {
+    return FACTORYID;
+  }
+
+  public long getBackupId() {
+    return backupId;
+  }
+
+  public long getOffset() {
+    return offset;
+  }
+}
@@ -106,6 +106,15 @@ public class ODefaultRemoteTaskFactoryV3 implements ORemoteTaskFactory {
 
       case OUpdateDatabaseSequenceStatusTask.FACTORYID: // 58
         return new OUpdateDatabaseSequenceStatusTask();
+
+      case OSyncDatabaseRangesTask.FACTORYID: // 59
+        return new OSyncDatabaseRangesTask();
+
+      case OCopyDatabaseRangeTask.FACTORYID: // 60
+        return new OCopyDatabaseRangeTask();
+
+      case OTransactionPhase2BatchTask.FACTORYID: // 61
+        return new OTransactionPhase2BatchTask();
     }
 
     throw new IllegalArgumentException("Task with code " + code + " is not supported");
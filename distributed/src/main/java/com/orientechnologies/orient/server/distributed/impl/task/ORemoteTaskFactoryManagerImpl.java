@@ -35,11 +35,17 @@ import java.util.Collection;
  */
 public class ORemoteTaskFactoryManagerImpl implements ORemoteTaskFactoryManager {
   private final ODistributedServerManager dManager;
-  private ORemoteTaskFactory[] factories = new ORemoteTaskFactory[1];
+  private ORemoteTaskFactory[] factories =
+      new ORemoteTaskFactory
+          [ORemoteServerController.CURRENT_PROTOCOL_VERSION
+              - ORemoteServerController.MIN_SUPPORTED_PROTOCOL_VERSION
+              + 1];
 
   public ORemoteTaskFactoryManagerImpl(final ODistributedServerManager dManager) {
     this.dManager = dManager;
-    factories[0] = new ODefaultRemoteTaskFactoryV3();
+    // THE TASKS DIDN'T CHANGE WITH THE BATCHED FRAMES OF PROTOCOL 3
+    final ORemoteTaskFactory factory = new ODefaultRemoteTaskFactoryV3();
+    for (int i = 0; i < factories.length; ++i) factories[i] = factory;
   }
 
   @Override
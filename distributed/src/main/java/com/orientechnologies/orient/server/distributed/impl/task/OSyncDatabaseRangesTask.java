@@ -0,0 +1,77 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+package com.orientechnologies.orient.server.distributed.impl.task;
+
+import com.orientechnologies.common.io.OFileUtils;
+import com.orientechnologies.orient.server.distributed.ODistributedServerLog;
+import com.orientechnologies.orient.server.distributed.ODistributedServerManager;
+import com.orientechnologies.orient.server.distributed.impl.ODistributedDatabaseRange;
+import java.io.IOException;
+
+/**
+ * Ask for synchronization of database from a remote node, transferring the backup as ranges that
+ * the requester fetches in parallel with {@link OCopyDatabaseRangeTask}.
+ */
+public class OSyncDatabaseRangesTask extends OSyncDatabaseTask {
+  public static final int FACTORYID = 59;
+
+  public OSyncDatabaseRangesTask() {}
+
+  @Override
+  protected boolean isStreaming() {
+    return false;
+  }
+
+  @Override
+  protected Object firstResponse(
+      final ODistributedServerManager iManager,
+      final String databaseName,
+      final OBackgroundBackup backup)
+      throws IOException, InterruptedException {
+    final ODistributedDatabaseRange range = backup.readRange(0, CHUNK_MAX_SIZE);
+
+    ODistributedServerLog.info(
+        this,
+        iManager.getLocalNodeName(),
+        getNodeSource(),
+        ODistributedServerLog.DIRECTION.OUT,
+        "- transferring range offset=%d size=%s...",
+        0,
+        OFileUtils.getSizeAsNumber(range.buffer.length));
+
+    if (range.last) {
+      // NO MORE RANGES: SET THE NODE ONLINE (SYNCHRONIZING ENDED)
+      iManager.setDatabaseStatus(
+          iManager.getLocalNodeName(), databaseName, ODistributedServerManager.DB_STATUS.ONLINE);
+    }
+
+    return range;
+  }
+
+  @Override
+  public String getName() {
+    return "deploy_db_ranges";
+  }
+
+  @Override
+  public int getFactoryId() {
+    return FACTORYID;
+  }
+}
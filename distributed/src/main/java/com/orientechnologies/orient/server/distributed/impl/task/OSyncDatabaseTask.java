@@ -143,7 +143,8 @@ public class OSyncDatabaseTask extends OAbstractSyncDatabaseTask {
                   null,
                   dDatabase,
                   requestId,
-                  completedFile);
+                  completedFile,
+                  isStreaming());
           Thread t = new Thread(backup);
           t.setUncaughtExceptionHandler(new OUncaughtExceptionHandler());
           t.start();
@@ -152,7 +153,7 @@ public class OSyncDatabaseTask extends OAbstractSyncDatabaseTask {
           // WHILE THE DB IS NOT UPDATED
           dDatabase.setLastValidBackup(backup);
         } else {
-          backup.makeStreamFromFile();
+          if (isStreaming()) backup.makeStreamFromFile();
           ODistributedServerLog.info(
               this,
               iManager.getLocalNodeName(),
@@ -171,28 +172,7 @@ public class OSyncDatabaseTask extends OAbstractSyncDatabaseTask {
                   databaseName);
         }
 
-        final ODistributedDatabaseChunk chunk =
-            new ODistributedDatabaseChunk(backup, CHUNK_MAX_SIZE);
-
-        ODistributedServerLog.info(
-            this,
-            iManager.getLocalNodeName(),
-            getNodeSource(),
-            ODistributedServerLog.DIRECTION.OUT,
-            "- transferring chunk #%d offset=%d size=%s...",
-            1,
-            0,
-            OFileUtils.getSizeAsNumber(chunk.buffer.length));
-
-        if (chunk.last) {
-          // NO MORE CHUNKS: SET THE NODE ONLINE (SYNCHRONIZING ENDED)
-          iManager.setDatabaseStatus(
-              iManager.getLocalNodeName(),
-              databaseName,
-              ODistributedServerManager.DB_STATUS.ONLINE);
-        }
-
-        return chunk;
+        return firstResponse(iManager, databaseName, backup);
 
       } catch (OLockException e) {
         ODistributedServerLog.debug(
@@ -221,6 +201,38 @@ public class OSyncDatabaseTask extends OAbstractSyncDatabaseTask {
     return Boolean.FALSE;
   }
 
+  /** Returns true if the backup is read sequentially through its stream. */
+  protected boolean isStreaming() {
+    return true;
+  }
+
+  /** Returns the first part of the backup to send back to the node that asked the deployment. */
+  protected Object firstResponse(
+      final ODistributedServerManager iManager,
+      final String databaseName,
+      final OBackgroundBackup backup)
+      throws IOException, InterruptedException {
+    final ODistributedDatabaseChunk chunk = new ODistributedDatabaseChunk(backup, CHUNK_MAX_SIZE);
+
+    ODistributedServerLog.info(
+        this,
+        iManager.getLocalNodeName(),
+        getNodeSource(),
+        ODistributedServerLog.DIRECTION.OUT,
+        "- transferring chunk #%d offset=%d size=%s...",
+        1,
+        0,
+        OFileUtils.getSizeAsNumber(chunk.buffer.length));
+
+    if (chunk.last) {
+      // NO MORE CHUNKS: SET THE NODE ONLINE (SYNCHRONIZING ENDED)
+      iManager.setDatabaseStatus(
+          iManager.getLocalNodeName(), databaseName, ODistributedServerManager.DB_STATUS.ONLINE);
+    }
+
+    return chunk;
+  }
+
   @Override
   public String getName() {
     return "deploy_db";
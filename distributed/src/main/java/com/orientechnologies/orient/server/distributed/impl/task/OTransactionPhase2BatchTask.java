@@ -0,0 +1,127 @@
+package com.orientechnologies.orient.server.distributed.impl.task;
+
+import com.orientechnologies.orient.core.command.OCommandDistributedReplicateRequest;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.server.OServer;
+import com.orientechnologies.orient.server.distributed.ODistributedRequest;
+import com.orientechnologies.orient.server.distributed.ODistributedRequestId;
+import com.orientechnologies.orient.server.distributed.ODistributedServerManager;
+import com.orientechnologies.orient.server.distributed.ORemoteTaskFactory;
+import com.orientechnologies.orient.server.distributed.impl.ODistributedDatabaseImpl;
+import com.orientechnologies.orient.server.distributed.task.OAbstractRemoteTask;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Second phases of many transactions sent in one message. The receiver doesn't execute it, but
+ * enqueues every second phase as if it was received on its own, in the order they were committed,
+ * so they are applied through the same locks of their first phase. No response is sent back.
+ */
+public class OTransactionPhase2BatchTask extends OAbstractRemoteTask {
+  public static final int FACTORYID = 61;
+
+  private List<Long> messageIds = new ArrayList<>();
+  private List<OTransactionPhase2Task> tasks = new ArrayList<>();
+
+  public OTransactionPhase2BatchTask() {}
+
+  public void add(final long messageId, final OTransactionPhase2Task task) {
+    messageIds.add(messageId);
+    tasks.add(task);
+  }
+
+  public int size() {
+    return tasks.size();
+  }
+
+  public List<Long> getMessageIds() {
+    return messageIds;
+  }
+
+  public List<OTransactionPhase2Task> getTasks() {
+    return tasks;
+  }
+
+  public void dispatch(final ODistributedRequest request, final ODistributedDatabaseImpl database) {
+    final int senderNodeId = request.getId().getNodeId();
+    for (int i = 0; i < tasks.size(); i++) {
+      final OTransactionPhase2Task task = tasks.get(i);
+      task.setNodeSource(getNodeSource());
+      task.setResponseRequired(false);
+      database.processRequest(
+          new ODistributedRequest(
+              database.getManager(),
+              senderNodeId,
+              messageIds.get(i),
+              request.getDatabaseName(),
+              task),
+          false);
+    }
+  }
+
+  @Override
+  public Object execute(
+      final ODistributedRequestId requestId,
+      final OServer iServer,
+      final ODistributedServerManager iManager,
+      final ODatabaseDocumentInternal database)
+      throws Exception {
+    // NEVER EXECUTED: SEE dispatch()
+    return null;
+  }
+
+  @Override
+  public String getName() {
+    return "TxPhase2Batch";
+  }
+
+  @Override
+  public OCommandDistributedReplicateRequest.QUORUM_TYPE getQuorumType() {
+    return OCommandDistributedReplicateRequest.QUORUM_TYPE.NONE;
+  }
+
+  @Override
+  public boolean hasResponse() {
+    return false;
+  }
+
+  @Override
+  public boolean isIdempotent() {
+    return false;
+  }
+
+  @Override
+  public boolean isNodeOnlineRequired() {
+    return false;
+  }
+
+  @Override
+  public void toStream(final DataOutput out) throws IOException {
+    out.writeInt(tasks.size());
+    for (int i = 0; i < tasks.size(); i++) {
+      out.writeLong(messageIds.get(i));
+      tasks.get(i).toStream(out);
+    }
+  }
+
+  @Override
+  public void fromStream(final DataInput in, final ORemoteTaskFactory factory) throws IOException {
+    final int size = in.readInt();
+    messageIds = new ArrayList<>(size);
+    tasks = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      messageIds.add(in.readLong());
+      final OTransactionPhase2Task task = new OTransactionPhase2Task();
+      task.fromStream(in, factory);
+      tasks.add(task);
+    }
+  }
+
+  @Override
+  public int getFactoryId() {
+    return FACTORYID;
+  }
+}
@@ -36,6 +36,7 @@ public class OTransactionPhase2Task extends OAbstractReplicatedTask implements O
   private SortedSet<OTransactionUniqueKey> uniqueIndexKeys = new TreeSet<>();
   private boolean hasResponse = false;
   private volatile int retryCount = 0;
+  private transient boolean responseRequired = true;
 
   public OTransactionPhase2Task(
       ODistributedRequestId firstPhaseId,
@@ -214,7 +215,12 @@ public class OTransactionPhase2Task extends OAbstractReplicatedTask implements O
 
   @Override
   public boolean hasResponse() {
-    return hasResponse;
+    return responseRequired && hasResponse;
+  }
+
+  /** Set to false when the sender doesn't wait for the outcome, as for the batched second phases. */
+  public void setResponseRequired(final boolean responseRequired) {
+    this.responseRequired = responseRequired;
   }
 
   @Override
@@ -0,0 +1,88 @@
+package com.orientechnologies.orient.server.distributed;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.orientechnologies.common.io.OFileUtils;
+import com.orientechnologies.common.profiler.OProfiler;
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseSession;
+import com.orientechnologies.orient.core.db.ODatabaseType;
+import com.orientechnologies.orient.core.db.OrientDB;
+import com.orientechnologies.orient.core.db.OrientDBConfig;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.server.OServer;
+import java.io.File;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelSyncIT {
+
+  private OServer server0;
+  private OServer server1;
+  private OServer server2;
+  private boolean recording;
+
+  @Before
+  public void before() throws Exception {
+    // THE RANGES RECEIVED BY THE NODE ARE COUNTED ONLY WHILE THE PROFILER IS RECORDING
+    recording = Orient.instance().getProfiler().isRecording();
+    if (!recording) Orient.instance().getProfiler().startRecording();
+    OGlobalConfiguration.DISTRIBUTED_DEPLOYDB_PARALLEL_STREAMS.setValue(4);
+    server0 = OServer.startFromClasspathConfig("orientdb-simple-dserver-config-0.xml");
+    server1 = OServer.startFromClasspathConfig("orientdb-simple-dserver-config-1.xml");
+    server2 = OServer.startFromClasspathConfig("orientdb-simple-dserver-config-2.xml");
+    OrientDB remote =
+        new OrientDB("remote:localhost", "root", "test", OrientDBConfig.defaultConfig());
+    remote.create("test", ODatabaseType.PLOCAL);
+    remote.close();
+  }
+
+  @Test
+  public void fullSync() throws Exception {
+    try (OrientDB remote = new OrientDB("remote:localhost", OrientDBConfig.defaultConfig())) {
+      try (ODatabaseSession session = remote.open("test", "admin", "admin")) {
+        session.createClass("One");
+        for (int i = 0; i < 1000; i++) session.save(session.newElement("One"));
+      }
+      server2.shutdown();
+
+      // WITHOUT A LOCAL COPY THE NODE HAS TO RECEIVE THE WHOLE DATABASE
+      OFileUtils.deleteRecursively(new File(server2.getDatabaseDirectory() + "test"));
+
+      try (ODatabaseSession session = remote.open("test", "admin", "admin")) {
+        session.save(session.newElement("One"));
+      }
+    }
+
+    final OProfiler profiler = Orient.instance().getProfiler();
+    final long ranges = profiler.getCounter("distributed.db.test.deployRanges");
+
+    server2 = OServer.startFromClasspathConfig("orientdb-simple-dserver-config-2.xml");
+    try (OrientDB remote = new OrientDB("remote:localhost:2426", OrientDBConfig.defaultConfig())) {
+      try (ODatabaseSession session = remote.open("test", "admin", "admin")) {
+        assertEquals(1001, session.countClass("One"));
+      }
+    }
+
+    // THE DATABASE WAS RECEIVED IN RANGES, NOT IN CHUNKS
+    assertTrue(profiler.getCounter("distributed.db.test.deployRanges") > ranges);
+  }
+
+  @After
+  public void after() throws InterruptedException {
+    OrientDB remote =
+        new OrientDB("remote:localhost", "root", "test", OrientDBConfig.defaultConfig());
+    remote.drop("test");
+    remote.close();
+
+    server0.shutdown();
+    server1.shutdown();
+    server2.shutdown();
+    ODatabaseDocumentTx.closeAll();
+    OGlobalConfiguration.DISTRIBUTED_DEPLOYDB_PARALLEL_STREAMS.setValue(1);
+    if (!recording) Orient.instance().getProfiler().stopRecording();
+  }
+}
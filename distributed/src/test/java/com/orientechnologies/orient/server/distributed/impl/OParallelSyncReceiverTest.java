@@ -0,0 +1,178 @@
+package com.orientechnologies.orient.server.distributed.impl;
+
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.server.distributed.ODistributedRequest;
+import com.orientechnologies.orient.server.distributed.ODistributedRequestId;
+import com.orientechnologies.orient.server.distributed.ODistributedResponse;
+import com.orientechnologies.orient.server.distributed.impl.task.OAbstractSyncDatabaseTask;
+import com.orientechnologies.orient.server.distributed.impl.task.OCopyDatabaseRangeTask;
+import com.orientechnologies.orient.server.distributed.task.ORemoteTask;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Receives a backup of three ranges from a mocked source node and checks that the restore reads
+ * exactly the content of the backup, also when a range is corrupted or the deployment is resumed.
+ */
+public class OParallelSyncReceiverTest {
+  private static final String DATABASE = "parallelSyncReceiver";
+  private static final String SOURCE = "source";
+  private static final long BACKUP_ID = 42;
+  private static final int RANGE_SIZE = OAbstractSyncDatabaseTask.CHUNK_MAX_SIZE;
+
+  private final File spoolFile = new File(Orient.getTempPath(), "sync_" + DATABASE + ".spool");
+  private final File progressFile = new File(spoolFile.getAbsolutePath() + ".progress");
+  private final List<Long> requested = Collections.synchronizedList(new ArrayList<>());
+  private final AtomicBoolean corrupt = new AtomicBoolean();
+  private final AtomicLong messageIds = new AtomicLong();
+
+  private byte[] backup;
+  private ODistributedAbstractPlugin distributed;
+
+  @Before
+  public void before() {
+    backup = new byte[2 * RANGE_SIZE + 1000];
+    new Random(BACKUP_ID).nextBytes(backup);
+
+    spoolFile.getParentFile().mkdirs();
+    deleteSpool();
+
+    distributed = Mockito.mock(ODistributedAbstractPlugin.class);
+    Mockito.when(
+            distributed.sendRequest(
+                Mockito.eq(DATABASE),
+                Mockito.any(Collection.class),
+                Mockito.eq(Collections.singletonList(SOURCE)),
+                Mockito.any(ORemoteTask.class),
+                Mockito.anyLong(),
+                Mockito.eq(ODistributedRequest.EXECUTION_MODE.RESPONSE),
+                Mockito.any()))
+        .thenAnswer(
+            invocation -> {
+              final OCopyDatabaseRangeTask task =
+                  (OCopyDatabaseRangeTask) invocation.getArguments()[3];
+              Assert.assertEquals(BACKUP_ID, task.getBackupId());
+              requested.add(task.getOffset());
+
+              final ODistributedDatabaseRange range = range(task.getOffset());
+              // THE SECOND RANGE IS CORRUPTED THE FIRST TIME IT IS SENT
+              if (task.getOffset() == RANGE_SIZE && corrupt.getAndSet(false)) range.checksum++;
+
+              return new ODistributedResponse(
+                  null,
+                  new ODistributedRequestId(0, messageIds.incrementAndGet()),
+                  SOURCE,
+                  "local",
+                  range);
+            });
+  }
+
+  @After
+  public void after() {
+    deleteSpool();
+  }
+
+  @Test
+  public void testRangesAreReceivedInOrder() throws Exception {
+    Assert.assertArrayEquals(backup, receive());
+    Assert.assertEquals(Arrays.asList((long) RANGE_SIZE, 2L * RANGE_SIZE), sortedRequests());
+
+    // THE DEPLOYMENT IS COMPLETED, NOTHING IS LEFT TO RESUME
+    Assert.assertFalse(spoolFile.exists());
+    Assert.assertFalse(progressFile.exists());
+  }
+
+  @Test
+  public void testCorruptedRangeIsRequestedAgain() throws Exception {
+    corrupt.set(true);
+
+    Assert.assertArrayEquals(backup, receive());
+    Assert.assertFalse(corrupt.get());
+    Assert.assertEquals(
+        Arrays.asList((long) RANGE_SIZE, (long) RANGE_SIZE, 2L * RANGE_SIZE), sortedRequests());
+  }
+
+  @Test
+  public void testDeploymentIsResumedFromSpool() throws Exception {
+    // A BROKEN DEPLOYMENT SPOOLED TWO RANGES, BUT SAVED THE PROGRESS ONLY OF THE FIRST ONE
+    try (FileOutputStream out = new FileOutputStream(spoolFile)) {
+      out.write(backup, 0, 2 * RANGE_SIZE);
+    }
+    saveProgress(BACKUP_ID, RANGE_SIZE);
+
+    Assert.assertArrayEquals(backup, receive());
+    Assert.assertEquals(Arrays.asList((long) RANGE_SIZE, 2L * RANGE_SIZE), sortedRequests());
+  }
+
+  @Test
+  public void testSpoolOfAnotherBackupIsDiscarded() throws Exception {
+    try (FileOutputStream out = new FileOutputStream(spoolFile)) {
+      out.write(new byte[RANGE_SIZE]);
+    }
+    saveProgress(BACKUP_ID + 1, RANGE_SIZE);
+
+    Assert.assertArrayEquals(backup, receive());
+    Assert.assertEquals(Arrays.asList((long) RANGE_SIZE, 2L * RANGE_SIZE), sortedRequests());
+  }
+
+  /** Deploys the backup, starting from the first range returned by the source node. */
+  private byte[] receive() throws Exception {
+    final OParallelSyncReceiver receiver =
+        new OParallelSyncReceiver(distributed, DATABASE, range(0), SOURCE, null, 2);
+    receiver.spawnReceiverThread();
+    Assert.assertTrue(receiver.getStarted().await(10, TimeUnit.SECONDS));
+
+    final ByteArrayOutputStream received = new ByteArrayOutputStream();
+    try (InputStream in = receiver.getInputStream()) {
+      final byte[] buffer = new byte[65536];
+      for (int read; (read = in.read(buffer)) > -1; ) received.write(buffer, 0, read);
+    }
+    Assert.assertTrue(receiver.getDone().await(10, TimeUnit.SECONDS));
+    return received.toByteArray();
+  }
+
+  private ODistributedDatabaseRange range(final long offset) {
+    final int size = (int) Math.min(RANGE_SIZE, backup.length - offset);
+    final byte[] buffer = new byte[size];
+    System.arraycopy(backup, (int) offset, buffer, 0, size);
+    return new ODistributedDatabaseRange(
+        BACKUP_ID, offset, buffer, offset + size == backup.length, false);
+  }
+
+  private List<Long> sortedRequests() {
+    final List<Long> sorted = new ArrayList<>(requested);
+    Collections.sort(sorted);
+    return sorted;
+  }
+
+  private void saveProgress(final long backupId, final long offset) throws IOException {
+    try (DataOutputStream out = new DataOutputStream(new FileOutputStream(progressFile))) {
+      out.writeUTF(SOURCE);
+      out.writeLong(backupId);
+      out.writeLong(offset);
+    }
+  }
+
+  private void deleteSpool() {
+    spoolFile.delete();
+    progressFile.delete();
+  }
+}
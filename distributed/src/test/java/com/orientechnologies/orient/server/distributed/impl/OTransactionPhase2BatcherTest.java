@@ -0,0 +1,134 @@
+package com.orientechnologies.orient.server.distributed.impl;
+
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.tx.OTransactionId;
+import com.orientechnologies.orient.server.distributed.ODistributedRequest;
+import com.orientechnologies.orient.server.distributed.ODistributedRequestId;
+import com.orientechnologies.orient.server.distributed.ODistributedServerManager;
+import com.orientechnologies.orient.server.distributed.impl.task.OTransactionPhase2BatchTask;
+import com.orientechnologies.orient.server.distributed.impl.task.OTransactionPhase2Task;
+import com.orientechnologies.orient.server.distributed.task.ORemoteTask;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.mockito.verification.VerificationMode;
+
+public class OTransactionPhase2BatcherTest {
+  private static final String DATABASE = "phase2Batcher";
+
+  private final AtomicLong messageIds = new AtomicLong();
+  private ODistributedServerManager manager;
+
+  @Before
+  public void before() {
+    manager = Mockito.mock(ODistributedServerManager.class);
+    Mockito.when(manager.getNextMessageIdCounter())
+        .thenAnswer(invocation -> messageIds.incrementAndGet());
+  }
+
+  @Test
+  public void testSecondPhasesAreSentInOrderWhenWindowExpires() {
+    final OTransactionPhase2Batcher batcher = new OTransactionPhase2Batcher(manager, DATABASE, 500);
+
+    final List<OTransactionPhase2Task> tasks = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      final OTransactionPhase2Task task = createPhase2Task(i);
+      tasks.add(task);
+      batcher.enqueue(Arrays.asList("node1", "node2"), task);
+    }
+    verifySent(Mockito.never());
+
+    final List<Sent> sent = verifySent(Mockito.timeout(10_000).times(2));
+    Assert.assertEquals(Collections.singleton("node1"), sent.get(0).nodes);
+    Assert.assertEquals(Collections.singleton("node2"), sent.get(1).nodes);
+    for (Sent batch : sent) {
+      Assert.assertEquals(tasks, batch.task.getTasks());
+
+      final List<Long> ids = batch.task.getMessageIds();
+      for (int i = 1; i < ids.size(); i++) {
+        Assert.assertTrue(ids.get(i - 1) < ids.get(i));
+      }
+    }
+  }
+
+  @Test
+  public void testSecondPhasesAreSentBeforeNextFirstPhase() {
+    final OTransactionPhase2Batcher batcher =
+        new OTransactionPhase2Batcher(manager, DATABASE, TimeUnit.HOURS.toMillis(1));
+
+    final OTransactionPhase2Task first = createPhase2Task(0);
+    final OTransactionPhase2Task second = createPhase2Task(1);
+    batcher.enqueue(Collections.singleton("node1"), first);
+    batcher.enqueue(Collections.singleton("node1"), second);
+
+    // THE FIRST PHASE OF THE NEXT TRANSACTION FLUSHES THE BATCH WITHOUT WAITING FOR THE WINDOW
+    batcher.flush();
+    List<Sent> sent = verifySent(Mockito.times(1));
+    Assert.assertEquals(Arrays.asList(first, second), sent.get(0).task.getTasks());
+
+    final OTransactionPhase2Task third = createPhase2Task(2);
+    batcher.enqueue(Collections.singleton("node1"), third);
+    batcher.flush();
+    sent = verifySent(Mockito.times(2));
+    Assert.assertEquals(Collections.singletonList(third), sent.get(1).task.getTasks());
+
+    // NOTHING IS PENDING ANYMORE
+    batcher.flush();
+    verifySent(Mockito.times(2));
+  }
+
+  private List<Sent> verifySent(final VerificationMode mode) {
+    final ArgumentCaptor<Collection> nodes = ArgumentCaptor.forClass(Collection.class);
+    final ArgumentCaptor<ORemoteTask> tasks = ArgumentCaptor.forClass(ORemoteTask.class);
+    Mockito.verify(manager, mode)
+        .sendRequest(
+            Mockito.eq(DATABASE),
+            Mockito.any(Collection.class),
+            nodes.capture(),
+            tasks.capture(),
+            Mockito.anyLong(),
+            Mockito.eq(ODistributedRequest.EXECUTION_MODE.NO_RESPONSE),
+            Mockito.any());
+
+    final List<Sent> sent = new ArrayList<>();
+    for (int i = 0; i < tasks.getAllValues().size(); i++) {
+      final OTransactionPhase2BatchTask task =
+          (OTransactionPhase2BatchTask) tasks.getAllValues().get(i);
+      sent.add(new Sent(nodes.getAllValues().get(i), task));
+    }
+    return sent;
+  }
+
+  private static OTransactionPhase2Task createPhase2Task(final int i) {
+    final TreeSet<ORID> rids = new TreeSet<>();
+    rids.add(new ORecordId(10, i));
+    return new OTransactionPhase2Task(
+        new ODistributedRequestId(1, i),
+        true,
+        rids,
+        new TreeSet<>(),
+        new OTransactionId(Optional.of("node1"), i, i));
+  }
+
+  private static final class Sent {
+    private final Collection<?> nodes;
+    private final OTransactionPhase2BatchTask task;
+
+    private Sent(final Collection<?> nodes, final OTransactionPhase2BatchTask task) {
+      this.nodes = nodes;
+      this.task = task;
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package com.orientechnologies.orient.server.distributed.impl.task;
+
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.tx.OTransactionId;
+import com.orientechnologies.orient.server.distributed.ODistributedRequestId;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.TreeSet;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OTransactionPhase2BatchTaskTest extends AbstractRemoteTaskTest {
+
+  @Test
+  public void testSerialization() throws IOException {
+    OTransactionPhase2BatchTask from = new OTransactionPhase2BatchTask();
+    for (int i = 0; i < 3; i++) {
+      TreeSet<ORID> rids = new TreeSet<>();
+      rids.add(new ORecordId(10, i));
+      from.add(
+          100 + i,
+          new OTransactionPhase2Task(
+              new ODistributedRequestId(1, i),
+              i % 2 == 0,
+              rids,
+              new TreeSet<>(),
+              new OTransactionId(Optional.of("node1"), i, i)));
+    }
+    OTransactionPhase2BatchTask to = new OTransactionPhase2BatchTask();
+    serializeDeserialize(from, to);
+
+    Assert.assertEquals(3, to.size());
+    Assert.assertEquals(from.getMessageIds(), to.getMessageIds());
+    for (int i = 0; i < 3; i++) {
+      OTransactionPhase2Task task = to.getTasks().get(i);
+      Assert.assertEquals(new ODistributedRequestId(1, i), task.getFirstPhaseId());
+      Assert.assertEquals(from.getTasks().get(i).getTransactionId(), task.getTransactionId());
+      Assert.assertEquals(from.getTasks().get(i).getRids(), task.getRids());
+    }
+  }
+}
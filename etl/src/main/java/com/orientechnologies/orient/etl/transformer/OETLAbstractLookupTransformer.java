@@ -18,20 +18,29 @@
 
 package com.orientechnologies.orient.etl.transformer;
 
+import com.orientechnologies.common.util.ORawPair;
 import com.orientechnologies.orient.core.command.OCommandContext;
 import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
 import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.index.OIndex;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OProperty;
 import com.orientechnologies.orient.core.metadata.schema.OType;
 import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.executor.OResult;
+import com.orientechnologies.orient.core.sql.executor.OResultSet;
 import com.orientechnologies.orient.core.sql.query.OSQLQuery;
 import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
 import com.orientechnologies.orient.etl.context.OETLContextWrapper;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -41,8 +50,15 @@ public abstract class OETLAbstractLookupTransformer extends OETLAbstractTransfor
   protected Object joinValue;
   protected String lookup;
   protected ACTION unresolvedLinkAction = ACTION.NOTHING;
+  protected int lookupCacheSize = 10000;
+  protected boolean lookupPreload = false;
   private OSQLQuery<ODocument> sqlQuery;
   private OIndex index;
+  private String lookupClass;
+  private String lookupField;
+  private OType lookupFieldType;
+  private OETLLookupCache cache = new OETLLookupCache(lookupCacheSize);
+  private volatile boolean initialized;
 
   @Override
   public void configure(final ODocument iConfiguration, OCommandContext iContext) {
@@ -58,6 +74,78 @@ public abstract class OETLAbstractLookupTransformer extends OETLAbstractTransfor
       unresolvedLinkAction =
           ACTION.valueOf(
               iConfiguration.field("unresolvedLinkAction").toString().toUpperCase(Locale.ENGLISH));
+
+    if (iConfiguration.containsField("lookupCacheSize"))
+      lookupCacheSize = ((Number) iConfiguration.field("lookupCacheSize")).intValue();
+
+    if (iConfiguration.containsField("lookupPreload"))
+      lookupPreload = (Boolean) resolve(iConfiguration.field("lookupPreload"));
+
+    cache = new OETLLookupCache(lookupCacheSize);
+  }
+
+  @Override
+  protected String getCommonConfigurationParameters() {
+    return super.getCommonConfigurationParameters()
+        + ",{lookupCacheSize:{optional:true,description:'Number of lookup values whose result is cached. 0 disables the cache. Default is 10000'}},"
+        + "{lookupPreload:{optional:true,description:'Loads the whole lookup index in memory at the first lookup. Useful for small indexes. Default is false'}}";
+  }
+
+  private synchronized void init(final ODatabaseDocumentInternal db) {
+    if (initialized) return;
+
+    // ONLY THE FIRST TIME
+    if (lookup.toUpperCase(Locale.ENGLISH).startsWith("SELECT"))
+      sqlQuery = new OSQLSynchQuery<>(lookup);
+    else {
+      index = db.getMetadata().getIndexManagerInternal().getIndex(db, lookup);
+      if (index == null) {
+        OETLContextWrapper.getInstance()
+            .getMessageHandler()
+            .warn(this, "WARNING: index %s not found. Lookups could be really slow", lookup);
+        final String[] parts = lookup.split("\\.");
+        sqlQuery =
+            new OSQLSynchQuery<ODocument>(
+                "SELECT FROM " + parts[0] + " WHERE " + parts[1] + " = ?");
+
+        final OClass cls = db.getMetadata().getImmutableSchemaSnapshot().getClass(parts[0]);
+        final OProperty property = cls != null ? cls.getProperty(parts[1]) : null;
+        if (property != null) {
+          // THE VALUES OF THE PROPERTY CAN BE MATCHED WITH THE VALUES LOOKED UP IN BATCH
+          lookupClass = parts[0];
+          lookupField = parts[1];
+          lookupFieldType = property.getType();
+        }
+      } else if (lookupPreload) {
+        //noinspection resource
+        try (Stream<ORawPair<Object, ORID>> entries = index.getInternal().stream()) {
+          cache.preload(entries.iterator(), index.getInternal().size());
+        }
+      }
+    }
+    initialized = true;
+  }
+
+  /** Converts the value looked up to the key used by the index, or by the property queried. */
+  private Object lookupKey(Object joinValue) {
+    if (index != null) {
+      final OType idxFieldType = index.getDefinition().getTypes()[0];
+      joinValue = OType.convert(joinValue, idxFieldType.getDefaultJavaType());
+      if (lookupPreload) joinValue = index.getDefinition().getCollate().transform(joinValue);
+    } else if (lookupFieldType != null)
+      joinValue = OType.convert(joinValue, lookupFieldType.getDefaultJavaType());
+    return joinValue;
+  }
+
+  private Object cachedResult(final List<ORID> rids, final boolean iReturnRIDS) {
+    if (iReturnRIDS || index != null) return new ArrayList<>(rids);
+
+    final List<ODocument> records = new ArrayList<>(rids.size());
+    for (ORID rid : rids) {
+      final ODocument record = rid.getRecord();
+      if (record != null) records.add(record);
+    }
+    return records.isEmpty() ? null : records;
   }
 
   protected Object lookup(
@@ -65,29 +153,15 @@ public abstract class OETLAbstractLookupTransformer extends OETLAbstractTransfor
     Object result = null;
 
     if (joinValue != null) {
-      if (sqlQuery == null && index == null) {
-        // ONLY THE FIRST TIME
-        if (lookup.toUpperCase(Locale.ENGLISH).startsWith("SELECT"))
-          sqlQuery = new OSQLSynchQuery<>(lookup);
-        else {
-          index = db.getMetadata().getIndexManagerInternal().getIndex(db, lookup);
-          if (index == null) {
-            OETLContextWrapper.getInstance()
-                .getMessageHandler()
-                .warn(this, "WARNING: index %s not found. Lookups could be really slow", lookup);
-            final String[] parts = lookup.split("\\.");
-            sqlQuery =
-                new OSQLSynchQuery<ODocument>(
-                    "SELECT FROM " + parts[0] + " WHERE " + parts[1] + " = ?");
-          }
-        }
-      }
+      if (!initialized) init(db);
+
+      final Object key = lookupKey(joinValue);
+      final List<ORID> cached = cache.get(key);
+      if (cached != null) return cachedResult(cached, iReturnRIDS);
 
       if (index != null) {
-        final OType idxFieldType = index.getDefinition().getTypes()[0];
-        joinValue = OType.convert(joinValue, idxFieldType.getDefaultJavaType());
         //noinspection resource
-        result = index.getInternal().getRids(joinValue);
+        result = index.getInternal().getRids(key);
       } else {
         if (sqlQuery instanceof OSQLSynchQuery) ((OSQLSynchQuery) sqlQuery).resetPagination();
 
@@ -101,20 +175,20 @@ public abstract class OETLAbstractLookupTransformer extends OETLAbstractTransfor
         if (rids.isEmpty()) {
           return null;
         }
+        cache.put(key, rids);
         return rids;
       }
       if (result != null && result instanceof Collection) {
         final Collection coll = (Collection) result;
 
         if (!coll.isEmpty()) {
-          if (iReturnRIDS) {
-            // CONVERT COLLECTION OF RECORDS IN RIDS
-            final List<ORID> resultRIDs = new ArrayList<ORID>(coll.size());
-            for (Object o : coll) {
-              if (o instanceof OIdentifiable) resultRIDs.add(((OIdentifiable) o).getIdentity());
-            }
-            result = resultRIDs;
+          // CONVERT COLLECTION OF RECORDS IN RIDS
+          final List<ORID> resultRIDs = new ArrayList<ORID>(coll.size());
+          for (Object o : coll) {
+            if (o instanceof OIdentifiable) resultRIDs.add(((OIdentifiable) o).getIdentity());
           }
+          if (resultRIDs.size() == coll.size()) cache.put(key, resultRIDs);
+          if (iReturnRIDS) result = resultRIDs;
         } else result = null;
       } else if (result instanceof OIdentifiable) {
         if (iReturnRIDS) result = ((OIdentifiable) result).getIdentity();
@@ -125,6 +199,91 @@ public abstract class OETLAbstractLookupTransformer extends OETLAbstractTransfor
     return result;
   }
 
+  /**
+   * Looks up many values at once. The values not found in the cache are looked up with a single
+   * access to the index, or with a single <code>IN</code> query on the lookup property.
+   *
+   * @return the result of the lookup of every value, in the same order of the values
+   */
+  protected List<Object> lookup(
+      final ODatabaseDocumentInternal db,
+      final Collection<?> joinValues,
+      final boolean iReturnRIDS) {
+    final List<Object> results = new ArrayList<>(Collections.nCopies(joinValues.size(), null));
+    if (!initialized) init(db);
+
+    final Map<Object, List<Integer>> misses = new LinkedHashMap<>();
+    int i = 0;
+    for (Object value : joinValues) {
+      if (value != null) {
+        final Object key = lookupKey(value);
+        final List<ORID> cached = cache.get(key);
+        if (cached != null) results.set(i, cachedResult(cached, iReturnRIDS));
+        else if (key != null) misses.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+      }
+      i++;
+    }
+
+    if (misses.size() < 2) {
+      // NOTHING TO BATCH
+      for (Map.Entry<Object, List<Integer>> miss : misses.entrySet())
+        for (int position : miss.getValue())
+          results.set(position, lookup(db, miss.getKey(), iReturnRIDS));
+      return results;
+    }
+
+    final Map<Object, List<ORID>> found = new HashMap<>();
+    if (index != null) {
+      //noinspection resource
+      try (Stream<ORawPair<Object, ORID>> entries =
+          index.getInternal().streamEntries(misses.keySet(), true)) {
+        entries.forEach(
+            entry ->
+                found.computeIfAbsent(entry.first, k -> new ArrayList<>()).add(entry.second));
+      }
+      if (!lookupPreload) {
+        // THE INDEX RETURNS COLLATED KEYS
+        final Map<Object, List<ORID>> byKey = new HashMap<>();
+        for (Object key : misses.keySet()) {
+          final List<ORID> rids = found.get(index.getDefinition().getCollate().transform(key));
+          if (rids != null) byKey.put(key, rids);
+        }
+        found.clear();
+        found.putAll(byKey);
+      }
+    } else if (lookupField != null) {
+      try (OResultSet resultSet =
+          db.query(
+              "SELECT FROM `" + lookupClass + "` WHERE `" + lookupField + "` IN ?",
+              new ArrayList<>(misses.keySet()))) {
+        while (resultSet.hasNext()) {
+          final OResult row = resultSet.next();
+          row.getIdentity()
+              .ifPresent(
+                  rid ->
+                      found
+                          .computeIfAbsent(row.getProperty(lookupField), k -> new ArrayList<>())
+                          .add(rid));
+        }
+      }
+    } else {
+      // CUSTOM QUERIES CAN ONLY BE EXECUTED ONE VALUE AT A TIME
+      for (Map.Entry<Object, List<Integer>> miss : misses.entrySet()) {
+        final Object result = lookup(db, miss.getKey(), iReturnRIDS);
+        for (int position : miss.getValue()) results.set(position, result);
+      }
+      return results;
+    }
+
+    for (Map.Entry<Object, List<Integer>> miss : misses.entrySet()) {
+      final List<ORID> rids = found.get(miss.getKey());
+      if (rids == null) continue;
+      cache.put(miss.getKey(), rids);
+      final Object result = cachedResult(rids, iReturnRIDS);
+      for (int position : miss.getValue()) results.set(position, result);
+    }
+    return results;
+  }
   protected enum ACTION {
     NOTHING,
     WARNING,
@@ -116,8 +116,16 @@ public class OETLEdgeTransformer extends OETLAbstractLookupTransformer {
 
       if (OMultiValue.isMultiValue(joinCurrentValue)) {
         // RESOLVE SINGLE JOINS
-        for (Object ob : OMultiValue.getMultiValueIterable(joinCurrentValue)) {
-          final Object r = lookup((ODatabaseDocumentInternal) db, ob, true);
+        final List<Object> joinValues = new ArrayList<>();
+        for (Object ob : OMultiValue.getMultiValueIterable(joinCurrentValue)) joinValues.add(ob);
+        final List<Object> results = lookup((ODatabaseDocumentInternal) db, joinValues, true);
+
+        for (int i = 0; i < joinValues.size(); i++) {
+          final Object ob = joinValues.get(i);
+          Object r = results.get(i);
+          if (r == null && unresolvedLinkAction == ACTION.CREATE)
+            // THE VERTEX COULD HAVE BEEN CREATED FOR A PREVIOUS VALUE
+            r = lookup((ODatabaseDocumentInternal) db, ob, true);
           if (createEdge(db, vertex, ob, r) == null) {
             if (unresolvedLinkAction == ACTION.SKIP)
               // RETURN NULL ONLY IN CASE SKIP ACTION IS REQUESTED
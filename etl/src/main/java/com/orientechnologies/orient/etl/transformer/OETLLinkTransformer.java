@@ -92,11 +92,11 @@ public class OETLLinkTransformer extends OETLAbstractLookupTransformer {
     Object result;
     if (OMultiValue.isMultiValue(joinRuntimeValue)) {
       // RESOLVE SINGLE JOINS
-      final Collection<Object> singleJoinsResult = new ArrayList<Object>();
+      final List<Object> joinValues = new ArrayList<Object>();
       for (Object o : OMultiValue.getMultiValueIterable(joinRuntimeValue)) {
-        singleJoinsResult.add(lookup((ODatabaseDocumentInternal) db, o, true));
+        joinValues.add(o);
       }
-      result = singleJoinsResult;
+      result = lookup((ODatabaseDocumentInternal) db, joinValues, true);
     } else result = lookup((ODatabaseDocumentInternal) db, joinRuntimeValue, true);
 
     log(Level.FINE, "joinRuntimeValue=%s, lookupResult=%s", joinRuntimeValue, result);
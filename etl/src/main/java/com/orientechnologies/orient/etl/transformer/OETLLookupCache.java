@@ -0,0 +1,164 @@
+/*
+ *
+ *  * Copyright 2010-2016 OrientDB LTD (info(-at-)orientdb.com)
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package com.orientechnologies.orient.etl.transformer;
+
+import com.orientechnologies.common.collection.OLRUCache;
+import com.orientechnologies.common.util.ORawPair;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.sql.executor.ORidLongMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Results of the lookups of a transformer, keyed by the lookup value. Only found records with a
+ * persistent RID are cached: a missing value could be created by the pipeline later, and a temporary
+ * RID changes on commit. A whole index can be preloaded; values missing from the preloaded index are
+ * still looked up, so records created after the preload are found.
+ */
+final class OETLLookupCache {
+  private static final long FREE = Long.MIN_VALUE;
+  private static final long MANY = -1L;
+
+  private final Map<Object, List<ORID>> recent;
+
+  // PRELOADED INDEX: INTEGER KEYS WITH ONE RID ARE KEPT AS PRIMITIVES, THE OTHERS IN THE MAP
+  private long[] keys;
+  private long[] rids;
+  private volatile Map<Object, List<ORID>> preloaded;
+
+  OETLLookupCache(final int size) {
+    recent = size > 0 ? new OLRUCache<>(size) : null;
+  }
+
+  boolean isPreloaded() {
+    return preloaded != null;
+  }
+
+  /** @return the RIDs of the lookup value, or null if it's not in the cache */
+  List<ORID> get(final Object value) {
+    if (preloaded != null) {
+      final List<ORID> result = getPreloaded(value);
+      if (result != null) return result;
+    }
+    if (recent == null) return null;
+    synchronized (recent) {
+      return recent.get(value);
+    }
+  }
+
+  void put(final Object value, final List<ORID> result) {
+    if (recent == null || result == null || result.isEmpty()) return;
+    for (ORID rid : result) if (!rid.isPersistent()) return;
+
+    synchronized (recent) {
+      recent.put(value, Collections.unmodifiableList(new ArrayList<>(result)));
+    }
+  }
+
+  /** Loads all the entries of an index, keyed by their collated key. */
+  synchronized void preload(final Iterator<ORawPair<Object, ORID>> entries, final long size) {
+    if (preloaded != null) return;
+
+    int capacity = 16;
+    while (capacity * 3L / 4 < size && capacity < 1 << 30) capacity <<= 1;
+    keys = new long[capacity];
+    rids = new long[capacity];
+    Arrays.fill(keys, FREE);
+    final Map<Object, List<ORID>> others = new HashMap<>();
+
+    int count = 0;
+    while (entries.hasNext()) {
+      final ORawPair<Object, ORID> entry = entries.next();
+      final ORID rid = entry.second.copy();
+      final long key = primitiveKey(entry.first);
+      if (key == FREE) {
+        others.computeIfAbsent(entry.first, k -> new ArrayList<>()).add(rid);
+        continue;
+      }
+
+      if (count >= keys.length * 3 / 4) rehash();
+
+      final int slot = slot(keys, key);
+      final long packedRid = ORidLongMap.pack(rid);
+      if (keys[slot] == FREE) {
+        count++;
+        keys[slot] = key;
+        if (packedRid >= 0) {
+          rids[slot] = packedRid;
+          continue;
+        }
+      } else if (rids[slot] != MANY) {
+        // SAME KEY FOUND MORE THAN ONCE (NOT UNIQUE INDEX)
+        others.computeIfAbsent(key, k -> new ArrayList<>()).add(ORidLongMap.unpack(rids[slot]));
+      }
+      rids[slot] = MANY;
+      others.computeIfAbsent(key, k -> new ArrayList<>()).add(rid);
+    }
+
+    preloaded = others;
+  }
+
+  private void rehash() {
+    final long[] oldKeys = keys;
+    final long[] oldRids = rids;
+    keys = new long[oldKeys.length << 1];
+    rids = new long[oldKeys.length << 1];
+    Arrays.fill(keys, FREE);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] == FREE) continue;
+      final int slot = slot(keys, oldKeys[i]);
+      keys[slot] = oldKeys[i];
+      rids[slot] = oldRids[i];
+    }
+  }
+
+  private List<ORID> getPreloaded(final Object value) {
+    final long key = primitiveKey(value);
+    if (key == FREE) return preloaded.get(value);
+
+    final int slot = slot(keys, key);
+    if (keys[slot] == FREE) return null;
+    if (rids[slot] == MANY) return preloaded.get(key);
+    return Collections.singletonList(ORidLongMap.unpack(rids[slot]));
+  }
+
+  private static long primitiveKey(final Object value) {
+    if (value instanceof Long
+        || value instanceof Integer
+        || value instanceof Short
+        || value instanceof Byte) {
+      final long key = ((Number) value).longValue();
+      if (key != FREE) return key;
+    }
+    return FREE;
+  }
+
+  /** @return the slot of the key, or the free slot where it should be put */
+  private static int slot(final long[] keys, final long key) {
+    final int mask = keys.length - 1;
+    int slot = (int) (key ^ (key >>> 32)) * 0x9E3779B9 & mask;
+    while (keys[slot] != FREE && keys[slot] != key) slot = (slot + 1) & mask;
+    return slot;
+  }
+}
@@ -131,6 +131,33 @@ public class OETLEdgeTransformerTest extends OETLBaseTest {
     pool.close();
   }
 
+  @Test
+  public void testPreloadedLookupIndex() {
+    configure(
+        "{source: { content: { value: 'name,surname,friend\nJay,Miner,Luca\nJohn,Doe,Luca\nJane,Doe,Luca' } }, extractor : { csv: {} },"
+            + " transformers: [{vertex: {class:'V1'}}, {edge:{class:'Friend',joinFieldName:'friend',lookup:'V2.name',lookupPreload:true}},"
+            + "], loader: { orientdb: { dbURL: 'memory:"
+            + name.getMethodName()
+            + "', dbType:'graph', useLightweightEdges:false } } }");
+
+    OETLLoader loader = proc.getLoader();
+    ODatabasePool pool = loader.getPool();
+    ODatabaseDocument db = pool.acquire();
+    createClasses(db);
+    db.getClass("V2").createProperty("name", OType.STRING);
+    db.getClass("V2").createIndex("V2.name", OClass.INDEX_TYPE.UNIQUE, "name");
+    db.close();
+
+    proc.execute();
+    db = pool.acquire();
+
+    assertEquals(3, db.countClass("V1"));
+    assertEquals(1, db.countClass("V2"));
+    assertEquals(3, db.countClass("Friend"));
+    db.close();
+    pool.close();
+  }
+
   @Test
   public void testEdgeWithProperties() {
     configure(
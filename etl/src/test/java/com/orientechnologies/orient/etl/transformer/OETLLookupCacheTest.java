@@ -0,0 +1,56 @@
+package com.orientechnologies.orient.etl.transformer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.orientechnologies.common.util.ORawPair;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.id.ORecordId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+public class OETLLookupCacheTest {
+
+  @Test
+  public void testCacheOnlyPersistentRids() {
+    final OETLLookupCache cache = new OETLLookupCache(10);
+    cache.put("a", Collections.singletonList(new ORecordId(10, 1)));
+    cache.put("b", Collections.singletonList(new ORecordId(10, -2)));
+    cache.put("c", Collections.emptyList());
+
+    assertEquals(Collections.singletonList(new ORecordId(10, 1)), cache.get("a"));
+    assertNull(cache.get("b"));
+    assertNull(cache.get("c"));
+  }
+
+  @Test
+  public void testDisabledCache() {
+    final OETLLookupCache cache = new OETLLookupCache(0);
+    cache.put("a", Collections.singletonList(new ORecordId(10, 1)));
+    assertNull(cache.get("a"));
+  }
+
+  @Test
+  public void testPreload() {
+    final List<ORawPair<Object, ORID>> entries = new ArrayList<>();
+    for (long i = 0; i < 1000; i++) entries.add(new ORawPair<>(i, new ORecordId(10, i)));
+    entries.add(new ORawPair<>(5L, new ORecordId(11, 5)));
+    entries.add(new ORawPair<>("key", new ORecordId(12, 0)));
+
+    final OETLLookupCache cache = new OETLLookupCache(0);
+    // THE ESTIMATED SIZE IS SMALLER, THE PRELOADED INDEX HAS TO GROW
+    cache.preload(entries.iterator(), 10);
+
+    for (long i = 0; i < 1000; i++) {
+      if (i == 5) continue;
+      assertEquals(Collections.singletonList(new ORecordId(10, i)), cache.get(i));
+    }
+    assertEquals(Arrays.asList(new ORecordId(10, 5), new ORecordId(11, 5)), cache.get(5L));
+    assertEquals(Collections.singletonList(new ORecordId(12, 0)), cache.get("key"));
+    assertNull(cache.get(1000L));
+    assertNull(cache.get("missing"));
+  }
+}
@@ -4,6 +4,7 @@ import static org.junit.Assert.fail;
 
 import com.orientechnologies.common.profiler.OProfiler;
 import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
 import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.id.ORID;
@@ -14,6 +15,8 @@ import com.orientechnologies.orient.core.sql.OCommandSQL;
 import com.orientechnologies.orient.core.sql.executor.MatchPrefetchStep;
 import com.orientechnologies.orient.core.sql.executor.OResult;
 import com.orientechnologies.orient.core.sql.executor.OResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -2275,6 +2278,91 @@ public class OMatchStatementExecutionNewTest {
     result.close();
   }
 
+  @Test
+  public void testParallelMatch() {
+    String query =
+        "MATCH {class:IndexedVertex, as: a, where: (uid < 500)}<-IndexedEdge-{as: b}"
+            + "-IndexedEdge->{as: c, where: (uid < 10)}"
+            + " RETURN a.uid as a, c.uid as c";
+
+    List<String> expected = new ArrayList<>();
+    try (OResultSet result = db.query(query)) {
+      result.stream().forEach(x -> expected.add(x.getProperty("a") + "-" + x.getProperty("c")));
+    }
+    Assert.assertFalse(expected.isEmpty());
+    Collections.sort(expected);
+
+    db.getConfiguration().setValue(OGlobalConfiguration.QUERY_MATCH_PARALLELISM, 4);
+    try {
+      try (OResultSet result = db.query("EXPLAIN " + query)) {
+        String plan = result.next().getProperty("executionPlanAsString");
+        Assert.assertTrue(plan.contains("PARALLEL MATCH (parallelism: 4)"));
+      }
+
+      List<String> found = new ArrayList<>();
+      try (OResultSet result = db.query(query)) {
+        result.stream().forEach(x -> found.add(x.getProperty("a") + "-" + x.getProperty("c")));
+      }
+      Collections.sort(found);
+      Assert.assertEquals(expected, found);
+    } finally {
+      db.getConfiguration().setValue(OGlobalConfiguration.QUERY_MATCH_PARALLELISM, 0);
+    }
+  }
+
+  @Test
+  public void testParallelMatchClosedEarly() {
+    String query =
+        "MATCH {class:IndexedVertex, as: a, where: (uid < 500)}<-IndexedEdge-{as: b}"
+            + "-IndexedEdge->{as: c}"
+            + " RETURN a.uid as a, c.uid as c";
+
+    db.getConfiguration().setValue(OGlobalConfiguration.QUERY_MATCH_PARALLELISM, 4);
+    try {
+      for (int i = 0; i < 10; i++) {
+        // THE RESULT SET IS NOT DRAINED, CLOSING IT MUST RELEASE THE WORKERS
+        try (OResultSet result = db.query(query)) {
+          Assert.assertTrue(result.hasNext());
+          Assert.assertNotNull(result.next().getProperty("a"));
+        }
+      }
+      try (OResultSet result = db.query("select count(*) as count from IndexedVertex")) {
+        Assert.assertTrue(result.next().<Long>getProperty("count") > 0);
+      }
+    } finally {
+      db.getConfiguration().setValue(OGlobalConfiguration.QUERY_MATCH_PARALLELISM, 0);
+    }
+  }
+
+  @Test
+  public void testParallelMatchReturnsSameResults() {
+    String pattern =
+        "MATCH {class:IndexedVertex, as: a, where: (uid < 500)}<-IndexedEdge-{as: b}"
+            + "-IndexedEdge->{as: c, where: (uid < 10)}";
+
+    for (String returns : new String[] {" RETURN a", " RETURN $elements", " RETURN $patterns"}) {
+      List<String> expected = describeResults(pattern + returns);
+      Assert.assertFalse(expected.isEmpty());
+
+      db.getConfiguration().setValue(OGlobalConfiguration.QUERY_MATCH_PARALLELISM, 4);
+      try {
+        Assert.assertEquals(returns, expected, describeResults(pattern + returns));
+      } finally {
+        db.getConfiguration().setValue(OGlobalConfiguration.QUERY_MATCH_PARALLELISM, 0);
+      }
+    }
+  }
+
+  /** @return the results of the query, with the records or the identities they keep, sorted */
+  private List<String> describeResults(String query) {
+    List<String> results = new ArrayList<>();
+    try (OResultSet result = db.query(query)) {
+      result.stream().forEach(x -> results.add(x.isElement() + " " + x));
+    }
+    Collections.sort(results);
+    return results;
+  }
+
   private OResultSet getManagedPathElements(String managerName) {
     StringBuilder query = new StringBuilder();
     query.append("  match {class:Employee, as:boss, where: (name = '" + managerName + "')}");
@@ -214,9 +214,8 @@ public class OrientJdbcPreparedStatement extends OrientJdbcStatement implements
   }
 
   public void addBatch() throws SQLException {
-
-    //    batches.add(sql);
-    throw new UnsupportedOperationException();
+    batches.add(sql);
+    batchParameters.add(params.values().toArray());
   }
 
   public void setCharacterStream(int parameterIndex, Reader reader, int length)
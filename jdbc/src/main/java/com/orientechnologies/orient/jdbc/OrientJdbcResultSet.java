@@ -16,6 +16,7 @@
 package com.orientechnologies.orient.jdbc;
 
 import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
 import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.db.record.ORecordLazyList;
@@ -61,6 +62,11 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
+ * When the result set is {@link ResultSet#TYPE_FORWARD_ONLY} the rows are read from the underlying
+ * {@link OResultSet} in batches and only the current batch is kept in memory. Batches have the
+ * fetch size of the statement, or {@link OGlobalConfiguration#QUERY_REMOTE_RESULTSET_PAGE_SIZE}
+ * rows if it has none. Scrollable result sets load all the rows when they are created.
+ *
  * @author Roberto Franchini (CELI srl - franchin--at--celi.it)
  * @author Salvatore Piccione (TXT e-solutions SpA - salvo.picci--at--gmail.com)
  */
@@ -71,6 +77,17 @@ public class OrientJdbcResultSet implements ResultSet {
   private OrientJdbcStatement statement;
   private OResult result;
 
+  /** the source of the rows of a streaming result set, null once all the rows are read */
+  private OResultSet oResultSet;
+
+  private final boolean streaming;
+  /** fetch size requested by the statement or the user, 0 if none */
+  private int fetchSize;
+  /** number of rows read at a time by a streaming result set */
+  private int batchSize;
+  /** number of the row stored in the first position of {@link #records} */
+  private int firstBufferedRow = 0;
+
   private int cursor = -1;
   private int rowCount = 0;
   private int type;
@@ -88,13 +105,25 @@ public class OrientJdbcResultSet implements ResultSet {
       throws SQLException {
 
     this.statement = statement;
-    try {
-      records = oResultSet.stream().collect(Collectors.toList());
-    } catch (Exception e) {
-      throw new SQLException("Error occourred while mapping results ", e);
+    this.fetchSize = statement.getFetchSize();
+    this.streaming = type == TYPE_FORWARD_ONLY;
+    if (streaming) {
+      this.oResultSet = oResultSet;
+      this.batchSize =
+          fetchSize > 0
+              ? fetchSize
+              : OGlobalConfiguration.QUERY_REMOTE_RESULTSET_PAGE_SIZE.getValueAsInteger();
+      this.records = new ArrayList<>();
+      fetchNextBatch();
+    } else {
+      try {
+        records = oResultSet.stream().collect(Collectors.toList());
+      } catch (Exception e) {
+        throw new SQLException("Error occourred while mapping results ", e);
+      }
+      oResultSet.close();
+      rowCount = records.size();
     }
-    oResultSet.close();
-    rowCount = records.size();
 
     if (records.size() >= 1) {
       result = records.get(0);
@@ -199,10 +228,48 @@ public class OrientJdbcResultSet implements ResultSet {
     statement.database.activateOnCurrentThread();
   }
 
+  /**
+   * Replaces the buffered rows with the next batch of rows of a streaming result set.
+   *
+   * @return false if there are no more rows
+   */
+  private boolean fetchNextBatch() throws SQLException {
+    if (oResultSet == null) {
+      return false;
+    }
+    firstBufferedRow += records.size();
+    records.clear();
+    try {
+      while (records.size() < batchSize && oResultSet.hasNext()) {
+        records.add(oResultSet.next());
+      }
+      if (!oResultSet.hasNext()) {
+        oResultSet.close();
+        oResultSet = null;
+      }
+    } catch (Exception e) {
+      throw new SQLException("Error occourred while mapping results ", e);
+    }
+    // the number of rows is known only when all of them are read
+    rowCount = firstBufferedRow + records.size();
+    return !records.isEmpty();
+  }
+
+  private void checkCanMoveTo(int iRowNumber) throws SQLException {
+    if (streaming && iRowNumber < firstBufferedRow) {
+      throw new SQLException(
+          "Cannot move back to row " + iRowNumber + " on a TYPE_FORWARD_ONLY result set");
+    }
+  }
+
   public void close() throws SQLException {
     cursor = 0;
     rowCount = 0;
     records = null;
+    if (oResultSet != null) {
+      oResultSet.close();
+      oResultSet = null;
+    }
   }
 
   public boolean first() throws SQLException {
@@ -210,6 +277,9 @@ public class OrientJdbcResultSet implements ResultSet {
   }
 
   public boolean last() throws SQLException {
+    while (oResultSet != null) {
+      fetchNextBatch();
+    }
     return absolute(rowCount - 1);
   }
 
@@ -222,11 +292,15 @@ public class OrientJdbcResultSet implements ResultSet {
   }
 
   public void afterLast() throws SQLException {
+    while (oResultSet != null) {
+      fetchNextBatch();
+    }
     // OUT OF LAST ITEM
     cursor = rowCount;
   }
 
   public void beforeFirst() throws SQLException {
+    checkCanMoveTo(0);
     // OUT OF FIRST ITEM
     cursor = -1;
   }
@@ -236,6 +310,10 @@ public class OrientJdbcResultSet implements ResultSet {
   }
 
   public boolean absolute(int iRowNumber) throws SQLException {
+    checkCanMoveTo(Math.max(iRowNumber, 0));
+    while (iRowNumber > rowCount - 1 && oResultSet != null) {
+      fetchNextBatch();
+    }
     if (iRowNumber > rowCount - 1) {
       // OUT OF LAST ITEM
       cursor = rowCount;
@@ -247,11 +325,14 @@ public class OrientJdbcResultSet implements ResultSet {
     }
 
     cursor = iRowNumber;
-    result = records.get(cursor);
+    result = records.get(cursor - firstBufferedRow);
     return true;
   }
 
   public boolean isAfterLast() throws SQLException {
+    if (streaming) {
+      return oResultSet == null && cursor >= rowCount;
+    }
     return cursor >= rowCount - 1;
   }
 
@@ -268,6 +349,13 @@ public class OrientJdbcResultSet implements ResultSet {
   }
 
   public boolean isLast() throws SQLException {
+    if (cursor >= 0 && cursor == rowCount - 1 && oResultSet != null) {
+      // the current row is the last one of the batch, look for one more
+      fetchNextBatch();
+      // keep the current row available
+      records.add(0, result);
+      firstBufferedRow--;
+    }
     return cursor == rowCount - 1;
   }
 
@@ -603,10 +691,21 @@ public class OrientJdbcResultSet implements ResultSet {
   public void setFetchDirection(int direction) throws SQLException {}
 
   public int getFetchSize() throws SQLException {
+    if (streaming && fetchSize > 0) {
+      return fetchSize;
+    }
     return rowCount;
   }
 
-  public void setFetchSize(int rows) throws SQLException {}
+  public void setFetchSize(int rows) throws SQLException {
+    if (rows < 0) {
+      throw new SQLException("The fetch size cannot be negative: " + rows);
+    }
+    if (streaming && rows > 0) {
+      fetchSize = rows;
+      batchSize = rows;
+    }
+  }
 
   public float getFloat(int columnIndex) throws SQLException {
 
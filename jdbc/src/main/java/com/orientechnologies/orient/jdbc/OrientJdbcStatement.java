@@ -25,6 +25,7 @@ import com.orientechnologies.orient.core.sql.executor.OInternalResultSet;
 import com.orientechnologies.orient.core.sql.executor.OResult;
 import com.orientechnologies.orient.core.sql.executor.OResultInternal;
 import com.orientechnologies.orient.core.sql.executor.OResultSet;
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -32,9 +33,12 @@ import java.sql.SQLSyntaxErrorException;
 import java.sql.SQLWarning;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.stream.Collectors;
 
 /**
  * @author Roberto Franchini (CELI Srl - franchini@celi.it)
@@ -45,6 +49,8 @@ public class OrientJdbcStatement implements Statement {
   protected final OrientJdbcConnection connection;
   protected final ODatabaseDocument database;
   protected final List<String> batches;
+  /** the parameters of each statement in {@link #batches} */
+  protected final List<Object[]> batchParameters;
   protected final int resultSetType;
   protected final int resultSetConcurrency;
   protected final int resultSetHoldability;
@@ -53,6 +59,7 @@ public class OrientJdbcStatement implements Statement {
   protected String sql;
   //  protected       List<ODocument>      documents;
   protected boolean closed;
+  protected int fetchSize = 0;
   protected OResultSet oResultSet;
   protected OrientJdbcResultSet resultSet;
 
@@ -91,6 +98,7 @@ public class OrientJdbcStatement implements Statement {
     database.activateOnCurrentThread();
     //    documents = emptyList();
     batches = new ArrayList<>();
+    batchParameters = new ArrayList<>();
     this.resultSetType = resultSetType;
     this.resultSetConcurrency = resultSetConcurrency;
     this.resultSetHoldability = resultSetHoldability;
@@ -197,23 +205,126 @@ public class OrientJdbcStatement implements Statement {
 
   public void addBatch(final String sql) throws SQLException {
     batches.add(sql);
+    batchParameters.add(new Object[0]);
   }
 
   public void cancel() throws SQLException {}
 
   public void clearBatch() throws SQLException {
     batches.clear();
+    batchParameters.clear();
   }
 
   public void clearWarnings() throws SQLException {}
 
+  /**
+   * Executes the consecutive DML statements of the batch as a single SQL script, in a single
+   * transaction if there is no transaction active yet. Other statements, eg. schema changes, are
+   * executed one by one. The update count of each statement is calculated as in {@link
+   * #executeUpdate(String)}.
+   *
+   * <p>If a statement fails, the {@link BatchUpdateException} contains the update counts of the
+   * statements executed before the script or the statement which failed.
+   */
   public int[] executeBatch() throws SQLException {
-    int[] results = new int[batches.size()];
-    int i = 0;
-    for (String sql : batches) {
-      results[i++] = executeUpdate(sql);
+    final int[] results = new int[batches.size()];
+    int from = 0;
+    try {
+      database.activateOnCurrentThread();
+      while (from < batches.size()) {
+        int to = from;
+        while (to < batches.size() && isDataManipulation(batches.get(to))) {
+          to++;
+        }
+        if (to > from) {
+          executeBatchScript(from, to, results);
+          from = to;
+        } else {
+          try (OResultSet rs = database.command(batches.get(from), batchParameters.get(from))) {
+            results[from] =
+                toUpdateCount(
+                    rs.stream().map(x -> x.getProperty("count")).collect(Collectors.toList()));
+          }
+          from++;
+        }
+      }
+      return results;
+    } catch (OException e) {
+      throw new BatchUpdateException(
+          "Error while executing batch", Arrays.copyOf(results, from), e);
+    } finally {
+      clearBatch();
+    }
+  }
+
+  private void executeBatchScript(int from, int to, int[] results) {
+    final boolean newTransaction = !database.getTransaction().isActive();
+    final StringBuilder script = new StringBuilder();
+    final List<Object> args = new ArrayList<>();
+    if (newTransaction) {
+      script.append("BEGIN;\n");
+    }
+    for (int i = from; i < to; i++) {
+      script.append("LET $batch").append(i).append(" = ");
+      script.append(trimSemicolons(batches.get(i))).append(";\n");
+      args.addAll(Arrays.asList(batchParameters.get(i)));
+    }
+    if (newTransaction) {
+      script.append("COMMIT;\n");
+    }
+    script.append("RETURN [");
+    for (int i = from; i < to; i++) {
+      if (i > from) {
+        script.append(", ");
+      }
+      script.append("$batch").append(i).append(".`count`");
+    }
+    script.append("];");
+
+    try (OResultSet rs = database.execute("sql", script.toString(), args.toArray())) {
+      final List<?> counts = rs.hasNext() ? rs.next().getProperty("value") : null;
+      for (int i = from; i < to; i++) {
+        results[i] = counts == null ? 0 : toUpdateCount((List<?>) counts.get(i - from));
+      }
+    } catch (OException e) {
+      if (newTransaction && database.getTransaction().isActive()) {
+        database.rollback();
+      }
+      throw e;
     }
-    return results;
+  }
+
+  private static String trimSemicolons(String command) {
+    command = command.trim();
+    while (command.endsWith(";")) {
+      command = command.substring(0, command.length() - 1).trim();
+    }
+    return command;
+  }
+
+  /** true if the command only changes records, so that it can be executed in a transaction */
+  private static boolean isDataManipulation(String command) {
+    final String[] words = command.trim().split("\\s+", 3);
+    final String first = words[0].toUpperCase(Locale.ENGLISH);
+    if (first.equals("INSERT") || first.equals("UPDATE") || first.equals("DELETE")) {
+      return true;
+    }
+    if (words.length > 1 && first.equals("CREATE")) {
+      final String second = words[1].toUpperCase(Locale.ENGLISH);
+      return second.equals("VERTEX") || second.equals("EDGE");
+    }
+    return false;
+  }
+
+  /** @param counts the <code>count</code> property of each result of a command */
+  private static int toUpdateCount(List<?> counts) {
+    if (counts == null || counts.isEmpty()) {
+      return 0;
+    }
+    if (counts.get(0) instanceof Number) {
+      return Math.toIntExact(((Number) counts.get(0)).longValue());
+    }
+    return 1;
   }
 
   public int getFetchDirection() throws SQLException {
@@ -225,10 +336,21 @@ public class OrientJdbcStatement implements Statement {
 
   public int getFetchSize() throws SQLException {
 
-    return 0;
+    return fetchSize;
   }
 
-  public void setFetchSize(final int rows) throws SQLException {}
+  /**
+   * Sets the number of rows read at a time by the {@link ResultSet#TYPE_FORWARD_ONLY} result sets
+   * of this statement. With the default value 0 they read {@link
+   * com.orientechnologies.orient.core.config.OGlobalConfiguration#QUERY_REMOTE_RESULTSET_PAGE_SIZE}
+   * rows at a time.
+   */
+  public void setFetchSize(final int rows) throws SQLException {
+    if (rows < 0) {
+      throw new SQLException("The fetch size cannot be negative: " + rows);
+    }
+    fetchSize = rows;
+  }
 
   public ResultSet getGeneratedKeys() throws SQLException {
 
@@ -200,4 +200,30 @@ public class OrientJdbcPreparedStatementTest extends OrientJdbcDbPerMethodTempla
     stmt.setString(1, "theSequence");
     stmt.executeQuery();
   }
+
+  @Test
+  public void shouldExecuteBatchOfParameterSets() throws Exception {
+    conn.createStatement().executeQuery("CREATE CLASS Batched ");
+
+    PreparedStatement insert =
+        conn.prepareStatement("INSERT INTO Batched (id, name) VALUES (?, ?)");
+    for (int i = 0; i < 10; i++) {
+      insert.setInt(1, i);
+      insert.setString(2, "name" + i);
+      insert.addBatch();
+    }
+    assertThat(insert.executeBatch()).containsExactly(1, 1, 1, 1, 1, 1, 1, 1, 1, 1);
+
+    PreparedStatement update = conn.prepareStatement("UPDATE Batched SET done = true WHERE id < ?");
+    update.setInt(1, 3);
+    update.addBatch();
+    update.setInt(1, 100);
+    update.addBatch();
+    assertThat(update.executeBatch()).containsExactly(3, 10);
+
+    ResultSet rs =
+        conn.createStatement().executeQuery("SELECT count(*) as count FROM Batched WHERE done");
+    assertThat(rs.next()).isTrue();
+    assertThat(rs.getLong("count")).isEqualTo(10);
+  }
 }
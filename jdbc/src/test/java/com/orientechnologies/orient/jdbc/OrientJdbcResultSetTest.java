@@ -17,11 +17,14 @@ package com.orientechnologies.orient.jdbc;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import java.sql.Array;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Types;
+import org.junit.Assert;
 import org.junit.Test;
 
 public class OrientJdbcResultSetTest extends OrientJdbcDbPerMethodTemplateTest {
@@ -255,4 +258,66 @@ public class OrientJdbcResultSetTest extends OrientJdbcDbPerMethodTemplateTest {
       assertThat(names).isSubsetOf(expectedNamee);
     }
   }
+
+  @Test
+  public void shouldStreamResultSetWithFetchSize() throws Exception {
+
+    Statement stmt = conn.createStatement();
+    stmt.setFetchSize(3);
+    ResultSet rs = stmt.executeQuery("SELECT * FROM Item");
+    assertThat(rs.getFetchSize()).isEqualTo(3);
+
+    int rows = 0;
+    while (rs.next()) {
+      assertThat(rs.getRow()).isEqualTo(rows);
+      assertThat(rs.getString("stringKey")).isNotNull();
+      assertThat(rs.isLast()).isEqualTo(rows == 19);
+      rows++;
+    }
+    assertThat(rows).isEqualTo(20);
+    assertThat(rs.isAfterLast()).isTrue();
+
+    try {
+      rs.first();
+      Assert.fail();
+    } catch (SQLException e) {
+      // forward only
+    }
+    rs.close();
+
+    stmt = conn.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+    stmt.setFetchSize(3);
+    rs = stmt.executeQuery("SELECT * FROM Item");
+    assertThat(rs.last()).isTrue();
+    assertThat(rs.getRow()).isEqualTo(19);
+    assertThat(rs.first()).isTrue();
+  }
+
+  @Test
+  public void shouldStreamForwardOnlyResultSetByDefault() throws Exception {
+    final int pageSize = OGlobalConfiguration.QUERY_REMOTE_RESULTSET_PAGE_SIZE.getValueAsInteger();
+    OGlobalConfiguration.QUERY_REMOTE_RESULTSET_PAGE_SIZE.setValue(5);
+    try {
+      Statement stmt = conn.createStatement();
+      ResultSet rs = stmt.executeQuery("SELECT * FROM Item");
+
+      int rows = 0;
+      while (rs.next()) {
+        assertThat(rs.getRow()).isEqualTo(rows);
+        rows++;
+      }
+      assertThat(rows).isEqualTo(20);
+      assertThat(rs.getFetchSize()).isEqualTo(20);
+
+      try {
+        rs.first();
+        Assert.fail();
+      } catch (SQLException e) {
+        // the first batch is not kept
+      }
+      rs.close();
+    } finally {
+      OGlobalConfiguration.QUERY_REMOTE_RESULTSET_PAGE_SIZE.setValue(pageSize);
+    }
+  }
 }
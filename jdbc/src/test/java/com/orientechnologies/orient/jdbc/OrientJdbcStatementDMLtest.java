@@ -21,10 +21,12 @@ import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
 import com.orientechnologies.orient.core.metadata.schema.OClass;
 import com.orientechnologies.orient.core.metadata.schema.OType;
 import java.io.IOException;
+import java.sql.BatchUpdateException;
 import java.sql.Date;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import org.junit.Assert;
 import org.junit.Test;
 
 public class OrientJdbcStatementDMLtest extends OrientJdbcDbPerMethodTemplateTest {
@@ -128,4 +130,29 @@ public class OrientJdbcStatementDMLtest extends OrientJdbcDbPerMethodTemplateTes
     assertThat(account.getProperty("birthDate").getType()).isEqualTo(OType.DATE);
     assertThat(account.getProperty("binary").getType()).isEqualTo(OType.BINARY);
   }
+
+  @Test
+  public void shouldReportUpdateCountsOfBatchFailedPartway() throws Exception {
+
+    Statement stmt = conn.createStatement();
+
+    stmt.addBatch("UPDATE Item set text = 'UPDATED' WHERE intKey = '10'");
+    stmt.addBatch("DELETE FROM Item WHERE intKey = '11'");
+    stmt.addBatch("CREATE CLASS Item");
+    stmt.addBatch("DELETE FROM Item WHERE intKey = '12'");
+    try {
+      stmt.executeBatch();
+      Assert.fail();
+    } catch (BatchUpdateException e) {
+      assertThat(e.getUpdateCounts()).containsExactly(1, 1);
+    }
+    stmt.close();
+
+    stmt = conn.createStatement();
+    ResultSet rs = stmt.executeQuery("SELECT text FROM Item where intKey = '10' ");
+    assertThat(rs.next()).isTrue();
+    assertThat(rs.getString("text")).isEqualTo("UPDATED");
+    rs = stmt.executeQuery("SELECT FROM Item where intKey = '12' ");
+    assertThat(rs.next()).isTrue();
+  }
 }
@@ -1,9 +1,11 @@
 package com.orientechnologies.lucene.engine;
 
 import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.lucene.storage.OLuceneStorageDirectory;
 import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
 import com.orientechnologies.orient.core.db.ODatabaseType;
 import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.storage.impl.local.OAbstractPaginatedStorage;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -22,6 +24,7 @@ public class OLuceneDirectoryFactory {
   public static final String DIRECTORY_NIO = "nio";
   public static final String DIRECTORY_MMAP = "mmap";
   public static final String DIRECTORY_RAM = "ram";
+  public static final String DIRECTORY_STORAGE = "storage";
 
   public static final String DIRECTORY_PATH = "directory_path";
 
@@ -44,6 +47,19 @@ public class OLuceneDirectoryFactory {
       final String indexName,
       final ODocument metadata,
       final String luceneType) {
+    if (DIRECTORY_STORAGE.equals(luceneType)) {
+      try {
+        final OAbstractPaginatedStorage storage =
+            (OAbstractPaginatedStorage) database.getStorage().getUnderlying();
+        return new OLuceneDirectory(new OLuceneStorageDirectory(storage, indexName), null);
+      } catch (final IOException e) {
+        OLogManager.instance()
+            .error(this, "unable to create Lucene Directory with type " + luceneType, e);
+      }
+      OLogManager.instance().warn(this, "unable to create Lucene Directory, FALL BACK to ramDir");
+      return new OLuceneDirectory(new RAMDirectory(), null);
+    }
+
     final String luceneBasePath;
     if (metadata.containsField(DIRECTORY_PATH)) {
       luceneBasePath = metadata.<String>field(DIRECTORY_PATH);
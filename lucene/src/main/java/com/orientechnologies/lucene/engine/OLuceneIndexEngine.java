@@ -63,4 +63,13 @@ public interface OLuceneIndexEngine extends OIndexEngine, OFreezableStorageCompo
   Query deleteQuery(Object key, OIdentifiable value);
 
   boolean isCollectionIndex();
+
+  /**
+   * Called after the commit of a transaction that changed the index, once its atomic operation is
+   * over. An index stored in the database commits its changes here, in atomic operations of its
+   * own, if no other transaction committed them in the meantime. A crash between the two commits
+   * loses the changes of the index which are not committed yet, as for an index stored on the file
+   * system.
+   */
+  void flushTx();
 }
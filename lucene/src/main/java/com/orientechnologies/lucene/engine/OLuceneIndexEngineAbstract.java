@@ -29,6 +29,7 @@ import com.orientechnologies.lucene.analyzer.OLuceneAnalyzerFactory;
 import com.orientechnologies.lucene.builder.OLuceneIndexType;
 import com.orientechnologies.lucene.exception.OLuceneIndexException;
 import com.orientechnologies.lucene.query.OLuceneQueryContext;
+import com.orientechnologies.lucene.storage.OLuceneStorageDirectory;
 import com.orientechnologies.lucene.tx.OLuceneTxChanges;
 import com.orientechnologies.lucene.tx.OLuceneTxChangesMultiRid;
 import com.orientechnologies.lucene.tx.OLuceneTxChangesSingleRid;
@@ -348,6 +349,21 @@ public abstract class OLuceneIndexEngineAbstract extends OSharedResourceAdaptive
     }
   }
 
+  @Override
+  public void flushTx() {
+    if (directory == null || !(directory.getDirectory() instanceof OLuceneStorageDirectory)) return;
+
+    try {
+      // THE TRANSACTIONS COMMITTED CONCURRENTLY SHARE THE SAME COMMIT OF THE INDEX
+      if (!closed.get()
+          && indexWriter != null
+          && indexWriter.isOpen()
+          && indexWriter.hasUncommittedChanges()) indexWriter.commit();
+    } catch (Exception e) {
+      OLogManager.instance().error(this, "Error on flushing Lucene index", e);
+    }
+  }
+
   @Override
   public void create(
       OAtomicOperation atomicOperation,
@@ -192,6 +192,23 @@ public class OLuceneIndexNotUnique extends OIndexAbstract implements OLuceneInde
       }
   }
 
+  @Override
+  public void postCommit(final IndexTxSnapshot snapshots) {
+    while (true)
+      try {
+        storage.callIndexEngine(
+            false,
+            indexId,
+            engine -> {
+              ((OLuceneIndexEngine) engine).flushTx();
+              return null;
+            });
+        break;
+      } catch (OInvalidIndexEngineIdException e) {
+        doReloadIndexEngine();
+      }
+  }
+
   public OLuceneIndexNotUnique delete() {
     acquireExclusiveLock();
 
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.orientechnologies.lucene.storage;
+
+import com.orientechnologies.common.serialization.types.OIntegerSerializer;
+import com.orientechnologies.common.serialization.types.OLongSerializer;
+import com.orientechnologies.orient.core.storage.cache.OCacheEntry;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.base.ODurablePage;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Page of a Lucene file kept in the storage. The first page of the file only contains the name of
+ * the Lucene file and its length, the following ones contain the content of the file.
+ */
+final class OLuceneFilePage extends ODurablePage {
+  private static final int LENGTH_OFFSET = NEXT_FREE_POSITION;
+  private static final int NAME_OFFSET = LENGTH_OFFSET + OLongSerializer.LONG_SIZE;
+
+  private static final int DATA_OFFSET = NEXT_FREE_POSITION;
+  static final int DATA_SIZE = MAX_PAGE_SIZE_BYTES - DATA_OFFSET;
+
+  OLuceneFilePage(final OCacheEntry cacheEntry) {
+    super(cacheEntry);
+  }
+
+  long getLength() {
+    return getLongValue(LENGTH_OFFSET);
+  }
+
+  void setLength(final long length) {
+    setLongValue(LENGTH_OFFSET, length);
+  }
+
+  String getName() {
+    final int size = getIntValue(NAME_OFFSET);
+    return new String(
+        getBinaryValue(NAME_OFFSET + OIntegerSerializer.INT_SIZE, size), StandardCharsets.UTF_8);
+  }
+
+  void setName(final String name) {
+    final byte[] value = name.getBytes(StandardCharsets.UTF_8);
+    setIntValue(NAME_OFFSET, value.length);
+    setBinaryValue(NAME_OFFSET + OIntegerSerializer.INT_SIZE, value);
+  }
+
+  byte[] read(final int position, final int size) {
+    return getBinaryValue(DATA_OFFSET + position, size);
+  }
+
+  void write(final int position, final byte[] value) {
+    setBinaryValue(DATA_OFFSET + position, value);
+  }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.orientechnologies.lucene.storage;
+
+import com.orientechnologies.orient.core.storage.impl.local.OAbstractPaginatedStorage;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.OWriteAheadLog;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.NoSuchFileException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.lucene.index.IndexFileNames;
+import org.apache.lucene.store.BaseDirectory;
+import org.apache.lucene.store.BufferedIndexInput;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.store.IndexOutput;
+import org.apache.lucene.store.OutputStreamIndexOutput;
+import org.apache.lucene.store.SingleInstanceLockFactory;
+
+/**
+ * Lucene directory kept in the storage of the database instead of a folder of its own. Every Lucene
+ * file is a {@link OLuceneStorageFile} named after the index, so the index shares the disk cache of
+ * the database, it's logged in the WAL, restored after a crash and included in the backups.
+ */
+public class OLuceneStorageDirectory extends BaseDirectory {
+  // EVERY FLUSH OF THE BUFFER IS AN ATOMIC OPERATION: A LARGE BUFFER KEEPS THEM FEW
+  private static final int BUFFER_SIZE = 16 * OLuceneFilePage.DATA_SIZE;
+
+  private final OAbstractPaginatedStorage storage;
+  private final String prefix;
+  private final Map<String, OLuceneStorageFile> files = new ConcurrentHashMap<>();
+  private final AtomicLong nextFile = new AtomicLong();
+  private final AtomicLong nextTempFile = new AtomicLong();
+
+  public OLuceneStorageDirectory(final OAbstractPaginatedStorage storage, final String indexName)
+      throws IOException {
+    super(new SingleInstanceLockFactory());
+    this.storage = storage;
+    this.prefix = indexName + ".";
+
+    long lastFile = -1;
+    for (String storageFile : storage.getWriteCache().files().keySet()) {
+      final long number = fileNumber(storageFile);
+      if (number < 0) continue;
+
+      final OLuceneStorageFile file = new OLuceneStorageFile(storage, prefix + number);
+      file.open();
+      files.put(file.getFileName(), file);
+      lastFile = Math.max(lastFile, number);
+    }
+    nextFile.set(lastFile + 1);
+  }
+
+  private long fileNumber(final String storageFile) {
+    if (!storageFile.startsWith(prefix) || !storageFile.endsWith(OLuceneStorageFile.EXTENSION))
+      return -1;
+
+    final String number =
+        storageFile.substring(
+            prefix.length(), storageFile.length() - OLuceneStorageFile.EXTENSION.length());
+    if (number.isEmpty()) return -1;
+    for (int i = 0; i < number.length(); i++) if (!Character.isDigit(number.charAt(i))) return -1;
+    return Long.parseLong(number);
+  }
+
+  private OLuceneStorageFile getFile(final String name) throws NoSuchFileException {
+    final OLuceneStorageFile file = files.get(name);
+    if (file == null) throw new NoSuchFileException(name);
+    return file;
+  }
+
+  @Override
+  public String[] listAll() {
+    ensureOpen();
+    final String[] names = files.keySet().toArray(new String[0]);
+    Arrays.sort(names);
+    return names;
+  }
+
+  @Override
+  public void deleteFile(final String name) throws IOException {
+    ensureOpen();
+    getFile(name).delete();
+    files.remove(name);
+  }
+
+  @Override
+  public long fileLength(final String name) throws IOException {
+    ensureOpen();
+    return getFile(name).getLength();
+  }
+
+  @Override
+  public IndexOutput createOutput(final String name, final IOContext context) throws IOException {
+    ensureOpen();
+    final OLuceneStorageFile file =
+        new OLuceneStorageFile(storage, prefix + nextFile.getAndIncrement());
+    if (files.putIfAbsent(name, file) != null) throw new FileAlreadyExistsException(name);
+
+    try {
+      file.create(name);
+    } catch (IOException | RuntimeException e) {
+      files.remove(name, file);
+      throw e;
+    }
+
+    return new OutputStreamIndexOutput(
+        "OLuceneStorageDirectory(name=\"" + name + "\")",
+        name,
+        new OutputStream() {
+          @Override
+          public void write(final int b) throws IOException {
+            file.append(new byte[] {(byte) b}, 0, 1);
+          }
+
+          @Override
+          public void write(final byte[] b, final int off, final int len) throws IOException {
+            file.append(b, off, len);
+          }
+        },
+        BUFFER_SIZE);
+  }
+
+  @Override
+  public IndexOutput createTempOutput(
+      final String prefix, final String suffix, final IOContext context) throws IOException {
+    ensureOpen();
+    while (true) {
+      final String name =
+          IndexFileNames.segmentFileName(
+              prefix,
+              suffix + "_" + Long.toString(nextTempFile.getAndIncrement(), Character.MAX_RADIX),
+              "tmp");
+      if (!files.containsKey(name)) return createOutput(name, context);
+    }
+  }
+
+  @Override
+  public void sync(final Collection<String> names) {
+    ensureOpen();
+    flushWAL();
+  }
+
+  @Override
+  public void syncMetaData() {
+    ensureOpen();
+    flushWAL();
+  }
+
+  private void flushWAL() {
+    // THE FILES ARE DURABLE AS SOON AS THE OPERATIONS THAT WROTE THEM ARE IN THE WAL
+    final OWriteAheadLog writeAheadLog = storage.getWALInstance();
+    if (writeAheadLog != null) writeAheadLog.flush();
+  }
+
+  @Override
+  public void rename(final String source, final String dest) throws IOException {
+    ensureOpen();
+    final OLuceneStorageFile file = getFile(source);
+    if (files.putIfAbsent(dest, file) != null) throw new FileAlreadyExistsException(dest);
+
+    try {
+      file.rename(dest);
+    } catch (IOException | RuntimeException e) {
+      files.remove(dest, file);
+      throw e;
+    }
+    files.remove(source, file);
+  }
+
+  @Override
+  public IndexInput openInput(final String name, final IOContext context) throws IOException {
+    ensureOpen();
+    final OLuceneStorageFile file = getFile(name);
+    return new StorageIndexInput(
+        "OLuceneStorageDirectory(name=\"" + name + "\")",
+        file,
+        0,
+        file.getLength(),
+        BufferedIndexInput.bufferSize(context));
+  }
+
+  public Set<String> getPendingDeletions() {
+    return Collections.emptySet();
+  }
+
+  @Override
+  public void close() {
+    // THE FILES BELONG TO THE STORAGE, THAT CLOSES THEM TOGETHER WITH THE OTHER ONES
+    isOpen = false;
+  }
+
+  @Override
+  public String toString() {
+    return "OLuceneStorageDirectory(" + prefix + "*" + OLuceneStorageFile.EXTENSION + ")";
+  }
+
+  private static final class StorageIndexInput extends BufferedIndexInput {
+    private final OLuceneStorageFile file;
+    private final long offset;
+    private final long length;
+
+    private StorageIndexInput(
+        final String resourceDescription,
+        final OLuceneStorageFile file,
+        final long offset,
+        final long length,
+        final int bufferSize) {
+      super(resourceDescription, bufferSize);
+      this.file = file;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    @Override
+    protected void readInternal(final byte[] b, final int off, final int len) throws IOException {
+      final long position = getFilePointer();
+      if (position + len > length) throw new EOFException("read past EOF: " + this);
+      file.read(offset + position, b, off, len);
+    }
+
+    @Override
+    protected void seekInternal(final long pos) {}
+
+    @Override
+    public void close() {}
+
+    @Override
+    public long length() {
+      return length;
+    }
+
+    @Override
+    public IndexInput slice(
+        final String sliceDescription, final long sliceOffset, final long sliceLength) {
+      if (sliceOffset < 0 || sliceLength < 0 || sliceOffset + sliceLength > length)
+        throw new IllegalArgumentException(
+            "slice() " + sliceDescription + " out of bounds: " + this);
+
+      return new StorageIndexInput(
+          getFullSliceDescription(sliceDescription),
+          file,
+          offset + sliceOffset,
+          sliceLength,
+          getBufferSize());
+    }
+  }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.orientechnologies.lucene.storage;
+
+import com.orientechnologies.common.concur.lock.OInterruptedException;
+import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.common.function.TxConsumer;
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.exception.OStorageException;
+import com.orientechnologies.orient.core.storage.cache.OCacheEntry;
+import com.orientechnologies.orient.core.storage.impl.local.OAbstractPaginatedStorage;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.atomicoperations.OAtomicOperationsManager;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.base.ODurableComponent;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Lucene file kept in a file of the storage. Pages are read through the read cache and every change
+ * is done inside an atomic operation, so it's logged in the WAL and restored after a crash. Lucene
+ * files are written once and then only read, renamed or deleted.
+ */
+public final class OLuceneStorageFile extends ODurableComponent {
+  public static final String EXTENSION = ".luc";
+
+  private volatile long fileId;
+  private volatile String fileName;
+  private volatile long length;
+
+  OLuceneStorageFile(final OAbstractPaginatedStorage storage, final String name) {
+    super(storage, name, EXTENSION, name + EXTENSION);
+  }
+
+  void create(final String fileName) throws IOException {
+    executeInOperation(
+        atomicOperation -> {
+          fileId = addFile(atomicOperation, getFullName());
+          final OCacheEntry cacheEntry = addPage(atomicOperation, fileId);
+          try {
+            final OLuceneFilePage header = new OLuceneFilePage(cacheEntry);
+            header.setName(fileName);
+            header.setLength(0);
+          } finally {
+            releasePageFromWrite(atomicOperation, cacheEntry);
+          }
+        });
+    this.fileName = fileName;
+    this.length = 0;
+  }
+
+  void open() throws IOException {
+    fileId = openFile(null, getFullName());
+    final OCacheEntry cacheEntry = loadPageForRead(null, fileId, 0, false);
+    try {
+      final OLuceneFilePage header = new OLuceneFilePage(cacheEntry);
+      fileName = header.getName();
+      length = header.getLength();
+    } finally {
+      releasePageFromRead(null, cacheEntry);
+    }
+  }
+
+  /** Name of the Lucene file, it's kept inside the file so renaming it is an atomic operation. */
+  public String getFileName() {
+    return fileName;
+  }
+
+  public long getLength() {
+    return length;
+  }
+
+  void append(final byte[] buffer, final int offset, final int size) throws IOException {
+    executeInOperation(
+        atomicOperation -> {
+          long position = length;
+          int written = 0;
+          while (written < size) {
+            final long pageIndex = position / OLuceneFilePage.DATA_SIZE + 1;
+            final int pagePosition = (int) (position % OLuceneFilePage.DATA_SIZE);
+            final int chunk = Math.min(size - written, OLuceneFilePage.DATA_SIZE - pagePosition);
+
+            final OCacheEntry cacheEntry;
+            if (pageIndex < getFilledUpTo(atomicOperation, fileId)) {
+              cacheEntry = loadPageForWrite(atomicOperation, fileId, pageIndex, false, true);
+            } else {
+              cacheEntry = addPage(atomicOperation, fileId);
+            }
+            try {
+              new OLuceneFilePage(cacheEntry)
+                  .write(
+                      pagePosition,
+                      Arrays.copyOfRange(buffer, offset + written, offset + written + chunk));
+            } finally {
+              releasePageFromWrite(atomicOperation, cacheEntry);
+            }
+
+            position += chunk;
+            written += chunk;
+          }
+
+          final OCacheEntry cacheEntry = loadPageForWrite(atomicOperation, fileId, 0, false, true);
+          try {
+            new OLuceneFilePage(cacheEntry).setLength(position);
+          } finally {
+            releasePageFromWrite(atomicOperation, cacheEntry);
+          }
+          length = position;
+        });
+  }
+
+  void read(final long position, final byte[] buffer, final int offset, final int size)
+      throws IOException {
+    long current = position;
+    int read = 0;
+    while (read < size) {
+      final long pageIndex = current / OLuceneFilePage.DATA_SIZE + 1;
+      final int pagePosition = (int) (current % OLuceneFilePage.DATA_SIZE);
+      final int chunk = Math.min(size - read, OLuceneFilePage.DATA_SIZE - pagePosition);
+
+      final OCacheEntry cacheEntry = loadPageForRead(null, fileId, pageIndex, false);
+      try {
+        final byte[] data = new OLuceneFilePage(cacheEntry).read(pagePosition, chunk);
+        System.arraycopy(data, 0, buffer, offset + read, chunk);
+      } finally {
+        releasePageFromRead(null, cacheEntry);
+      }
+
+      current += chunk;
+      read += chunk;
+    }
+  }
+
+  void rename(final String newFileName) throws IOException {
+    executeInOperation(
+        atomicOperation -> {
+          final OCacheEntry cacheEntry = loadPageForWrite(atomicOperation, fileId, 0, false, true);
+          try {
+            new OLuceneFilePage(cacheEntry).setName(newFileName);
+          } finally {
+            releasePageFromWrite(atomicOperation, cacheEntry);
+          }
+        });
+    fileName = newFileName;
+  }
+
+  void delete() throws IOException {
+    executeInOperation(atomicOperation -> deleteFile(atomicOperation, fileId));
+  }
+
+  private void executeInOperation(final TxConsumer consumer) throws IOException {
+    if (OAtomicOperationsManager.getCurrentOperation() == null) {
+      atomicOperationsManager.executeInsideAtomicOperation(
+          null, atomicOperation -> executeInsideComponentOperation(atomicOperation, consumer));
+      return;
+    }
+
+    // LUCENE CAN WRITE WHILE THE CURRENT THREAD IS IN THE MIDDLE OF A TRANSACTION: THE FILE IS
+    // WRITTEN IN AN ATOMIC OPERATION OF ITS OWN, SO THE OTHER THREADS OF LUCENE CAN READ IT AS SOON
+    // AS IT'S CLOSED AND IT DOESN'T DEPEND ON THE OUTCOME OF THE TRANSACTION. THE OPERATION OF
+    // THE HELPER THREAD IS NESTED IN THE ONE OF THE CURRENT THREAD: A BACKUP FREEZING THE ATOMIC
+    // OPERATIONS WAITS FOR THE TRANSACTION, SO THE HELPER THREAD MUST NOT WAIT FOR THE BACKUP
+    final Future<Void> future =
+        Orient.instance()
+            .submit(
+                () -> {
+                  atomicOperationsManager.executeInsideNestedAtomicOperation(
+                      null,
+                      atomicOperation ->
+                          executeInsideComponentOperation(atomicOperation, consumer));
+                  return null;
+                });
+    try {
+      future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw OException.wrapException(
+          new OInterruptedException("Interrupted while writing Lucene file " + fileName), e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+      if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+      throw OException.wrapException(
+          new OStorageException("Error on writing Lucene file " + fileName), e.getCause());
+    }
+  }
+}
@@ -331,6 +331,11 @@ public class OLuceneSpatialIndexEngineDelegator
     return delegate.isCollectionIndex();
   }
 
+  @Override
+  public void flushTx() {
+    delegate.flushTx();
+  }
+
   @Override
   public void freeze(boolean throwException) {
     delegate.freeze(throwException);
@@ -3,10 +3,12 @@ package com.orientechnologies.lucene.engine;
 import static com.orientechnologies.lucene.engine.OLuceneDirectoryFactory.DIRECTORY_MMAP;
 import static com.orientechnologies.lucene.engine.OLuceneDirectoryFactory.DIRECTORY_NIO;
 import static com.orientechnologies.lucene.engine.OLuceneDirectoryFactory.DIRECTORY_RAM;
+import static com.orientechnologies.lucene.engine.OLuceneDirectoryFactory.DIRECTORY_STORAGE;
 import static com.orientechnologies.lucene.engine.OLuceneDirectoryFactory.DIRECTORY_TYPE;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
 
+import com.orientechnologies.lucene.storage.OLuceneStorageDirectory;
 import com.orientechnologies.lucene.test.BaseLuceneTest;
 import com.orientechnologies.orient.core.db.ODatabaseType;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
@@ -15,6 +17,9 @@ import com.orientechnologies.orient.core.record.impl.ODocument;
 import java.io.File;
 import java.util.Collections;
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.store.IndexOutput;
 import org.apache.lucene.store.MMapDirectory;
 import org.apache.lucene.store.NIOFSDirectory;
 import org.apache.lucene.store.RAMDirectory;
@@ -93,4 +98,38 @@ public class OLuceneDirectoryFactoryTest extends BaseLuceneTest {
     // 'DIRECTORY_RAM'.
     assertThat(directory).isInstanceOf(RAMDirectory.class);
   }
+
+  @Test
+  public void shouldCreateStorageDirectory() throws Exception {
+    meta.field(DIRECTORY_TYPE, DIRECTORY_STORAGE);
+    ODatabaseDocumentTx db =
+        dropOrCreate("plocal:./target/testDatabase/" + name.getMethodName(), true);
+    Directory directory = fc.createDirectory(db, "index.name", meta).getDirectory();
+    assertThat(directory).isInstanceOf(OLuceneStorageDirectory.class);
+    assertThat(
+            new File("./target/testDatabase/" + name.getMethodName() + "/luceneIndexes/index.name"))
+        .doesNotExist();
+
+    final byte[] content = new byte[100_000];
+    for (int i = 0; i < content.length; i++) content[i] = (byte) i;
+    try (IndexOutput output = directory.createOutput("_0.cfs", IOContext.DEFAULT)) {
+      output.writeBytes(content, content.length);
+    }
+    directory.rename("_0.cfs", "_1.cfs");
+    assertThat(directory.listAll()).containsExactly("_1.cfs");
+
+    // A NEW DIRECTORY FINDS THE FILES ALREADY IN THE STORAGE
+    directory = fc.createDirectory(db, "index.name", meta).getDirectory();
+    assertThat(directory.listAll()).containsExactly("_1.cfs");
+    assertThat(directory.fileLength("_1.cfs")).isEqualTo(content.length);
+    final byte[] read = new byte[content.length];
+    try (IndexInput input = directory.openInput("_1.cfs", IOContext.DEFAULT)) {
+      input.readBytes(read, 0, read.length);
+    }
+    assertThat(read).isEqualTo(content);
+
+    directory.deleteFile("_1.cfs");
+    assertThat(directory.listAll()).isEmpty();
+    db.drop();
+  }
 }
@@ -0,0 +1,151 @@
+package com.orientechnologies.lucene.storage;
+
+import com.orientechnologies.common.io.OFileUtils;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.ODatabaseSession;
+import com.orientechnologies.orient.core.db.ODatabaseType;
+import com.orientechnologies.orient.core.db.OrientDB;
+import com.orientechnologies.orient.core.db.OrientDBConfig;
+import com.orientechnologies.orient.core.record.OElement;
+import com.orientechnologies.orient.core.sql.executor.OResultSet;
+import com.orientechnologies.orient.core.storage.impl.local.OAbstractPaginatedStorage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Copies the files of a database with a Lucene index stored in the database while it is still
+ * open, as they are after a crash, and checks that the copy is restored from WAL with the same
+ * index, which is neither lost nor rebuilt.
+ */
+public class OLuceneStorageDirectoryCrashTest {
+  private static final String BASE_NAME = "baseLuceneStorageDirectoryCrash";
+  private static final String CRASHED_NAME = "crashedLuceneStorageDirectoryCrash";
+  private static final String INDEX_NAME = "Person.name";
+
+  private boolean fileLock;
+  private File buildDir;
+  private OrientDB orientDB;
+  private ODatabaseSession db;
+
+  @Before
+  public void before() {
+    fileLock = OGlobalConfiguration.FILE_LOCK.getValueAsBoolean();
+    OGlobalConfiguration.FILE_LOCK.setValue(false);
+
+    buildDir = new File("./target/luceneStorageDirectoryCrash");
+    if (buildDir.exists()) {
+      OFileUtils.deleteRecursively(buildDir);
+    }
+    Assert.assertTrue(buildDir.mkdirs());
+
+    orientDB =
+        new OrientDB("embedded:" + buildDir.getAbsolutePath(), OrientDBConfig.defaultConfig());
+    orientDB.create(BASE_NAME, ODatabaseType.PLOCAL);
+    db = orientDB.open(BASE_NAME, "admin", "admin");
+
+    db.command("create class Person").close();
+    db.command("create property Person.name STRING").close();
+    db.command(
+            "create index "
+                + INDEX_NAME
+                + " on Person(name) FULLTEXT ENGINE LUCENE METADATA {'directory_type':'storage'}")
+        .close();
+  }
+
+  @After
+  public void after() {
+    db.activateOnCurrentThread();
+    db.close();
+    orientDB.drop(BASE_NAME);
+    if (orientDB.exists(CRASHED_NAME)) {
+      orientDB.drop(CRASHED_NAME);
+    }
+    orientDB.close();
+    OFileUtils.deleteRecursively(buildDir);
+    OGlobalConfiguration.FILE_LOCK.setValue(fileLock);
+  }
+
+  @Test
+  public void testIndexIsRestoredWithoutRebuild() throws IOException {
+    // EVERY TRANSACTION COMMITS A NEW GENERATION OF THE INDEX
+    for (int tx = 0; tx < 3; tx++) {
+      db.begin();
+      for (int i = tx * 100; i < (tx + 1) * 100; i++) {
+        final OElement person = db.newElement("Person");
+        person.setProperty("name", "name " + i);
+        db.save(person);
+      }
+      db.commit();
+    }
+
+    final OAbstractPaginatedStorage storage = storage(db);
+    storage.getWALInstance().flush();
+    final Set<String> indexFiles = indexFiles(storage);
+    Assert.assertFalse(indexFiles.isEmpty());
+
+    copyDataWithoutClose();
+
+    try (ODatabaseSession crashed = orientDB.open(CRASHED_NAME, "admin", "admin")) {
+      Assert.assertTrue(storage(crashed).wereDataRestoredAfterOpen());
+
+      // A REBUILT INDEX WOULD BE WRITTEN TO NEW FILES, NUMBERED AGAIN FROM THE FIRST ONE
+      Assert.assertEquals(indexFiles, indexFiles(storage(crashed)));
+
+      Assert.assertEquals(300, count(crashed, "name"));
+      Assert.assertEquals(1, count(crashed, "42"));
+    }
+  }
+
+  private static OAbstractPaginatedStorage storage(final ODatabaseSession session) {
+    return (OAbstractPaginatedStorage) ((ODatabaseDocumentInternal) session).getStorage();
+  }
+
+  /** @return names of the storage files which keep the Lucene files of the index */
+  private static Set<String> indexFiles(final OAbstractPaginatedStorage storage) {
+    final Set<String> files = new TreeSet<>();
+    for (final String file : storage.getWriteCache().files().keySet()) {
+      if (file.startsWith(INDEX_NAME + ".") && file.endsWith(OLuceneStorageFile.EXTENSION)) {
+        files.add(file);
+      }
+    }
+    return files;
+  }
+
+  private static long count(final ODatabaseSession session, final String query) {
+    try (OResultSet result =
+        session.query("select from Person where name lucene '" + query + "'")) {
+      return result.stream().count();
+    }
+  }
+
+  /** Copies the files of the open base storage, naming the WAL files after the copy. */
+  private void copyDataWithoutClose() throws IOException {
+    final File baseDir = new File(buildDir, BASE_NAME);
+    final File copyDir = new File(buildDir, CRASHED_NAME);
+    Assert.assertTrue(copyDir.mkdir());
+
+    final File[] storageFiles = baseDir.listFiles();
+    Assert.assertNotNull(storageFiles);
+
+    for (final File storageFile : storageFiles) {
+      final String fileName = storageFile.getName();
+      if (fileName.equals("dirty.fl")) {
+        continue;
+      }
+
+      final String copyName =
+          fileName.startsWith(BASE_NAME + ".")
+              ? CRASHED_NAME + fileName.substring(BASE_NAME.length())
+              : fileName;
+      Files.copy(storageFile.toPath(), new File(copyDir, copyName).toPath());
+    }
+  }
+}
@@ -497,7 +497,7 @@ public class OClientConnectionManager {
                     entry.getValue().getRemoteAddress());
           }
         }
-        if (protocol.isAlive()) {
+        if (protocol.isServing()) {
           if (protocol instanceof ONetworkProtocolBinary
               && ((ONetworkProtocolBinary) protocol).getRequestType() == -1) {
             try {
@@ -516,13 +516,13 @@ public class OClientConnectionManager {
 
     for (ONetworkProtocol protocol : toWait) {
       try {
-        protocol.join(
+        protocol.waitServing(
             server
                 .getContextConfiguration()
                 .getValueAsInteger(OGlobalConfiguration.SERVER_CHANNEL_CLEAN_DELAY));
-        if (protocol.isAlive()) {
+        if (protocol.isServing()) {
           protocol.interrupt();
-          protocol.join();
+          protocol.waitServing(0);
         }
       } catch (InterruptedException e) {
         Thread.currentThread().interrupt();
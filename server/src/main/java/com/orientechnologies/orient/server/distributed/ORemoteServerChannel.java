@@ -23,19 +23,32 @@ import com.orientechnologies.orient.client.binary.OChannelBinarySynchClient;
 import com.orientechnologies.orient.client.remote.OBinaryRequest;
 import com.orientechnologies.orient.client.remote.message.ODistributedConnectRequest;
 import com.orientechnologies.orient.client.remote.message.ODistributedConnectResponse;
+import com.orientechnologies.orient.core.compression.OCompression;
+import com.orientechnologies.orient.core.compression.OCompressionFactory;
 import com.orientechnologies.orient.core.config.OContextConfiguration;
 import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.enterprise.channel.binary.OChannelBinaryProtocol;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Remote server channel.
+ * Remote server channel. Requests and responses are queued in an outbox and the sender thread
+ * writes all the pending ones at once, with a single flush. If the remote server supports it, the
+ * pending distributed messages are coalesced in one {@link
+ * OChannelBinaryProtocol#DISTRIBUTED_BATCH} frame, compressed when they are big.
  *
  * @author Luca Garulli
  */
@@ -65,6 +78,15 @@ public class ORemoteServerChannel {
   private static final int MAX_CONSECUTIVE_ERRORS = 10;
   private ExecutorService executor;
 
+  private final Queue<Object> outbox = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger outboxSize = new AtomicInteger();
+  private final AtomicLong sentBatches = new AtomicLong();
+  private final AtomicLong sentMessages = new AtomicLong();
+  private final int batchMaxMessages;
+  private final long batchFlushWindow;
+  private final OCompression batchCompression;
+  private final int batchCompressionThreshold;
+
   public ORemoteServerChannel(
       final ORemoteServerAvailabilityCheck check,
       String localNodeName,
@@ -87,6 +109,20 @@ public class ORemoteServerChannel {
     long timeout =
         contextConfig.getValueAsLong(OGlobalConfiguration.DISTRIBUTED_TX_EXPIRE_TIMEOUT) / 2;
     protocolVersion = currentProtocolVersion;
+    batchMaxMessages =
+        Math.max(
+            1, contextConfig.getValueAsInteger(OGlobalConfiguration.DISTRIBUTED_BATCH_MAX_MESSAGES));
+    batchFlushWindow =
+        contextConfig.getValueAsLong(OGlobalConfiguration.DISTRIBUTED_BATCH_FLUSH_WINDOW);
+    final String compression =
+        contextConfig.getValueAsString(OGlobalConfiguration.DISTRIBUTED_BATCH_COMPRESSION);
+    batchCompression =
+        compression == null || compression.isEmpty()
+            ? null
+            : OCompressionFactory.INSTANCE.getCompression(compression, null);
+    batchCompressionThreshold =
+        contextConfig.getValueAsInteger(
+            OGlobalConfiguration.DISTRIBUTED_BATCH_COMPRESSION_THRESHOLD);
     RejectedExecutionHandler reject =
         (task, executor) -> {
           try {
@@ -108,74 +144,144 @@ public class ORemoteServerChannel {
     return protocolVersion;
   }
 
+  public int getQueueDepth() {
+    return outboxSize.get();
+  }
+
+  public long getSentBatches() {
+    return sentBatches.get();
+  }
+
+  public long getSentMessages() {
+    return sentMessages.get();
+  }
+
   public void sendBinaryRequest(OBinaryRequest request) {
-    executor.execute(
-        () -> {
-          networkOperation(
-              request.getCommand(),
-              () -> {
-                request.write(channel, null);
-                channel.flush();
-                return null;
-              },
-              "Cannot send distributed request " + request.getClass(),
-              MAX_RETRY,
-              true);
-        });
+    enqueue(request);
   }
 
   public interface OStorageRemoteOperation<T> {
     T execute() throws IOException;
   }
 
-  private <T> void executeNetworkOperation(
-      final byte operationId,
-      final OStorageRemoteOperation<T> operation,
-      final String errorMessage,
-      final int maxRetry,
-      final boolean autoReconnect) {
-    executor.execute(
-        () -> {
-          networkOperation(
-              OChannelBinaryProtocol.DISTRIBUTED_REQUEST,
-              operation,
-              errorMessage,
-              maxRetry,
-              autoReconnect);
-        });
-  }
-
   public void sendRequest(final ODistributedRequest request) {
-    executeNetworkOperation(
-        OChannelBinaryProtocol.DISTRIBUTED_REQUEST,
-        () -> {
-          request.toStream(channel.getDataOutput());
-          channel.flush();
-          return null;
-        },
-        "Cannot send distributed request " + request.getClass(),
-        MAX_RETRY,
-        true);
+    enqueue(request);
     this.prevRequest = request;
   }
 
   public void sendResponse(final ODistributedResponse response) {
-    OStorageRemoteOperation<Object> remoteOperation =
+    enqueue(response);
+    this.prevResponse = response;
+  }
+
+  /**
+   * Queues the message and schedules a flush. Every message schedules its own flush so the bounded
+   * executor queue still pushes back when the remote server is slow, but the first flush drains
+   * all the pending messages and the next ones find the outbox empty.
+   */
+  private void enqueue(final Object message) {
+    outbox.add(message);
+    outboxSize.incrementAndGet();
+    executor.execute(this::flushOutbox);
+  }
+
+  private void flushOutbox() {
+    if (outbox.isEmpty()) return;
+
+    if (batchFlushWindow > 0 && outboxSize.get() < batchMaxMessages)
+      // GIVE THE OTHER THREADS THE CHANCE TO QUEUE MORE MESSAGES IN THE SAME FRAME
+      try {
+        Thread.sleep(batchFlushWindow);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+
+    final List<Object> messages = new ArrayList<>();
+    Object message;
+    while (messages.size() < batchMaxMessages && (message = outbox.poll()) != null)
+      messages.add(message);
+    if (messages.isEmpty()) return;
+    outboxSize.addAndGet(-messages.size());
+
+    sentBatches.incrementAndGet();
+    sentMessages.addAndGet(messages.size());
+
+    networkOperation(
         () -> {
-          response.toStream(channel.getDataOutput());
+          writeMessages(messages);
           channel.flush();
           return null;
-        };
-    networkOperation(
-        OChannelBinaryProtocol.DISTRIBUTED_RESPONSE,
-        remoteOperation,
-        "Cannot send response back to the sender node '"
-            + response.getSenderNodeName()
-            + "' "
-            + response.getClass(),
+        },
+        "Cannot send " + messages.size() + " distributed message(s) to the server '" + server + "'",
         MAX_RETRY,
         true);
-    this.prevResponse = response;
+  }
+
+  private void writeMessages(final List<Object> messages) throws IOException {
+    final boolean batchSupported =
+        protocolVersion >= ORemoteServerController.BATCH_PROTOCOL_VERSION;
+
+    // BINARY REQUESTS CANNOT BE PART OF A BATCH: THEY SPLIT THE MESSAGES IN RUNS TO KEEP THE ORDER
+    final List<Object> run = new ArrayList<>();
+    for (Object message : messages) {
+      if (message instanceof OBinaryRequest) {
+        writeRun(run, batchSupported);
+        run.clear();
+        writeMessage(message);
+      } else run.add(message);
+    }
+    writeRun(run, batchSupported);
+  }
+
+  private void writeRun(final List<Object> run, final boolean batchSupported)
+      throws IOException {
+    if (run.size() > 1 && batchSupported) writeBatch(run);
+    else for (Object message : run) writeMessage(message);
+  }
+
+  private void writeMessage(final Object message) throws IOException {
+    if (message instanceof ODistributedRequest) {
+      channel.beginRequest(OChannelBinaryProtocol.DISTRIBUTED_REQUEST, sessionId, sessionToken);
+      ((ODistributedRequest) message).toStream(channel.getDataOutput());
+    } else if (message instanceof ODistributedResponse) {
+      channel.beginRequest(OChannelBinaryProtocol.DISTRIBUTED_RESPONSE, sessionId, sessionToken);
+      ((ODistributedResponse) message).toStream(channel.getDataOutput());
+    } else {
+      final OBinaryRequest request = (OBinaryRequest) message;
+      channel.beginRequest(request.getCommand(), sessionId, sessionToken);
+      request.write(channel, null);
+    }
+  }
+
+  /**
+   * Writes the messages in one frame: the compression used (null if none), the number of messages
+   * and the payload with the type of every message followed by its content.
+   */
+  private void writeBatch(final List<Object> messages) throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    final DataOutputStream out = new DataOutputStream(bytes);
+    for (Object message : messages) {
+      if (message instanceof ODistributedRequest) {
+        out.writeByte(OChannelBinaryProtocol.DISTRIBUTED_REQUEST);
+        ((ODistributedRequest) message).toStream(out);
+      } else {
+        out.writeByte(OChannelBinaryProtocol.DISTRIBUTED_RESPONSE);
+        ((ODistributedResponse) message).toStream(out);
+      }
+    }
+    out.flush();
+
+    byte[] payload = bytes.toByteArray();
+    String compression = null;
+    if (batchCompression != null && payload.length >= batchCompressionThreshold) {
+      payload = batchCompression.compress(payload);
+      compression = batchCompression.name();
+    }
+
+    channel.beginRequest(OChannelBinaryProtocol.DISTRIBUTED_BATCH, sessionId, sessionToken);
+    channel.writeString(compression);
+    channel.writeInt(messages.size());
+    channel.writeBytes(payload);
   }
 
   public void connect() throws IOException {
@@ -228,19 +334,34 @@ public class ORemoteServerChannel {
     sessionToken = null;
   }
 
-  protected synchronized <T> T networkOperation(
+  protected <T> T networkOperation(
       final byte operationId,
       final OStorageRemoteOperation<T> operation,
       final String errorMessage,
       final int maxRetry,
       final boolean autoReconnect) {
+    return networkOperation(
+        () -> {
+          channel.beginRequest(operationId, sessionId, sessionToken);
+          return operation.execute();
+        },
+        errorMessage,
+        maxRetry,
+        autoReconnect);
+  }
+
+  /** Executes the operation, that writes its own request headers, retrying on network errors. */
+  protected synchronized <T> T networkOperation(
+      final OStorageRemoteOperation<T> operation,
+      final String errorMessage,
+      final int maxRetry,
+      final boolean autoReconnect) {
     Exception lastException = null;
     for (int retry = 1;
         retry <= maxRetry && totalConsecutiveErrors < MAX_CONSECUTIVE_ERRORS;
         ++retry) {
       try {
         channel.setWaitResponseTimeout();
-        channel.beginRequest(operationId, sessionId, sessionToken);
 
         T result = operation.execute();
 
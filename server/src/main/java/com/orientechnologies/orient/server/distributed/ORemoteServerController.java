@@ -19,7 +19,10 @@
  */
 package com.orientechnologies.orient.server.distributed;
 
+import com.orientechnologies.common.profiler.OAbstractProfiler;
+import com.orientechnologies.common.profiler.OProfiler;
 import com.orientechnologies.orient.client.remote.OBinaryRequest;
+import com.orientechnologies.orient.core.Orient;
 import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import java.io.IOException;
 
@@ -35,9 +38,12 @@ public class ORemoteServerController {
   private final ORemoteServerChannel[] responseChannels;
   private volatile int responseChannelIndex = 0;
 
+  private final String server;
   private int protocolVersion = -1;
-  public static final int CURRENT_PROTOCOL_VERSION = 2;
+  public static final int CURRENT_PROTOCOL_VERSION = 3;
   public static final int MIN_SUPPORTED_PROTOCOL_VERSION = 2;
+  /** First protocol version able to receive many messages in one DISTRIBUTED_BATCH frame. */
+  public static final int BATCH_PROTOCOL_VERSION = 3;
 
   public ORemoteServerController(
       final ORemoteServerAvailabilityCheck check,
@@ -49,6 +55,7 @@ public class ORemoteServerController {
       throws IOException {
     if (user == null) throw new IllegalArgumentException("User is null");
     if (passwd == null) throw new IllegalArgumentException("Password is null");
+    this.server = iServer;
 
     ODistributedServerLog.debug(
         this,
@@ -74,6 +81,8 @@ public class ORemoteServerController {
       responseChannels[i] =
           new ORemoteServerChannel(
               check, localNodeName, iServer, iURL, user, passwd, CURRENT_PROTOCOL_VERSION);
+
+    registerMetrics();
   }
 
   public void sendRequest(final ODistributedRequest req) {
@@ -89,11 +98,63 @@ public class ORemoteServerController {
   }
 
   public void close() {
+    Orient.instance()
+        .getProfiler()
+        .unregisterHookValue("distributed.node." + server + ".batchSize");
+    Orient.instance()
+        .getProfiler()
+        .unregisterHookValue("distributed.node." + server + ".queueDepth");
+
     for (int i = 0; i < requestChannels.length; ++i) requestChannels[i].close();
 
     for (int i = 0; i < responseChannels.length; ++i) responseChannels[i].close();
   }
 
+  private void registerMetrics() {
+    Orient.instance()
+        .getProfiler()
+        .registerHookValue(
+            "distributed.node." + server + ".batchSize",
+            "Average number of messages sent in one network frame to the server",
+            OProfiler.METRIC_TYPE.SIZE,
+            new OAbstractProfiler.OProfilerHookValue() {
+              @Override
+              public Object getValue() {
+                long batches = 0;
+                long messages = 0;
+                for (ORemoteServerChannel channel : requestChannels) {
+                  batches += channel.getSentBatches();
+                  messages += channel.getSentMessages();
+                }
+                for (ORemoteServerChannel channel : responseChannels) {
+                  batches += channel.getSentBatches();
+                  messages += channel.getSentMessages();
+                }
+                return batches > 0 ? messages / batches : 0L;
+              }
+            },
+            "distributed.node.*.batchSize");
+
+    Orient.instance()
+        .getProfiler()
+        .registerHookValue(
+            "distributed.node." + server + ".queueDepth",
+            "Number of messages waiting to be sent to the server",
+            OProfiler.METRIC_TYPE.SIZE,
+            new OAbstractProfiler.OProfilerHookValue() {
+              @Override
+              public Object getValue() {
+                long pending = 0;
+                for (ORemoteServerChannel channel : requestChannels)
+                  pending += channel.getQueueDepth();
+                for (ORemoteServerChannel channel : responseChannels)
+                  pending += channel.getQueueDepth();
+                return pending;
+              }
+            },
+            "distributed.node.*.queueDepth");
+  }
+
   public int getProtocolVersion() {
     return protocolVersion;
   }
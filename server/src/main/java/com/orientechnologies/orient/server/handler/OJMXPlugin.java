@@ -22,6 +22,8 @@ package com.orientechnologies.orient.server.handler;
 
 import com.orientechnologies.common.exception.OException;
 import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.common.metrics.OMetricsMBean;
+import com.orientechnologies.common.metrics.OMetricsRegistry;
 import com.orientechnologies.orient.core.OConstants;
 import com.orientechnologies.orient.core.Orient;
 import com.orientechnologies.orient.core.exception.OConfigurationException;
@@ -34,7 +36,9 @@ import javax.management.ObjectName;
 
 public class OJMXPlugin extends OServerPluginAbstract {
   private ObjectName onProfiler;
+  private ObjectName onMetrics;
   private boolean profilerManaged;
+  private boolean metricsManaged = true;
 
   public OJMXPlugin() {}
 
@@ -47,10 +51,16 @@ public class OJMXPlugin extends OServerPluginAbstract {
           return;
       } else if (param.name.equalsIgnoreCase("profilerManaged"))
         profilerManaged = Boolean.parseBoolean(param.value);
+      else if (param.name.equalsIgnoreCase("metricsManaged"))
+        metricsManaged = Boolean.parseBoolean(param.value);
     }
 
     OLogManager.instance()
-        .info(this, "JMX plugin installed and active: profilerManaged=%s", profilerManaged);
+        .info(
+            this,
+            "JMX plugin installed and active: profilerManaged=%s metricsManaged=%s",
+            profilerManaged,
+            metricsManaged);
 
     final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
 
@@ -62,6 +72,13 @@ public class OJMXPlugin extends OServerPluginAbstract {
         mBeanServer.registerMBean(Orient.instance().getProfiler(), onProfiler);
       }
 
+      if (metricsManaged) {
+        // REGISTER THE METRICS
+        onMetrics = new ObjectName("com.orientechnologies.common.metrics:type=OMetrics");
+        if (mBeanServer.isRegistered(onMetrics)) mBeanServer.unregisterMBean(onMetrics);
+        mBeanServer.registerMBean(new OMetricsMBean(OMetricsRegistry.instance()), onMetrics);
+      }
+
     } catch (Exception e) {
       throw OException.wrapException(
           new OConfigurationException("Cannot initialize JMX server"), e);
@@ -79,6 +96,8 @@ public class OJMXPlugin extends OServerPluginAbstract {
       MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
       if (onProfiler != null)
         if (mBeanServer.isRegistered(onProfiler)) mBeanServer.unregisterMBean(onProfiler);
+      if (onMetrics != null)
+        if (mBeanServer.isRegistered(onMetrics)) mBeanServer.unregisterMBean(onMetrics);
 
     } catch (Exception e) {
       OLogManager.instance()
@@ -20,6 +20,7 @@
 package com.orientechnologies.orient.server.network.protocol;
 
 import com.orientechnologies.common.thread.OSoftThread;
+import com.orientechnologies.common.thread.OVirtualThreads;
 import com.orientechnologies.orient.client.binary.OBinaryRequestExecutor;
 import com.orientechnologies.orient.core.config.OContextConfiguration;
 import com.orientechnologies.orient.enterprise.channel.OChannel;
@@ -31,6 +32,7 @@ import java.net.Socket;
 
 public abstract class ONetworkProtocol extends OSoftThread {
   protected OServer server;
+  private volatile Thread runner = this;
 
   public ONetworkProtocol(final ThreadGroup group, final String name) {
     super(group, name);
@@ -60,5 +62,35 @@ public abstract class ONetworkProtocol extends OSoftThread {
     return server;
   }
 
+  /**
+   * Starts serving the connection. With <code>virtualThread</code> the loop runs on a new virtual
+   * thread, if the JVM supports them, instead of this thread, which is never started.
+   */
+  protected void startServing(final boolean virtualThread) {
+    if (virtualThread && OVirtualThreads.isAvailable()) {
+      final Thread thread = OVirtualThreads.newThread(getName(), this);
+      thread.setUncaughtExceptionHandler(getUncaughtExceptionHandler());
+      runner = thread;
+      thread.start();
+    } else start();
+  }
+
+  /** Tells if the thread serving the connection, platform or virtual, is running. */
+  public boolean isServing() {
+    return runner.isAlive();
+  }
+
+  /** Waits for the thread serving the connection to terminate. */
+  public void waitServing(final long millis) throws InterruptedException {
+    runner.join(millis);
+  }
+
+  @Override
+  public void interrupt() {
+    final Thread thread = runner;
+    if (thread != this) thread.interrupt();
+    super.interrupt();
+  }
+
   public abstract OBinaryRequestExecutor executor(OClientConnection connection);
 }
@@ -26,6 +26,10 @@ import com.orientechnologies.common.exception.OErrorCode;
 import com.orientechnologies.common.exception.OException;
 import com.orientechnologies.common.io.OIOException;
 import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.common.metrics.OHistogram;
+import com.orientechnologies.common.metrics.OMetricsRegistry;
+import com.orientechnologies.common.thread.OThreadPoolExecutorWithLogging;
+import com.orientechnologies.common.thread.OVirtualThreads;
 import com.orientechnologies.orient.client.binary.OBinaryRequestExecutor;
 import com.orientechnologies.orient.client.remote.OBinaryRequest;
 import com.orientechnologies.orient.client.remote.OBinaryResponse;
@@ -35,6 +39,7 @@ import com.orientechnologies.orient.client.remote.message.OBinaryPushResponse;
 import com.orientechnologies.orient.client.remote.message.OError37Response;
 import com.orientechnologies.orient.client.remote.message.OErrorResponse;
 import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.compression.OCompressionFactory;
 import com.orientechnologies.orient.core.config.OContextConfiguration;
 import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
@@ -73,7 +78,10 @@ import com.orientechnologies.orient.server.distributed.ODistributedServerManager
 import com.orientechnologies.orient.server.network.OServerNetworkListener;
 import com.orientechnologies.orient.server.network.protocol.ONetworkProtocol;
 import com.orientechnologies.orient.server.plugin.OServerPluginHelper;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.ObjectOutputStream;
 import java.io.PrintStream;
@@ -83,11 +91,28 @@ import java.net.SocketException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.logging.Level;
 
 public class ONetworkProtocolBinary extends ONetworkProtocol {
+  private static final OHistogram REQUESTS =
+      OMetricsRegistry.instance()
+          .histogram("server.network.binary.requests", "Time to execute a binary request");
+  private static final OHistogram DISTRIBUTED_REQUESTS =
+      OMetricsRegistry.instance()
+          .histogram(
+              "server.network.distributed.requests",
+              "Time to receive a request or a response from another server");
+
   protected final Level logClientExceptions;
   protected final boolean logClientFullStackTrace;
   protected OChannelBinary channel;
@@ -95,12 +120,18 @@ public class ONetworkProtocolBinary extends ONetworkProtocol {
   protected int clientTxId;
   protected boolean okSent;
   private boolean tokenConnection = true;
-  private long requests = 0;
+  // UPDATED ALSO BY THE THREADS WHICH EXECUTE MULTIPLEXED REQUESTS
+  private final AtomicLong requests = new AtomicLong();
   private HandshakeInfo handshakeInfo;
   private volatile OBinaryPushResponse expectedPushResponse;
   private BlockingQueue<OBinaryPushResponse> pushResponse =
       new SynchronousQueue<OBinaryPushResponse>();
 
+  // REQUESTS OF A MULTIPLEXED CONNECTION ARE EXECUTED CONCURRENTLY, IN ORDER FOR THE SAME SESSION
+  private volatile ExecutorService multiplexingExecutor;
+  private final ConcurrentMap<Integer, CompletableFuture<Void>> multiplexedSessions =
+      new ConcurrentHashMap<>();
+
   private Function<Integer, OBinaryRequest<? extends OBinaryResponse>> factory =
       ONetworkBinaryProtocolFactory.defaultProtocol();
 
@@ -146,13 +177,13 @@ public class ONetworkProtocolBinary extends ONetworkProtocol {
 
     OServerPluginHelper.invokeHandlerCallbackOnSocketAccepted(server, this);
 
-    start();
     setName(
         "OrientDB ("
             + iSocket.getLocalSocketAddress()
             + ") <- BinaryClient ("
             + iSocket.getRemoteSocketAddress()
             + ")");
+    startServing(iConfig.getValueAsBoolean(OGlobalConfiguration.NETWORK_VIRTUAL_THREADS));
   }
 
   @Override
@@ -165,6 +196,8 @@ public class ONetworkProtocolBinary extends ONetworkProtocol {
 
     sendShutdown();
     channel.close();
+    final ExecutorService executor = multiplexingExecutor;
+    if (executor != null) executor.shutdown();
 
     OServerPluginHelper.invokeHandlerCallbackOnSocketDestroyed(server, this);
   }
@@ -179,7 +212,8 @@ public class ONetworkProtocolBinary extends ONetworkProtocol {
 
   private boolean isDistributed(int requestType) {
     return requestType == OChannelBinaryProtocol.DISTRIBUTED_REQUEST
-        || requestType == OChannelBinaryProtocol.DISTRIBUTED_RESPONSE;
+        || requestType == OChannelBinaryProtocol.DISTRIBUTED_RESPONSE
+        || requestType == OChannelBinaryProtocol.DISTRIBUTED_BATCH;
   }
 
   private boolean isCoordinated(int requestType) {
@@ -226,6 +260,10 @@ public class ONetworkProtocolBinary extends ONetworkProtocol {
         handlePushResponse();
         return;
       }
+      if (requestType == OChannelBinaryProtocol.REQUEST_MULTIPLEX) {
+        handleMultiplex();
+        return;
+      }
 
       clientTxId = channel.readInt();
       // GET THE CONNECTION IF EXIST
@@ -235,6 +273,8 @@ public class ONetworkProtocolBinary extends ONetworkProtocol {
         coordinatedRequest(connection, requestType, clientTxId);
       } else if (isDistributed(requestType)) {
         distributedRequest(connection, requestType, clientTxId);
+      } else if (multiplexingExecutor != null && isMultiplexable(requestType)) {
+        multiplexedRequest(connection, requestType, clientTxId);
       } else sessionRequest(connection, requestType, clientTxId);
     } catch (IOException e) {
       // if an exception arrive to this point we need to kill the current socket.
@@ -263,6 +303,178 @@ public class ONetworkProtocolBinary extends ONetworkProtocol {
     this.factory = ONetworkBinaryProtocolFactory.matchProtocol(protocolVersion);
   }
 
+  private void handleMultiplex() {
+    if (handshakeInfo == null) {
+      OLogManager.instance()
+          .warn(this, "Multiplexing requested without handshake, closing the connection");
+      sendShutdown();
+      return;
+    }
+    if (multiplexingExecutor != null) return;
+
+    final int maxThreads =
+        Math.max(
+            1,
+            server
+                .getContextConfiguration()
+                .getValueAsInteger(OGlobalConfiguration.NETWORK_BINARY_MULTIPLEXING_MAX_THREADS));
+    final String threadName = getName() + " (multiplexed)";
+    final boolean virtualThreads =
+        server
+                .getContextConfiguration()
+                .getValueAsBoolean(OGlobalConfiguration.NETWORK_VIRTUAL_THREADS)
+            && OVirtualThreads.isAvailable();
+    final ThreadPoolExecutor executor =
+        new OThreadPoolExecutorWithLogging(
+            maxThreads,
+            maxThreads,
+            30,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            r -> {
+              if (virtualThreads) return OVirtualThreads.newThread(threadName, r);
+              final Thread thread = new Thread(server.getThreadGroup(), r, threadName);
+              thread.setDaemon(true);
+              return thread;
+            });
+    executor.allowCoreThreadTimeOut(true);
+    multiplexingExecutor = executor;
+  }
+
+  /**
+   * Requests that change the session itself or that use the state of this protocol instance while
+   * executing are executed by the network thread also on multiplexed connections.
+   */
+  private boolean isMultiplexable(int requestType) {
+    return !isHandshaking(requestType)
+        && requestType != OChannelBinaryProtocol.REQUEST_DB_CLOSE
+        && requestType != OChannelBinaryProtocol.REQUEST_COMMAND
+        && requestType != OChannelBinaryProtocol.SUBSCRIBE_PUSH
+        && requestType != OChannelBinaryProtocol.UNSUBSCRIBE_PUSH;
+  }
+
+  /**
+   * Reads a request of a multiplexed connection and schedules its execution, so the network thread
+   * can read the next request, possibly of another session, before the response is sent.
+   */
+  private void multiplexedRequest(
+      final OClientConnection connection, final int requestType, final int clientTxId)
+      throws IOException {
+    final OBinaryRequest<? extends OBinaryResponse> request = factory.apply(requestType);
+    if (request == null) {
+      OLogManager.instance().error(this, "Request not supported. Code: " + requestType, null);
+      handleConnectionError(
+          connection, new ONetworkProtocolException("Request not supported. Code: " + requestType));
+      sendShutdown();
+      return;
+    }
+
+    final byte[] tokenBytes = channel.readBytes();
+    int protocolVersion = OChannelBinaryProtocol.CURRENT_PROTOCOL_VERSION;
+    ORecordSerializer serializer =
+        ORecordSerializerNetworkFactory.INSTANCE.forProtocol(protocolVersion);
+    if (connection != null) {
+      protocolVersion = connection.getData().protocolVersion;
+      serializer = connection.getData().getSerializer();
+    }
+    try {
+      request.read(channel, protocolVersion, serializer);
+    } catch (IOException e) {
+      OLogManager.instance()
+          .debug(this, "I/O Error on client clientId=%d reqType=%d", clientTxId, requestType, e);
+      sendShutdown();
+      return;
+    } finally {
+      OSerializationThreadLocal.INSTANCE.get().clear();
+    }
+
+    final Runnable task =
+        () -> executeMultiplexed(connection, request, requestType, clientTxId, tokenBytes);
+    final CompletableFuture<Void> next =
+        multiplexedSessions.compute(
+            clientTxId,
+            (id, previous) ->
+                previous == null
+                    ? CompletableFuture.runAsync(task, multiplexingExecutor)
+                    : previous.thenRunAsync(task, multiplexingExecutor));
+    // REGISTERED OUTSIDE OF compute() BECAUSE AN ALREADY COMPLETED FUTURE RUNS IT IMMEDIATELY
+    next.whenComplete((result, error) -> multiplexedSessions.remove(clientTxId, next));
+  }
+
+  private void executeMultiplexed(
+      OClientConnection connection,
+      final OBinaryRequest<? extends OBinaryResponse> request,
+      final int requestType,
+      final int clientTxId,
+      final byte[] tokenBytes) {
+    final long timer = Orient.instance().getProfiler().startChrono();
+    final long requestStart = System.nanoTime();
+    OLogManager.instance().debug(this, "Request id:" + clientTxId + " type:" + requestType);
+
+    boolean acquired = false;
+    OBinaryResponse response = null;
+    RuntimeException exception = null;
+    try {
+      connection = onBeforeOperationalRequest(connection, requestType, clientTxId, tokenBytes);
+      acquired = true;
+      connection.getData().commandInfo = request.getDescription();
+      connection.setProtocol(this);
+
+      if (request.requireServerUser()) {
+        checkServerAccess(request.requiredServerRole(), connection);
+      }
+      if (request.requireDatabaseSession() && connection.getDatabase() == null)
+        throw new ODatabaseException("Required database session");
+
+      response = request.execute(connection.getExecutor());
+    } catch (RuntimeException t) {
+      if (acquired && connection.getDatabase() != null) {
+        final OSBTreeCollectionManager collectionManager =
+            connection.getDatabase().getSbTreeCollectionManager();
+        if (collectionManager != null) collectionManager.clearChangedIds();
+      }
+      exception = t;
+    } catch (Error err) {
+      sendShutdown();
+      if (acquired) connection.release();
+      throw err;
+    }
+
+    try {
+      if (exception != null) {
+        sendError(acquired ? connection : null, requestType, clientTxId, exception);
+      } else if (response != null) {
+        beginResponse();
+        try {
+          sendOk(connection, requestType, clientTxId);
+          response.write(
+              channel, connection.getData().protocolVersion, connection.getData().getSerializer());
+        } finally {
+          endResponse();
+        }
+      }
+    } catch (IOException e) {
+      OLogManager.instance()
+          .debug(this, "I/O Error on client clientId=%d reqType=%d", clientTxId, requestType, e);
+      sendShutdown();
+    } catch (RuntimeException e) {
+      OLogManager.instance().error(this, "Error while binary response serialization", e);
+      sendShutdown();
+    } finally {
+      if (acquired) afterOperationRequest(connection, requestType);
+      OSerializationThreadLocal.INSTANCE.get().clear();
+      ODatabaseRecordThreadLocal.instance().remove();
+      Orient.instance()
+          .getProfiler()
+          .stopChrono(
+              "server.network.requests",
+              "Total received requests",
+              timer,
+              "server.network.requests");
+      REQUESTS.recordSince(requestStart);
+    }
+  }
+
   public void setHandshakeInfo(HandshakeInfo handshakeInfo) {
     this.handshakeInfo = handshakeInfo;
   }
@@ -284,6 +496,7 @@ public class ONetworkProtocolBinary extends ONetworkProtocol {
     long timer = 0;
 
     timer = Orient.instance().getProfiler().startChrono();
+    final long requestStart = System.nanoTime();
     OLogManager.instance().debug(this, "Request id:" + clientTxId + " type:" + requestType);
 
     try {
@@ -426,6 +639,7 @@ public class ONetworkProtocolBinary extends ONetworkProtocol {
               "Total received requests",
               timer,
               "server.network.requests");
+      REQUESTS.recordSince(requestStart);
 
       OSerializationThreadLocal.INSTANCE.get().clear();
     }
@@ -480,6 +694,7 @@ public class ONetworkProtocolBinary extends ONetworkProtocol {
 
   private void distributedRequest(OClientConnection connection, int requestType, int clientTxId) {
     long timer = 0;
+    final long requestStart = System.nanoTime();
     try {
 
       timer = Orient.instance().getProfiler().startChrono();
@@ -490,15 +705,19 @@ public class ONetworkProtocolBinary extends ONetworkProtocol {
       try {
         switch (requestType) {
           case OChannelBinaryProtocol.DISTRIBUTED_REQUEST:
-            executeDistributedRequest(connection);
+            executeDistributedRequest(connection, channel.getDataInput());
             break;
 
           case OChannelBinaryProtocol.DISTRIBUTED_RESPONSE:
-            executeDistributedResponse(connection);
+            executeDistributedResponse(connection, channel.getDataInput());
+            break;
+
+          case OChannelBinaryProtocol.DISTRIBUTED_BATCH:
+            executeDistributedBatch(connection);
             break;
         }
       } finally {
-        requests++;
+        requests.incrementAndGet();
         afterOperationRequest(connection);
       }
 
@@ -520,11 +739,17 @@ public class ONetworkProtocolBinary extends ONetworkProtocol {
               "Total received requests",
               timer,
               "server.network.requests");
+      DISTRIBUTED_REQUESTS.recordSince(requestStart);
     }
   }
 
   private OClientConnection onBeforeOperationalRequest(
       OClientConnection connection, byte[] tokenBytes) {
+    return onBeforeOperationalRequest(connection, requestType, clientTxId, tokenBytes);
+  }
+
+  private OClientConnection onBeforeOperationalRequest(
+      OClientConnection connection, int requestType, int clientTxId, byte[] tokenBytes) {
     try {
       if (connection == null && requestType == OChannelBinaryProtocol.REQUEST_DB_CLOSE) return null;
 
@@ -583,7 +808,7 @@ public class ONetworkProtocolBinary extends ONetworkProtocol {
   }
 
   private void waitDistribuedIsOnline(OClientConnection connection) {
-    if (requests == 0) {
+    if (requests.get() == 0) {
       final ODistributedServerManager manager = server.getDistributedManager();
       if (manager != null && connection.getDatabase() != null)
         try {
@@ -604,7 +829,11 @@ public class ONetworkProtocolBinary extends ONetworkProtocol {
   }
 
   protected void afterOperationRequest(OClientConnection connection) {
-    requests++;
+    afterOperationRequest(connection, requestType);
+  }
+
+  private void afterOperationRequest(OClientConnection connection, int requestType) {
+    requests.incrementAndGet();
     OServerPluginHelper.invokeHandlerCallbackOnAfterClientRequest(
         server, connection, (byte) requestType);
 
@@ -643,7 +872,33 @@ public class ONetworkProtocolBinary extends ONetworkProtocol {
     }
   }
 
-  private void executeDistributedRequest(OClientConnection connection) throws IOException {
+  private void executeDistributedBatch(OClientConnection connection) throws IOException {
+    final String compression = channel.readString();
+    final int messages = channel.readInt();
+    byte[] payload = channel.readBytes();
+    if (compression != null)
+      payload = OCompressionFactory.INSTANCE.getCompression(compression, null).uncompress(payload);
+
+    final DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+    for (int i = 0; i < messages; ++i) {
+      final byte type = in.readByte();
+      switch (type) {
+        case OChannelBinaryProtocol.DISTRIBUTED_REQUEST:
+          executeDistributedRequest(connection, in);
+          break;
+
+        case OChannelBinaryProtocol.DISTRIBUTED_RESPONSE:
+          executeDistributedResponse(connection, in);
+          break;
+
+        default:
+          throw new ODistributedException("Unknown message type " + type + " in distributed batch");
+      }
+    }
+  }
+
+  private void executeDistributedRequest(OClientConnection connection, DataInput in)
+      throws IOException {
     setDataCommandInfo(connection, "Distributed request");
 
     checkServerAccess("server.replication", connection);
@@ -651,7 +906,7 @@ public class ONetworkProtocolBinary extends ONetworkProtocol {
     final ODistributedServerManager manager = server.getDistributedManager();
     final ODistributedRequest req = new ODistributedRequest(manager);
 
-    req.fromStream(channel.getDataInput());
+    req.fromStream(in);
 
     final String dbName = req.getDatabaseName();
     ODistributedDatabase ddb = null;
@@ -672,7 +927,8 @@ public class ONetworkProtocolBinary extends ONetworkProtocol {
     }
   }
 
-  private void executeDistributedResponse(OClientConnection connection) throws IOException {
+  private void executeDistributedResponse(OClientConnection connection, DataInput in)
+      throws IOException {
     setDataCommandInfo(connection, "Distributed response");
 
     checkServerAccess("server.replication", connection);
@@ -680,7 +936,7 @@ public class ONetworkProtocolBinary extends ONetworkProtocol {
     final ODistributedServerManager manager = server.getDistributedManager();
     final ODistributedResponse response = new ODistributedResponse();
 
-    response.fromStream(channel.getDataInput());
+    response.fromStream(in);
 
     if (ODistributedServerLog.isDebugEnabled())
       ODistributedServerLog.debug(
@@ -705,6 +961,15 @@ public class ONetworkProtocolBinary extends ONetworkProtocol {
   protected void sendError(
       final OClientConnection connection, final int iClientTxId, final Throwable t)
       throws IOException {
+    sendError(connection, requestType, iClientTxId, t);
+  }
+
+  private void sendError(
+      final OClientConnection connection,
+      final int requestType,
+      final int iClientTxId,
+      final Throwable t)
+      throws IOException {
     channel.acquireWriteLock();
     try {
 
@@ -841,9 +1106,14 @@ public class ONetworkProtocolBinary extends ONetworkProtocol {
   }
 
   protected void sendOk(OClientConnection connection, final int iClientTxId) throws IOException {
+    okSent = true;
+    sendOk(connection, requestType, iClientTxId);
+  }
+
+  private void sendOk(OClientConnection connection, final int requestType, final int iClientTxId)
+      throws IOException {
     channel.writeByte(OChannelBinaryProtocol.RESPONSE_STATUS_OK);
     channel.writeInt(iClientTxId);
-    okSent = true;
     if (handshakeInfo != null) {
       byte[] renewedToken = null;
       if (connection != null && connection.getToken() != null) {
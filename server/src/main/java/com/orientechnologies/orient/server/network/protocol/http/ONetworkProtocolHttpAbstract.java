@@ -21,6 +21,8 @@ package com.orientechnologies.orient.server.network.protocol.http;
 
 import com.orientechnologies.common.concur.lock.OLockException;
 import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.common.metrics.OHistogram;
+import com.orientechnologies.common.metrics.OMetricsRegistry;
 import com.orientechnologies.orient.core.Orient;
 import com.orientechnologies.orient.core.config.OContextConfiguration;
 import com.orientechnologies.orient.core.config.OGlobalConfiguration;
@@ -64,6 +66,7 @@ import com.orientechnologies.orient.server.network.protocol.http.command.get.OSe
 import com.orientechnologies.orient.server.network.protocol.http.command.get.OServerCommandGetFileDownload;
 import com.orientechnologies.orient.server.network.protocol.http.command.get.OServerCommandGetIndex;
 import com.orientechnologies.orient.server.network.protocol.http.command.get.OServerCommandGetListDatabases;
+import com.orientechnologies.orient.server.network.protocol.http.command.get.OServerCommandGetMetrics;
 import com.orientechnologies.orient.server.network.protocol.http.command.get.OServerCommandGetPing;
 import com.orientechnologies.orient.server.network.protocol.http.command.get.OServerCommandGetQuery;
 import com.orientechnologies.orient.server.network.protocol.http.command.get.OServerCommandGetSSO;
@@ -115,6 +118,9 @@ import java.util.zip.GZIPInputStream;
 public abstract class ONetworkProtocolHttpAbstract extends ONetworkProtocol
     implements ONetworkHttpExecutor {
   private static final String COMMAND_SEPARATOR = "|";
+  private static final OHistogram REQUESTS =
+      OMetricsRegistry.instance()
+          .histogram("server.network.http.requests", "Time to execute an HTTP request");
   private static final Charset utf8 = Charset.forName("utf8");
   private static int requestMaxContentLength; // MAX = 10Kb
   private static int socketTimeout;
@@ -131,6 +137,7 @@ public abstract class ONetworkProtocolHttpAbstract extends ONetworkProtocol
   private String[] additionalResponseHeaders;
   private String listeningAddress = "?";
   private OContextConfiguration configuration;
+  private long requestStart = -1;
 
   public ONetworkProtocolHttpAbstract(OServer server) {
     super(server.getThreadGroup(), "IO-HTTP");
@@ -740,6 +747,7 @@ public abstract class ONetworkProtocolHttpAbstract extends ONetworkProtocol
     try {
       channel.socket.setSoTimeout(socketTimeout);
       connection.getStats().lastCommandReceived = -1;
+      requestStart = -1;
 
       char c = (char) channel.read();
 
@@ -750,6 +758,7 @@ public abstract class ONetworkProtocolHttpAbstract extends ONetworkProtocol
 
       channel.socket.setSoTimeout(socketTimeout);
       connection.getStats().lastCommandReceived = System.currentTimeMillis();
+      requestStart = System.nanoTime();
 
       request = new OHttpRequestImpl(this, channel.inStream, connection.getData(), configuration);
 
@@ -874,6 +883,7 @@ public abstract class ONetworkProtocolHttpAbstract extends ONetworkProtocol
                 "Total received requests",
                 connection.getStats().lastCommandReceived,
                 "server.network.requests");
+      if (requestStart > -1) REQUESTS.recordSince(requestStart);
 
       request = null;
       response = null;
@@ -964,6 +974,7 @@ public abstract class ONetworkProtocolHttpAbstract extends ONetworkProtocol
     cmdManager.registerCommand(new OServerCommandGetFileDownload());
     cmdManager.registerCommand(new OServerCommandGetIndex());
     cmdManager.registerCommand(new OServerCommandGetListDatabases());
+    cmdManager.registerCommand(new OServerCommandGetMetrics());
     cmdManager.registerCommand(new OServerCommandIsEnterprise());
     cmdManager.registerCommand(new OServerCommandGetExportDatabase());
     cmdManager.registerCommand(new OServerCommandPatchDocument());
@@ -0,0 +1,313 @@
+package com.orientechnologies.orient.server.distributed;
+
+import com.orientechnologies.orient.core.compression.OCompressionFactory;
+import com.orientechnologies.orient.core.compression.impl.OGZIPCompression;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.enterprise.channel.binary.OChannelBinaryProtocol;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks the frames written by {@link ORemoteServerChannel} to a fake remote server, which
+ * negotiates the distributed protocol version and decodes the frames it receives.
+ */
+public class ORemoteServerChannelTest {
+  private static final ORemoteServerAvailabilityCheck CHECK =
+      new ORemoteServerAvailabilityCheck() {
+        @Override
+        public boolean isNodeAvailable(String node) {
+          return true;
+        }
+
+        @Override
+        public void nodeDisconnected(String node) {}
+      };
+
+  private int maxMessages;
+  private long flushWindow;
+  private String compression;
+  private int compressionThreshold;
+
+  private FakeServer server;
+  private ORemoteServerChannel channel;
+
+  @Before
+  public void before() {
+    maxMessages = OGlobalConfiguration.DISTRIBUTED_BATCH_MAX_MESSAGES.getValueAsInteger();
+    flushWindow = OGlobalConfiguration.DISTRIBUTED_BATCH_FLUSH_WINDOW.getValueAsLong();
+    compression = OGlobalConfiguration.DISTRIBUTED_BATCH_COMPRESSION.getValueAsString();
+    compressionThreshold =
+        OGlobalConfiguration.DISTRIBUTED_BATCH_COMPRESSION_THRESHOLD.getValueAsInteger();
+
+    // THE FIRST MESSAGE WAITS FOR THE OTHER ONES SENT BY THE TEST
+    OGlobalConfiguration.DISTRIBUTED_BATCH_FLUSH_WINDOW.setValue(1000L);
+  }
+
+  @After
+  public void after() throws IOException {
+    if (channel != null) channel.close();
+    if (server != null) server.close();
+
+    OGlobalConfiguration.DISTRIBUTED_BATCH_MAX_MESSAGES.setValue(maxMessages);
+    OGlobalConfiguration.DISTRIBUTED_BATCH_FLUSH_WINDOW.setValue(flushWindow);
+    OGlobalConfiguration.DISTRIBUTED_BATCH_COMPRESSION.setValue(compression);
+    OGlobalConfiguration.DISTRIBUTED_BATCH_COMPRESSION_THRESHOLD.setValue(compressionThreshold);
+  }
+
+  @Test
+  public void testOutboxIsFlushedInOneBatch() throws Exception {
+    connect(ORemoteServerController.CURRENT_PROTOCOL_VERSION);
+    Assert.assertEquals(
+        ORemoteServerController.BATCH_PROTOCOL_VERSION, channel.getDistributedProtocolVersion());
+
+    sendResponses(0, 5);
+
+    final Frame frame = server.nextFrame();
+    Assert.assertEquals(OChannelBinaryProtocol.DISTRIBUTED_BATCH, frame.type);
+    Assert.assertNull(frame.compression);
+    assertResponses(frame, 0, 5);
+
+    Assert.assertEquals(1, channel.getSentBatches());
+    Assert.assertEquals(5, channel.getSentMessages());
+    Assert.assertEquals(0, channel.getQueueDepth());
+  }
+
+  @Test
+  public void testOutboxIsSplitInBatchesOfMaxMessages() throws Exception {
+    OGlobalConfiguration.DISTRIBUTED_BATCH_MAX_MESSAGES.setValue(2);
+    connect(ORemoteServerController.CURRENT_PROTOCOL_VERSION);
+
+    sendResponses(0, 5);
+
+    Frame frame = server.nextFrame();
+    Assert.assertEquals(OChannelBinaryProtocol.DISTRIBUTED_BATCH, frame.type);
+    assertResponses(frame, 0, 2);
+
+    frame = server.nextFrame();
+    Assert.assertEquals(OChannelBinaryProtocol.DISTRIBUTED_BATCH, frame.type);
+    assertResponses(frame, 2, 4);
+
+    // A SINGLE MESSAGE IS NOT WRAPPED IN A BATCH
+    frame = server.nextFrame();
+    Assert.assertEquals(OChannelBinaryProtocol.DISTRIBUTED_RESPONSE, frame.type);
+    assertResponses(frame, 4, 5);
+
+    Assert.assertEquals(3, channel.getSentBatches());
+    Assert.assertEquals(5, channel.getSentMessages());
+  }
+
+  @Test
+  public void testBigBatchIsCompressed() throws Exception {
+    OGlobalConfiguration.DISTRIBUTED_BATCH_COMPRESSION.setValue(OGZIPCompression.NAME);
+    OGlobalConfiguration.DISTRIBUTED_BATCH_COMPRESSION_THRESHOLD.setValue(0);
+    connect(ORemoteServerController.CURRENT_PROTOCOL_VERSION);
+
+    sendResponses(0, 3);
+
+    final Frame frame = server.nextFrame();
+    Assert.assertEquals(OChannelBinaryProtocol.DISTRIBUTED_BATCH, frame.type);
+    Assert.assertEquals(OGZIPCompression.NAME, frame.compression);
+    assertResponses(frame, 0, 3);
+  }
+
+  @Test
+  public void testNoBatchesToOldServer() throws Exception {
+    connect(ORemoteServerController.MIN_SUPPORTED_PROTOCOL_VERSION);
+    Assert.assertEquals(
+        ORemoteServerController.MIN_SUPPORTED_PROTOCOL_VERSION,
+        channel.getDistributedProtocolVersion());
+
+    sendResponses(0, 3);
+
+    for (int i = 0; i < 3; i++) {
+      final Frame frame = server.nextFrame();
+      Assert.assertEquals(OChannelBinaryProtocol.DISTRIBUTED_RESPONSE, frame.type);
+      assertResponses(frame, i, i + 1);
+    }
+
+    // THE MESSAGES ARE STILL FLUSHED TOGETHER
+    Assert.assertEquals(1, channel.getSentBatches());
+    Assert.assertEquals(3, channel.getSentMessages());
+  }
+
+  private void connect(final int serverProtocolVersion) throws IOException {
+    server = new FakeServer(serverProtocolVersion);
+    channel =
+        new ORemoteServerChannel(
+            CHECK,
+            "local",
+            "remote",
+            "127.0.0.1:" + server.getPort(),
+            "user",
+            "password",
+            ORemoteServerController.CURRENT_PROTOCOL_VERSION);
+    Assert.assertEquals(
+        ORemoteServerController.CURRENT_PROTOCOL_VERSION, server.getClientProtocolVersion());
+  }
+
+  private void sendResponses(final int from, final int to) {
+    for (int i = from; i < to; i++) {
+      channel.sendResponse(
+          new ODistributedResponse(
+              null, new ODistributedRequestId(1, i), "remote", "local", "response " + i));
+    }
+  }
+
+  private static void assertResponses(final Frame frame, final int from, final int to) {
+    Assert.assertEquals(to - from, frame.responses.size());
+    for (int i = from; i < to; i++) {
+      final ODistributedResponse response = frame.responses.get(i - from);
+      Assert.assertEquals(i, response.getRequestId().getMessageId());
+      Assert.assertEquals("response " + i, response.getPayload());
+    }
+  }
+
+  private static final class Frame {
+    private byte type;
+    private String compression;
+    private final List<ODistributedResponse> responses = new ArrayList<>();
+  }
+
+  /**
+   * Accepts one connection, answers the distributed connect with the smaller of its protocol
+   * version and the one of the client, then decodes the frames of distributed responses.
+   */
+  private static final class FakeServer implements Runnable {
+    private final int protocolVersion;
+    private final ServerSocket serverSocket;
+    private final Thread thread;
+    private final BlockingQueue<Frame> frames = new LinkedBlockingQueue<>();
+    private volatile int clientProtocolVersion = -1;
+    private volatile Throwable failure;
+
+    private FakeServer(final int protocolVersion) throws IOException {
+      this.protocolVersion = protocolVersion;
+      serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+      thread = new Thread(this, "Fake distributed server");
+      thread.setDaemon(true);
+      thread.start();
+    }
+
+    private int getPort() {
+      return serverSocket.getLocalPort();
+    }
+
+    private int getClientProtocolVersion() {
+      return clientProtocolVersion;
+    }
+
+    private Frame nextFrame() throws InterruptedException {
+      final Frame frame = frames.poll(10, TimeUnit.SECONDS);
+      if (frame == null) {
+        throw new AssertionError("No frame was received", failure);
+      }
+      return frame;
+    }
+
+    @Override
+    public void run() {
+      try (Socket socket = serverSocket.accept()) {
+        final DataInputStream in = new DataInputStream(socket.getInputStream());
+        final DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+        out.writeShort(OChannelBinaryProtocol.CURRENT_PROTOCOL_VERSION);
+        out.flush();
+
+        Assert.assertEquals(OChannelBinaryProtocol.DISTRIBUTED_CONNECT, in.readByte());
+        readHeader(in);
+        clientProtocolVersion = in.readInt();
+        readString(in);
+        readString(in);
+
+        out.writeByte(OChannelBinaryProtocol.RESPONSE_STATUS_OK);
+        out.writeInt(1);
+        out.writeInt(0);
+        out.writeByte(OChannelBinaryProtocol.DISTRIBUTED_CONNECT);
+        out.writeInt(1);
+        out.writeInt(Math.min(protocolVersion, clientProtocolVersion));
+        out.writeInt(0);
+        out.flush();
+
+        while (true) {
+          final Frame frame = new Frame();
+          try {
+            frame.type = in.readByte();
+          } catch (EOFException e) {
+            return;
+          }
+          readHeader(in);
+
+          if (frame.type == OChannelBinaryProtocol.DISTRIBUTED_BATCH) {
+            frame.compression = readString(in);
+            final int messages = in.readInt();
+            byte[] payload = new byte[in.readInt()];
+            in.readFully(payload);
+            if (frame.compression != null) {
+              payload =
+                  OCompressionFactory.INSTANCE
+                      .getCompression(frame.compression, null)
+                      .uncompress(payload);
+            }
+
+            final DataInputStream batch = new DataInputStream(new ByteArrayInputStream(payload));
+            for (int i = 0; i < messages; i++) {
+              Assert.assertEquals(OChannelBinaryProtocol.DISTRIBUTED_RESPONSE, batch.readByte());
+              frame.responses.add(readResponse(batch));
+            }
+            Assert.assertEquals(-1, batch.read());
+          } else {
+            Assert.assertEquals(OChannelBinaryProtocol.DISTRIBUTED_RESPONSE, frame.type);
+            frame.responses.add(readResponse(in));
+          }
+          frames.add(frame);
+        }
+      } catch (Exception | AssertionError e) {
+        failure = e;
+      }
+    }
+
+    /** Reads the session id and the token which follow the type of a request. */
+    private static void readHeader(final DataInputStream in) throws IOException {
+      in.readInt();
+      final int tokenLength = in.readInt();
+      if (tokenLength > 0) {
+        in.skipBytes(tokenLength);
+      }
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+      final int length = in.readInt();
+      if (length < 0) {
+        return null;
+      }
+      final byte[] bytes = new byte[length];
+      in.readFully(bytes);
+      return new String(bytes, "UTF-8");
+    }
+
+    private static ODistributedResponse readResponse(final DataInputStream in)
+        throws IOException {
+      final ODistributedResponse response = new ODistributedResponse();
+      response.fromStream(in);
+      return response;
+    }
+
+    private void close() throws IOException {
+      serverSocket.close();
+    }
+  }
+}
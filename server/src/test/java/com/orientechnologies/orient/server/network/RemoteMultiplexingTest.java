@@ -0,0 +1,117 @@
+package com.orientechnologies.orient.server.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.orientechnologies.orient.client.remote.ORemoteConnectionManager;
+import com.orientechnologies.orient.client.remote.ORemoteConnectionPool;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseSession;
+import com.orientechnologies.orient.core.db.ODatabaseType;
+import com.orientechnologies.orient.core.db.OrientDB;
+import com.orientechnologies.orient.core.db.OrientDBConfig;
+import com.orientechnologies.orient.core.db.OrientDBInternal;
+import com.orientechnologies.orient.core.db.OrientDBRemote;
+import com.orientechnologies.orient.core.exception.OCommandExecutionException;
+import com.orientechnologies.orient.core.sql.executor.OResultSet;
+import com.orientechnologies.orient.server.OServer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RemoteMultiplexingTest {
+
+  private OServer server;
+  private OrientDB orientDB;
+
+  @Before
+  public void before() throws Exception {
+    server = new OServer(false);
+    server.startup(getClass().getResourceAsStream("orientdb-server-config.xml"));
+    server.activate();
+
+    OrientDBConfig config =
+        OrientDBConfig.builder()
+            .addConfig(OGlobalConfiguration.NETWORK_BINARY_MULTIPLEXING, true)
+            .build();
+    orientDB = new OrientDB("remote:localhost", "root", "root", config);
+    orientDB.create(RemoteMultiplexingTest.class.getSimpleName(), ODatabaseType.MEMORY);
+    try (ODatabaseSession session =
+        orientDB.open(RemoteMultiplexingTest.class.getSimpleName(), "admin", "admin")) {
+      session.createClass("Item");
+    }
+  }
+
+  @Test
+  public void testConcurrentSessionsOnSharedConnection() throws Exception {
+    final int threads = 8;
+    final int items = 50;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<Long>> results = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        final int thread = t;
+        results.add(
+            executor.submit(
+                () -> {
+                  try (ODatabaseSession session =
+                      orientDB.open(
+                          RemoteMultiplexingTest.class.getSimpleName(), "admin", "admin")) {
+                    for (int i = 0; i < items; i++) {
+                      session.command("insert into Item set thread = ?, i = ?", thread, i).close();
+                    }
+                    try (OResultSet rs =
+                        session.query("select count(*) as c from Item where thread = ?", thread)) {
+                      return rs.next().<Long>getProperty("c");
+                    }
+                  }
+                }));
+      }
+      for (Future<Long> result : results) {
+        assertEquals(items, (long) result.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    OrientDBRemote remote = (OrientDBRemote) OrientDBInternal.extract(orientDB);
+    ORemoteConnectionManager connectionManager = remote.getConnectionManager();
+    ORemoteConnectionPool pool =
+        connectionManager.getPool(connectionManager.getURLs().iterator().next());
+    assertNotNull(pool.getShared());
+    assertTrue(pool.getShared().isMultiplexed());
+  }
+
+  @Test
+  public void testSessionKeepsWorkingAfterFailedRequest() {
+    try (ODatabaseSession session =
+        orientDB.open(RemoteMultiplexingTest.class.getSimpleName(), "admin", "admin")) {
+      for (int i = 0; i < 20; i++) {
+        try {
+          session.query("select from NotExistingClass").close();
+          fail();
+        } catch (OCommandExecutionException e) {
+          // expected
+        }
+        session.command("insert into Item set i = ?", i).close();
+      }
+      try (OResultSet rs = session.query("select count(*) as c from Item")) {
+        assertEquals(20L, (long) rs.next().<Long>getProperty("c"));
+      }
+    }
+  }
+
+  @After
+  public void after() {
+    orientDB.drop(RemoteMultiplexingTest.class.getSimpleName());
+    orientDB.close();
+    server.shutdown();
+  }
+}
@@ -0,0 +1,61 @@
+package com.orientechnologies.orient.server.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.orientechnologies.common.thread.OVirtualThreads;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseSession;
+import com.orientechnologies.orient.core.db.ODatabaseType;
+import com.orientechnologies.orient.core.db.OrientDB;
+import com.orientechnologies.orient.core.db.OrientDBConfig;
+import com.orientechnologies.orient.core.sql.executor.OResultSet;
+import com.orientechnologies.orient.server.OClientConnection;
+import com.orientechnologies.orient.server.OServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RemoteVirtualThreadsTest {
+
+  private OServer server;
+  private OrientDB orientDB;
+
+  @Before
+  public void before() throws Exception {
+    OGlobalConfiguration.NETWORK_VIRTUAL_THREADS.setValue(true);
+    server = new OServer(false);
+    server.startup(getClass().getResourceAsStream("orientdb-server-config.xml"));
+    server.activate();
+
+    orientDB = new OrientDB("remote:localhost", "root", "root", OrientDBConfig.defaultConfig());
+    orientDB.create(RemoteVirtualThreadsTest.class.getSimpleName(), ODatabaseType.MEMORY);
+  }
+
+  @Test
+  public void testServeOnVirtualThreads() {
+    try (ODatabaseSession session =
+        orientDB.open(RemoteVirtualThreadsTest.class.getSimpleName(), "admin", "admin")) {
+      session.command("create class Item").close();
+      session.command("insert into Item set name = 'a'").close();
+      try (OResultSet rs = session.query("select from Item")) {
+        assertEquals(1, rs.stream().count());
+      }
+
+      for (OClientConnection connection : server.getClientConnectionManager().getConnections()) {
+        assertTrue(connection.getProtocol().isServing());
+        // THE PROTOCOL THREAD ITSELF IS NEVER STARTED WHEN A VIRTUAL THREAD SERVES THE CONNECTION
+        if (OVirtualThreads.isAvailable()) assertFalse(connection.getProtocol().isAlive());
+      }
+    }
+  }
+
+  @After
+  public void after() {
+    orientDB.drop(RemoteVirtualThreadsTest.class.getSimpleName());
+    orientDB.close();
+    server.shutdown();
+    OGlobalConfiguration.NETWORK_VIRTUAL_THREADS.setValue(false);
+  }
+}
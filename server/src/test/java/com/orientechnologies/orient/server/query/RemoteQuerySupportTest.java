@@ -1,13 +1,17 @@
 package com.orientechnologies.orient.server.query;
 
+import static com.orientechnologies.orient.core.config.OGlobalConfiguration.QUERY_REMOTE_RESULTSET_MAX_PREFETCHES;
 import static com.orientechnologies.orient.core.config.OGlobalConfiguration.QUERY_REMOTE_RESULTSET_PAGE_SIZE;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import com.orientechnologies.common.io.OFileUtils;
+import com.orientechnologies.orient.client.remote.ORemoteConnectionManager;
+import com.orientechnologies.orient.client.remote.OStorageRemote;
 import com.orientechnologies.orient.core.Orient;
 import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
 import com.orientechnologies.orient.core.db.ODatabaseType;
 import com.orientechnologies.orient.core.db.OrientDB;
 import com.orientechnologies.orient.core.db.OrientDBConfig;
@@ -105,6 +109,49 @@ public class RemoteQuerySupportTest {
     }
   }
 
+  @Test
+  public void testQueryPagesClosedEarly() {
+    for (int i = 0; i < 150; i++) {
+      ODocument doc = new ODocument("Some");
+      doc.setProperty("prop", "value");
+      session.save(doc);
+    }
+
+    final int usedChannels = usedChannels();
+    final int maxPrefetches = QUERY_REMOTE_RESULTSET_MAX_PREFETCHES.getValueAsInteger();
+    final List<OResultSet> results = new ArrayList<>();
+    for (int i = 0; i < maxPrefetches + 2; i++) {
+      OResultSet res = session.query("select from Some");
+      for (int j = 0; j < 15; j++) {
+        assertTrue(res.hasNext());
+        assertEquals(res.next().getProperty("prop"), "value");
+      }
+      results.add(res);
+    }
+
+    // EVERY RESULT SET IS IN ITS SECOND PAGE, ONLY SOME OF THEM KEEP A CHANNEL FOR THE THIRD ONE
+    assertTrue(usedChannels() <= usedChannels + maxPrefetches);
+
+    for (OResultSet res : results) {
+      res.close();
+    }
+    assertEquals(usedChannels, usedChannels());
+
+    try (OResultSet res = session.query("select from Some")) {
+      assertEquals(150, res.stream().count());
+    }
+  }
+
+  private int usedChannels() {
+    ORemoteConnectionManager connectionManager =
+        ((OStorageRemote) ((ODatabaseDocumentInternal) session).getStorage()).connectionManager;
+    int used = 0;
+    for (String url : connectionManager.getURLs()) {
+      used += connectionManager.getPool(url).getPool().getResourcesOutCount();
+    }
+    return used;
+  }
+
   @Test(expected = ODatabaseException.class)
   public void testQueryKilledSession() {
     for (int i = 0; i < 150; i++) {